@@ -13,20 +13,39 @@ package org.eclipse.che.api.core.notification;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -41,22 +60,46 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>By default subscribers are called by the thread which publishes an event, one after another.
+ * Subscriber which doesn't need to complete its work before publisher continues may opt into
+ * asynchronous delivery either with the {@link AsyncSubscriber} annotation or by subscribing with
+ * {@link #subscribeAsync(EventSubscriber, Class, Function)}. Such subscribers are called by the shared
+ * pool of threads, events are delivered to them in the order they are published, either for the
+ * subscriber as a whole or for each ordering key (e.g. workspace ID) if the key function is provided.
+ *
+ * <p>Delivery of events is measured, see {@link #getSubscribersStatistics()}, subscribers which
+ * handle an event longer than {@value #SLOW_SUBSCRIBER_THRESHOLD_MS}ms are reported to the log.
+ * When {@code che.event_service.statistics_log_period_sec} is configured the statistics
+ * are periodically written to the log.
+ *
  * @author andrew00x
  */
 @Singleton
 public class EventService {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
+    /** Subscribers which handle an event longer than this number of milliseconds are considered slow. */
+    public static final long SLOW_SUBSCRIBER_THRESHOLD_MS = 1000;
+
+    private static final int ASYNC_THREADS            = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_DELIVERIES_PER_RUN   = 32;
+    private static final int TERMINATION_TIMEOUT_SECS = 10;
+
     private static final int CACHE_NUM  = 1 << 2;
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
     private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private final ConcurrentMap<Class<?>, Set<Subscription>>    subscribersByEventType;
+    private final ConcurrentMap<LaneKey, Lane>                  lanes;
+
+    private ExecutorService          executor;
+    private ScheduledExecutorService statisticsLogger;
 
     @SuppressWarnings("unchecked")
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
+        lanes = new ConcurrentHashMap<>();
         typeCache = new LoadingCache[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
@@ -96,16 +139,16 @@ public class EventService {
         if (event == null) {
             throw new IllegalArgumentException("Null event.");
         }
+        final long publishedNanos = System.nanoTime();
         final Class<?> eventClass = event.getClass();
         for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-            final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-            if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-                for (EventSubscriber eventSubscriber : eventSubscribers) {
-                    try {
-                        LOG.debug("Publish event {} for {}", event, eventSubscriber);
-                        eventSubscriber.onEvent(event);
-                    } catch (RuntimeException e) {
-                        LOG.error(e.getMessage(), e);
+            final Set<Subscription> subscriptions = subscribersByEventType.get(clazz);
+            if (subscriptions != null && !subscriptions.isEmpty()) {
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.async) {
+                        dispatchAsync(subscription, event, publishedNanos);
+                    } else {
+                        deliver(subscription, event, publishedNanos);
                     }
                 }
             }
@@ -122,7 +165,7 @@ public class EventService {
      */
     public void subscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, isAsync(subscriber), null);
     }
 
     /**
@@ -133,19 +176,130 @@ public class EventService {
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, isAsync(subscriber), null);
+    }
+
+    /**
+     * Subscribe event listener which receives events asynchronously.
+     * Events are delivered to the subscriber in the order they are published.
+     *
+     * @param subscriber
+     *         event subscriber
+     */
+    public void subscribeAsync(EventSubscriber<?> subscriber) {
+        final Class<?> eventType = getEventType(subscriber);
+        doSubscribe(subscriber, eventType, true, null);
+    }
+
+    /**
+     * Subscribe event listener which receives events asynchronously. Events with the same
+     * ordering key are delivered to the subscriber in the order they are published, while
+     * events with different keys may be delivered concurrently.
+     *
+     * @param subscriber
+     *         event subscriber
+     * @param eventType
+     *         the event to subscribe to
+     * @param orderingKey
+     *         function which returns ordering key of an event (e.g. workspace ID),
+     *         when it is {@code null} all the events are delivered in order
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber,
+                                   Class<T> eventType,
+                                   Function<? super T, ?> orderingKey) {
+        doSubscribe(subscriber, eventType, true, (Function<Object, ?>)orderingKey);
+    }
+
+    /** Returns statistics of events delivery to all the subscribers. */
+    public List<SubscriberStatistics> getSubscribersStatistics() {
+        final List<SubscriberStatistics> statistics = new ArrayList<>();
+        for (Set<Subscription> subscriptions : subscribersByEventType.values()) {
+            for (Subscription subscription : subscriptions) {
+                statistics.add(subscription.getStatistics());
+            }
+        }
+        return statistics;
     }
 
-    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-        Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+    /**
+     * Starts periodic logging of the subscribers statistics.
+     *
+     * @param periodSec
+     *         period in seconds of logging, not positive value disables logging
+     */
+    @Inject(optional = true)
+    public synchronized void startStatisticsLogging(@Named("che.event_service.statistics_log_period_sec") long periodSec) {
+        if (periodSec <= 0 || statisticsLogger != null) {
+            return;
+        }
+        statisticsLogger = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("EventServiceStatistics")
+                                                                                                .setUncaughtExceptionHandler(
+                                                                                                        LoggingUncaughtExceptionHandler
+                                                                                                                .getInstance())
+                                                                                                .setDaemon(true)
+                                                                                                .build());
+        statisticsLogger.scheduleWithFixedDelay(this::logSubscribersStatistics, periodSec, periodSec, SECONDS);
+    }
+
+    /**
+     * Stops delivery of events to asynchronous subscribers,
+     * waits a bit for the delivery of already published events.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (statisticsLogger != null) {
+            statisticsLogger.shutdownNow();
+            statisticsLogger = null;
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(TERMINATION_TIMEOUT_SECS, SECONDS)) {
+                executor.shutdownNow();
+                LOG.warn("Unable to deliver all the pending events to asynchronous subscribers");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Logs the summary of the subscribers statistics and, at debug level, statistics of each subscriber. */
+    void logSubscribersStatistics() {
+        final List<SubscriberStatistics> statistics = getSubscribersStatistics();
+        if (statistics.isEmpty()) {
+            return;
+        }
+        long delivered = 0;
+        long failed = 0;
+        long slow = 0;
+        long pending = 0;
+        long maxHandlingTime = 0;
+        for (SubscriberStatistics subscriberStatistics : statistics) {
+            delivered += subscriberStatistics.getDeliveredEvents();
+            failed += subscriberStatistics.getFailedEvents();
+            slow += subscriberStatistics.getSlowEvents();
+            pending += subscriberStatistics.getPendingEvents();
+            maxHandlingTime = Math.max(maxHandlingTime, subscriberStatistics.getMaxHandlingTime());
+            LOG.debug("{}", subscriberStatistics);
+        }
+        LOG.info("Event subscribers: subscribers {}, delivered {}, failed {}, slow {}, pending {}, max handling time {}ms",
+                 statistics.size(), delivered, failed, slow, pending, maxHandlingTime);
+    }
+
+    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType, boolean async, Function<Object, ?> orderingKey) {
+        Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
-            Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
+            Set<Subscription> newEntries = new CopyOnWriteArraySet<>();
             entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
             if (entries == null) {
                 entries = newEntries;
             }
         }
-        entries.add(subscriber);
+        entries.add(new Subscription(subscriber, eventType, async, orderingKey));
     }
 
     /**
@@ -164,9 +318,9 @@ public class EventService {
     }
 
     private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-        final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+        final Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
-            boolean changed = entries.remove(subscriber);
+            boolean changed = entries.removeIf(subscription -> subscription.subscriber.equals(subscriber));
             if (changed) {
                 if (entries.isEmpty()) {
                     subscribersByEventType.remove(eventType);
@@ -175,6 +329,75 @@ public class EventService {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void deliver(Subscription subscription, Object event, long publishedNanos) {
+        final long startNanos = System.nanoTime();
+        boolean failed = false;
+        try {
+            LOG.debug("Publish event {} for {}", event, subscription.subscriber);
+            subscription.subscriber.onEvent(event);
+        } catch (RuntimeException e) {
+            failed = true;
+            LOG.error(e.getMessage(), e);
+        }
+        final long handlingNanos = System.nanoTime() - startNanos;
+        final boolean slow = NANOSECONDS.toMillis(handlingNanos) > SLOW_SUBSCRIBER_THRESHOLD_MS;
+        if (slow) {
+            LOG.warn("Subscriber {} handled event {} in {}ms", subscription.subscriber, event, NANOSECONDS.toMillis(handlingNanos));
+        }
+        subscription.record(startNanos - publishedNanos, handlingNanos, failed, slow);
+    }
+
+    /** Adds event to the lane of the subscriber and ordering key, schedules the lane if it is not scheduled yet. */
+    private void dispatchAsync(Subscription subscription, Object event, long publishedNanos) {
+        final LaneKey laneKey = new LaneKey(subscription, subscription.orderingKey == null ? null
+                                                                                         : subscription.orderingKey.apply(event));
+        final Lane[] toSchedule = new Lane[1];
+        subscription.pendingEvents.incrementAndGet();
+        lanes.compute(laneKey, (key, lane) -> {
+            if (lane == null) {
+                lane = new Lane(key);
+            }
+            lane.deliveries.add(new Delivery(event, publishedNanos));
+            if (!lane.scheduled) {
+                lane.scheduled = true;
+                toSchedule[0] = lane;
+            }
+            return lane;
+        });
+        if (toSchedule[0] != null) {
+            schedule(toSchedule[0]);
+        }
+    }
+
+    private void schedule(Lane lane) {
+        try {
+            getExecutor().execute(lane);
+        } catch (RejectedExecutionException e) {
+            final Lane removed = lanes.remove(lane.key);
+            if (removed != null) {
+                lane.key.subscription.pendingEvents.addAndGet(-removed.deliveries.size());
+            }
+            LOG.warn("Events to subscriber {} are not delivered, event service is stopped", lane.key.subscription.subscriber);
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(ASYNC_THREADS, new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                                              .setUncaughtExceptionHandler(
+                                                                                                      LoggingUncaughtExceptionHandler
+                                                                                                              .getInstance())
+                                                                                              .setDaemon(true)
+                                                                                              .build());
+        }
+        return executor;
+    }
+
+    private static boolean isAsync(EventSubscriber<?> subscriber) {
+        return subscriber.getClass().isAnnotationPresent(AsyncSubscriber.class);
+    }
+
     private Class<?> getEventType(EventSubscriber<?> subscriber) {
         Class<?> eventType = null;
         Class<?> clazz = subscriber.getClass();
@@ -200,4 +423,153 @@ public class EventService {
         }
         return eventType;
     }
+
+    /** Subscriber registered for a certain type of events, collects statistics of events delivery. */
+    private static class Subscription {
+        final EventSubscriber     subscriber;
+        final Class<?>            eventType;
+        final boolean             async;
+        final Function<Object, ?> orderingKey;
+        final AtomicLong          deliveredEvents;
+        final AtomicLong          failedEvents;
+        final AtomicLong          slowEvents;
+        final AtomicLong          pendingEvents;
+        final AtomicLong          totalDispatchLatencyNanos;
+        final AtomicLong          maxDispatchLatencyNanos;
+        final AtomicLong          totalHandlingNanos;
+        final AtomicLong          maxHandlingNanos;
+
+        Subscription(EventSubscriber subscriber, Class<?> eventType, boolean async, Function<Object, ?> orderingKey) {
+            this.subscriber = subscriber;
+            this.eventType = eventType;
+            this.async = async;
+            this.orderingKey = orderingKey;
+            this.deliveredEvents = new AtomicLong();
+            this.failedEvents = new AtomicLong();
+            this.slowEvents = new AtomicLong();
+            this.pendingEvents = new AtomicLong();
+            this.totalDispatchLatencyNanos = new AtomicLong();
+            this.maxDispatchLatencyNanos = new AtomicLong();
+            this.totalHandlingNanos = new AtomicLong();
+            this.maxHandlingNanos = new AtomicLong();
+        }
+
+        void record(long dispatchLatencyNanos, long handlingNanos, boolean failed, boolean slow) {
+            deliveredEvents.incrementAndGet();
+            if (failed) {
+                failedEvents.incrementAndGet();
+            }
+            if (slow) {
+                slowEvents.incrementAndGet();
+            }
+            totalDispatchLatencyNanos.addAndGet(dispatchLatencyNanos);
+            maxDispatchLatencyNanos.accumulateAndGet(dispatchLatencyNanos, Math::max);
+            totalHandlingNanos.addAndGet(handlingNanos);
+            maxHandlingNanos.accumulateAndGet(handlingNanos, Math::max);
+        }
+
+        SubscriberStatistics getStatistics() {
+            final long delivered = deliveredEvents.get();
+            return new SubscriberStatistics(subscriber.toString(),
+                                            eventType.getName(),
+                                            async,
+                                            delivered,
+                                            failedEvents.get(),
+                                            slowEvents.get(),
+                                            pendingEvents.get(),
+                                            delivered == 0 ? 0 : NANOSECONDS.toMillis(totalDispatchLatencyNanos.get() / delivered),
+                                            NANOSECONDS.toMillis(maxDispatchLatencyNanos.get()),
+                                            delivered == 0 ? 0 : NANOSECONDS.toMillis(totalHandlingNanos.get() / delivered),
+                                            NANOSECONDS.toMillis(maxHandlingNanos.get()));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || obj instanceof Subscription && subscriber.equals(((Subscription)obj).subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return subscriber.hashCode();
+        }
+    }
+
+    /** Identifies the sequence of events which must be delivered to the asynchronous subscriber in order. */
+    private static class LaneKey {
+        final Subscription subscription;
+        final Object       orderingKey;
+
+        LaneKey(Subscription subscription, Object orderingKey) {
+            this.subscription = subscription;
+            this.orderingKey = orderingKey;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LaneKey)) {
+                return false;
+            }
+            final LaneKey other = (LaneKey)obj;
+            return subscription == other.subscription && Objects.equals(orderingKey, other.orderingKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(subscription) + Objects.hashCode(orderingKey);
+        }
+    }
+
+    private static class Delivery {
+        final Object event;
+        final long   publishedNanos;
+
+        Delivery(Object event, long publishedNanos) {
+            this.event = event;
+            this.publishedNanos = publishedNanos;
+        }
+    }
+
+    /**
+     * Events waiting to be delivered to the asynchronous subscriber in order. The lane is changed only
+     * within {@link ConcurrentMap#compute} of the lanes map and it is removed from the map when it is empty,
+     * so at most one thread delivers events of the lane at a time.
+     */
+    private class Lane implements Runnable {
+        final LaneKey         key;
+        final Deque<Delivery> deliveries;
+
+        boolean scheduled;
+
+        Lane(LaneKey key) {
+            this.key = key;
+            this.deliveries = new ArrayDeque<>();
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_DELIVERIES_PER_RUN; i++) {
+                final Delivery delivery = pollDelivery();
+                if (delivery == null) {
+                    return;
+                }
+                key.subscription.pendingEvents.decrementAndGet();
+                deliver(key.subscription, delivery.event, delivery.publishedNanos);
+            }
+            // let the other lanes use the thread, the lane is still scheduled
+            schedule(this);
+        }
+
+        /** Returns the next event to deliver or {@code null} if there are no events, in this case the lane is removed. */
+        private Delivery pollDelivery() {
+            final Delivery[] next = new Delivery[1];
+            lanes.computeIfPresent(key, (laneKey, lane) -> {
+                next[0] = lane.deliveries.poll();
+                return next[0] == null ? null : lane;
+            });
+            return next[0];
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Snapshot of the statistics of events delivery to an {@link EventSubscriber}.
+ *
+ * @see EventService#getSubscribersStatistics()
+ */
+public class SubscriberStatistics {
+    private final String  subscriber;
+    private final String  eventType;
+    private final boolean asynchronous;
+    private final long    deliveredEvents;
+    private final long    failedEvents;
+    private final long    slowEvents;
+    private final long    pendingEvents;
+    private final long    averageDispatchLatency;
+    private final long    maxDispatchLatency;
+    private final long    averageHandlingTime;
+    private final long    maxHandlingTime;
+
+    public SubscriberStatistics(String subscriber,
+                                String eventType,
+                                boolean asynchronous,
+                                long deliveredEvents,
+                                long failedEvents,
+                                long slowEvents,
+                                long pendingEvents,
+                                long averageDispatchLatency,
+                                long maxDispatchLatency,
+                                long averageHandlingTime,
+                                long maxHandlingTime) {
+        this.subscriber = subscriber;
+        this.eventType = eventType;
+        this.asynchronous = asynchronous;
+        this.deliveredEvents = deliveredEvents;
+        this.failedEvents = failedEvents;
+        this.slowEvents = slowEvents;
+        this.pendingEvents = pendingEvents;
+        this.averageDispatchLatency = averageDispatchLatency;
+        this.maxDispatchLatency = maxDispatchLatency;
+        this.averageHandlingTime = averageHandlingTime;
+        this.maxHandlingTime = maxHandlingTime;
+    }
+
+    public String getSubscriber() {
+        return subscriber;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    /** Returns number of events handled by the subscriber, including failed ones. */
+    public long getDeliveredEvents() {
+        return deliveredEvents;
+    }
+
+    /** Returns number of events which handling is failed with an exception. */
+    public long getFailedEvents() {
+        return failedEvents;
+    }
+
+    /** Returns number of events which handling took more than {@link EventService#SLOW_SUBSCRIBER_THRESHOLD_MS}. */
+    public long getSlowEvents() {
+        return slowEvents;
+    }
+
+    /** Returns number of events waiting to be delivered to the asynchronous subscriber. */
+    public long getPendingEvents() {
+        return pendingEvents;
+    }
+
+    /** Returns average time in milliseconds from publishing of an event till the start of its handling. */
+    public long getAverageDispatchLatency() {
+        return averageDispatchLatency;
+    }
+
+    /** Returns max time in milliseconds from publishing of an event till the start of its handling. */
+    public long getMaxDispatchLatency() {
+        return maxDispatchLatency;
+    }
+
+    /** Returns average time in milliseconds spent by the subscriber to handle an event. */
+    public long getAverageHandlingTime() {
+        return averageHandlingTime;
+    }
+
+    /** Returns max time in milliseconds spent by the subscriber to handle an event. */
+    public long getMaxHandlingTime() {
+        return maxHandlingTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriberStatistics{" +
+               "subscriber='" + subscriber + '\'' +
+               ", eventType='" + eventType + '\'' +
+               ", asynchronous=" + asynchronous +
+               ", deliveredEvents=" + deliveredEvents +
+               ", failedEvents=" + failedEvents +
+               ", slowEvents=" + slowEvents +
+               ", pendingEvents=" + pendingEvents +
+               ", averageDispatchLatency=" + averageDispatchLatency +
+               ", maxDispatchLatency=" + maxDispatchLatency +
+               ", averageHandlingTime=" + averageHandlingTime +
+               ", maxHandlingTime=" + maxHandlingTime +
+               '}';
+    }
+}
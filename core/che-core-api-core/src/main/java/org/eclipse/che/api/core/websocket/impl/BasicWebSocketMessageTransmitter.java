@@ -10,15 +10,29 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.SessionMessagesQueue.OverflowPolicy;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
-import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -26,55 +40,176 @@ import static org.slf4j.LoggerFactory.getLogger;
  * If WEB SOCKET session is not opened adds messages to re-sender to try to send
  * them when session will be opened again.
  *
+ * <p>Messages are not sent by the calling thread, they are added to the bounded
+ * queue of the endpoint session and are sent asynchronously, so a slow client
+ * doesn't delay delivery of messages to other clients. Messages which are accumulated
+ * in the queue while the client receives the previous frame are sent in JSON-RPC batches.
+ * Statistics of the queues are periodically written to the log.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
     private static final Logger LOG = getLogger(BasicWebSocketMessageTransmitter.class);
 
-    private final WebSocketSessionRegistry registry;
-    private final MessagesReSender         reSender;
+    private final WebSocketSessionRegistry                    registry;
+    private final MessagesReSender                            reSender;
+    private final int                                         queueCapacity;
+    private final OverflowPolicy                              overflowPolicy;
+    private final int                                         maxBatchMessages;
+    private final int                                         maxBatchLength;
+    private final ConcurrentMap<String, SessionMessagesQueue> queues;
+    private final long                                        statisticsLogPeriodSec;
 
+    private ScheduledExecutorService statisticsLogger;
+
+    /**
+     * @param queueCapacity
+     *         max number of messages which may wait to be sent to a single endpoint
+     * @param overflowPolicy
+     *         what to do when the queue of endpoint is full, either 'drop_oldest' or 'close_session'
+     * @param maxBatchMessages
+     *         max number of messages sent in a single JSON-RPC batch, 1 disables batching
+     * @param maxBatchLength
+     *         max total length of messages sent in a single JSON-RPC batch
+     * @param statisticsLogPeriodSec
+     *         period in seconds of logging the statistics of the queues, not positive value disables logging
+     */
     @Inject
-    public BasicWebSocketMessageTransmitter(WebSocketSessionRegistry registry, MessagesReSender reSender) {
+    public BasicWebSocketMessageTransmitter(WebSocketSessionRegistry registry,
+                                            MessagesReSender reSender,
+                                            @Named("che.websocket.outbound_queue.size") int queueCapacity,
+                                            @Named("che.websocket.outbound_queue.overflow_policy") String overflowPolicy,
+                                            @Named("che.websocket.outbound_queue.batch.max_messages") int maxBatchMessages,
+                                            @Named("che.websocket.outbound_queue.batch.max_length") int maxBatchLength,
+                                            @Named("che.websocket.outbound_queue.statistics_log_period_sec") long statisticsLogPeriodSec) {
         this.registry = registry;
         this.reSender = reSender;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase());
+        this.maxBatchMessages = maxBatchMessages;
+        this.maxBatchLength = maxBatchLength;
+        this.queues = new ConcurrentHashMap<>();
+        this.statisticsLogPeriodSec = statisticsLogPeriodSec;
+    }
+
+    @PostConstruct
+    void startStatisticsLogging() {
+        if (statisticsLogPeriodSec > 0) {
+            statisticsLogger = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("WebSocketQueuesStatistics")
+                                                                                                    .setUncaughtExceptionHandler(
+                                                                                                            LoggingUncaughtExceptionHandler
+                                                                                                                    .getInstance())
+                                                                                                    .setDaemon(true)
+                                                                                                    .build());
+            statisticsLogger.scheduleWithFixedDelay(this::logQueuesStatistics, statisticsLogPeriodSec, statisticsLogPeriodSec, SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopStatisticsLogging() {
+        if (statisticsLogger != null) {
+            statisticsLogger.shutdownNow();
+        }
     }
 
     @Override
-    public synchronized void transmit(String endpointId, String message) {
+    public void transmit(String endpointId, String message) {
         final Optional<Session> sessionOptional = registry.get(endpointId);
 
         if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
             LOG.debug("Session is not registered or closed, adding message to pending");
 
+            final SessionMessagesQueue closedQueue = queues.remove(endpointId);
+            if (closedQueue != null) {
+                resendLater(endpointId, closedQueue);
+            }
             reSender.add(endpointId, message);
         } else {
-            LOG.debug("Session registered and open, sending message");
+            LOG.debug("Session registered and open, queueing message");
 
-            try {
-                sessionOptional.get().getBasicRemote().sendText(message);
-            } catch (IOException e) {
-                LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
-            }
+            getQueue(endpointId, sessionOptional.get()).offer(message);
         }
     }
 
     @Override
-    public synchronized void transmit(String message) {
-        LOG.debug("Broadcasting a web socket transmission: ", message);
-
-        registry.getSessions()
-                .stream()
-                .filter(Session::isOpen)
-                .map(Session::getBasicRemote)
-                .forEach(it -> {
-                    try {
-                        it.sendText(message);
-                    } catch (IOException e) {
-                        LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
-                    }
-                });
+    public void transmit(String message) {
+        LOG.debug("Broadcasting a web socket transmission: {}", message);
+
+        for (String endpointId : registry.getEndpointIds()) {
+            registry.get(endpointId)
+                    .filter(Session::isOpen)
+                    .ifPresent(session -> getQueue(endpointId, session).offer(message));
+        }
+        // forget queues of the endpoints which sessions are closed
+        for (Map.Entry<String, SessionMessagesQueue> entry : queues.entrySet()) {
+            if (!entry.getValue().getSession().isOpen() && queues.remove(entry.getKey(), entry.getValue())) {
+                resendLater(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
+    /** Returns statistics of the outbound queues of all the endpoints which have open sessions. */
+    public List<SessionQueueStatistics> getQueuesStatistics() {
+        return queues.values()
+                     .stream()
+                     .map(SessionMessagesQueue::getStatistics)
+                     .collect(toList());
+    }
+
+    /** Logs the summary of the queues statistics and, at debug level, statistics of each queue. */
+    void logQueuesStatistics() {
+        final List<SessionQueueStatistics> statistics = getQueuesStatistics();
+        if (statistics.isEmpty()) {
+            return;
+        }
+        int queued = 0;
+        long sent = 0;
+        long failed = 0;
+        long dropped = 0;
+        long maxLatency = 0;
+        for (SessionQueueStatistics queueStatistics : statistics) {
+            queued += queueStatistics.getQueueSize();
+            sent += queueStatistics.getSentMessages();
+            failed += queueStatistics.getFailedMessages();
+            dropped += queueStatistics.getDroppedMessages();
+            maxLatency = Math.max(maxLatency, queueStatistics.getMaxSendLatency());
+            LOG.debug("{}", queueStatistics);
+        }
+        LOG.info("Web socket outbound queues: endpoints {}, queued {}, sent {}, failed {}, dropped {}, max send latency {}ms",
+                 statistics.size(), queued, sent, failed, dropped, maxLatency);
+    }
+
+    /**
+     * Returns queue of the session, the new queue is created when endpoint is reconnected with a new session.
+     * Messages which are not sent to the previous session are moved to the head of the new queue.
+     */
+    private SessionMessagesQueue getQueue(String endpointId, Session session) {
+        final SessionMessagesQueue queue = queues.get(endpointId);
+        if (queue != null && queue.getSession() == session) {
+            return queue;
+        }
+        return queues.compute(endpointId, (id, existing) -> {
+            if (existing != null && existing.getSession() == session) {
+                return existing;
+            }
+            final SessionMessagesQueue created = new SessionMessagesQueue(id,
+                                                                          session,
+                                                                          queueCapacity,
+                                                                          overflowPolicy,
+                                                                          maxBatchMessages,
+                                                                          maxBatchLength);
+            if (existing != null) {
+                existing.drain().forEach(created::offer);
+            }
+            return created;
+        });
+    }
+
+    /** Passes messages which are not sent to the closed session to the re-sender, keeping their order. */
+    private void resendLater(String endpointId, SessionMessagesQueue closedQueue) {
+        for (String message : closedQueue.drain()) {
+            reSender.add(endpointId, message);
+        }
+    }
 }
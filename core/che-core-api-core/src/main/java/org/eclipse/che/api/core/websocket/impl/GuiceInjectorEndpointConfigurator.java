@@ -13,18 +13,43 @@ package org.eclipse.che.api.core.websocket.impl;
 import com.google.inject.Injector;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.websocket.Extension;
 import javax.websocket.server.ServerEndpointConfig;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * Allows inject Guice instances on WEB SOCKET endpoint creation.
  *
+ * <p>Also controls negotiation of the 'permessage-deflate' extension,
+ * when it is enabled frames are compressed if the client supports it.
+ *
  * @author Dmitry Kuleshov
  */
 public class GuiceInjectorEndpointConfigurator extends ServerEndpointConfig.Configurator {
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
     @Inject
     private static Injector injector;
 
+    @Inject
+    @Named("che.websocket.permessage_deflate.enabled")
+    private static boolean permessageDeflateEnabled;
+
     public <T> T getEndpointInstance(Class<T> endpointClass) {
         return injector.getInstance(endpointClass);
     }
+
+    @Override
+    public List<Extension> getNegotiatedExtensions(List<Extension> installed, List<Extension> requested) {
+        final List<Extension> negotiated = super.getNegotiatedExtensions(installed, requested);
+        if (permessageDeflateEnabled) {
+            return negotiated;
+        }
+        return negotiated.stream()
+                         .filter(extension -> !PERMESSAGE_DEFLATE.equals(extension.getName()))
+                         .collect(toList());
+    }
 }
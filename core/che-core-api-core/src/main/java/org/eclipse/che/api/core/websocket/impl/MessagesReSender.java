@@ -10,76 +10,62 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
+import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
-import javax.websocket.Session;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period
- * when WEB SOCKET session was closed. If session is closed during re-send process it
- * stops and left messages will be re-sent as WEB SOCKET session becomes open again.
+ * when WEB SOCKET session was closed. Messages are re-sent with the transmitter, so if
+ * session is closed during re-send process left messages are added back and will be
+ * re-sent as WEB SOCKET session becomes open again.
+ *
+ * <p>At most {@value #MAX_MESSAGES} messages are kept for an endpoint,
+ * when the limit is reached the oldest message is dropped.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
-    private static final int MAX_MESSAGES = 100;
+    static final int MAX_MESSAGES = 100;
 
-    private final WebSocketSessionRegistry registry;
+    private final Provider<WebSocketMessageTransmitter> transmitterProvider;
 
-    private final Map<String, List<String>> messagesMap = new HashMap<>();
+    private final ConcurrentMap<String, Deque<String>> messagesMap = new ConcurrentHashMap<>();
 
     @Inject
-    public MessagesReSender(WebSocketSessionRegistry registry) {
-        this.registry = registry;
+    public MessagesReSender(Provider<WebSocketMessageTransmitter> transmitterProvider) {
+        this.transmitterProvider = transmitterProvider;
     }
 
     public void add(String endpointId, String message) {
-        List<String> messages = messagesMap.get(endpointId);
-
-        if (messages == null) {
-            messages = new LinkedList<>();
-            messagesMap.put(endpointId, messages);
-        }
-
-        if (messages.size() <= MAX_MESSAGES) {
+        messagesMap.compute(endpointId, (id, messages) -> {
+            if (messages == null) {
+                messages = new ArrayDeque<>();
+            } else if (messages.size() >= MAX_MESSAGES) {
+                messages.poll();
+            }
             messages.add(message);
-        }
+            return messages;
+        });
     }
 
     public void resend(String endpointId) {
-        final List<String> messages = messagesMap.remove(endpointId);
+        final Deque<String> messages = messagesMap.remove(endpointId);
 
         if (messages == null || messages.isEmpty()) {
             return;
         }
 
-        final Optional<Session> sessionOptional = registry.get(endpointId);
-
-        if (!sessionOptional.isPresent()) {
-            return;
-        }
-
-        final Session session = sessionOptional.get();
-
-        final List<String> backing = new ArrayList<>(messages);
-        messages.clear();
-
-        for (String message : backing) {
-
-            if (session.isOpen()) {
-                session.getAsyncRemote().sendText(message);
-            } else {
-                messages.add(message);
-            }
+        final WebSocketMessageTransmitter transmitter = transmitterProvider.get();
+        for (String message : messages) {
+            transmitter.transmit(endpointId, message);
         }
-
-        messagesMap.put(endpointId, messages);
     }
 }
@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import org.slf4j.Logger;
+
+import javax.websocket.CloseReason;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static javax.websocket.CloseReason.CloseCodes.TRY_AGAIN_LATER;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Bounded queue of messages which are waiting to be sent to a WEB SOCKET session.
+ *
+ * <p>Messages are sent with the asynchronous remote endpoint of the session one by one,
+ * the next message is sent when sending of the previous one is completed. So the thread
+ * which adds message to the queue is never blocked by a slow client. When the queue is full
+ * it is handled according to the {@link OverflowPolicy overflow policy}.
+ *
+ * <p>JSON objects which are waiting in the queue while the previous frame is being sent
+ * are sent together as a single JSON-RPC batch array, which is limited by the number of
+ * messages and by the total length of the batch. So messages are sent without any extra
+ * delay when the client is fast and with many times fewer frames when it is not.
+ */
+class SessionMessagesQueue {
+    private static final Logger LOG = getLogger(SessionMessagesQueue.class);
+
+    /** Defines what happens when a message is added to the full queue. */
+    enum OverflowPolicy {
+        /** The oldest pending message is dropped to free space for the new one. */
+        DROP_OLDEST,
+        /** The session is closed, so the client reconnects and re-fetches the state instead of receiving stale messages. */
+        CLOSE_SESSION
+    }
+
+    private final String         endpointId;
+    private final Session        session;
+    private final int            capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int            maxBatchMessages;
+    private final int            maxBatchLength;
+    private final Deque<Pending> queue;
+
+    private boolean sending;
+    private boolean closed;
+    private boolean overflowReported;
+    private long    sentMessages;
+    private long    sentFrames;
+    private long    failedMessages;
+    private long    droppedMessages;
+    private long    totalSendLatencyNanos;
+    private long    maxSendLatencyNanos;
+
+    /**
+     * @param maxBatchMessages
+     *         max number of messages sent in a single batch, batching is disabled when it is less than 2
+     * @param maxBatchLength
+     *         max total length of messages sent in a single batch, a message which is longer is sent alone
+     */
+    SessionMessagesQueue(String endpointId,
+                         Session session,
+                         int capacity,
+                         OverflowPolicy overflowPolicy,
+                         int maxBatchMessages,
+                         int maxBatchLength) {
+        this.endpointId = endpointId;
+        this.session = session;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.maxBatchMessages = maxBatchMessages;
+        this.maxBatchLength = maxBatchLength;
+        this.queue = new ArrayDeque<>();
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    /** Adds message to the queue, starts sending if there is no message being sent at the moment. */
+    void offer(String message) {
+        List<Pending> first = null;
+        boolean closeSession = false;
+        synchronized (this) {
+            if (closed) {
+                droppedMessages++;
+                return;
+            }
+            if (queue.size() >= capacity) {
+                if (!overflowReported) {
+                    overflowReported = true;
+                    LOG.warn("Outbound messages queue of web socket endpoint '{}' is full, overflow policy: {}", endpointId, overflowPolicy);
+                }
+                if (overflowPolicy == OverflowPolicy.CLOSE_SESSION) {
+                    closed = closeSession = true;
+                    droppedMessages += queue.size() + 1;
+                    queue.clear();
+                } else {
+                    droppedMessages++;
+                    queue.poll();
+                }
+            }
+            if (!closed) {
+                queue.add(new Pending(message));
+                if (!sending) {
+                    sending = true;
+                    first = pollBatch();
+                }
+            }
+        }
+        if (closeSession) {
+            closeSession();
+        } else if (first != null) {
+            send(first);
+        }
+    }
+
+    /**
+     * Closes the queue and returns messages which are not sent yet in the order they were added,
+     * messages which are added after that are dropped.
+     */
+    synchronized List<String> drain() {
+        closed = true;
+        final List<String> messages = new ArrayList<>(queue.size());
+        for (Pending pending : queue) {
+            messages.add(pending.message);
+        }
+        queue.clear();
+        return messages;
+    }
+
+    synchronized SessionQueueStatistics getStatistics() {
+        final long completed = sentMessages + failedMessages;
+        return new SessionQueueStatistics(endpointId,
+                                          queue.size(),
+                                          sentMessages,
+                                          sentFrames,
+                                          failedMessages,
+                                          droppedMessages,
+                                          completed == 0 ? 0 : NANOSECONDS.toMillis(totalSendLatencyNanos / completed),
+                                          NANOSECONDS.toMillis(maxSendLatencyNanos));
+    }
+
+    private void send(List<Pending> first) {
+        List<Pending> batch = first;
+        while (batch != null) {
+            final Completion completion = new Completion(batch);
+            try {
+                session.getAsyncRemote().sendText(toText(batch), completion);
+            } catch (RuntimeException e) {
+                // session is closed or in the invalid state
+                completion.onResult(new SendResult(e));
+            }
+            // messages completed synchronously are sent in this loop instead of recursion from the send handler
+            batch = completion.continueInCaller();
+        }
+    }
+
+    /** Updates statistics and returns next messages to send or {@code null} if the queue is empty. */
+    private synchronized List<Pending> complete(List<Pending> batch, SendResult result) {
+        final long now = System.nanoTime();
+        for (Pending pending : batch) {
+            final long latency = now - pending.queuedNanos;
+            totalSendLatencyNanos += latency;
+            maxSendLatencyNanos = Math.max(maxSendLatencyNanos, latency);
+        }
+        if (result.isOK()) {
+            sentMessages += batch.size();
+            sentFrames++;
+        } else {
+            failedMessages += batch.size();
+            LOG.debug("Error while trying to send a message to web socket endpoint '{}'", endpointId, result.getException());
+        }
+        final List<Pending> next = pollBatch();
+        if (next == null) {
+            sending = false;
+            overflowReported = false;
+        }
+        return next;
+    }
+
+    /**
+     * Polls the head of the queue together with the following JSON objects
+     * which fit the batch limits, returns {@code null} if the queue is empty.
+     */
+    private List<Pending> pollBatch() {
+        final Pending head = queue.poll();
+        if (head == null) {
+            return null;
+        }
+        final List<Pending> batch = new ArrayList<>();
+        batch.add(head);
+        if (isBatchable(head)) {
+            int length = head.message.length();
+            Pending next;
+            while (batch.size() < maxBatchMessages
+                   && (next = queue.peek()) != null
+                   && isBatchable(next)
+                   && length + 1 + next.message.length() <= maxBatchLength) {
+                batch.add(queue.poll());
+                length += next.message.length() + 1;
+            }
+        }
+        return batch;
+    }
+
+    /** Only JSON objects may be batched, as JSON-RPC arrays can't be nested. */
+    private static boolean isBatchable(Pending pending) {
+        return !pending.message.isEmpty() && pending.message.charAt(0) == '{';
+    }
+
+    private static String toText(List<Pending> batch) {
+        if (batch.size() == 1) {
+            return batch.get(0).message;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (Pending pending : batch) {
+            sb.append(sb.length() == 0 ? '[' : ',').append(pending.message);
+        }
+        return sb.append(']').toString();
+    }
+
+    private void closeSession() {
+        try {
+            session.close(new CloseReason(TRY_AGAIN_LATER, "Too many pending messages"));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Error while trying to close web socket session of endpoint '{}'", endpointId, e);
+        }
+    }
+
+    private static class Pending {
+        final String message;
+        final long   queuedNanos;
+
+        Pending(String message) {
+            this.message = message;
+            this.queuedNanos = System.nanoTime();
+        }
+    }
+
+    private class Completion implements SendHandler {
+        private final List<Pending> batch;
+
+        private boolean       callerReturned;
+        private boolean       completed;
+        private List<Pending> next;
+
+        Completion(List<Pending> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            final List<Pending> nextPending = complete(batch, result);
+            synchronized (this) {
+                if (!callerReturned) {
+                    completed = true;
+                    next = nextPending;
+                    return;
+                }
+            }
+            if (nextPending != null) {
+                send(nextPending);
+            }
+        }
+
+        /** Returns next messages to be sent by the caller if sending is completed synchronously. */
+        synchronized List<Pending> continueInCaller() {
+            callerReturned = true;
+            return completed ? next : null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+/**
+ * Snapshot of the state of outbound messages queue of a WEB SOCKET endpoint.
+ *
+ * @see BasicWebSocketMessageTransmitter#getQueuesStatistics()
+ */
+public class SessionQueueStatistics {
+    private final String endpointId;
+    private final int    queueSize;
+    private final long   sentMessages;
+    private final long   sentFrames;
+    private final long   failedMessages;
+    private final long   droppedMessages;
+    private final long   averageSendLatency;
+    private final long   maxSendLatency;
+
+    public SessionQueueStatistics(String endpointId,
+                                  int queueSize,
+                                  long sentMessages,
+                                  long sentFrames,
+                                  long failedMessages,
+                                  long droppedMessages,
+                                  long averageSendLatency,
+                                  long maxSendLatency) {
+        this.endpointId = endpointId;
+        this.queueSize = queueSize;
+        this.sentMessages = sentMessages;
+        this.sentFrames = sentFrames;
+        this.failedMessages = failedMessages;
+        this.droppedMessages = droppedMessages;
+        this.averageSendLatency = averageSendLatency;
+        this.maxSendLatency = maxSendLatency;
+    }
+
+    public String getEndpointId() {
+        return endpointId;
+    }
+
+    /** Returns number of messages waiting to be sent. */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public long getSentMessages() {
+        return sentMessages;
+    }
+
+    /** Returns number of sent frames, it is less than number of sent messages when messages are sent in batches. */
+    public long getSentFrames() {
+        return sentFrames;
+    }
+
+    public long getFailedMessages() {
+        return failedMessages;
+    }
+
+    /** Returns number of messages dropped because of the queue overflow. */
+    public long getDroppedMessages() {
+        return droppedMessages;
+    }
+
+    /** Returns average time in milliseconds from adding a message to the queue till the end of its sending. */
+    public long getAverageSendLatency() {
+        return averageSendLatency;
+    }
+
+    /** Returns max time in milliseconds from adding a message to the queue till the end of its sending. */
+    public long getMaxSendLatency() {
+        return maxSendLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionQueueStatistics{" +
+               "endpointId='" + endpointId + '\'' +
+               ", queueSize=" + queueSize +
+               ", sentMessages=" + sentMessages +
+               ", sentFrames=" + sentFrames +
+               ", failedMessages=" + failedMessages +
+               ", droppedMessages=" + droppedMessages +
+               ", averageSendLatency=" + averageSendLatency +
+               ", maxSendLatency=" + maxSendLatency +
+               '}';
+    }
+}
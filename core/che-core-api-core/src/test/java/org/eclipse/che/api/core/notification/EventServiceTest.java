@@ -11,12 +11,17 @@
 package org.eclipse.che.api.core.notification;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * @author andrew00x
@@ -29,6 +34,11 @@ public class EventServiceTest {
         bus = new EventService();
     }
 
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
     @Test
     public void testSimpleEvent() {
         final List<Object> events = new ArrayList<>();
@@ -200,6 +210,109 @@ public class EventServiceTest {
         }
     }
 
+    @Test
+    public void shouldDeliverEventsToAsyncSubscriberInOrderWithoutBlockingPublisher() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(100);
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribeAsync(new EventSubscriber<Event>() {
+            @Override
+            public void onEvent(Event event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add(event.data);
+                delivered.countDown();
+            }
+        });
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add("event-" + i);
+            bus.publish(new Event("event-" + i));
+        }
+        release.countDown();
+
+        Assert.assertTrue(delivered.await(10, SECONDS));
+        Assert.assertEquals(events, expected);
+    }
+
+    @Test
+    public void shouldDeliverEventsToAnnotatedSubscriberAsynchronously() throws Exception {
+        final AnnotatedAsyncListener listener = new AnnotatedAsyncListener();
+        bus.subscribe(listener);
+
+        bus.publish("hello");
+
+        Assert.assertTrue(listener.delivered.await(10, SECONDS));
+        Assert.assertNotEquals(listener.thread, Thread.currentThread());
+    }
+
+    @Test
+    public void shouldDeliverEventsInOrderForEachOrderingKey() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(200);
+        final List<String> first = Collections.synchronizedList(new ArrayList<>());
+        final List<String> second = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribeAsync(new EventSubscriber<Event>() {
+            @Override
+            public void onEvent(Event event) {
+                (event.data.startsWith("first") ? first : second).add(event.data);
+                delivered.countDown();
+            }
+        }, Event.class, event -> event.data.substring(0, event.data.indexOf(':')));
+
+        final List<String> expectedFirst = new ArrayList<>();
+        final List<String> expectedSecond = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expectedFirst.add("first:" + i);
+            expectedSecond.add("second:" + i);
+            bus.publish(new Event("first:" + i));
+            bus.publish(new Event("second:" + i));
+        }
+
+        Assert.assertTrue(delivered.await(10, SECONDS));
+        Assert.assertEquals(first, expectedFirst);
+        Assert.assertEquals(second, expectedSecond);
+    }
+
+    @Test
+    public void shouldCollectStatisticsOfEventsDelivery() {
+        bus.subscribe(new EventSubscriber<Event>() {
+            @Override
+            public void onEvent(Event event) {
+                if ("fail".equals(event.data)) {
+                    throw new IllegalStateException("failed");
+                }
+            }
+        });
+
+        bus.publish(new Event());
+        bus.publish(new Event("fail"));
+
+        final List<SubscriberStatistics> statistics = bus.getSubscribersStatistics();
+        Assert.assertEquals(statistics.size(), 1);
+        Assert.assertEquals(statistics.get(0).getEventType(), Event.class.getName());
+        Assert.assertFalse(statistics.get(0).isAsynchronous());
+        Assert.assertEquals(statistics.get(0).getDeliveredEvents(), 2);
+        Assert.assertEquals(statistics.get(0).getFailedEvents(), 1);
+        Assert.assertEquals(statistics.get(0).getPendingEvents(), 0);
+    }
+
+    @AsyncSubscriber
+    static class AnnotatedAsyncListener implements EventSubscriber<String> {
+        final CountDownLatch delivered = new CountDownLatch(1);
+
+        volatile Thread thread;
+
+        @Override
+        public void onEvent(String event) {
+            thread = Thread.currentThread();
+            delivered.countDown();
+        }
+    }
+
     static abstract class CustomEvent {
         private final String message;
 
@@ -10,7 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -18,18 +18,23 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
 import javax.websocket.Session;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
-import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 /**
  * Test for {@link BasicWebSocketMessageTransmitter}
@@ -45,29 +50,30 @@ public class BasicWebSocketMessageTransmitterTest {
     private WebSocketSessionRegistry         registry;
     @Mock
     private MessagesReSender                 reSender;
-    @InjectMocks
     private BasicWebSocketMessageTransmitter transmitter;
 
     @Mock
     private Session              session;
     @Mock
-    private RemoteEndpoint.Basic remote;
+    private RemoteEndpoint.Async remote;
 
     @BeforeMethod
     public void setUp() throws Exception {
-        when(session.getBasicRemote()).thenReturn(remote);
+        when(session.getAsyncRemote()).thenReturn(remote);
         when(session.isOpen()).thenReturn(true);
 
         when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
-        when(registry.getSessions()).thenReturn(emptySet());
+        when(registry.getEndpointIds()).thenReturn(singleton(ENDPOINT_ID));
+
+        transmitter = new BasicWebSocketMessageTransmitter(registry, reSender, 10, "drop_oldest", 10, 1024, 0);
     }
 
     @Test
     public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() throws IOException {
         transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-        verify(session).getBasicRemote();
-        verify(remote).sendText(MESSAGE);
+        verify(session).getAsyncRemote();
+        verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
         verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
     }
 
@@ -75,11 +81,20 @@ public class BasicWebSocketMessageTransmitterTest {
     public void shouldSendBroadcastingMessageIfSessionIsOpen() throws IOException {
         transmitter.transmit(MESSAGE);
 
-        verify(session, never()).getBasicRemote();
-        verify(remote, never()).sendText(MESSAGE);
+        verify(remote).sendText(eq(MESSAGE), any(SendHandler.class));
         verify(reSender, never()).add(any(), anyString());
 
-        verify(registry).getSessions();
+        verify(registry).getEndpointIds();
+    }
+
+    @Test
+    public void shouldNotBroadcastMessageIfSessionIsNotOpened() throws IOException {
+        when(session.isOpen()).thenReturn(false);
+
+        transmitter.transmit(MESSAGE);
+
+        verify(session, never()).getAsyncRemote();
+        verify(reSender, never()).add(any(), anyString());
     }
 
     @Test
@@ -88,8 +103,55 @@ public class BasicWebSocketMessageTransmitterTest {
 
         transmitter.transmit(ENDPOINT_ID, MESSAGE);
 
-        verify(session, never()).getBasicRemote();
-        verify(remote, never()).sendText(MESSAGE);
+        verify(session, never()).getAsyncRemote();
+        verify(remote, never()).sendText(eq(MESSAGE), any(SendHandler.class));
         verify(reSender).add(ENDPOINT_ID, MESSAGE);
     }
+
+    @Test
+    public void shouldAddQueuedMessagesToPendingBeforeNewMessageWhenSessionIsClosed() throws IOException {
+        transmitter.transmit(ENDPOINT_ID, "first");
+        transmitter.transmit(ENDPOINT_ID, "second");
+        transmitter.transmit(ENDPOINT_ID, "third");
+        when(session.isOpen()).thenReturn(false);
+
+        transmitter.transmit(ENDPOINT_ID, "fourth");
+
+        // the first message is being sent when session is closed
+        final InOrder inOrder = inOrder(reSender);
+        inOrder.verify(reSender).add(ENDPOINT_ID, "second");
+        inOrder.verify(reSender).add(ENDPOINT_ID, "third");
+        inOrder.verify(reSender).add(ENDPOINT_ID, "fourth");
+        verify(reSender, never()).add(ENDPOINT_ID, "first");
+    }
+
+    @Test
+    public void shouldSendQueuedMessagesToNewSessionWhenEndpointIsReconnected() throws IOException {
+        transmitter.transmit(ENDPOINT_ID, "first");
+        transmitter.transmit(ENDPOINT_ID, "second");
+        final Session newSession = mock(Session.class);
+        final RemoteEndpoint.Async newRemote = mock(RemoteEndpoint.Async.class);
+        when(newSession.getAsyncRemote()).thenReturn(newRemote);
+        when(newSession.isOpen()).thenReturn(true);
+        when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(newSession));
+
+        transmitter.transmit(ENDPOINT_ID, "third");
+
+        verify(newRemote).sendText(eq("second"), any(SendHandler.class));
+        verify(newRemote, never()).sendText(eq("third"), any(SendHandler.class));
+        assertEquals(transmitter.getQueuesStatistics().get(0).getQueueSize(), 1);
+    }
+
+    @Test
+    public void shouldReportStatisticsOfEndpointQueue() throws IOException {
+        transmitter.transmit(ENDPOINT_ID, MESSAGE);
+        transmitter.transmit(ENDPOINT_ID, MESSAGE);
+
+        final List<SessionQueueStatistics> statistics = transmitter.getQueuesStatistics();
+
+        assertEquals(statistics.size(), 1);
+        assertEquals(statistics.get(0).getEndpointId(), ENDPOINT_ID);
+        // the first message is being sent, the second one waits in the queue
+        assertEquals(statistics.get(0).getQueueSize(), 1);
+    }
 }
@@ -10,25 +10,19 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.websocket.impl;
 
-import org.mockito.InjectMocks;
+import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
-import javax.websocket.RemoteEndpoint;
-import javax.websocket.Session;
-
-import java.util.Optional;
-
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link MessagesReSender}
@@ -41,55 +35,20 @@ public class MessagesReSenderTest {
     private static final String ENDPOINT_ID = "id";
 
     @Mock
-    private WebSocketSessionRegistry sessionRegistry;
-    @InjectMocks
-    private MessagesReSender         reSender;
-
-    @Mock
-    private Session               session;
-    @Mock
-    private RemoteEndpoint.Async  endpoint;
+    private WebSocketMessageTransmitter transmitter;
 
-    @BeforeMethod
-    public void beforeMethod() {
-        when(sessionRegistry.get(anyString())).thenReturn(Optional.of(session));
-        when(session.getAsyncRemote()).thenReturn(endpoint);
-        when(session.isOpen()).thenReturn(true);
-    }
+    private MessagesReSender reSender;
 
     @BeforeMethod
     public void before() {
-        reSender = new MessagesReSender(sessionRegistry);
+        reSender = new MessagesReSender(() -> transmitter);
     }
 
     @Test
-    public void shouldStopIfSessionIsNotRegistered() {
-        when(sessionRegistry.get(anyString())).thenReturn(Optional.empty());
-
-        reSender.add(ENDPOINT_ID, MESSAGE);
-
+    public void shouldNotTransmitAnythingIfThereAreNoPendingMessages() {
         reSender.resend(ENDPOINT_ID);
 
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(MESSAGE);
-    }
-
-    @Test
-    public void shouldKeepMessagesIfSessionIsClosed() {
-        reSender.add(ENDPOINT_ID, MESSAGE);
-
-        when(session.isOpen()).thenReturn(false);
-        reSender.resend(ENDPOINT_ID);
-
-        verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(MESSAGE);
-
-        when(session.isOpen()).thenReturn(true);
-        reSender.resend(ENDPOINT_ID);
-
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(MESSAGE);
+        verify(transmitter, never()).transmit(anyString(), anyString());
     }
 
     @Test
@@ -98,9 +57,7 @@ public class MessagesReSenderTest {
 
         reSender.resend(ENDPOINT_ID);
 
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(MESSAGE);
+        verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
     }
 
     @Test
@@ -111,10 +68,8 @@ public class MessagesReSenderTest {
         reSender.resend(ENDPOINT_ID);
         reSender.resend("1");
 
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(sessionRegistry).get("1");
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(MESSAGE);
+        verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+        verify(transmitter).transmit("1", MESSAGE);
     }
 
     @Test
@@ -122,35 +77,33 @@ public class MessagesReSenderTest {
         reSender.add(ENDPOINT_ID, MESSAGE);
 
         reSender.resend(ENDPOINT_ID);
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(MESSAGE);
-
         reSender.resend(ENDPOINT_ID);
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(session).getAsyncRemote();
-        verify(endpoint).sendText(MESSAGE);
+
+        verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
     }
 
     @Test
-    public void shouldClearOnExtractionForSeveralEndpoint() {
-        reSender.add(ENDPOINT_ID, MESSAGE);
-        reSender.add("1", MESSAGE);
+    public void shouldResendMessagesInTheOrderTheyWereAdded() {
+        reSender.add(ENDPOINT_ID, "first");
+        reSender.add(ENDPOINT_ID, "second");
 
         reSender.resend(ENDPOINT_ID);
-        reSender.resend("1");
 
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(sessionRegistry).get("1");
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(MESSAGE);
+        final InOrder inOrder = inOrder(transmitter);
+        inOrder.verify(transmitter).transmit(ENDPOINT_ID, "first");
+        inOrder.verify(transmitter).transmit(ENDPOINT_ID, "second");
+    }
+
+    @Test
+    public void shouldDropTheOldestMessagesWhenLimitIsReached() {
+        for (int i = 0; i <= MessagesReSender.MAX_MESSAGES; i++) {
+            reSender.add(ENDPOINT_ID, MESSAGE + i);
+        }
 
         reSender.resend(ENDPOINT_ID);
-        reSender.resend("1");
 
-        verify(sessionRegistry).get(ENDPOINT_ID);
-        verify(sessionRegistry).get("1");
-        verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(MESSAGE);
+        verify(transmitter, never()).transmit(ENDPOINT_ID, MESSAGE + 0);
+        verify(transmitter).transmit(ENDPOINT_ID, MESSAGE + MessagesReSender.MAX_MESSAGES);
+        verify(transmitter, times(MessagesReSender.MAX_MESSAGES)).transmit(anyString(), anyString());
     }
 }
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import org.eclipse.che.api.core.websocket.impl.SessionMessagesQueue.OverflowPolicy;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link SessionMessagesQueue}
+ */
+@Listeners(MockitoTestNGListener.class)
+public class SessionMessagesQueueTest {
+    private static final String ENDPOINT_ID = "id";
+
+    @Mock
+    private Session              session;
+    @Mock
+    private RemoteEndpoint.Async remote;
+
+    private List<String>      sent;
+    private List<SendHandler> handlers;
+
+    @BeforeMethod
+    public void setUp() {
+        sent = new ArrayList<>();
+        handlers = new ArrayList<>();
+        when(session.getAsyncRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            sent.add((String)invocation.getArguments()[0]);
+            handlers.add((SendHandler)invocation.getArguments()[1]);
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldSendNextMessageOnlyWhenPreviousIsSent() {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 10, 1024);
+
+        queue.offer("first");
+        queue.offer("second");
+
+        assertEquals(sent, asList("first"));
+
+        handlers.get(0).onResult(new SendResult());
+
+        assertEquals(sent, asList("first", "second"));
+        assertEquals(queue.getStatistics().getSentMessages(), 1);
+    }
+
+    @Test
+    public void shouldSendMessagesCompletedSynchronouslyInOrder() {
+        doAnswer(invocation -> {
+            sent.add((String)invocation.getArguments()[0]);
+            ((SendHandler)invocation.getArguments()[1]).onResult(new SendResult());
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 10, 1024);
+
+        queue.offer("first");
+        queue.offer("second");
+
+        assertEquals(sent, asList("first", "second"));
+        assertEquals(queue.getStatistics().getSentMessages(), 2);
+        assertEquals(queue.getStatistics().getQueueSize(), 0);
+    }
+
+    @Test
+    public void shouldDropTheOldestMessageWhenQueueIsFull() {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 2, OverflowPolicy.DROP_OLDEST, 10, 1024);
+
+        queue.offer("in-flight");
+        queue.offer("first");
+        queue.offer("second");
+        queue.offer("third");
+        handlers.get(0).onResult(new SendResult());
+        handlers.get(1).onResult(new SendResult());
+
+        assertEquals(sent, asList("in-flight", "second", "third"));
+        assertEquals(queue.getStatistics().getDroppedMessages(), 1);
+    }
+
+    @Test
+    public void shouldCloseSessionWhenQueueIsFull() throws Exception {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 1, OverflowPolicy.CLOSE_SESSION, 10, 1024);
+
+        queue.offer("in-flight");
+        queue.offer("first");
+        queue.offer("second");
+        queue.offer("third");
+        handlers.get(0).onResult(new SendResult());
+
+        assertEquals(sent, asList("in-flight"));
+        assertEquals(queue.getStatistics().getDroppedMessages(), 3);
+        verify(session).close(any(CloseReason.class));
+    }
+
+    @Test
+    public void shouldContinueSendingWhenMessageIsFailedToSend() throws Exception {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 10, 1024);
+
+        queue.offer("first");
+        queue.offer("second");
+        handlers.get(0).onResult(new SendResult(new RuntimeException("failed")));
+
+        assertEquals(sent, asList("first", "second"));
+        assertEquals(queue.getStatistics().getFailedMessages(), 1);
+        verify(session, never()).close(any(CloseReason.class));
+    }
+
+    @Test
+    public void shouldSendQueuedJsonObjectsInBatch() {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 2, 1024);
+
+        queue.offer("{\"id\":1}");
+        queue.offer("{\"id\":2}");
+        queue.offer("{\"id\":3}");
+        queue.offer("{\"id\":4}");
+        handlers.get(0).onResult(new SendResult());
+        handlers.get(1).onResult(new SendResult());
+
+        assertEquals(sent, asList("{\"id\":1}", "[{\"id\":2},{\"id\":3}]", "{\"id\":4}"));
+        assertEquals(queue.getStatistics().getSentMessages(), 3);
+        assertEquals(queue.getStatistics().getSentFrames(), 2);
+    }
+
+    @Test
+    public void shouldNotBatchMessagesExceedingBatchLength() {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 10, 20);
+
+        queue.offer("{\"id\":1}");
+        queue.offer("{\"id\":2}");
+        queue.offer("{\"id\":3}");
+        queue.offer("{\"id\":4}");
+        handlers.get(0).onResult(new SendResult());
+
+        assertEquals(sent, asList("{\"id\":1}", "[{\"id\":2},{\"id\":3}]"));
+    }
+
+    @Test
+    public void shouldNotBatchMessagesWhichAreNotJsonObjects() {
+        final SessionMessagesQueue queue = new SessionMessagesQueue(ENDPOINT_ID, session, 10, OverflowPolicy.DROP_OLDEST, 10, 1024);
+
+        queue.offer("{\"id\":1}");
+        queue.offer("{\"id\":2}");
+        queue.offer("[{\"id\":3}]");
+        handlers.get(0).onResult(new SendResult());
+        handlers.get(1).onResult(new SendResult());
+
+        assertEquals(sent, asList("{\"id\":1}", "{\"id\":2}", "[{\"id\":3}]"));
+    }
+}
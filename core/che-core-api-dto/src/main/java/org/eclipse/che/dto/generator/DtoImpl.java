@@ -29,6 +29,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -223,6 +224,24 @@ abstract class DtoImpl {
         return getters;
     }
 
+    /**
+     * Get getters of all the fields of DTO implementation including fields inherited from implementations of
+     * super DTO interfaces. Getters declared in not DTO parent interfaces are included as well.
+     * When getter is overridden in the sub-interface the overriding getter is returned.
+     */
+    protected List<Method> getAllDtoGetters(Class<?> dto) {
+        final Map<String, Method> getters = new LinkedHashMap<>();
+        for (Class<?> current = dto; current != null; current = getSuperDtoInterface(current)) {
+            final Map<String, Method> currentGetters = new HashMap<>();
+            addDtoGetters(current, currentGetters);
+            addSuperGetters(current, currentGetters);
+            for (Method getter : currentGetters.values()) {
+                getters.putIfAbsent(getter.getName(), getter);
+            }
+        }
+        return new ArrayList<>(getters.values());
+    }
+
     private void addDtoGetters(Class<?> dto, Map<String, Method> getters) {
         for (Method method : dto.getDeclaredMethods()) {
             if (!method.isDefault() && isDtoGetter(method)) {
@@ -11,10 +11,12 @@
 
 package org.eclipse.che.dto.generator;
 
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
 import org.eclipse.che.dto.shared.DelegateRule;
+import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.DTOImpl;
 import org.eclipse.che.dto.shared.DelegateTo;
 import org.eclipse.che.dto.shared.JsonArray;
@@ -41,6 +43,9 @@ public class DtoImplServerTemplate extends DtoImpl {
     private static final String JSON_MAP_IMPL     = JsonStringMapImpl.class.getCanonicalName();
     private static final String SERVER_DTO_MARKER = "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
 
+    /** Simple name of streaming Gson adapter which is generated as nested class of DTO implementation. */
+    static final String TYPE_ADAPTER_NAME = "GsonAdapter";
+
     DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
         super(template, superInterface);
     }
@@ -74,6 +79,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         emitSerializer(methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
+        emitTypeAdapter(getAllDtoGetters(dtoInterface), builder);
         emitCopyConstructor(methods, builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
@@ -322,6 +328,119 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("      return gson.fromJson(jsonString, ").append(getImplClassName()).append(".class);\n");
         builder.append("    }\n\n");
     }
+    /**
+     * Generates streaming Gson adapter of DTO implementation which reads and writes fields without reflection.
+     * Strings, booleans, ints and longs are handled directly, nested DTOs are written with adapters of their runtime types,
+     * all other fields are delegated to adapters of their declared types, e.g. collections are serialized as empty
+     * if they are null as it is done for reflective serialization.
+     */
+    private void emitTypeAdapter(List<Method> getters, StringBuilder builder) {
+        final String implClassName = getImplClassName();
+        final String adapterBase = DtoTypeAdapter.class.getCanonicalName();
+        builder.append("    public static class ").append(TYPE_ADAPTER_NAME).append(" extends ").append(adapterBase)
+               .append("<").append(implClassName).append("> {\n");
+        for (Method getter : getters) {
+            if (!isDirectlyAdapted(getter.getReturnType())) {
+                builder.append("      private final com.google.gson.TypeAdapter<Object> ")
+                       .append(getFieldAdapterName(getJavaFieldName(getter.getName()))).append(";\n");
+            }
+        }
+        builder.append("\n");
+        builder.append("      public ").append(TYPE_ADAPTER_NAME).append("(Gson gson) {\n");
+        builder.append("        super(gson);\n");
+        for (Method getter : getters) {
+            if (!isDirectlyAdapted(getter.getReturnType())) {
+                final String fieldName = getJavaFieldName(getter.getName());
+                builder.append("        ").append(getFieldAdapterName(fieldName)).append(" = getFieldAdapter(")
+                       .append(implClassName).append(".class, \"").append(fieldName).append("\");\n");
+            }
+        }
+        builder.append("      }\n\n");
+
+        builder.append("      @Override\n");
+        builder.append("      public void write(com.google.gson.stream.JsonWriter out, ").append(implClassName)
+               .append(" dto) throws java.io.IOException {\n");
+        builder.append("        if (dto == null) {\n");
+        builder.append("          out.nullValue();\n");
+        builder.append("          return;\n");
+        builder.append("        }\n");
+        builder.append("        out.beginObject();\n");
+        for (Method getter : getters) {
+            final String fieldName = getJavaFieldName(getter.getName());
+            final Class<?> type = getter.getReturnType();
+            builder.append("        out.name(").append(quoteStringLiteral(getJsonFieldName(getter))).append(");\n");
+            if (isDirectlyAdapted(type)) {
+                builder.append("        out.value(dto.").append(fieldName).append(");\n");
+            } else if (isDto(type)) {
+                builder.append("        writeDto(out, dto.").append(fieldName).append(");\n");
+            } else {
+                builder.append("        ").append(getFieldAdapterName(fieldName)).append(".write(out, dto.").append(fieldName)
+                       .append(");\n");
+            }
+        }
+        builder.append("        out.endObject();\n");
+        builder.append("      }\n\n");
+
+        builder.append("      @Override\n");
+        builder.append("      public ").append(implClassName)
+               .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        builder.append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n");
+        builder.append("          in.nextNull();\n");
+        builder.append("          return null;\n");
+        builder.append("        }\n");
+        builder.append("        final ").append(implClassName).append(" dto = new ").append(implClassName).append("();\n");
+        builder.append("        in.beginObject();\n");
+        builder.append("        while (in.hasNext()) {\n");
+        builder.append("          switch (in.nextName()) {\n");
+        for (Method getter : getters) {
+            final String fieldName = getJavaFieldName(getter.getName());
+            final Class<?> type = getter.getReturnType();
+            builder.append("            case ").append(quoteStringLiteral(getJsonFieldName(getter))).append(":\n");
+            if (type == String.class) {
+                builder.append("              dto.").append(fieldName).append(" = readString(in);\n");
+            } else if (isDirectlyAdapted(type)) {
+                final String primitiveName = type.getName();
+                builder.append("              dto.").append(fieldName).append(" = read")
+                       .append(Character.toUpperCase(primitiveName.charAt(0))).append(primitiveName.substring(1))
+                       .append("(in, dto.").append(fieldName).append(");\n");
+            } else if (type.isPrimitive()) {
+                // keep default value if JSON value is null
+                builder.append("              {\n");
+                builder.append("                final Object value = ").append(getFieldAdapterName(fieldName)).append(".read(in);\n");
+                builder.append("                if (value != null) {\n");
+                builder.append("                  dto.").append(fieldName).append(" = (").append(Primitives.wrap(type).getName())
+                       .append(")value;\n");
+                builder.append("                }\n");
+                builder.append("              }\n");
+            } else {
+                builder.append("              dto.").append(fieldName).append(" = cast(").append(getFieldAdapterName(fieldName))
+                       .append(".read(in));\n");
+            }
+            builder.append("              break;\n");
+        }
+        builder.append("            default:\n");
+        builder.append("              in.skipValue();\n");
+        builder.append("          }\n");
+        builder.append("        }\n");
+        builder.append("        in.endObject();\n");
+        builder.append("        return dto;\n");
+        builder.append("      }\n");
+        builder.append("    }\n\n");
+    }
+
+    /** Whether the value of given type is read and written by generated adapter without delegation to the Gson adapters. */
+    private static boolean isDirectlyAdapted(Class<?> type) {
+        return type == String.class || type == boolean.class || type == int.class || type == long.class;
+    }
+
+    private boolean isDto(Class<?> type) {
+        return type.isAnnotationPresent(DTO.class) || getEnclosingTemplate().isDtoInterface(type);
+    }
+
+    private static String getFieldAdapterName(String fieldName) {
+        return fieldName + "Adapter";
+    }
+
     private static StringBuilder appendNaiveCopyJsonExpression(String inValue, StringBuilder builder) {
         builder.append("((");
         builder.append(inValue);
@@ -425,7 +425,9 @@ public final class DtoFactory {
 
     /**
      * A specialization of Gson's {@link ReflectiveTypeAdapterFactory} delegates operation on DTO interfaces to the
-     * corresponding implementation classes. The implementation classes generated correctly by the DTO Gson.
+     * corresponding implementation classes. The implementation classes are (de)serialized with the streaming adapters
+     * {@link DtoProvider#createTypeAdapter(Gson) provided} by DTO providers, if provider doesn't have such adapter
+     * the implementation class is (de)serialized by the reflective Gson adapter.
      * 
      * @author tareq.sha@gmail.com
      */
@@ -437,6 +439,10 @@ public final class DtoFactory {
             if (prov != null) {
                 return (TypeAdapter<T>) gson.getAdapter(prov.getImplClass());
             }
+            prov = dtoImpl2Providers.get(type.getRawType());
+            if (prov != null) {
+                return (TypeAdapter<T>) prov.createTypeAdapter(gson);
+            }
             return null;
         }
     }
@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 
 /**
  * Provides implementation of DTO interface.
@@ -27,4 +29,16 @@ public interface DtoProvider<DTO> {
     DTO newInstance();
 
     DTO clone(DTO origin);
+
+    /**
+     * Creates streaming adapter for {@link #getImplClass() implementation class} of DTO.
+     * Returns {@code null} if implementation should be serialized and deserialized with reflection.
+     *
+     * @param gson
+     *         Gson instance which adapter is created for
+     * @see DtoTypeAdapter
+     */
+    default TypeAdapter<? extends DTO> createTypeAdapter(Gson gson) {
+        return null;
+    }
 }
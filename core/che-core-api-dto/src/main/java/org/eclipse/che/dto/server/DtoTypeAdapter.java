@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Base class for streaming type adapters generated for server DTO implementations.
+ *
+ * <p>Generated adapters read and write fields of DTO implementation directly instead of
+ * accessing them with reflection. Strings, booleans, ints and longs are handled by adapter itself,
+ * (de)serialization of fields of other types is delegated to the adapters of {@link Gson} instance
+ * which are resolved once, when the adapter is created. Serialized form is the same as the one
+ * produced by the reflective Gson adapter.
+ *
+ * @param <T>
+ *         type of DTO implementation
+ * @see DtoProvider#createTypeAdapter(Gson)
+ */
+public abstract class DtoTypeAdapter<T> extends TypeAdapter<T> {
+    protected final Gson gson;
+
+    protected DtoTypeAdapter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Returns adapter for the declared type of the field of DTO implementation class or one of its super classes.
+     *
+     * @throws IllegalArgumentException
+     *         if there is no such field in the class hierarchy
+     */
+    @SuppressWarnings("unchecked")
+    protected TypeAdapter<Object> getFieldAdapter(Class<?> implClass, String fieldName) {
+        for (Class<?> clazz = implClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            try {
+                return (TypeAdapter<Object>)gson.getAdapter(TypeToken.get(clazz.getDeclaredField(fieldName).getGenericType()));
+            } catch (NoSuchFieldException ignored) {
+                // field is declared in super class
+            }
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " is not found in " + implClass.getName());
+    }
+
+    /** Writes DTO with adapter of its runtime type, so fields of DTO sub-types are not lost. */
+    @SuppressWarnings("unchecked")
+    protected void writeDto(JsonWriter out, Object dto) throws IOException {
+        if (dto == null) {
+            out.nullValue();
+            return;
+        }
+        ((TypeAdapter<Object>)gson.getAdapter(dto.getClass())).write(out, dto);
+    }
+
+    /** Reads string in the same way as Gson does, i.e. numbers and booleans are read as strings. */
+    protected static String readString(JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /** Reads boolean value, returns {@code defaultValue} if JSON value is null. */
+    protected static boolean readBoolean(JsonReader in, boolean defaultValue) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /** Reads int value, returns {@code defaultValue} if JSON value is null. */
+    protected static int readInt(JsonReader in, int defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /** Reads long value, returns {@code defaultValue} if JSON value is null. */
+    protected static long readLong(JsonReader in, long defaultValue) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return defaultValue;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /** Casts value read by the field adapter to the type of the field. */
+    @SuppressWarnings("unchecked")
+    protected static <V> V cast(Object value) {
+        return (V)value;
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import org.eclipse.che.dto.definitions.ComplicatedDto;
+import org.eclipse.che.dto.definitions.SimpleDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.shared.DTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares throughput and allocation rate of DTO serialization with generated streaming adapters
+ * against the reflective Gson serialization of the same DTO implementations.
+ *
+ * <p>It is not run with the tests, use the following command from the module directory to run it:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.dto.DtoSerializationBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+    private static final int DTOS_NUMBER = 100;
+
+    private Gson           streamingGson;
+    private Gson           reflectiveGson;
+    private ComplicatedDto dto;
+    private String         json;
+
+    @Setup
+    public void setUp() {
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        streamingGson = dtoFactory.getGson();
+        reflectiveGson = new GsonBuilder().registerTypeAdapterFactory(new DtoInterfaceToImplementationTAF(dtoFactory)).create();
+
+        final List<SimpleDto> simpleDtos = new ArrayList<>(DTOS_NUMBER);
+        final Map<String, SimpleDto> map = new HashMap<>();
+        for (int i = 0; i < DTOS_NUMBER; i++) {
+            final SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class)
+                                                  .withId(i)
+                                                  .withName("name-" + i)
+                                                  .withDefault("default-" + i);
+            simpleDtos.add(simpleDto);
+            map.put("key-" + i, simpleDto);
+        }
+        dto = dtoFactory.createDto(ComplicatedDto.class)
+                        .withSimpleDtos(simpleDtos)
+                        .withMap(map)
+                        .withStrings(asList("first", "second", "third"))
+                        .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                        .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE, ComplicatedDto.SimpleEnum.THREE)));
+        json = streamingGson.toJson(dto);
+    }
+
+    @Benchmark
+    public String serializeWithStreamingAdapters() {
+        return streamingGson.toJson(dto);
+    }
+
+    @Benchmark
+    public String serializeWithReflection() {
+        return reflectiveGson.toJson(dto);
+    }
+
+    @Benchmark
+    public ComplicatedDto deserializeWithStreamingAdapters() {
+        return streamingGson.fromJson(json, ComplicatedDto.class);
+    }
+
+    @Benchmark
+    public ComplicatedDto deserializeWithReflection() {
+        return reflectiveGson.fromJson(json, ComplicatedDto.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DtoSerializationBenchmark.class.getSimpleName())
+                                       .addProfiler(GCProfiler.class)
+                                       .build()).run();
+    }
+
+    /** Makes Gson use reflection for implementations of DTO interfaces, the way it was done before streaming adapters. */
+    private static class DtoInterfaceToImplementationTAF implements TypeAdapterFactory {
+        private final DtoFactory dtoFactory;
+
+        DtoInterfaceToImplementationTAF(DtoFactory dtoFactory) {
+            this.dtoFactory = dtoFactory;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            final Class<? super T> rawType = type.getRawType();
+            if (rawType.isInterface() && rawType.isAnnotationPresent(DTO.class)) {
+                return (TypeAdapter<T>)gson.getAdapter(dtoFactory.createDto(rawType).getClass());
+            }
+            return null;
+        }
+    }
+}
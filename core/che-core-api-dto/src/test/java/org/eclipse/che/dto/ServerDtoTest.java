@@ -28,6 +28,7 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -380,4 +381,33 @@ public class ServerDtoTest {
         assertEquals(childDto.getChildField(), "child-field");
         assertEquals(childDto.getParentField(), "parent-field");
     }
+
+    @Test
+    public void shouldSerializeDtoImplementationsWithGeneratedStreamingAdapters() {
+        final SimpleDto dto = dtoFactory.createDto(SimpleDto.class);
+
+        assertTrue(dtoFactory.getGson().getAdapter(dto.getClass()) instanceof DtoTypeAdapter);
+        assertTrue(dtoFactory.getGson().getAdapter(SimpleDto.class) instanceof DtoTypeAdapter);
+    }
+
+    @Test
+    public void shouldSerializeFieldsInheritedFromNotDtoInterfacesOfSuperDto() {
+        final GrandchildDto dto = dtoFactory.createDto(GrandchildDto.class);
+        dto.setParentField("parent-field");
+        dto.setShadowedField(dtoFactory.createDto(GrandchildDto.class));
+
+        final JsonObject json = new JsonParser().parse(dtoFactory.toJson(dto)).getAsJsonObject();
+
+        assertEquals(json.get("parentField").getAsString(), "parent-field");
+        assertTrue(json.get("shadowedField").isJsonObject());
+    }
+
+    @Test
+    public void shouldSkipUnknownFieldsAndKeepDefaultsOfNullPrimitivesOnDeserialization() {
+        final SimpleDto dto = dtoFactory.createDtoFromJson("{\"unknown\":{\"a\":[1,2]},\"id\":null,\"name\":\"name\"}",
+                                                           SimpleDto.class);
+
+        assertEquals(dto.getId(), 0);
+        assertEquals(dto.getName(), "name");
+    }
 }
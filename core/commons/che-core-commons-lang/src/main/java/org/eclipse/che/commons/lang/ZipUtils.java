@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.commons.lang;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -18,13 +22,28 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -32,6 +51,9 @@ import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 /**
  * Utils for ZIP.
  *
@@ -41,6 +63,34 @@ import java.util.zip.ZipOutputStream;
 public class ZipUtils {
     private static final int BUF_SIZE = 4096;
 
+    /**
+     * Threads which inflate and write files of the archives extracted in parallel. Pool is shared by all the extractions,
+     * e.g. by {@link #unzip(File, File, int)} and by the zip archiver of the virtual file system, so concurrent extractions
+     * don't create threads of their own and don't run more threads than there are processors altogether.
+     */
+    private static final ThreadPoolExecutor EXTRACT_EXECUTOR;
+
+    static {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        EXTRACT_EXECUTOR = new ThreadPoolExecutor(threads, threads,
+                                                  60L, SECONDS,
+                                                  new LinkedBlockingQueue<>(),
+                                                  new ThreadFactoryBuilder().setNameFormat("ZipUtils-Extract-%d")
+                                                                            .setUncaughtExceptionHandler(
+                                                                                    LoggingUncaughtExceptionHandler.getInstance())
+                                                                            .setDaemon(true)
+                                                                            .build());
+        EXTRACT_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns bounded pool of threads which extract archives in parallel. Extraction should limit number of its tasks
+     * which are submitted at a time rather than a task per file, so extractions which run concurrently share threads.
+     */
+    public static Executor getExtractExecutor() {
+        return EXTRACT_EXECUTOR;
+    }
+
     public static void zipDir(String parentPath, File dir, File zip, FilenameFilter filter) throws IOException {
         if (!dir.isDirectory()) {
             throw new IllegalArgumentException("Not a directory.");
@@ -160,9 +210,98 @@ public class ZipUtils {
         return list;
     }
 
+    /**
+     * Extracts archive with as many threads as there are available processors.
+     *
+     * @see #unzip(File, File, int)
+     */
     public static void unzip(File zip, File targetDir) throws IOException {
-        try (InputStream in = new FileInputStream(zip)) {
-            unzip(in, targetDir);
+        unzip(zip, targetDir, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Extracts archive to the given directory. Unlike {@link #unzip(InputStream, File)}, entries are found in the central
+     * directory of the archive and read at their offsets, so all the folders are created up front and then files are
+     * inflated and written in parallel. When the archive has a few entries with the same name the last of them is extracted.
+     *
+     * @param threads
+     *         max number of threads which extract files, files are extracted by the calling thread if it is less than 2
+     */
+    public static void unzip(File zip, File targetDir, int threads) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            final Map<String, ZipEntry> files = new LinkedHashMap<>();
+            final Set<File> folders = new TreeSet<>();
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry zipEntry = zipEntries.nextElement();
+                final File file = new File(targetDir, zipEntry.getName());
+                if (zipEntry.isDirectory()) {
+                    folders.add(file);
+                } else {
+                    files.remove(zipEntry.getName());
+                    files.put(zipEntry.getName(), zipEntry);
+                    folders.add(file.getParentFile());
+                }
+            }
+            for (File folder : folders) {
+                if (!folder.isDirectory() && !folder.mkdirs()) {
+                    throw new IOException("Unable to create folder " + folder.getAbsolutePath());
+                }
+            }
+
+            if (threads < 2 || files.size() < 2) {
+                for (ZipEntry zipEntry : files.values()) {
+                    unzipFile(zipFile, zipEntry, targetDir);
+                }
+                return;
+            }
+            // each task extracts files till there are no more left, so at most the given number of threads is used
+            final Queue<ZipEntry> queue = new ConcurrentLinkedQueue<>(files.values());
+            final List<FutureTask<Void>> futures = new ArrayList<>(threads);
+            try {
+                for (int i = 0; i < Math.min(threads, files.size()); i++) {
+                    final FutureTask<Void> future = new FutureTask<>(() -> {
+                        try {
+                            ZipEntry zipEntry;
+                            while (!Thread.currentThread().isInterrupted() && (zipEntry = queue.poll()) != null) {
+                                unzipFile(zipFile, zipEntry, targetDir);
+                            }
+                        } catch (IOException | RuntimeException | Error e) {
+                            // other tasks stop as well, so the failure is reported without extracting the rest of files
+                            queue.clear();
+                            throw e;
+                        }
+                        return null;
+                    });
+                    EXTRACT_EXECUTOR.execute(future);
+                    futures.add(future);
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new IOException(cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Extraction of " + zip.getAbsolutePath() + " is interrupted");
+            } finally {
+                // stops extraction of the rest of files when one of them fails
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    private static void unzipFile(ZipFile zipFile, ZipEntry zipEntry, File targetDir) throws IOException {
+        try (InputStream in = zipFile.getInputStream(zipEntry)) {
+            Files.copy(in, new File(targetDir, zipEntry.getName()).toPath(), REPLACE_EXISTING);
         }
     }
 
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compares time of extraction of an archive with many small files by the streaming extractor
+ * {@link ZipUtils#unzip(InputStream, File)} and by the parallel one {@link ZipUtils#unzip(File, File, int)}.
+ *
+ * <p>It is not run with the tests, use the following command from the module directory to run it:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.commons.lang.ZipUtilsBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+@Fork(1)
+public class ZipUtilsBenchmark {
+    private static final int FILES_PER_FOLDER = 100;
+    private static final int FILE_SIZE        = 2048;
+
+    @Param({"1000", "10000"})
+    private int filesNumber;
+
+    @Param({"4"})
+    private int threads;
+
+    private File zip;
+    private File targetDir;
+
+    @Setup
+    public void createArchive() throws IOException {
+        zip = File.createTempFile("benchmark", ".zip");
+        final Random random = new Random(filesNumber);
+        final byte[] content = new byte[FILE_SIZE];
+        try (ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zip)))) {
+            for (int i = 0; i < filesNumber; i++) {
+                zipOut.putNextEntry(new ZipEntry("folder" + i / FILES_PER_FOLDER + "/file" + i + ".txt"));
+                // printable characters, so files are compressed about as well as source files
+                for (int j = 0; j < content.length; j++) {
+                    content[j] = (byte)(' ' + random.nextInt(64));
+                }
+                zipOut.write(content);
+                zipOut.closeEntry();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createTargetDir() throws IOException {
+        targetDir = Files.createTempDirectory("benchmark").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTargetDir() {
+        IoUtil.deleteRecursive(targetDir);
+    }
+
+    @TearDown
+    public void deleteArchive() {
+        zip.delete();
+    }
+
+    @Benchmark
+    public void unzipStreaming() throws IOException {
+        try (InputStream in = new FileInputStream(zip)) {
+            ZipUtils.unzip(in, targetDir);
+        }
+    }
+
+    @Benchmark
+    public void unzipInParallel() throws IOException {
+        ZipUtils.unzip(zip, targetDir, threads);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ZipUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
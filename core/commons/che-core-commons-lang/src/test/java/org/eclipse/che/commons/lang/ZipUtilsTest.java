@@ -19,6 +19,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
@@ -26,6 +27,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -70,4 +72,31 @@ public class ZipUtilsTest {
 
         verify(consumer, times(2)).accept(any(InputStream.class));
     }
+
+    @Test
+    public void shouldUnzipFilesInParallel() throws Exception {
+        File zip = File.createTempFile("test", "zip");
+        zip.deleteOnExit();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zip))) {
+            zos.putNextEntry(new ZipEntry("a/"));
+            for (int i = 0; i < 20; i++) {
+                // parent folders of the files in the 'b' folder are not listed in the archive
+                zos.putNextEntry(new ZipEntry((i % 2 == 0 ? "a/" : "b/c/") + "file" + i));
+                zos.write(("content" + i).getBytes(UTF_8));
+                zos.closeEntry();
+            }
+        }
+        File targetDir = Files.createTempDirectory("unzip").toFile();
+
+        try {
+            ZipUtils.unzip(zip, targetDir, 4);
+
+            for (int i = 0; i < 20; i++) {
+                File file = new File(targetDir, (i % 2 == 0 ? "a/" : "b/c/") + "file" + i);
+                Assert.assertEquals(new String(Files.readAllBytes(file.toPath()), UTF_8), "content" + i);
+            }
+        } finally {
+            IoUtil.deleteRecursive(targetDir);
+        }
+    }
 }
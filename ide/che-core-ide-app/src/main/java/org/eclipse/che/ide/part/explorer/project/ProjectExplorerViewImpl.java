@@ -33,6 +33,7 @@ import org.eclipse.che.ide.api.data.tree.settings.HasSettings;
 import org.eclipse.che.ide.api.parts.PerspectiveManager;
 import org.eclipse.che.ide.api.parts.base.BaseView;
 import org.eclipse.che.ide.api.parts.base.ToolButton;
+import org.eclipse.che.ide.api.preferences.PreferencesManager;
 import org.eclipse.che.ide.api.resources.Project;
 import org.eclipse.che.ide.api.resources.Resource;
 import org.eclipse.che.ide.menu.ContextMenu;
@@ -73,6 +74,9 @@ import static org.eclipse.che.ide.ui.smartTree.event.GoIntoStateEvent.State.DEAC
 @Singleton
 public class ProjectExplorerViewImpl extends BaseView<ProjectExplorerView.ActionDelegate> implements ProjectExplorerView,
                                                                                                      GoIntoStateHandler {
+    /** Preference which enables rendering of only visible rows of the project tree, disabled by default. */
+    public static final String RENDER_VISIBLE_ROWS_ONLY = "projectExplorerRenderVisibleRowsOnly";
+
     private final Tree                       tree;
     private final SkipHiddenNodesInterceptor skipHiddenNodesInterceptor;
 
@@ -95,7 +99,8 @@ public class ProjectExplorerViewImpl extends BaseView<ProjectExplorerView.Action
                                    final PresentationFactory presentationFactory,
                                    final Provider<PerspectiveManager> managerProvider,
                                    final ActionManager actionManager,
-                                   final EmptyTreePanel emptyTreePanel) {
+                                   final EmptyTreePanel emptyTreePanel,
+                                   final PreferencesManager preferencesManager) {
         super(resources);
         this.skipHiddenNodesInterceptor = skipHiddenNodesInterceptor;
 
@@ -107,6 +112,7 @@ public class ProjectExplorerViewImpl extends BaseView<ProjectExplorerView.Action
         nodeLoader.getNodeInterceptors().add(skipHiddenNodesInterceptor);
 
         tree = new Tree(nodeStorage, nodeLoader, new StatusWidget<Tree>(emptyTreePanel));
+        tree.setRenderVisibleRowsOnly(Boolean.parseBoolean(preferencesManager.getValue(RENDER_VISIBLE_ROWS_ONLY)));
         tree.setContextMenuInvocationHandler(new Tree.ContextMenuInvocationHandler() {
             @Override
             public void onInvokeContextMenu(int x, int y) {
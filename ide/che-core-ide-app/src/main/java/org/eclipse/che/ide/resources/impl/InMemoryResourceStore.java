@@ -12,7 +12,6 @@ package org.eclipse.che.ide.resources.impl;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
-import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
 import org.eclipse.che.ide.api.resources.Container;
@@ -20,19 +19,23 @@ import org.eclipse.che.ide.api.resources.Resource;
 import org.eclipse.che.ide.api.resources.ResourceInterceptor;
 import org.eclipse.che.ide.resource.Path;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static com.google.common.base.Optional.absent;
 import static com.google.common.base.Optional.of;
 import static com.google.common.base.Preconditions.checkArgument;
-import static java.lang.System.arraycopy;
-import static java.util.Arrays.binarySearch;
-import static java.util.Arrays.copyOf;
 
 /**
  * In memory implementation of {@link ResourceStore}.
+ * <p/>
+ * Resources are kept in the trie which follows the segments of resource paths, children of each node
+ * are sorted by name. So registering, disposing and looking up of the resource costs O(depth * log(k)),
+ * where k is the number of siblings, and fetching all the descendants of the container costs O(depth + n),
+ * where n is the number of descendants.
  *
  * @author Vlad Zhukovskiy
  * @see ResourceStore
@@ -41,24 +44,16 @@ import static java.util.Arrays.copyOf;
 @Beta
 class InMemoryResourceStore implements ResourceStore {
 
-
     private static final Resource[] EMPTY_RESOURCES = new Resource[0];
 
-    private static final Comparator<Resource> NAME_COMPARATOR = new Comparator<Resource>() {
-        @Override
-        public int compare(Resource o1, Resource o2) {
-            return o1.getName().compareTo(o2.getName());
-        }
-    };
-
-    private Map<Path, Resource[]> memoryCache;
+    private Node                     root;
     private Set<ResourceInterceptor> resourceInterceptors;
 
     @Inject
     public InMemoryResourceStore(Set<ResourceInterceptor> resourceInterceptors) {
         this.resourceInterceptors = resourceInterceptors;
 
-        memoryCache = Maps.newHashMap();
+        root = new Node();
     }
 
     /** {@inheritDoc} */
@@ -66,39 +61,32 @@ class InMemoryResourceStore implements ResourceStore {
     public boolean register(Resource resource) {
         checkArgument(resource != null, "Null resource occurred");
 
-        final Path parent = resource.getLocation().segmentCount() == 1 ? Path.ROOT : resource.getLocation().parent();
-
-        if (!memoryCache.containsKey(parent)) {
-            memoryCache.put(parent, new Resource[]{resource});
-
-            intercept(resource);
-
-            return true;
-        } else {
-            Resource[] container = memoryCache.get(parent);
+        final Path location = resource.getLocation();
 
-            final int index = binarySearch(container, resource, NAME_COMPARATOR);
-
-            if (index >= 0) { //update existing resource with new one
-                container[index] = resource;
+        return register(resource, getOrCreateNode(location, location.segmentCount() - 1));
+    }
 
-                intercept(resource);
+    /** {@inheritDoc} */
+    @Override
+    public void registerAll(Resource[] resources) {
+        checkArgument(resources != null, "Null resources occurred");
 
-                return false;
-            } else { //such resource doesn't exists, then simply add it
-                final int posIndex = -index - 1; //negate inverted index into positive one
-                final int size = container.length;
-                final Resource[] tmpContainer = copyOf(container, size + 1);
-                arraycopy(tmpContainer, posIndex, tmpContainer, posIndex + 1, size - posIndex); //prepare cell to insert
-                tmpContainer[posIndex] = resource;
-                container = tmpContainer;
+        Path parent = null;
+        Node parentNode = null;
 
-                memoryCache.put(parent, container);
+        for (Resource resource : resources) {
+            checkArgument(resource != null, "Null resource occurred");
 
-                intercept(resource);
+            final Path location = resource.getLocation();
+            final Path resourceParent = location.parent();
 
-                return true;
+            //siblings usually follow each other, so the parent node is looked up once for all of them
+            if (parentNode == null || !resourceParent.equals(parent)) {
+                parent = resourceParent;
+                parentNode = getOrCreateNode(location, location.segmentCount() - 1);
             }
+
+            register(resource, parentNode);
         }
     }
 
@@ -107,44 +95,31 @@ class InMemoryResourceStore implements ResourceStore {
     public void dispose(Path path, boolean withChildren) {
         checkArgument(path != null, "Null path occurred");
 
+        if (path.isRoot()) {
+            clear();
+            return;
+        }
 
-        final Path parent = path.segmentCount() == 1 ? Path.ROOT : path.parent();
-
-        Resource[] container = memoryCache.get(parent);
-
-        if (container != null) {
-            int index = -1;
+        final Node parentNode = findNode(path, path.segmentCount() - 1);
 
-            for (int i = 0; i < container.length; i++) {
-                if (container[i].getName().equals(path.lastSegment())) {
-                    index = i;
-                    break;
-                }
-            }
+        if (parentNode == null) {
+            return;
+        }
 
-            if (index != -1) {
-                int size = container.length;
-                int numMoved = container.length - index - 1;
-                if (numMoved > 0) {
-                    System.arraycopy(container, index + 1, container, index, numMoved);
-                }
-                container = copyOf(container, --size);
+        final Node node = parentNode.children.get(path.lastSegment());
 
-                memoryCache.put(parent, container);
-            }
+        if (node == null) {
+            return;
         }
 
+        if (parentNode.listed) {
+            parentNode.resource(node, null);
+        }
 
-        if (memoryCache.containsKey(path)) {
-            container = memoryCache.remove(path);
+        unlist(node, withChildren);
 
-            if (container != null && withChildren) {
-                for (Resource resource : container) {
-                    if (resource instanceof Container) {
-                        dispose(resource.getLocation(), true);
-                    }
-                }
-            }
+        if (node.isEmpty()) {
+            parentNode.children.remove(path.lastSegment());
         }
     }
 
@@ -153,25 +128,19 @@ class InMemoryResourceStore implements ResourceStore {
     public Optional<Resource> getResource(Path path) {
         checkArgument(path != null, "Null path occurred");
 
-        final Path parent = path.parent();
-
-        if (!memoryCache.containsKey(parent)) {
+        if (path.isRoot()) {
             return absent();
         }
 
-        final Resource[] container = memoryCache.get(parent);
+        final Node parentNode = findNode(path, path.segmentCount() - 1);
 
-        if (container == null) {
+        if (parentNode == null || !parentNode.listed) {
             return absent();
         }
 
-        for (Resource resource : container) {
-            if (resource.getLocation().equals(path)) {
-                return Optional.of(resource);
-            }
-        }
+        final Node node = parentNode.children.get(path.lastSegment());
 
-        return absent();
+        return node == null || node.resource == null ? Optional.<Resource>absent() : of(node.resource);
     }
 
     /** {@inheritDoc} */
@@ -179,11 +148,13 @@ class InMemoryResourceStore implements ResourceStore {
     public Optional<Resource[]> get(Path parent) {
         checkArgument(parent != null, "Null path occurred");
 
-        if (!memoryCache.containsKey(parent)) {
+        final Node node = findNode(parent, parent.segmentCount());
+
+        if (node == null || !node.listed) {
             return absent();
         }
 
-        return of(memoryCache.get(parent));
+        return of(node.getChildResources());
     }
 
     /** {@inheritDoc} */
@@ -191,44 +162,121 @@ class InMemoryResourceStore implements ResourceStore {
     public Optional<Resource[]> getAll(Path parent) {
         checkArgument(parent != null, "Null path occurred");
 
-        if (!memoryCache.containsKey(parent)) {
+        final Node node = findNode(parent, parent.segmentCount());
+
+        if (node == null || !node.listed) {
             return absent();
         }
 
-        Resource[] all = new Resource[0];
+        final List<Resource> all = new ArrayList<>();
+        collectDescendants(node, all);
 
-        for (Map.Entry<Path, Resource[]> setEntry : memoryCache.entrySet()) {
+        if (all.isEmpty()) {
+            return of(EMPTY_RESOURCES);
+        }
 
-            /* There is no need to check compared path if its segment count is less then given one. */
+        return of(all.toArray(new Resource[all.size()]));
+    }
 
-            final Path comparedPath = setEntry.getKey();
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        root = new Node();
+    }
 
-            if (!parent.isPrefixOf(comparedPath)) {
-                continue;
-            }
+    private boolean register(Resource resource, Node parentNode) {
+        if (!parentNode.listed) {
+            parentNode.listed = true;
+        }
+
+        final String name = resource.getLocation().lastSegment();
+
+        Node node = parentNode.children.get(name);
+        if (node == null) {
+            node = new Node();
+            parentNode.children.put(name, node);
+        }
+
+        final boolean registered = node.resource == null;
+
+        parentNode.resource(node, resource);
 
-            final Resource[] resources = setEntry.getValue();
+        intercept(resource);
 
-            if (resources == null || resources.length == 0) {
-                continue;
+        return registered;
+    }
+
+    /** Returns the node of the first {@code segmentCount} segments of the {@code path}, creates missed nodes. */
+    private Node getOrCreateNode(Path path, int segmentCount) {
+        Node node = root;
+
+        for (int i = 0; i < segmentCount; i++) {
+            final String segment = path.segment(i);
+
+            Node child = node.children.get(segment);
+            if (child == null) {
+                child = new Node();
+                node.children.put(segment, child);
             }
 
-            final Resource[] tmpResourcesArr = copyOf(all, all.length + resources.length);
-            arraycopy(resources, 0, tmpResourcesArr, all.length, resources.length);
-            all = tmpResourcesArr;
+            node = child;
         }
 
-        if (all.length == 0) {
-            return of(EMPTY_RESOURCES);
+        return node;
+    }
+
+    /** Returns the node of the first {@code segmentCount} segments of the {@code path} or {@code null} if there is no such node. */
+    private Node findNode(Path path, int segmentCount) {
+        Node node = root;
+
+        for (int i = 0; i < segmentCount && node != null; i++) {
+            node = node.children.get(path.segment(i));
         }
 
-        return of(all);
+        return node;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public void clear() {
-        memoryCache.clear();
+    /**
+     * Forgets the children of the given {@code node}, nodes of the nested descendants are kept
+     * unless {@code withChildren} is {@code true}, in this case descendants are forgotten as well.
+     */
+    private void unlist(Node node, boolean withChildren) {
+        if (!node.listed) {
+            return;
+        }
+
+        node.listed = false;
+
+        for (Map.Entry<String, Node> entry : new ArrayList<>(node.children.entrySet())) {
+            final Node child = entry.getValue();
+            final Resource resource = child.resource;
+
+            child.resource = null;
+
+            if (withChildren && resource instanceof Container) {
+                unlist(child, true);
+            }
+
+            if (child.isEmpty()) {
+                node.children.remove(entry.getKey());
+            }
+        }
+
+        node.childResources = null;
+    }
+
+    private void collectDescendants(Node node, List<Resource> all) {
+        if (node.listed) {
+            for (Node child : node.children.values()) {
+                if (child.resource != null) {
+                    all.add(child.resource);
+                }
+            }
+        }
+
+        for (Node child : node.children.values()) {
+            collectDescendants(child, all);
+        }
     }
 
     private <R extends Resource> void intercept(R resource) {
@@ -240,4 +288,42 @@ class InMemoryResourceStore implements ResourceStore {
             interceptor.intercept(resource);
         }
     }
+
+    /**
+     * Node of the trie, it is bound to the path which is built from the keys of the nodes on the way from the root.
+     * The node is {@code listed} when its children resources have been registered, the same as the folder is listed.
+     */
+    private static class Node {
+        final TreeMap<String, Node> children = new TreeMap<>();
+
+        Resource   resource;
+        boolean    listed;
+        Resource[] childResources;
+
+        /** Sets resource of the given {@code child} node and resets cached array of children resources. */
+        void resource(Node child, Resource resource) {
+            child.resource = resource;
+            childResources = null;
+        }
+
+        Resource[] getChildResources() {
+            if (childResources == null) {
+                final List<Resource> resources = new ArrayList<>(children.size());
+
+                for (Node child : children.values()) {
+                    if (child.resource != null) {
+                        resources.add(child.resource);
+                    }
+                }
+
+                childResources = resources.isEmpty() ? EMPTY_RESOURCES : resources.toArray(new Resource[resources.size()]);
+            }
+
+            return childResources;
+        }
+
+        boolean isEmpty() {
+            return resource == null && !listed && children.isEmpty();
+        }
+    }
 }
@@ -698,16 +698,13 @@ public final class ResourceManager {
 
 
             } else {
-                for (Resource resource : reloaded) {
-                    store.register(resource);
+                store.registerAll(reloaded);
 
+                for (Resource resource : reloaded) {
                     eventBus.fireEvent(new ResourceChangedEvent(new ResourceDeltaImpl(resource, ADDED)));
-
-                    final Optional<Resource> registered = store.getResource(resource.getLocation());
-                    if (registered.isPresent()) {
-                        result = Arrays.add(result, registered.get());
-                    }
                 }
+
+                result = reloaded;
             }
 
             return result;
@@ -832,16 +829,21 @@ public final class ResourceManager {
                 }
             }
 
-            for (TreeElement element : treeElement.getChildren()) {
-                final Resource resource = newResourceFrom(element.getNode());
+            final List<TreeElement> elements = treeElement.getChildren();
+            final Resource[] resources = new Resource[elements.size()];
+
+            for (int i = 0; i < resources.length; i++) {
+                final Resource resource = newResourceFrom(elements.get(i).getNode());
 
                 if (resource.isProject()) {
                     inspectProject(resource.asProject());
                 }
 
-                store.register(resource);
+                resources[i] = resource;
             }
 
+            store.registerAll(resources);
+
             return promises.resolve(null);
         });
     }
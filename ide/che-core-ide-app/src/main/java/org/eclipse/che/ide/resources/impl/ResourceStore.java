@@ -50,6 +50,24 @@ interface ResourceStore {
      */
     boolean register(Resource resource);
 
+    /**
+     * Register the given {@code resources} in storage in one pass, e.g. resources of the fetched tree.
+     * <p/>
+     * It is the same as calling {@link #register(Resource)} for each of the given resources, but it is
+     * faster when siblings follow each other, which is the case of resources obtained by tree traversal.
+     *
+     * @param resources
+     *         the resources to be registered
+     * @throws IllegalArgumentException
+     *         if argument checking was failed, reasons include:
+     *         <ul>
+     *         <li>Null resources occurred</li>
+     *         <li>Null resource occurred</li>
+     *         </ul>
+     * @since 5.8.0
+     */
+    void registerAll(Resource[] resources);
+
     /**
      * Dispose given {@code resource} and dispose children if {@code withChildren} was flagged as {@code true}.
      * <p/>
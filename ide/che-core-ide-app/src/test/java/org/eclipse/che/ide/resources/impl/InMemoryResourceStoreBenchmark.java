@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.resources.impl;
+
+import org.eclipse.che.api.promises.client.PromiseProvider;
+import org.eclipse.che.ide.api.resources.Resource;
+import org.eclipse.che.ide.api.resources.ResourceInterceptor;
+import org.eclipse.che.ide.resource.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures registration, descendants lookup and disposing of resources of a big project tree
+ * in {@link InMemoryResourceStore}. The store uses only classes emulated by GWT, so the same
+ * scenarios may be compared in the browser, while the numbers here are measured on the JVM.
+ *
+ * <p>It is not run with the tests, use the following command from the module directory to run it:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.ide.resources.impl.InMemoryResourceStoreBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+@Fork(1)
+public class InMemoryResourceStoreBenchmark {
+    private static final int FOLDERS = 20;
+
+    @Param({"500", "5000"})
+    private int filesPerFolder;
+
+    private Resource[]            tree;
+    private InMemoryResourceStore populatedStore;
+
+    @Setup
+    public void createTree() {
+        // resources only keep the manager, it is never called while resources are stored
+        final ResourceManager resourceManager = mock(ResourceManager.class);
+        final PromiseProvider promiseProvider = mock(PromiseProvider.class);
+
+        final List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < FOLDERS; i++) {
+            resources.add(new FolderImpl(Path.valueOf("/project/folder" + i), resourceManager, promiseProvider));
+            for (int j = 0; j < filesPerFolder; j++) {
+                resources.add(new FileImpl(Path.valueOf("/project/folder" + i + "/file" + j), "", resourceManager));
+            }
+        }
+        tree = resources.toArray(new Resource[resources.size()]);
+        populatedStore = newStore(tree);
+    }
+
+    @Benchmark
+    public InMemoryResourceStore registerAll() {
+        return newStore(tree);
+    }
+
+    @Benchmark
+    public int getAllDescendants() {
+        int descendants = 0;
+        for (int i = 0; i < FOLDERS; i++) {
+            descendants += populatedStore.getAll(Path.valueOf("/project/folder" + i)).get().length;
+        }
+        return descendants;
+    }
+
+    @Benchmark
+    public InMemoryResourceStore disposeFolderChildren(DisposedStore state) {
+        for (int j = 0; j < filesPerFolder; j++) {
+            state.store.dispose(Path.valueOf("/project/folder0/file" + j), false);
+        }
+        return state.store;
+    }
+
+    /** Store which is populated anew before each invocation, as disposing changes it. */
+    @State(Scope.Thread)
+    public static class DisposedStore {
+        private InMemoryResourceStore store;
+
+        @Setup(Level.Invocation)
+        public void populate(InMemoryResourceStoreBenchmark benchmark) {
+            store = newStore(benchmark.tree);
+        }
+    }
+
+    private static InMemoryResourceStore newStore(Resource[] resources) {
+        final InMemoryResourceStore store = new InMemoryResourceStore(Collections.<ResourceInterceptor>emptySet());
+        store.registerAll(resources);
+        return store;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InMemoryResourceStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.resources.impl;
+
+import com.google.common.base.Optional;
+
+import org.eclipse.che.api.promises.client.PromiseProvider;
+import org.eclipse.che.ide.api.resources.Resource;
+import org.eclipse.che.ide.api.resources.ResourceInterceptor;
+import org.eclipse.che.ide.resource.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link InMemoryResourceStore}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InMemoryResourceStoreTest {
+    @Mock
+    private ResourceManager     resourceManager;
+    @Mock
+    private PromiseProvider     promiseProvider;
+    @Mock
+    private ResourceInterceptor interceptor;
+
+    private InMemoryResourceStore store;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryResourceStore(singleton(interceptor));
+    }
+
+    @Test
+    public void shouldReturnChildrenSortedByName() {
+        final Resource b = file("/project/b");
+        final Resource a = file("/project/a");
+        final Resource c = folder("/project/c");
+
+        assertTrue(store.register(b));
+        assertTrue(store.register(a));
+        assertTrue(store.register(c));
+
+        assertArrayEquals(new Resource[]{a, b, c}, store.get(Path.valueOf("/project")).get());
+        verify(interceptor).intercept(a);
+    }
+
+    @Test
+    public void shouldReplaceRegisteredResource() {
+        final Resource original = file("/project/a");
+        final Resource replacement = file("/project/a");
+
+        assertTrue(store.register(original));
+        assertFalse(store.register(replacement));
+
+        assertSame(replacement, store.getResource(Path.valueOf("/project/a")).get());
+        assertEquals(1, store.get(Path.valueOf("/project")).get().length);
+    }
+
+    @Test
+    public void shouldNotReturnUnknownResource() {
+        store.register(file("/project/a"));
+
+        assertFalse(store.getResource(Path.valueOf("/project/b")).isPresent());
+        assertFalse(store.getResource(Path.valueOf("/other/a")).isPresent());
+        assertFalse(store.get(Path.valueOf("/project/a")).isPresent());
+    }
+
+    @Test
+    public void shouldDisposeResourceWithChildren() {
+        store.register(folder("/project"));
+        store.register(folder("/project/src"));
+        store.register(folder("/project/src/main"));
+        store.register(file("/project/src/main/A.java"));
+
+        store.dispose(Path.valueOf("/project/src"), true);
+
+        assertFalse(store.getResource(Path.valueOf("/project/src")).isPresent());
+        assertFalse(store.getResource(Path.valueOf("/project/src/main/A.java")).isPresent());
+        assertFalse(store.get(Path.valueOf("/project/src/main")).isPresent());
+        assertEquals(0, store.get(Path.valueOf("/project")).get().length);
+    }
+
+    @Test
+    public void shouldReturnAllDescendants() {
+        final Resource src = folder("/project/src");
+        final Resource main = folder("/project/src/main");
+        final Resource file = file("/project/src/main/A.java");
+        final Resource pom = file("/project/pom.xml");
+        store.register(folder("/project"));
+        store.register(src);
+        store.register(main);
+        store.register(file);
+        store.register(pom);
+        store.register(file("/other/B.java"));
+
+        final Optional<Resource[]> all = store.getAll(Path.valueOf("/project"));
+
+        assertTrue(all.isPresent());
+        assertArrayEquals(new Resource[]{pom, src, main, file}, all.get());
+    }
+
+    @Test
+    public void shouldRegisterAllResources() {
+        final Resource src = folder("/project/src");
+        final Resource a = file("/project/src/a");
+        final Resource b = file("/project/src/b");
+        final Resource pom = file("/project/pom.xml");
+
+        store.registerAll(new Resource[]{src, b, a, pom});
+
+        assertArrayEquals(new Resource[]{pom, src}, store.get(Path.valueOf("/project")).get());
+        assertArrayEquals(new Resource[]{a, b}, store.get(Path.valueOf("/project/src")).get());
+        verify(interceptor).intercept(pom);
+    }
+
+    @Test
+    public void shouldClearStore() {
+        store.register(file("/project/a"));
+
+        store.clear();
+
+        assertFalse(store.getResource(Path.valueOf("/project/a")).isPresent());
+        assertFalse(store.get(Path.ROOT).isPresent());
+    }
+
+    private Resource file(String path) {
+        return new FileImpl(Path.valueOf(path), "", resourceManager);
+    }
+
+    private Resource folder(String path) {
+        return new FolderImpl(Path.valueOf(path), resourceManager, promiseProvider);
+    }
+}
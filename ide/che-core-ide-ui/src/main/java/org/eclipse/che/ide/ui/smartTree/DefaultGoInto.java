@@ -78,7 +78,11 @@ public class DefaultGoInto implements GoInto {
 
         Element rootContainer = tree.getContainer(null);
         rootContainer.setInnerHTML("");
-        rootContainer.appendChild(tree.getNodeDescriptor(node).getRootContainer());
+        //node row may be not rendered if tree renders only visible rows, then it is rendered on update
+        Element nodeContainer = tree.getNodeDescriptor(node).getRootContainer();
+        if (nodeContainer != null) {
+            rootContainer.appendChild(nodeContainer);
+        }
 
         //if go into node is collapsed - then we need to expand it
         if (!tree.getNodeDescriptor(node).isExpanded()) {
@@ -111,7 +115,9 @@ public class DefaultGoInto implements GoInto {
         //restore root nodes
         for (Node rootNode : rootNodes) {
             NodeDescriptor descriptor = tree.getNodeDescriptor(rootNode);
-            rootContainer.appendChild(descriptor.getRootContainer());
+            if (descriptor.getRootContainer() != null) {
+                rootContainer.appendChild(descriptor.getRootContainer());
+            }
         }
 
         //then re-add our go into node
@@ -489,26 +489,26 @@ public class SelectionModel implements HasSelectionHandlers<Node>, HasBeforeSele
 
                         // from last selected or firstly selected
                         NodeDescriptor lastSelTreeNode = tree.getNodeDescriptor(lastSelectedNode);
-                        Element lastSelTreeEl = tree.getView().getRootContainer(lastSelTreeNode);
 
                         // to selected or secondly selected
                         NodeDescriptor selTreeNode = tree.getNodeDescriptor(sel);
-                        Element selTreeNodeEl = tree.getView().getRootContainer(selTreeNode);
 
                         // holding shift down, selecting the same item again, selecting itself
                         if (sel == lastSelectedNode) {
                             tree.focus();
                             doSelect(Collections.singletonList(sel), false, false);
 
-                        } else if (lastSelTreeEl != null && selTreeNodeEl != null) {
+                        } else if (lastSelTreeNode != null && selTreeNode != null) {
                             // add the last selected, as its not added during the walk
                             selectedItems.add(lastSelectedNode);
 
                             // After walking reset back to previously selected
                             final Node previouslyLastSelected = lastSelectedNode;
 
-                            // This deals with flipping directions
-                            if (lastSelTreeEl.getAbsoluteTop() < selTreeNodeEl.getAbsoluteTop()) {
+                            // This deals with flipping directions, order is taken from the model
+                            // as the rows may be not rendered when the tree renders only visible ones
+                            List<Node> visible = tree.getAllChildNodes(tree.getRootNodes(), true);
+                            if (visible.indexOf(lastSelectedNode) < visible.indexOf(sel)) {
                                 // down selection
                                 Node next = next();
                                 while (next != null) {
@@ -67,9 +67,12 @@ import org.eclipse.che.ide.ui.status.StatusText;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.Collections.singletonList;
@@ -168,6 +171,11 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
 
     private static final String NULL_NODE_MSG         = "Node should not be a null";
     private static final String NULL_NODE_STORAGE_MSG = "Node should not be a null";
+    private static final String SPACER_ATTRIBUTE      = "data-spacer";
+    private static final String TOP_SPACER            = "top";
+    private static final String BOTTOM_SPACER         = "bottom";
+
+    private static final int DEFAULT_OVERSCAN_ROW_COUNT = 20;
 
     /**
      * Flag that instruct tree widget always expand non-leaf nodes.
@@ -275,6 +283,21 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
 
     private boolean focused = false;
 
+    /**
+     * Flag that instruct tree widget to keep in DOM only rows which are in the visible area.
+     */
+    private boolean renderVisibleRowsOnly = false;
+
+    /**
+     * Number of rows rendered above and below the visible area when only visible rows are rendered.
+     */
+    private int overscanRowCount = DEFAULT_OVERSCAN_ROW_COUNT;
+
+    /**
+     * Number of visible rows in the subtree of each node, calculated for the last rendered window of rows.
+     */
+    private Map<NodeDescriptor, Integer> visibleRowCounts;
+
     public Tree(NodeStorage nodeStorage, NodeLoader nodeLoader) {
         this(nodeStorage, nodeLoader, GWT.<TreeStyles>create(TreeStyles.class));
     }
@@ -580,6 +603,40 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
         this.autoSelect = autoSelect;
     }
 
+    /**
+     * Enables rendering of only those rows which are in the visible area of the tree, plus some rows above and below it.
+     * The rows are rendered and removed while the tree is scrolled, the space of the rows which are not rendered is kept
+     * by spacer elements, so the tree with thousands of expanded nodes keeps a small DOM. Node storage keeps all the nodes,
+     * so selection, keyboard navigation and speed search work with the nodes which are not rendered.
+     * Should be set before the tree is attached.
+     *
+     * @param renderVisibleRowsOnly true if only visible rows should be rendered, otherwise false
+     */
+    public void setRenderVisibleRowsOnly(boolean renderVisibleRowsOnly) {
+        this.renderVisibleRowsOnly = renderVisibleRowsOnly;
+    }
+
+    /**
+     * Returns true if tree renders only visible rows.
+     *
+     * @return true if only visible rows are rendered, otherwise false
+     * @see #setRenderVisibleRowsOnly(boolean)
+     */
+    public boolean isRenderVisibleRowsOnly() {
+        return renderVisibleRowsOnly;
+    }
+
+    /**
+     * Sets number of rows rendered above and below the visible area when only visible rows are rendered.
+     *
+     * @param overscanRowCount number of rows, default is 20
+     */
+    public void setOverscanRowCount(int overscanRowCount) {
+        checkArgument(overscanRowCount >= 0, "Overscan row count should not be negative");
+
+        this.overscanRowCount = overscanRowCount;
+    }
+
     /**
      * Returns list of current root nodes.
      * Before return method check if tree is in "Go Into" mode, if it is, then method will return only one node that is in "Go Into" mode.
@@ -667,6 +724,9 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             return;
         }
         Element container = descriptor.getNodeContainerElement();
+        if (container == null && renderVisibleRowsOnly && isOrWasAttached()) {
+            container = scrollToRow(node);
+        }
         if (container == null) {
             return;
         }
@@ -777,6 +837,7 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             }
 
             nodesByDom.clear();
+            visibleRowCounts = null;
             if (isAttached()) {
                 moveFocus(getContainer(null));
             }
@@ -1026,10 +1087,19 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
     }
 
     protected void update() {
+        visibleRowCounts = null;
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
         if (updateTask == null) {
             updateTask = new DelayedTask() {
                 @Override
                 public void onExecute() {
+                    if (renderVisibleRowsOnly) {
+                        renderVisibleRows();
+                    }
+
                     int count = getVisibleRowCount();
                     List<Node> rootItems = getRootNodes();
 
@@ -1045,7 +1115,7 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
 
                                 view.onDepthUpdated(getNodeDescriptor(visible.get(i)), currentNodeDepth - goIntoDirDepth);
                             }
-                            if (!isRowRendered(i, visible)) {
+                            if (!renderVisibleRowsOnly && !isRowRendered(i, visible)) {
                                 Node parent = nodeStorage.getParent(visible.get(i));
                                 Element html = renderNode(visible.get(i), nodeStorage.getDepth(parent));
                                 Element rootContainer = view.getRootContainer(getNodeDescriptor(visible.get(i)));
@@ -1146,13 +1216,17 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             if (isExpanded(parent)) {
                 setExpanded(parent, false, true);
                 Element container = getContainer(parent);
-                container.setInnerHTML("");
+                if (container != null) {
+                    container.setInnerHTML("");
+                }
                 nodeDescriptor.setChildrenRendered(false);
                 setExpanded(parent, true, nodeDescriptor.isExpandDeep());
             } else {
                 if (nodeDescriptor.isChildrenRendered()) {
                     Element container = getContainer(parent);
-                    container.setInnerHTML("");
+                    if (container != null) {
+                        container.setInnerHTML("");
+                    }
                     nodeDescriptor.setChildrenRendered(false);
                 }
                 setExpanded(parent, true, nodeDescriptor.isExpandDeep());
@@ -1221,15 +1295,22 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             return;
         }
 
-        Element container = getContainer(parent);
+        if (renderVisibleRowsOnly) {
+            // rows are rendered by the update task when they get into the visible area
+            for (Node child : children) {
+                register(child);
+            }
+        } else {
+            Element container = getContainer(parent);
 
-        if (container == null) {
-            return;
-        }
+            if (container == null) {
+                return;
+            }
 
-        for (Node child : children) {
-            Element element = renderNode(child, depth);
-            container.appendChild(element);
+            for (Node child : children) {
+                Element element = renderNode(child, depth);
+                container.appendChild(element);
+            }
         }
 
         for (Node child : children) {
@@ -1265,6 +1346,7 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
         }
 
         nodeDescriptor.setLoaded(false);
+        visibleRowCounts = null;
 
         for (Node toRemove : nodeStorage.getAllChildren(node)) {
             nodeStorage.remove(toRemove);
@@ -1387,6 +1469,191 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
         return getElement();
     }
 
+    /**
+     * Renders rows of the nodes which are in the visible area of the tree plus overscan rows and removes the other rows.
+     * Height of the rows which are not rendered is kept by top and bottom spacers of each descendants container.
+     */
+    private void renderVisibleRows() {
+        if (rootContainer == null) {
+            return;
+        }
+
+        if (visibleRowCounts == null) {
+            visibleRowCounts = new HashMap<>();
+        }
+
+        int rowHeight = view.getCalculatedRowHeight();
+        VisibleRows range = VisibleRows.of(getElement().getScrollTop(), getElement().getOffsetHeight(), rowHeight, overscanRowCount);
+
+        renderVisibleRows(rootContainer, getRootNodes(), 0, range, rowHeight);
+    }
+
+    /**
+     * Renders rows of the given nodes which are in the range of rows into the container.
+     *
+     * @param container container of the node rows
+     * @param nodes     nodes which rows are placed into the container
+     * @param offset    index of the first node's row among all the visible rows of the tree
+     * @param range     range of rows to render
+     * @param rowHeight height of a row in pixels
+     */
+    private void renderVisibleRows(Element container, List<Node> nodes, int offset, VisibleRows range, int rowHeight) {
+        List<NodeDescriptor> descriptors = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            NodeDescriptor descriptor = getNodeDescriptor(node);
+            if (descriptor != null) {
+                descriptors.add(descriptor);
+            }
+        }
+
+        int[] nodesRows = new int[descriptors.size()];
+        for (int i = 0; i < nodesRows.length; i++) {
+            nodesRows[i] = countVisibleRows(descriptors.get(i));
+        }
+        VisibleRows.Split split = range.split(offset, nodesRows);
+        List<NodeDescriptor> rendered = descriptors.subList(split.getFrom(), split.getTo());
+
+        Element topSpacer = getSpacer(container, TOP_SPACER);
+        Element bottomSpacer = getSpacer(container, BOTTOM_SPACER);
+        topSpacer.getStyle().setHeight(split.getTopRows() * rowHeight, Style.Unit.PX);
+        bottomSpacer.getStyle().setHeight(split.getBottomRows() * rowHeight, Style.Unit.PX);
+
+        Set<NodeDescriptor> renderedSet = new HashSet<>(rendered);
+        Element element = container.getFirstChildElement();
+        while (element != null) {
+            Element next = element.getNextSiblingElement();
+            if (isRowElement(element)) {
+                NodeDescriptor descriptor = nodesByDom.get(element.getId());
+                if (descriptor == null || !renderedSet.contains(descriptor) || descriptor.getRootContainer() != element) {
+                    element.removeFromParent();
+                    forgetRows(element);
+                }
+            }
+            element = next;
+        }
+
+        Element cursor = nextRowElement(topSpacer.getNextSiblingElement(), bottomSpacer);
+        int index = split.getRenderedOffset();
+        for (NodeDescriptor descriptor : rendered) {
+            Element row = descriptor.getRootContainer();
+            if (row == null) {
+                row = renderRow(descriptor);
+            }
+
+            if (row == cursor) {
+                cursor = nextRowElement(cursor.getNextSiblingElement(), bottomSpacer);
+            } else {
+                container.insertBefore(row, cursor);
+            }
+
+            if (descriptor.isExpanded()) {
+                renderVisibleRows(view.getDescendantsContainer(descriptor), nodeStorage.getChildren(descriptor.getNode()), index + 1, range,
+                                  rowHeight);
+            }
+            index += countVisibleRows(descriptor);
+        }
+    }
+
+    /** Returns number of rows of the node and its visible descendants. */
+    private int countVisibleRows(NodeDescriptor descriptor) {
+        Integer count = visibleRowCounts.get(descriptor);
+        if (count == null) {
+            count = 1;
+            if (descriptor.isExpanded()) {
+                for (Node child : nodeStorage.getChildren(descriptor.getNode())) {
+                    NodeDescriptor childDescriptor = getNodeDescriptor(child);
+                    if (childDescriptor != null) {
+                        count += countVisibleRows(childDescriptor);
+                    }
+                }
+            }
+            visibleRowCounts.put(descriptor, count);
+        }
+        return count;
+    }
+
+    /** Renders row of the node without resetting its state, as {@link #renderNode(Node, int)} does. */
+    private Element renderRow(NodeDescriptor descriptor) {
+        Node node = descriptor.getNode();
+        if (isNullOrEmpty(descriptor.getDomId())) {
+            descriptor.setDomId(Document.get().createUniqueId());
+            nodesByDom.put(descriptor.getDomId(), descriptor);
+        }
+
+        Element row = getPresentationRenderer().render(node, descriptor.getDomId(), getJoint(node),
+                                                       nodeStorage.getDepth(nodeStorage.getParent(node)));
+        descriptor.clearElements();
+        descriptor.setRootContainerElement(row);
+
+        if (selectionModel.isSelected(node)) {
+            view.getNodeContainer(descriptor).addClassName(treeStyles.styles().selected());
+        }
+        if (descriptor.isLoading()) {
+            view.onLoadChange(descriptor, true);
+        }
+        return row;
+    }
+
+    /** Forgets cached elements of the removed row and rows of its descendants, so they will be rendered again when needed. */
+    private void forgetRows(Element row) {
+        NodeDescriptor descriptor = nodesByDom.get(row.getId());
+        if (descriptor == null || descriptor.getRootContainer() != row) {
+            return;
+        }
+
+        Element descendantsContainer = view.getDescendantsContainer(descriptor);
+        descriptor.clearElements();
+
+        if (descendantsContainer != null) {
+            for (Element child = descendantsContainer.getFirstChildElement(); child != null; child = child.getNextSiblingElement()) {
+                if (isRowElement(child)) {
+                    forgetRows(child);
+                }
+            }
+        }
+    }
+
+    /** Sets scroll position of the tree to the row of the node and renders the rows around it. */
+    private Element scrollToRow(Node node) {
+        int index = getAllChildNodes(getRootNodes(), true).indexOf(node);
+        if (index < 0) {
+            return null;
+        }
+
+        getElement().setScrollTop(VisibleRows.getScrollTop(index, getElement().getOffsetHeight(), view.getCalculatedRowHeight()));
+        renderVisibleRows();
+
+        return view.getNodeContainer(getNodeDescriptor(node));
+    }
+
+    private Element getSpacer(Element container, String type) {
+        for (Element child = container.getFirstChildElement(); child != null; child = child.getNextSiblingElement()) {
+            if (type.equals(child.getAttribute(SPACER_ATTRIBUTE))) {
+                return child;
+            }
+        }
+
+        Element spacer = Document.get().createDivElement();
+        spacer.setAttribute(SPACER_ATTRIBUTE, type);
+        if (TOP_SPACER.equals(type)) {
+            container.insertFirst(spacer);
+        } else {
+            container.appendChild(spacer);
+        }
+        return spacer;
+    }
+
+    private Element nextRowElement(Element element, Element bottomSpacer) {
+        while (element != null && element != bottomSpacer && !isRowElement(element)) {
+            element = element.getNextSiblingElement();
+        }
+        return element;
+    }
+
+    private boolean isRowElement(Element element) {
+        return element.hasClassName(treeStyles.styles().rootContainer());
+    }
+
     private void onAdd(StoreAddEvent event) {
         for (Node child : event.getNodes()) {
             register(child);
@@ -1397,7 +1664,18 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             final Element container = getContainer(parent);
             final int index = event.getIndex();
 
-            if (parent == null) {
+            if (renderVisibleRowsOnly) {
+                NodeDescriptor descriptor = parent == null ? null : getNodeDescriptor(parent);
+                if (parent != null && (descriptor == null || !descriptor.isChildrenRendered())) {
+                    redraw(parent);
+                } else {
+                    if (descriptor != null && !descriptor.isExpanded() && nodeStorage.getChildCount(parent) == 1) {
+                        setExpanded(parent, true);
+                    }
+                    update();
+                    scrollIntoView(event.getNodes().get(event.getNodes().size() - 1));
+                }
+            } else if (parent == null) {
                 for (Node child : event.getNodes()) {
                     if (index == 0) {
                         container.insertFirst(renderNode(child, 0));
@@ -1482,6 +1760,10 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
             }
         }
 
+        if (renderVisibleRowsOnly) {
+            update();
+        }
+
         if (getRootNodes().isEmpty()) {
             emptyStatus.paint();
         }
@@ -1531,7 +1813,10 @@ public class Tree extends FocusWidget implements HasBeforeExpandNodeHandlers,
     }
 
     private void onScroll(Event event) {
-        update();
+        if (renderVisibleRowsOnly) {
+            renderVisibleRows();
+        }
+        scheduleUpdate();
         constrainFocusElement();
     }
 
@@ -27,12 +27,15 @@ import org.eclipse.che.ide.api.data.tree.Node;
  */
 public class TreeView {
 
+    private static final int DEFAULT_ROW_HEIGHT = 20;
+
     protected NodeDescriptor over;
     protected Tree           tree;
 
     private int cacheSize   = 20;
     private int cleanDelay  = 500;
     private int scrollDelay = 1;
+    private int rowHeight;
 
     public static String blankImageUrl = "data:image/gif;base64,R0lGODlhAQABAID/AMDAwAAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==";
 
@@ -41,12 +44,20 @@ public class TreeView {
     }
 
     public void collapse(NodeDescriptor node) {
-        getDescendantsContainer(node).getStyle().setDisplay(Style.Display.NONE);
+        Element descendantsContainer = getDescendantsContainer(node);
+        if (descendantsContainer == null) {
+            return;
+        }
+        descendantsContainer.getStyle().setDisplay(Style.Display.NONE);
         onJointChange(node, tree.getJoint(node.getNode()));
     }
 
     public void expand(NodeDescriptor node) {
-        getDescendantsContainer(node).getStyle().setDisplay(Style.Display.BLOCK);
+        Element descendantsContainer = getDescendantsContainer(node);
+        if (descendantsContainer == null) {
+            return;
+        }
+        descendantsContainer.getStyle().setDisplay(Style.Display.BLOCK);
         onJointChange(node, tree.getJoint(node.getNode()));
     }
 
@@ -63,9 +74,17 @@ public class TreeView {
         return cleanDelay;
     }
 
+    /**
+     * Returns the container of the node children or null if the node isn't rendered.
+     * Nodes are not rendered while they are out of the visible area of the tree which renders only visible rows.
+     */
     public Element getDescendantsContainer(NodeDescriptor node) {
         if (node.getDescendantsContainerElement() == null) {
-            Element element = getRootContainer(node).getChildNodes().getItem(1).cast();
+            Element rootContainer = getRootContainer(node);
+            if (rootContainer == null) {
+                return null;
+            }
+            Element element = rootContainer.getChildNodes().getItem(1).cast();
             node.setDescendantsContainerElement(element);
         }
         return node.getDescendantsContainerElement();
@@ -82,6 +101,9 @@ public class TreeView {
      */
     public Element getRootContainer(NodeDescriptor node) {
         if (node.getRootContainer() == null) {
+            if (node.getDomId() == null) {
+                return null;
+            }
             Element element = Document.get().getElementById(node.getDomId()).cast();
             node.setRootContainerElement(element);
         }
@@ -98,12 +120,16 @@ public class TreeView {
         if (node.getNodeContainerElement() == null) {
             node.setNodeContainerElement(getRootContainer(node) != null ? getRootContainer(node).getFirstChildElement() : null);
         }
-        return node.getNodeContainerElement().cast();
+        return node.getNodeContainerElement();
     }
 
     public Element getJointContainer(NodeDescriptor node) {
         if (node.getJointContainerElement() == null) {
-            Element element = getNodeContainer(node).getChildNodes().getItem(0).cast();
+            Element nodeContainer = getNodeContainer(node);
+            if (nodeContainer == null) {
+                return null;
+            }
+            Element element = nodeContainer.getChildNodes().getItem(0).cast();
             node.setJointContainerElement(element);
         }
         return node.getJointContainerElement();
@@ -111,7 +137,11 @@ public class TreeView {
 
     public Element getIconContainer(NodeDescriptor node) {
         if (node.getIconContainerElement() == null) {
-            Element element = getNodeContainer(node).getChildNodes().getItem(1).cast();
+            Element nodeContainer = getNodeContainer(node);
+            if (nodeContainer == null) {
+                return null;
+            }
+            Element element = nodeContainer.getChildNodes().getItem(1).cast();
             node.setIconContainerElement(element);
         }
         return node.getIconContainerElement();
@@ -119,7 +149,11 @@ public class TreeView {
 
     public Element getUserElementContainer(NodeDescriptor node) {
         if (node.getUserElement() == null) {
-            Element element = getNodeContainer(node).getChildNodes().getItem(2).cast();
+            Element nodeContainer = getNodeContainer(node);
+            if (nodeContainer == null) {
+                return null;
+            }
+            Element element = nodeContainer.getChildNodes().getItem(2).cast();
             node.setUserElement(element);
         }
         return node.getUserElement();
@@ -127,7 +161,11 @@ public class TreeView {
 
     public Element getPresentableTextContainer(NodeDescriptor node) {
         if (node.getPresentableTextContainer() == null) {
-            Element element = getNodeContainer(node).getChildNodes().getItem(3).cast();
+            Element nodeContainer = getNodeContainer(node);
+            if (nodeContainer == null) {
+                return null;
+            }
+            Element element = nodeContainer.getChildNodes().getItem(3).cast();
             node.setPresentableTextContainer(element);
         }
         return node.getPresentableTextContainer();
@@ -135,7 +173,11 @@ public class TreeView {
 
     public Element getInfoTextContainer(NodeDescriptor node) {
         if (node.getPresentableTextContainer() == null) {
-            Element element = getNodeContainer(node).getChildNodes().getItem(4).cast();
+            Element nodeContainer = getNodeContainer(node);
+            if (nodeContainer == null) {
+                return null;
+            }
+            Element element = nodeContainer.getChildNodes().getItem(4).cast();
             node.setInfoTextContainer(element);
         }
         return node.getInfoTextContainer();
@@ -174,11 +216,17 @@ public class TreeView {
 
     public void onDepthUpdated(NodeDescriptor node, int newDepth) {
         Element nodeElement = getNodeContainer(node);
+        if (nodeElement == null) {
+            return;
+        }
 
         nodeElement.getStyle().setPaddingLeft(newDepth * getIndenting(node), Style.Unit.PX);
     }
 
     public void onElementChanged(NodeDescriptor node, Element element) {
+        if (getRootContainer(node) == null) {
+            return;
+        }
         Element el = getRootContainer(node).getFirstChildElement();
 
         if (el == null) {
@@ -214,6 +262,9 @@ public class TreeView {
         }
 
         Element rootContainer = getNodeContainer(node);
+        if (rootContainer == null) {
+            return;
+        }
         if (loading) {
             rootContainer.addClassName(tree.getTreeStyles().styles().loading());
         } else {
@@ -267,8 +318,23 @@ public class TreeView {
         this.scrollDelay = scrollDelay;
     }
 
+    /**
+     * Returns height of a row in pixels. The height is measured on the first rendered row of the tree,
+     * {@value #DEFAULT_ROW_HEIGHT} pixels are assumed until a row is rendered and displayed.
+     */
     protected int getCalculatedRowHeight() {
-        return 20;
+        if (rowHeight <= 0) {
+            Element container = tree.getContainer(null);
+            for (Element child = container != null ? container.getFirstChildElement() : null;
+                 child != null;
+                 child = child.getNextSiblingElement()) {
+                if (child.hasClassName(tree.getTreeStyles().styles().rootContainer()) && child.getFirstChildElement() != null) {
+                    rowHeight = child.getFirstChildElement().getOffsetHeight();
+                    break;
+                }
+            }
+        }
+        return rowHeight > 0 ? rowHeight : DEFAULT_ROW_HEIGHT;
     }
 
     protected int getIndenting(NodeDescriptor node) {
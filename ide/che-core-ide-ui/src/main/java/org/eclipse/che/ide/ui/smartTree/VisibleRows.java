@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ui.smartTree;
+
+/**
+ * Range of rows which are kept in DOM by the tree which renders only visible rows,
+ * the rows of the visible area of the tree plus overscan rows above and below it.
+ *
+ * @see Tree#setRenderVisibleRowsOnly(boolean)
+ */
+class VisibleRows {
+    private final int first;
+    private final int last;
+
+    VisibleRows(int first, int last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Creates the range of rows which are in the visible area of the tree.
+     *
+     * @param scrollTop        scroll position of the tree in pixels
+     * @param viewportHeight   height of the visible area of the tree in pixels
+     * @param rowHeight        height of a row in pixels
+     * @param overscanRowCount number of rows added above and below the visible area
+     */
+    static VisibleRows of(int scrollTop, int viewportHeight, int rowHeight, int overscanRowCount) {
+        return new VisibleRows(Math.max(scrollTop / rowHeight - overscanRowCount, 0),
+                               (scrollTop + viewportHeight) / rowHeight + overscanRowCount);
+    }
+
+    /**
+     * Returns scroll position of the tree which puts the row in the middle of the visible area.
+     *
+     * @param index          index of the row among all the visible rows of the tree
+     * @param viewportHeight height of the visible area of the tree in pixels
+     * @param rowHeight      height of a row in pixels
+     */
+    static int getScrollTop(int index, int viewportHeight, int rowHeight) {
+        return Math.max(index * rowHeight - viewportHeight / 2, 0);
+    }
+
+    /** Returns index of the first row in the range. */
+    int getFirst() {
+        return first;
+    }
+
+    /** Returns index of the last row in the range. */
+    int getLast() {
+        return last;
+    }
+
+    /**
+     * Splits sibling nodes of a container into the nodes which rows are above the range, which are rendered and which are below
+     * the range. Rows of a node are the row of the node itself and the rows of its visible descendants.
+     *
+     * @param offset    index of the first row of the first node among all the visible rows of the tree
+     * @param nodesRows number of rows of each node
+     */
+    Split split(int offset, int[] nodesRows) {
+        int topRows = 0;
+        int bottomRows = 0;
+        int from = nodesRows.length;
+        int to = nodesRows.length;
+        int renderedOffset = offset;
+
+        int index = offset;
+        for (int i = 0; i < nodesRows.length; i++) {
+            int rows = nodesRows[i];
+            if (index + rows <= first) {
+                topRows += rows;
+            } else if (index > last) {
+                if (to == nodesRows.length) {
+                    to = i;
+                }
+                bottomRows += rows;
+            } else if (from == nodesRows.length) {
+                from = i;
+                renderedOffset = index;
+            }
+            index += rows;
+        }
+
+        if (from == nodesRows.length) {
+            to = from;
+        }
+        return new Split(topRows, bottomRows, from, to, renderedOffset);
+    }
+
+    /** Result of {@link #split(int, int[])}. */
+    static class Split {
+        private final int topRows;
+        private final int bottomRows;
+        private final int from;
+        private final int to;
+        private final int renderedOffset;
+
+        Split(int topRows, int bottomRows, int from, int to, int renderedOffset) {
+            this.topRows = topRows;
+            this.bottomRows = bottomRows;
+            this.from = from;
+            this.to = to;
+            this.renderedOffset = renderedOffset;
+        }
+
+        /** Returns number of rows above the range, their height is kept by the top spacer. */
+        int getTopRows() {
+            return topRows;
+        }
+
+        /** Returns number of rows below the range, their height is kept by the bottom spacer. */
+        int getBottomRows() {
+            return bottomRows;
+        }
+
+        /** Returns index of the first rendered node. */
+        int getFrom() {
+            return from;
+        }
+
+        /** Returns index following the last rendered node. */
+        int getTo() {
+            return to;
+        }
+
+        /** Returns index of the first row of the first rendered node among all the visible rows of the tree. */
+        int getRenderedOffset() {
+            return renderedOffset;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ui.smartTree;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link VisibleRows}.
+ */
+public class VisibleRowsTest {
+
+    @Test
+    public void shouldAddOverscanRowsAroundVisibleArea() throws Exception {
+        VisibleRows range = VisibleRows.of(400, 300, 20, 5);
+
+        // rows from 20 to 35 are visible
+        assertEquals(15, range.getFirst());
+        assertEquals(40, range.getLast());
+    }
+
+    @Test
+    public void shouldNotStartRangeBeforeFirstRow() throws Exception {
+        VisibleRows range = VisibleRows.of(40, 300, 20, 5);
+
+        assertEquals(0, range.getFirst());
+        assertEquals(22, range.getLast());
+    }
+
+    @Test
+    public void shouldUseMeasuredRowHeight() throws Exception {
+        VisibleRows range = VisibleRows.of(400, 300, 25, 0);
+
+        assertEquals(16, range.getFirst());
+        assertEquals(28, range.getLast());
+    }
+
+    @Test
+    public void shouldPutScrolledRowInTheMiddleOfVisibleArea() throws Exception {
+        assertEquals(850, VisibleRows.getScrollTop(50, 300, 20));
+        assertEquals(0, VisibleRows.getScrollTop(5, 300, 20));
+    }
+
+    @Test
+    public void shouldKeepHeightOfRowsOutOfRangeInSpacers() throws Exception {
+        VisibleRows range = new VisibleRows(10, 19);
+
+        VisibleRows.Split split = range.split(0, new int[]{5, 4, 3, 6, 2, 1, 7});
+
+        // nodes with rows 0-4 and 5-8 are above the range, 9-11, 12-17, 18-19 intersect it, 20 and 21-27 are below
+        assertEquals(9, split.getTopRows());
+        assertEquals(8, split.getBottomRows());
+        assertEquals(2, split.getFrom());
+        assertEquals(5, split.getTo());
+        assertEquals(9, split.getRenderedOffset());
+    }
+
+    @Test
+    public void shouldRenderNodeWhichRowsContainWholeRange() throws Exception {
+        VisibleRows range = new VisibleRows(10, 19);
+
+        VisibleRows.Split split = range.split(0, new int[]{1, 100, 1});
+
+        assertEquals(1, split.getTopRows());
+        assertEquals(1, split.getBottomRows());
+        assertEquals(1, split.getFrom());
+        assertEquals(2, split.getTo());
+        assertEquals(1, split.getRenderedOffset());
+    }
+
+    @Test
+    public void shouldTakeOffsetOfChildrenIntoAccount() throws Exception {
+        VisibleRows range = new VisibleRows(10, 19);
+
+        // children of the node which row is 7
+        VisibleRows.Split split = range.split(8, new int[]{1, 1, 1, 1});
+
+        assertEquals(2, split.getTopRows());
+        assertEquals(0, split.getBottomRows());
+        assertEquals(2, split.getFrom());
+        assertEquals(4, split.getTo());
+        assertEquals(10, split.getRenderedOffset());
+    }
+
+    @Test
+    public void shouldPutAllRowsIntoTopSpacerWhenNodesAreAboveRange() throws Exception {
+        VisibleRows range = new VisibleRows(10, 19);
+
+        VisibleRows.Split split = range.split(0, new int[]{3, 3, 3});
+
+        assertEquals(9, split.getTopRows());
+        assertEquals(0, split.getBottomRows());
+        assertEquals(split.getFrom(), split.getTo());
+    }
+
+    @Test
+    public void shouldPutAllRowsIntoBottomSpacerWhenNodesAreBelowRange() throws Exception {
+        VisibleRows range = new VisibleRows(10, 19);
+
+        VisibleRows.Split split = range.split(20, new int[]{3, 3, 3});
+
+        assertEquals(0, split.getTopRows());
+        assertEquals(9, split.getBottomRows());
+        assertEquals(split.getFrom(), split.getTo());
+    }
+}
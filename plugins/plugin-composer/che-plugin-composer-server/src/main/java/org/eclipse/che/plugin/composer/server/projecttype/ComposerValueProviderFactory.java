@@ -37,6 +37,11 @@ public class ComposerValueProviderFactory implements ValueProviderFactory {
         return new ComposerValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        return Collections.singletonList("composer.json");
+    }
+
     protected class ComposerValueProvider extends ReadonlyValueProvider {
 
         protected FolderEntry projectFolder;
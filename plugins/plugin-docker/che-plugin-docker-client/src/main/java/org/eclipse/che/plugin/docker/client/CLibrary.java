@@ -22,8 +22,13 @@ import java.util.List;
  */
 // C language functions
 public interface CLibrary extends Library {
-    int AF_UNIX     = 1; // Defined in 'sys/socket.h'
-    int SOCK_STREAM = 1; // Defined in 'sys/socket.h'
+    int AF_UNIX      = 1; // Defined in 'sys/socket.h'
+    int SOCK_STREAM  = 1; // Defined in 'sys/socket.h'
+    int MSG_PEEK     = 0x02; // Defined in 'sys/socket.h'
+    int MSG_DONTWAIT = 0x40; // Defined in 'sys/socket.h'
+    int EINTR        = 4; // Defined in 'errno.h'
+    int EAGAIN       = 11; // Defined in 'errno.h', the same as EWOULDBLOCK
+    short POLLIN     = 0x001; // Defined in 'poll.h'
 
     // Defined in 'unix.h', see http://man7.org/linux/man-pages/man7/unix.7.html
     class SockAddrUn extends Structure {
@@ -49,6 +54,18 @@ public interface CLibrary extends Library {
         }
     }
 
+    // Defined in 'poll.h', see http://man7.org/linux/man-pages/man2/poll.2.html
+    class PollFd extends Structure {
+        public int   fd;
+        public short events;
+        public short revents;
+
+        @Override
+        protected List getFieldOrder() {
+            return Arrays.asList("fd", "events", "revents");
+        }
+    }
+
     int socket(int domain, int type, int protocol);
 
     int connect(int fd, SockAddrUn sock_addr, int addr_len);
@@ -65,6 +82,10 @@ public interface CLibrary extends Library {
 
     int read(int fd, byte[] buf, int count);
 
+    int pipe(int[] fds);
+
+    int poll(PollFd[] fds, int nfds, int timeout);
+
     int eventfd(int initval, int flag);
 
     int eventfd_read(int fd, LongByReference val);
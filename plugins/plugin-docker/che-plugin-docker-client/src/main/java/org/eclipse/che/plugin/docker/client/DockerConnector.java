@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.CharStreams;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -37,6 +39,7 @@ import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerExitStatus;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.ContainerPathStat;
 import org.eclipse.che.plugin.docker.client.json.ContainerProcesses;
 import org.eclipse.che.plugin.docker.client.json.Event;
 import org.eclipse.che.plugin.docker.client.json.ExecConfig;
@@ -66,6 +69,7 @@ import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectImageParams;
 import org.eclipse.che.plugin.docker.client.params.KillContainerParams;
 import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
+import org.eclipse.che.plugin.docker.client.params.ListImagesParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
@@ -86,6 +90,7 @@ import org.eclipse.che.plugin.docker.client.params.network.InspectNetworkParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.MediaType;
@@ -101,14 +106,19 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.net.UrlEscapers.urlPathSegmentEscaper;
+import static java.util.Arrays.asList;
 import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
@@ -129,14 +139,22 @@ import static org.eclipse.che.commons.lang.IoUtil.readAndCloseQuietly;
 public class DockerConnector {
     private static final Logger LOG  = LoggerFactory.getLogger(DockerConnector.class);
     // Docker uses uppercase in first letter in names of json objects, e.g. {"Id":"123"} instead of {"id":"123"}
-    protected static final Gson GSON = new GsonBuilder().disableHtmlEscaping()
-                                                        .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)
-                                                        .create();
+    protected static final Gson GSON = createGsonBuilder().create();
+
+    /** Max number of cached json parsers which skip not needed fields. */
+    private static final int                       PROJECTING_GSON_CACHE_SIZE = 32;
+    /** Instances of json parser which skip not needed fields, by projected type and fields. */
+    private static final Cache<List<Object>, Gson> PROJECTING_GSON            = CacheBuilder.newBuilder()
+                                                                                            .maximumSize(PROJECTING_GSON_CACHE_SIZE)
+                                                                                            .build();
+
+    private static final int LOG_STREAMS_READING_THREADS = 4;
 
     private final URI                        dockerDaemonUri;
     private final DockerRegistryAuthResolver authResolver;
     private final ExecutorService            executor;
     private final DockerConnectionFactory    connectionFactory;
+    private final LogStreamsMultiplexer      logStreamsMultiplexer;
 
     protected final String apiVersionPathPrefix;
 
@@ -155,6 +173,12 @@ public class DockerConnector {
                                                          .setNameFormat("DockerApiConnector-%d")
                                                          .setDaemon(true)
                                                          .build());
+        logStreamsMultiplexer = new LogStreamsMultiplexer(LOG_STREAMS_READING_THREADS, executor);
+    }
+
+    @PreDestroy
+    private void stopLogStreamsReading() {
+        logStreamsMultiplexer.shutdown();
     }
 
     /**
@@ -203,14 +227,29 @@ public class DockerConnector {
      *          when a problem occurs with docker api calls
      */
     public List<Image> listImages() throws IOException {
+        return listImages(ListImagesParams.create());
+    }
+
+    /**
+     * Lists docker images.
+     *
+     * @return list of docker images, only fields requested by {@link ListImagesParams#withFields(String...)} are set
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public List<Image> listImages(ListImagesParams params) throws IOException {
         try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
                                                             .method("GET")
                                                             .path(apiVersionPathPrefix + "/images/json")) {
+            addQueryParamIfNotNull(connection, "all", params.isAll());
             final DockerResponse response = connection.request();
             if (OK.getStatusCode() != response.getStatus()) {
                 throw getDockerException(response);
             }
-            return parseResponseStreamAndClose(response.getInputStream(), new TypeToken<List<Image>>() {});
+            return parseResponseStreamAndClose(response.getInputStream(),
+                                               new TypeToken<List<Image>>() {},
+                                               Image.class,
+                                               params.getFields());
         }
     }
 
@@ -249,7 +288,10 @@ public class DockerConnector {
             if (OK.getStatusCode() != status) {
                 throw getDockerException(response);
             }
-            return parseResponseStreamAndClose(response.getInputStream(), new TypeToken<List<ContainerListEntry>>() {});
+            return parseResponseStreamAndClose(response.getInputStream(),
+                                               new TypeToken<List<ContainerListEntry>>() {},
+                                               ContainerListEntry.class,
+                                               params.getFields());
         }
     }
 
@@ -465,32 +507,88 @@ public class DockerConnector {
      */
     public void getContainerLogs(final GetContainerLogsParams params, MessageProcessor<LogMessage> containerLogsProcessor)
             throws IOException {
-        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
-                                                            .method("GET")
-                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/logs")
-                                                            .query("stdout", 1)
-                                                            .query("stderr", 1)) {
-            addQueryParamIfNotNull(connection, "details", params.isDetails());
-            addQueryParamIfNotNull(connection, "follow", params.isFollow());
-            addQueryParamIfNotNull(connection, "since", params.getSince());
-            addQueryParamIfNotNull(connection, "timestamps", params.isTimestamps());
-            addQueryParamIfNotNull(connection, "tail", params.getTail());
-
-            final DockerResponse response = connection.request();
-            final int status = response.getStatus();
-            if (status == NOT_FOUND.getStatusCode()) {
-                throw new ContainerNotFoundException(readAndCloseQuietly(response.getInputStream()));
-            }
-            if (status != OK.getStatusCode()) {
-                throw getDockerException(response);
-            }
-
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)) {
+            final DockerResponse response = requestContainerLogs(connection, params);
             try (InputStream responseStream = response.getInputStream()) {
                 new LogMessagePumper(responseStream, containerLogsProcessor).start();
             }
         }
     }
 
+    /**
+     * Get stdout and stderr logs from container, doesn't block while connecting to docker and while logs are streamed.
+     * <br/>
+     * Connection to docker is established by the connector's executor. Logs of all containers are read by the shared
+     * pool of threads, so number of threads doesn't grow with number of followed containers. Logs stream isn't read
+     * while the processor handles previous portion of logs. For connections which don't expose their sockets,
+     * e.g. TCP connections, logs are read in a separate thread.
+     *
+     * @param containerLogsProcessor
+     *         output for container logs
+     * @return future which is completed when logs stream is closed by docker,
+     * or completed exceptionally with {@link ContainerNotFoundException} when container not found by docker
+     * (docker api returns 404) or with {@link IOException} when a problem occurs with docker api calls,
+     * cancellation of the future closes connection to docker
+     */
+    public CompletableFuture<Void> getContainerLogsAsync(final GetContainerLogsParams params,
+                                                         MessageProcessor<LogMessage> containerLogsProcessor) {
+        final CompletableFuture<Void> logs = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (logs.isDone()) {
+                    return;
+                }
+                DockerConnection connection = null;
+                final CompletableFuture<Void> pumped;
+                try {
+                    connection = connectionFactory.openConnection(dockerDaemonUri);
+                    final DockerResponse response = requestContainerLogs(connection, params);
+                    pumped = logStreamsMultiplexer.pump(connection, response.getInputStream(), containerLogsProcessor);
+                } catch (IOException | RuntimeException e) {
+                    if (connection != null) {
+                        connection.close();
+                    }
+                    logs.completeExceptionally(e);
+                    return;
+                }
+                pumped.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        logs.completeExceptionally(error);
+                    } else {
+                        logs.complete(null);
+                    }
+                });
+                // closes connection if the client cancelled the future while connecting
+                logs.whenComplete((ignored, error) -> pumped.cancel(false));
+            });
+        } catch (RejectedExecutionException e) {
+            logs.completeExceptionally(e);
+        }
+        return logs;
+    }
+
+    private DockerResponse requestContainerLogs(DockerConnection connection, GetContainerLogsParams params) throws IOException {
+        connection.method("GET")
+                  .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/logs")
+                  .query("stdout", 1)
+                  .query("stderr", 1);
+        addQueryParamIfNotNull(connection, "details", params.isDetails());
+        addQueryParamIfNotNull(connection, "follow", params.isFollow());
+        addQueryParamIfNotNull(connection, "since", params.getSince());
+        addQueryParamIfNotNull(connection, "timestamps", params.isTimestamps());
+        addQueryParamIfNotNull(connection, "tail", params.getTail());
+
+        final DockerResponse response = connection.request();
+        final int status = response.getStatus();
+        if (status == NOT_FOUND.getStatusCode()) {
+            throw new ContainerNotFoundException(readAndCloseQuietly(response.getInputStream()));
+        }
+        if (status != OK.getStatusCode()) {
+            throw getDockerException(response);
+        }
+        return response;
+    }
+
     /**
      * Sets up an exec instance in a running container.
      *
@@ -648,6 +746,37 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Gets information about file system resource in the specified container without transferring its content.
+     *
+     * @return information about resource in the specified container filesystem
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     * @apiNote this method implements 1.20 docker API and requires docker not less than 1.8.0 version
+     */
+    public ContainerPathStat getResourceStat(final GetResourceParams params) throws IOException {
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("HEAD")
+                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
+                                                                  "/archive")
+                                                            .query("path", params.getSourcePath())) {
+            final DockerResponse response = connection.request();
+            if (response.getStatus() != OK.getStatusCode()) {
+                throw new DockerException("Error response from docker API, status: " + response.getStatus(),
+                                          response.getStatus());
+            }
+            final String stat = response.getHeader("X-Docker-Container-Path-Stat");
+            if (stat == null) {
+                throw new DockerException("Docker API response doesn't contain resource stat header", 500);
+            }
+            try {
+                return GSON.fromJson(new String(Base64.getDecoder().decode(stat), StandardCharsets.UTF_8), ContainerPathStat.class);
+            } catch (IllegalArgumentException | JsonParseException e) {
+                throw new IOException(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
     /**
      * Puts files into specified container.
      *
@@ -1145,7 +1274,10 @@ public class DockerConnector {
             if (response.getStatus() / 100 != 2) {
                 throw getDockerException(response);
             }
-            return parseResponseStreamAndClose(response.getInputStream(), new TypeToken<List<Network>>() {});
+            return parseResponseStreamAndClose(response.getInputStream(),
+                                               new TypeToken<List<Network>>() {},
+                                               Network.class,
+                                               params.getFields());
         }
     }
 
@@ -1313,7 +1445,7 @@ public class DockerConnector {
     }
 
     protected <T> T parseResponseStreamAndClose(InputStream inputStream, Class<T> clazz) throws IOException {
-        try (InputStreamReader reader = new InputStreamReader(inputStream)) {
+        try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             return GSON.fromJson(reader, clazz);
         } catch (JsonParseException e) {
             throw new IOException(e.getLocalizedMessage(), e);
@@ -1321,13 +1453,48 @@ public class DockerConnector {
     }
 
     protected <T> T parseResponseStreamAndClose(InputStream inputStream, TypeToken<T> tt) throws IOException {
-        try (InputStreamReader reader = new InputStreamReader(inputStream)) {
+        try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             return GSON.fromJson(reader, tt.getType());
         } catch (JsonParseException e) {
             throw new IOException(e.getLocalizedMessage(), e);
         }
     }
 
+    /**
+     * Parses response stream binding only specified fields of the projected type.
+     * Values of other fields of the projected type are skipped while reading the stream.
+     *
+     * @param projectedType
+     *         type which fields are projected, e.g. type of elements of the parsed list
+     * @param fields
+     *         java names of the fields of projected type to bind, all the fields are bound if {@code null}
+     */
+    protected <T> T parseResponseStreamAndClose(InputStream inputStream,
+                                                TypeToken<T> tt,
+                                                Class<?> projectedType,
+                                                @Nullable Set<String> fields) throws IOException {
+        if (fields == null) {
+            return parseResponseStreamAndClose(inputStream, tt);
+        }
+        final List<Object> projection = asList(projectedType, fields);
+        Gson gson = PROJECTING_GSON.getIfPresent(projection);
+        if (gson == null) {
+            gson = createGsonBuilder().addDeserializationExclusionStrategy(new FieldsProjection(projectedType, fields))
+                                      .create();
+            PROJECTING_GSON.put(projection, gson);
+        }
+        try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, tt.getType());
+        } catch (JsonParseException e) {
+            throw new IOException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private static GsonBuilder createGsonBuilder() {
+        return new GsonBuilder().disableHtmlEscaping()
+                                .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE);
+    }
+
     protected DockerException getDockerException(DockerResponse response) throws IOException {
         try (InputStreamReader isr = new InputStreamReader(response.getInputStream())) {
             String dockerResponseContent = CharStreams.toString(isr);
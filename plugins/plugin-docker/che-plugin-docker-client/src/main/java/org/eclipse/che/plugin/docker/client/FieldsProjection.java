@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+
+import java.util.Set;
+
+/**
+ * Deserialization strategy which binds only listed fields of the projected type.
+ *
+ * <p>Values of other fields of the projected type are skipped by the json reader
+ * right in the response stream, so neither strings nor nested objects are created for them.
+ * Fields of other types, e.g. types of the projected fields, are not affected.
+ */
+class FieldsProjection implements ExclusionStrategy {
+    private final Class<?>    projectedType;
+    private final Set<String> fields;
+
+    /**
+     * @param projectedType
+     *         type which fields are projected
+     * @param fields
+     *         java names of fields of the projected type that should be deserialized
+     */
+    FieldsProjection(Class<?> projectedType, Set<String> fields) {
+        this.projectedType = projectedType;
+        this.fields = fields;
+    }
+
+    @Override
+    public boolean shouldSkipField(FieldAttributes field) {
+        return field.getDeclaringClass() == projectedType && !fields.contains(field.getName());
+    }
+
+    @Override
+    public boolean shouldSkipClass(Class<?> clazz) {
+        return false;
+    }
+}
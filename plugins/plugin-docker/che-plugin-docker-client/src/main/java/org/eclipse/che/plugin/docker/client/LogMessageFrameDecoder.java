@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental decoder of docker multiplexed stream into {@link LogMessage log messages}.
+ *
+ * <p>Each frame of the stream consists of 8 bytes header, which contains type of the stream
+ * and length of the payload, and the payload itself. Decoder keeps its state between invocations
+ * of {@link #decode(byte[], int, int)}, so the stream may be fed with arbitrary portions of bytes
+ * as they are received from the docker API, frames boundaries don't need to be aligned with portions.
+ *
+ * <p>Payload is split into lines, each line is sent to the target processor as separate message.
+ * Lines longer than {@value #MAX_LINE_LENGTH} bytes are split into several messages.
+ * Carriage return character is included into the message unless it is followed by line feed.
+ *
+ * <p>Decoder is not thread safe.
+ */
+class LogMessageFrameDecoder {
+    private static final Logger LOG = LoggerFactory.getLogger(LogMessageFrameDecoder.class);
+
+    static final int STREAM_HEADER_LENGTH = 8;
+    static final int MAX_LINE_LENGTH      = 1024;
+
+    private final MessageProcessor<LogMessage> target;
+    private final byte[]                       header;
+    // one extra byte for carriage return char
+    private final byte[]                       line;
+
+    private LogMessage.Type type;
+    private int             headerPos;
+    private int             payloadRemaining;
+    private int             lineLength;
+    /** Whether previous portion ended with carriage return which was sent within the message. */
+    private boolean         skipLineFeed;
+
+    LogMessageFrameDecoder(MessageProcessor<LogMessage> target) {
+        this.target = target;
+        this.header = new byte[STREAM_HEADER_LENGTH];
+        this.line = new byte[MAX_LINE_LENGTH + 1];
+        this.type = LogMessage.Type.DOCKER;
+    }
+
+    /**
+     * Decodes next portion of the stream.
+     *
+     * @throws IllegalArgumentException
+     *         if type of the stream in frame header is invalid
+     */
+    void decode(byte[] buf, int off, int len) {
+        int i = off;
+        final int end = off + len;
+        while (i < end) {
+            if (payloadRemaining == 0) {
+                final int n = Math.min(STREAM_HEADER_LENGTH - headerPos, end - i);
+                System.arraycopy(buf, i, header, headerPos, n);
+                headerPos += n;
+                i += n;
+                if (headerPos == STREAM_HEADER_LENGTH) {
+                    headerPos = 0;
+                    final LogMessage.Type frameType = getLogMessageType(header);
+                    if (frameType != type) {
+                        // don't mix content of different streams in one message
+                        flushLine();
+                        type = frameType;
+                    }
+                    payloadRemaining = getPayloadLength(header);
+                }
+                continue;
+            }
+
+            final int payloadEnd = i + Math.min(payloadRemaining, end - i);
+            payloadRemaining -= payloadEnd - i;
+            for (; i < payloadEnd; i++) {
+                final byte b = buf[i];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\n') {
+                    sendLine();
+                } else if (b == '\r') {
+                    if (i + 1 < payloadEnd && buf[i + 1] == '\n') {
+                        sendLine();
+                        i++;
+                    } else {
+                        // include <CR> char in log message
+                        line[lineLength++] = b;
+                        sendLine();
+                        skipLineFeed = i + 1 == payloadEnd;
+                    }
+                } else {
+                    if (lineLength == MAX_LINE_LENGTH) {
+                        sendLine();
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends incomplete line which is left after the end of the stream, if any.
+     */
+    void finish() {
+        if (headerPos != 0 || payloadRemaining != 0) {
+            LOG.debug("Unexpected end of docker stream. Header bytes read: {}, payload bytes remaining: {}",
+                      headerPos,
+                      payloadRemaining);
+        }
+        flushLine();
+    }
+
+    private void flushLine() {
+        if (lineLength > 0) {
+            sendLine();
+        }
+    }
+
+    private void sendLine() {
+        target.process(new LogMessage(type, new String(line, 0, lineLength)));
+        lineLength = 0;
+    }
+
+    private static int getPayloadLength(byte[] header) {
+        return (header[7] & 0xFF) + ((header[6] & 0xFF) << 8) + ((header[5] & 0xFF) << 16) + ((header[4] & 0xFF) << 24);
+    }
+
+    private static LogMessage.Type getLogMessageType(byte[] header) {
+        switch (header[0]) {
+            case 0:
+                return LogMessage.Type.STDIN;
+            case 1:
+                return LogMessage.Type.STDOUT;
+            case 2:
+                return LogMessage.Type.STDERR;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid docker stream type %d", header[0]));
+        }
+    }
+}
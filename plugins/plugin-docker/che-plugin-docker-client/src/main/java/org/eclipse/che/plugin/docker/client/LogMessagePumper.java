@@ -10,22 +10,18 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
-import com.google.common.io.ByteStreams;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
+ * Reads docker multiplexed stream and sends decoded log messages to the target processor.
+ * Blocks until the end of the stream.
+ *
  * @author andrew00x
+ * @see LogMessageFrameDecoder
  */
 class LogMessagePumper extends MessagePumper<LogMessage> {
-    private static final Logger LOG = LoggerFactory.getLogger(LogMessagePumper.class);
-
-    private static final int STREAM_HEADER_LENGTH = 8;
-    private static final int MAX_LINE_LENGTH      = 1024;
+    static final int BUFFER_SIZE = 8192;
 
     private final InputStream                  source;
     private final MessageProcessor<LogMessage> target;
@@ -38,81 +34,12 @@ class LogMessagePumper extends MessagePumper<LogMessage> {
 
     @Override
     void start() throws IOException {
-        final byte[] buf = new byte[MAX_LINE_LENGTH];
-        StringBuilder lineBuf = null;
-        boolean endOfLine = false;
-        LogMessage.Type logMessageType = LogMessage.Type.DOCKER;
-        for (; ; ) {
-            int r = ByteStreams.read(source, buf, 0, STREAM_HEADER_LENGTH);
-            if (r != 8) {
-                if (r != -1) {
-                    LOG.debug("Invalid stream, can't read header. Header of each frame must contain 8 bytes but got {}", r);
-                }
-                if (lineBuf != null && lineBuf.length() > 0) {
-                    target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                    lineBuf.setLength(0);
-                }
-                break;
-            }
-            logMessageType = getLogMessageType(buf);
-            int remaining = getPayloadLength(buf);
-            while (remaining > 0) {
-                r = source.read(buf, 0, Math.min(remaining, buf.length));
-                int offset = 0;
-                int lineLength = lineBuf != null ? lineBuf.length() : 0;
-                for (int i = 0; i < r; i++, lineLength++) {
-                    endOfLine = false;
-                    if (buf[i] == '\n' || buf[i] == '\r' || lineLength > MAX_LINE_LENGTH) {
-                        int length = i - offset;
-                        boolean isLineFeedFollowed = false;
-                        if (buf[i] == '\r') {
-                            int nextIndex = i + 1;
-                            isLineFeedFollowed = nextIndex < MAX_LINE_LENGTH && nextIndex < r && buf[nextIndex] == '\n';
-                            if (!isLineFeedFollowed) {
-                                length += 1; // include <CR> char in log message
-                            }
-                        }
-                        if (lineBuf != null && lineBuf.length() > 0) {
-                            lineBuf.append(new String(buf, offset, length));
-                            target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                            lineBuf.setLength(0);
-                        } else {
-                            target.process(new LogMessage(logMessageType, new String(buf, offset, length)));
-                        }
-
-                        if (isLineFeedFollowed) {
-                            i++;
-                        }
-                        offset = i + 1;
-                        lineLength = 0;
-                        endOfLine = true;
-                    }
-                }
-                if (!endOfLine) {
-                    if (lineBuf == null) {
-                        lineBuf = new StringBuilder(MAX_LINE_LENGTH);
-                    }
-                    lineBuf.append(new String(buf, offset, r - offset));
-                }
-                remaining -= r;
-            }
-        }
-    }
-
-    private int getPayloadLength(byte[] header) {
-        return (header[7] & 0xFF) + ((header[6] & 0xFF) << 8) + ((header[5] & 0xFF) << 16) + ((header[4] & 0xFF) << 24);
-    }
-
-    private LogMessage.Type getLogMessageType(byte[] header) {
-        switch (header[0]) {
-            case 0:
-                return LogMessage.Type.STDIN;
-            case 1:
-                return LogMessage.Type.STDOUT;
-            case 2:
-                return LogMessage.Type.STDERR;
-            default:
-                throw new IllegalArgumentException(String.format("Invalid docker stream type %d", header[0]));
+        final LogMessageFrameDecoder decoder = new LogMessageFrameDecoder(target);
+        final byte[] buf = new byte[BUFFER_SIZE];
+        int r;
+        while ((r = source.read(buf)) != -1) {
+            decoder.decode(buf, 0, r);
         }
+        decoder.finish();
     }
 }
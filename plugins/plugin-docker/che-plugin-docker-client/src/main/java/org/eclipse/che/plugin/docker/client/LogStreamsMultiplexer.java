@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jna.Native;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.connection.DockerConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.EINTR;
+import static org.eclipse.che.plugin.docker.client.CLibrary.POLLIN;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Reads many docker log streams (logs, attach, exec output) with constant number of threads.
+ *
+ * <p>Single poller thread waits with {@code poll(2)} until sockets of registered streams become readable
+ * and dispatches reading of such streams to a small fixed pool of workers. Each worker reads limited portion
+ * of the stream, decodes it with {@link LogMessageFrameDecoder} and sends messages to the stream processor.
+ * Stream isn't polled while its portion is processed, so the stream isn't read while its processor is busy.
+ * In this case docker daemon is blocked by the socket buffer instead of accumulating unbounded amount
+ * of output in memory.
+ *
+ * <p>Streams of connections which don't {@link DockerConnection#getSocketFd() expose} their sockets
+ * are read with {@link LogMessagePumper} in a thread of the fallback executor.
+ */
+class LogStreamsMultiplexer {
+    private static final Logger LOG = LoggerFactory.getLogger(LogStreamsMultiplexer.class);
+
+    /** Max number of reads of a stream per single dispatch, gives a chance to other ready streams. */
+    private static final int MAX_READS_PER_DISPATCH = 8;
+
+    private final ExecutorService  workers;
+    private final ExecutorService  fallbackExecutor;
+    private final Set<LogStream>   streams;
+    private final Queue<LogStream> newStreams;
+    private final AtomicBoolean    wakeupPending;
+
+    private CLibrary         cLib;
+    private int[]            wakeupPipe;
+    private Thread           poller;
+    private volatile boolean stopped;
+
+    /**
+     * @param workersNumber
+     *         number of threads which read and process ready streams
+     * @param fallbackExecutor
+     *         executor for streams which can't be polled
+     */
+    LogStreamsMultiplexer(int workersNumber, ExecutorService fallbackExecutor) {
+        this.fallbackExecutor = fallbackExecutor;
+        this.workers = Executors.newFixedThreadPool(workersNumber,
+                                                    new ThreadFactoryBuilder().setNameFormat("DockerLogStreamsReader-%d")
+                                                                              .setUncaughtExceptionHandler(
+                                                                                      LoggingUncaughtExceptionHandler.getInstance())
+                                                                              .setDaemon(true)
+                                                                              .build());
+        this.streams = ConcurrentHashMap.newKeySet();
+        this.newStreams = new ConcurrentLinkedQueue<>();
+        this.wakeupPending = new AtomicBoolean();
+    }
+
+    /**
+     * Starts reading of the response stream of docker connection.
+     * Connection is closed when the end of the stream is reached, on error or when returned future is cancelled.
+     *
+     * @param connection
+     *         connection which owns the stream
+     * @param source
+     *         docker multiplexed stream
+     * @param target
+     *         processor of log messages
+     * @return future which is completed when the end of the stream is reached
+     * or completed exceptionally when error occurs while reading or processing of the stream
+     */
+    CompletableFuture<Void> pump(DockerConnection connection, InputStream source, MessageProcessor<LogMessage> target) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final int fd = connection.getSocketFd();
+        if (fd == -1) {
+            future.whenComplete((ignored, error) -> connection.close());
+            try {
+                fallbackExecutor.execute(() -> {
+                    try (InputStream responseStream = source) {
+                        new LogMessagePumper(responseStream, target).start();
+                        future.complete(null);
+                    } catch (IOException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        final LogStream stream = new LogStream(connection, fd, source, target, future);
+        try {
+            start();
+        } catch (IOException e) {
+            stream.finish();
+            future.completeExceptionally(e);
+            return future;
+        }
+        streams.add(stream);
+        // poller finds out about cancelled streams when it is woken up
+        future.whenComplete((ignored, error) -> wakeup());
+        // part of the stream may be already buffered together with response headers
+        stream.schedule();
+        return future;
+    }
+
+    /** Stops reading of all streams, futures of streams which are not finished yet are completed exceptionally. */
+    synchronized void shutdown() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        if (poller != null) {
+            wakeup();
+        }
+        workers.shutdownNow();
+        final IOException error = new IOException("Docker log streams reading is stopped");
+        for (LogStream stream : streams) {
+            stream.future.completeExceptionally(error);
+        }
+    }
+
+    /** Starts poller thread if it isn't started yet. */
+    private synchronized void start() throws IOException {
+        if (stopped) {
+            throw new IOException("Docker log streams reading is stopped");
+        }
+        if (poller != null) {
+            return;
+        }
+        cLib = getCLibrary();
+        final int[] fds = new int[2];
+        if (cLib.pipe(fds) == -1) {
+            throw new IOException("Unable to create pipe for waking up of docker log streams poller: " +
+                                  cLib.strerror(Native.getLastError()));
+        }
+        wakeupPipe = fds;
+        poller = new ThreadFactoryBuilder().setNameFormat("DockerLogStreamsPoller")
+                                           .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                           .setDaemon(true)
+                                           .build()
+                                           .newThread(this::poll);
+        poller.start();
+    }
+
+    /** Interrupts waiting of the poller, at most one wake up byte is written to the pipe until poller reads it. */
+    private void wakeup() {
+        if (wakeupPending.compareAndSet(false, true)) {
+            synchronized (this) {
+                // pipe is closed when poller is stopped
+                if (wakeupPipe != null) {
+                    cLib.write(wakeupPipe[1], new byte[1], 1);
+                }
+            }
+        }
+    }
+
+    private void poll() {
+        final List<LogStream> polled = new ArrayList<>();
+        final byte[] wakeupBuf = new byte[16];
+        CLibrary.PollFd[] fds = null;
+        try {
+            while (!stopped) {
+                for (LogStream stream; (stream = newStreams.poll()) != null; ) {
+                    polled.add(stream);
+                }
+                // cancelled by the client or stopped
+                polled.removeIf(stream -> {
+                    if (stream.future.isDone()) {
+                        stream.finish();
+                        return true;
+                    }
+                    return false;
+                });
+
+                final int nfds = polled.size() + 1;
+                if (fds == null || fds.length < nfds) {
+                    fds = (CLibrary.PollFd[])new CLibrary.PollFd().toArray(Math.max(nfds, fds == null ? 16 : fds.length * 2));
+                }
+                fds[0].fd = wakeupPipe[0];
+                for (int i = 1; i < nfds; i++) {
+                    fds[i].fd = polled.get(i - 1).fd;
+                }
+                for (int i = 0; i < nfds; i++) {
+                    fds[i].events = POLLIN;
+                    fds[i].revents = 0;
+                }
+
+                if (cLib.poll(fds, nfds, -1) == -1) {
+                    final int errno = Native.getLastError();
+                    if (errno == EINTR) {
+                        continue;
+                    }
+                    final IOException error = new IOException("Error occurs while polling docker log streams: " + cLib.strerror(errno));
+                    for (LogStream stream : polled) {
+                        stream.future.completeExceptionally(error);
+                    }
+                    continue;
+                }
+
+                if (fds[0].revents != 0) {
+                    // next wake up is allowed only after the pipe is emptied, otherwise it may be lost
+                    cLib.read(wakeupPipe[0], wakeupBuf, wakeupBuf.length);
+                    wakeupPending.set(false);
+                }
+                for (int i = nfds - 1; i > 0; i--) {
+                    if (fds[i].revents != 0) {
+                        polled.remove(i - 1).dispatch();
+                    }
+                }
+            }
+        } finally {
+            for (LogStream stream; (stream = newStreams.poll()) != null; ) {
+                polled.add(stream);
+            }
+            final IOException error = new IOException("Docker log streams reading is stopped");
+            for (LogStream stream : polled) {
+                stream.finish();
+                stream.future.completeExceptionally(error);
+            }
+            synchronized (this) {
+                cLib.close(wakeupPipe[0]);
+                cLib.close(wakeupPipe[1]);
+                wakeupPipe = null;
+            }
+        }
+    }
+
+    private class LogStream {
+        final DockerConnection        connection;
+        final int                     fd;
+        final InputStream             source;
+        final LogMessageFrameDecoder  decoder;
+        final CompletableFuture<Void> future;
+        final byte[]                  buf;
+
+        LogStream(DockerConnection connection,
+                  int fd,
+                  InputStream source,
+                  MessageProcessor<LogMessage> target,
+                  CompletableFuture<Void> future) {
+            this.connection = connection;
+            this.fd = fd;
+            this.source = source;
+            this.decoder = new LogMessageFrameDecoder(target);
+            this.future = future;
+            this.buf = new byte[LogMessagePumper.BUFFER_SIZE];
+        }
+
+        /**
+         * Reads buffered part of the stream right away, otherwise passes the stream to the poller.
+         * Buffered data doesn't make socket readable, so it can't be left for the poller.
+         */
+        void schedule() {
+            if (stopped) {
+                future.completeExceptionally(new IOException("Docker log streams reading is stopped"));
+                finish();
+                return;
+            }
+            boolean buffered;
+            try {
+                buffered = source.available() > 0;
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+                finish();
+                return;
+            }
+            if (buffered) {
+                dispatch();
+            } else {
+                newStreams.add(this);
+                wakeup();
+            }
+        }
+
+        void dispatch() {
+            try {
+                workers.execute(this::read);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+                finish();
+            }
+        }
+
+        void read() {
+            boolean eof = false;
+            Exception error = null;
+            try {
+                // readable socket doesn't mean that the stream may be read without blocking,
+                // e.g. only a part of the chunk header is received, such stream is polled again
+                for (int i = 0; i < MAX_READS_PER_DISPATCH && !future.isDone() && source.available() > 0; i++) {
+                    final int r = source.read(buf);
+                    if (r == -1) {
+                        decoder.finish();
+                        eof = true;
+                        break;
+                    }
+                    decoder.decode(buf, 0, r);
+                }
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            }
+            if (eof || error != null || future.isDone()) {
+                // connection is closed before the client is notified
+                finish();
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(null);
+                }
+            } else {
+                schedule();
+            }
+        }
+
+        /** Closes the stream, must be called only by the thread which currently owns the stream. */
+        void finish() {
+            streams.remove(this);
+            try {
+                source.close();
+            } catch (IOException e) {
+                LOG.debug(e.getLocalizedMessage(), e);
+            }
+            connection.close();
+        }
+    }
+}
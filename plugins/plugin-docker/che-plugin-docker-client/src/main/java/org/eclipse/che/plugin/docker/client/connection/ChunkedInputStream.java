@@ -21,6 +21,7 @@ public class ChunkedInputStream extends InputStream {
     private StringBuilder chunkSizeBuf;
     private int           chunkSize;
     private int           chunkPos;
+    private boolean       chunkEndPending;
     private boolean       eof;
 
     ChunkedInputStream(InputStream input) {
@@ -57,12 +58,29 @@ public class ChunkedInputStream extends InputStream {
             return 0;
         }
 
-        return doRead(b, 0, len);
+        return doRead(b, off, len);
     }
 
+    /**
+     * Returns number of bytes of the current chunk which may be read without blocking.
+     * Buffered part of the next chunk header is consumed, {@code 0} is returned until the header is complete
+     * and at least one byte of chunk data is buffered.
+     * Note that {@code 1} is returned when the end of the stream is reached, so the following read doesn't block.
+     */
     @Override
-    public synchronized int available() {
-        return (chunkSize - chunkPos);
+    public synchronized int available() throws IOException {
+        if (eof) {
+            return 1;
+        }
+        if (chunkSize == 0) {
+            if (!readChunkHeader(false)) {
+                return 0;
+            }
+            if (eof) {
+                return 1;
+            }
+        }
+        return Math.min(chunkSize - chunkPos, input.available());
     }
 
     private int doRead(byte[] b, int off, int len) throws IOException {
@@ -70,16 +88,49 @@ public class ChunkedInputStream extends InputStream {
             return -1;
         }
         if (chunkSize == 0) {
+            readChunkHeader(true);
+            if (eof) {
+                return -1;
+            }
+        }
+        final int n = input.read(b, off, Math.min(len, chunkSize - chunkPos));
+        if (n < 0) {
+            throw new IOException("Unexpected end of chunk");
+        }
+        chunkPos += n;
+        if (chunkPos == chunkSize) {
+            // CRLF after chunk data is read together with the next chunk header, so the reader isn't blocked until it comes
+            chunkEndPending = true;
+            chunkSize = 0;
             chunkPos = 0;
-            for (; ; ) {
-                int i = input.read();
-                if (i < 0) {
-                    throw new IOException("Can't read size of chunk");
-                }
-                if (i == '\n') {
-                    break;
-                }
+        }
+        return n;
+    }
+
+    /**
+     * Reads CRLF which ends the previous chunk and the size line of the next chunk.
+     *
+     * @param block
+     *         if {@code false} only the buffered bytes of the input are read
+     * @return {@code true} if the header is read completely, {@code false} if more bytes are needed
+     */
+    private boolean readChunkHeader(boolean block) throws IOException {
+        while (block || input.available() > 0) {
+            final int i = input.read();
+            if (i < 0) {
+                throw new IOException("Can't read size of chunk");
+            }
+            if (i != '\n') {
                 chunkSizeBuf.append((char)i);
+                continue;
+            }
+            if (chunkEndPending) {
+                if (chunkSizeBuf.length() != 1 || chunkSizeBuf.charAt(0) != '\r') {
+                    throw new IOException("CRLF characters are missing after chunk");
+                }
+                chunkEndPending = false;
+                chunkSizeBuf.setLength(0);
+                continue;
             }
 
             int l = chunkSizeBuf.length();
@@ -93,25 +144,12 @@ public class ChunkedInputStream extends InputStream {
                 throw new IOException("Invalid chunk size");
             }
             chunkSizeBuf.setLength(0);
+            chunkPos = 0;
             if (chunkSize == 0) {
                 eof = true;
             }
+            return true;
         }
-        final int n = input.read(b, 0, Math.min(len - off, chunkSize - chunkPos));
-        chunkPos += n;
-        if (chunkPos == chunkSize) {
-            if ('\r' != input.read()) { // skip '\r'
-                throw new IOException("CR character is missing");
-            }
-            if ('\n' != input.read()) { // skip '\n'
-                throw new IOException("LF character is missing");
-            }
-            chunkSize = 0;
-            chunkPos = 0;
-        }
-        if (eof) {
-            return -1;
-        }
-        return n;
+        return false;
     }
 }
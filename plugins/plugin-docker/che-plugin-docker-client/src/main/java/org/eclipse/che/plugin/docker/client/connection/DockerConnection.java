@@ -101,6 +101,16 @@ public abstract class DockerConnection implements Closeable {
                                               List<Pair<String, ?>> headers,
                                               Entity<?> entity) throws IOException;
 
+    /**
+     * Returns descriptor of the socket of this connection which may be polled to find out
+     * whether the response stream may be read without blocking, or {@code -1} if the socket isn't accessible.
+     * Response streams of connections with accessible socket may be read by a shared pool of threads
+     * instead of a dedicated blocked thread.
+     */
+    public int getSocketFd() {
+        return -1;
+    }
+
     public abstract void close();
 
     static abstract class Entity<T> {
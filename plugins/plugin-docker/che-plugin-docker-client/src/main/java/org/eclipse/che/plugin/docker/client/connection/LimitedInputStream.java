@@ -59,6 +59,19 @@ public class LimitedInputStream extends InputStream {
         return doRead(b, 0, len);
     }
 
+    /**
+     * Returns number of bytes which may be read without blocking.
+     * Note that {@code 1} is returned when limit is reached,
+     * so the following read returns {@code -1} immediately.
+     */
+    @Override
+    public synchronized int available() throws IOException {
+        if (pos >= limit) {
+            return 1;
+        }
+        return Math.min(limit - pos, input.available());
+    }
+
     private int doRead(byte[] b, int off, int len) throws IOException {
         if (pos >= limit) {
             return -1;
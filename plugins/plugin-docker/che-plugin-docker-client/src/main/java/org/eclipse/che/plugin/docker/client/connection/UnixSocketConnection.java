@@ -56,6 +56,11 @@ public class UnixSocketConnection extends DockerConnection {
     }
 
 
+    @Override
+    public int getSocketFd() {
+        return fd;
+    }
+
     @Override
     public void close() {
         if (fd != -1) {
@@ -16,14 +16,20 @@ import com.sun.jna.LastErrorException;
 import java.io.IOException;
 import java.io.InputStream;
 
+import static org.eclipse.che.plugin.docker.client.CLibrary.EAGAIN;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_PEEK;
 import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 
 /**
 * @author andrew00x
 */
 public class UnixSocketInputStream extends InputStream {
+    private static final int PEEK_BUFFER_SIZE = 8192;
+
     private final int fd;
     private final CLibrary cLib = getCLibrary();
+    private final byte[]   peekBuf = new byte[PEEK_BUFFER_SIZE];
 
     UnixSocketInputStream(int fd) {
         this.fd = fd;
@@ -43,6 +49,25 @@ public class UnixSocketInputStream extends InputStream {
         return read(b, 0, b.length);
     }
 
+    /**
+     * Returns number of bytes which may be read without blocking.
+     * Note that {@code 1} is returned when peer closed the connection,
+     * so the following read returns {@code -1} immediately.
+     */
+    @Override
+    public int available() throws IOException {
+        int n;
+        try {
+            n = cLib.recv(fd, peekBuf, peekBuf.length, MSG_PEEK | MSG_DONTWAIT);
+        } catch (LastErrorException e) {
+            if (e.getErrorCode() == EAGAIN) {
+                return 0;
+            }
+            throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
+        }
+        return n == 0 ? 1 : n;
+    }
+
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
         if (b == null) {
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Objects;
+
+/**
+ * Represents information about file system resource in container,
+ * returned by docker in {@code X-Docker-Container-Path-Stat} header.
+ */
+public class ContainerPathStat {
+    @SerializedName("name")
+    private String name;
+    @SerializedName("size")
+    private long   size;
+    @SerializedName("mode")
+    private long   mode;
+    @SerializedName("mtime")
+    private String mtime;
+    @SerializedName("linkTarget")
+    private String linkTarget;
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /** Go {@code os.FileMode} bits of the resource. */
+    public long getMode() {
+        return mode;
+    }
+
+    /** Modification time of the resource in RFC 3339 format. */
+    public String getMtime() {
+        return mtime;
+    }
+
+    public String getLinkTarget() {
+        return linkTarget;
+    }
+
+    /** Returns {@code true} if this resource is a directory. */
+    public boolean isDirectory() {
+        // os.ModeDir is the most significant bit of 32 bits mode
+        return (mode & (1L << 31)) != 0;
+    }
+
+    public ContainerPathStat withName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public ContainerPathStat withSize(long size) {
+        this.size = size;
+        return this;
+    }
+
+    public ContainerPathStat withMode(long mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public ContainerPathStat withMtime(String mtime) {
+        this.mtime = mtime;
+        return this;
+    }
+
+    public ContainerPathStat withLinkTarget(String linkTarget) {
+        this.linkTarget = linkTarget;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContainerPathStat)) return false;
+        ContainerPathStat that = (ContainerPathStat)o;
+        return size == that.size &&
+               mode == that.mode &&
+               Objects.equals(name, that.name) &&
+               Objects.equals(mtime, that.mtime) &&
+               Objects.equals(linkTarget, that.linkTarget);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, size, mode, mtime, linkTarget);
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerPathStat{" +
+               "name='" + name + '\'' +
+               ", size=" + size +
+               ", mode=" + mode +
+               ", mtime='" + mtime + '\'' +
+               ", linkTarget='" + linkTarget + '\'' +
+               '}';
+    }
+}
@@ -12,9 +12,14 @@ package org.eclipse.che.plugin.docker.client.params;
 
 import org.eclipse.che.plugin.docker.client.json.Filters;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
+import static org.eclipse.che.plugin.docker.client.params.ParamsUtils.requireNonEmptyArray;
 
 /**
  * Arguments holder for {@link org.eclipse.che.plugin.docker.client.DockerConnector#listContainers(ListContainersParams)}.
@@ -29,6 +34,8 @@ public class ListContainersParams {
     private Boolean size;
     private Filters filters;
 
+    private Set<String> fields;
+
     private ListContainersParams() {
     }
 
@@ -118,6 +125,20 @@ public class ListContainersParams {
         return this;
     }
 
+    /**
+     * Restricts fields of {@link org.eclipse.che.plugin.docker.client.json.ContainerListEntry} which are read
+     * from docker response, values of other fields are skipped and left unset. All fields are read by default.
+     *
+     * @param fields
+     *         java names of the fields, e.g. {@code id}, {@code labels}
+     */
+    public ListContainersParams withFields(String... fields) {
+        requireNonNull(fields);
+        requireNonEmptyArray(fields);
+        this.fields = unmodifiableSet(new HashSet<>(asList(fields)));
+        return this;
+    }
+
     public Boolean isAll() {
         return all;
     }
@@ -142,6 +163,10 @@ public class ListContainersParams {
         return filters;
     }
 
+    public Set<String> getFields() {
+        return fields;
+    }
+
     @Override
     public String toString() {
         return "ListContainersParams{" +
@@ -151,6 +176,7 @@ public class ListContainersParams {
                ", before='" + before + '\'' +
                ", size=" + size +
                ", filters=" + filters +
+               ", fields=" + fields +
                '}';
     }
 
@@ -165,11 +191,12 @@ public class ListContainersParams {
                Objects.equals(getSince(), another.getSince()) &&
                Objects.equals(getBefore(), another.getBefore()) &&
                Objects.equals(isSize(), another.isSize()) &&
-               Objects.equals(getFilters(), another.getFilters());
+               Objects.equals(getFilters(), another.getFilters()) &&
+               Objects.equals(getFields(), another.getFields());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(isAll(), getLimit(), getSince(), getBefore(), isSize(), getFilters());
+        return Objects.hash(isAll(), getLimit(), getSince(), getBefore(), isSize(), getFilters(), getFields());
     }
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.params;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+import static org.eclipse.che.plugin.docker.client.params.ParamsUtils.requireNonEmptyArray;
+
+/**
+ * Arguments holder for {@link org.eclipse.che.plugin.docker.client.DockerConnector#listImages(ListImagesParams)}.
+ */
+public class ListImagesParams {
+    private Boolean     all;
+    private Set<String> fields;
+
+    private ListImagesParams() {
+    }
+
+    /**
+     * Creates and returns arguments holder.
+     */
+    public static ListImagesParams create() {
+        return new ListImagesParams();
+    }
+
+    /**
+     * Adds parameter show all images. Intermediate image layers are hidden by default.
+     *
+     * @param all
+     *         if true show all images, if false hide intermediate image layers
+     */
+    public ListImagesParams withAll(boolean all) {
+        this.all = all;
+        return this;
+    }
+
+    /**
+     * Restricts fields of {@link org.eclipse.che.plugin.docker.client.json.Image} which are read from docker response,
+     * values of other fields are skipped and left unset. All fields are read by default.
+     *
+     * @param fields
+     *         java names of the fields, e.g. {@code id}, {@code labels}
+     */
+    public ListImagesParams withFields(String... fields) {
+        requireNonNull(fields);
+        requireNonEmptyArray(fields);
+        this.fields = unmodifiableSet(new HashSet<>(asList(fields)));
+        return this;
+    }
+
+    public Boolean isAll() {
+        return all;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ListImagesParams)) return false;
+        ListImagesParams another = (ListImagesParams)obj;
+
+        return Objects.equals(isAll(), another.isAll()) &&
+               Objects.equals(getFields(), another.getFields());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isAll(), getFields());
+    }
+
+    @Override
+    public String toString() {
+        return "ListImagesParams{" +
+               "all=" + all +
+               ", fields=" + fields +
+               '}';
+    }
+}
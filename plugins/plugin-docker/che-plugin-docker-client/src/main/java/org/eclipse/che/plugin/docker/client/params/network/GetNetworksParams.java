@@ -12,7 +12,14 @@ package org.eclipse.che.plugin.docker.client.params.network;
 
 import org.eclipse.che.plugin.docker.client.json.Filters;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+import static org.eclipse.che.plugin.docker.client.params.ParamsUtils.requireNonEmptyArray;
 
 /**
  * Arguments holder for {@link org.eclipse.che.plugin.docker.client.DockerConnector#getNetworks(GetNetworksParams)}.
@@ -21,7 +28,8 @@ import java.util.Objects;
  */
 public class GetNetworksParams {
 
-    private Filters filters;
+    private Filters     filters;
+    private Set<String> fields;
 
     /**
      * Creates arguments holder.
@@ -45,10 +53,29 @@ public class GetNetworksParams {
         return this;
     }
 
+    /**
+     * Restricts fields of {@link org.eclipse.che.plugin.docker.client.json.network.Network} which are read
+     * from docker response, values of other fields are skipped and left unset. All fields are read by default.
+     *
+     * @param fields
+     *         java names of the fields, e.g. {@code id}, {@code name}
+     * @return this params instance
+     */
+    public GetNetworksParams withFields(String... fields) {
+        requireNonNull(fields);
+        requireNonEmptyArray(fields);
+        this.fields = unmodifiableSet(new HashSet<>(asList(fields)));
+        return this;
+    }
+
     public Filters getFilters() {
         return filters;
     }
 
+    public Set<String> getFields() {
+        return fields;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -58,13 +85,15 @@ public class GetNetworksParams {
             return false;
         }
         final GetNetworksParams that = (GetNetworksParams)obj;
-        return Objects.equals(filters, that.filters);
+        return Objects.equals(filters, that.filters) &&
+               Objects.equals(fields, that.fields);
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 31 * hash + Objects.hashCode(filters);
+        hash = 31 * hash + Objects.hashCode(fields);
         return hash;
     }
 
@@ -72,6 +101,7 @@ public class GetNetworksParams {
     public String toString() {
         return "GetNetworksParams{" +
                "filters=" + filters +
+               ", fields=" + fields +
                '}';
     }
 }
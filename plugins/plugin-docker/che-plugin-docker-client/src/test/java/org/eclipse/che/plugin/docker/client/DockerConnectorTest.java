@@ -125,6 +125,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 
 /**
  * @author Anton Korneta
@@ -362,6 +363,24 @@ public class DockerConnectorTest {
         assertEquals(containers, expectedListContainers);
     }
 
+    @Test
+    public void shouldReadOnlyProjectedFieldsOfListedContainers() throws IOException {
+        ListContainersParams listContainersParams = ListContainersParams.create().withFields("id", "labels");
+        when(dockerResponse.getInputStream()).thenReturn(new ByteArrayInputStream(
+                ("[{\"Id\":\"abc\",\"Image\":\"img\",\"Names\":[\"/name\"],\"Labels\":{\"key\":\"value\"}," +
+                 "\"Ports\":[{\"PrivatePort\":8080,\"Type\":\"tcp\"}]}]").getBytes()));
+
+        List<ContainerListEntry> containers = dockerConnector.listContainers(listContainersParams);
+
+        assertEquals(containers.size(), 1);
+        ContainerListEntry container = containers.get(0);
+        assertEquals(container.getId(), "abc");
+        assertEquals(container.getLabels(), singletonMap("key", "value"));
+        assertNull(container.getImage());
+        assertNull(container.getNames());
+        assertNull(container.getPorts());
+    }
+
     @Test(expectedExceptions = DockerException.class, expectedExceptionsMessageRegExp = EXCEPTION_ERROR_MESSAGE)
     public void shouldThrowDockerExceptionWhileGettingListContainersByParamsObjectIfResponseCodeIsNotSuccess()
             throws IOException, JsonParseException {
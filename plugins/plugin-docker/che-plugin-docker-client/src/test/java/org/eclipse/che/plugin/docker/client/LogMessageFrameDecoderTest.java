@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link LogMessageFrameDecoder}.
+ */
+public class LogMessageFrameDecoderTest {
+    private static final int STDOUT = 1;
+    private static final int STDERR = 2;
+
+    @Test(dataProvider = "portionSizes")
+    public void shouldDecodeFramesSplitIntoArbitraryPortions(int portionSize) throws Exception {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(frame(STDOUT, "first\nsec"));
+        stream.write(frame(STDOUT, "ond\nthird"));
+        stream.write(frame(STDOUT, "\n"));
+
+        assertEquals(decode(stream.toByteArray(), portionSize), asList("STDOUT:first", "STDOUT:second", "STDOUT:third"));
+    }
+
+    @DataProvider(name = "portionSizes")
+    public static Object[][] portionSizes() {
+        return new Object[][] {{1}, {3}, {8}, {9}, {1024}};
+    }
+
+    @Test
+    public void shouldNotIncludeCarriageReturnWhenLineFeedFollows() throws Exception {
+        final byte[] stream = frame(STDOUT, "line\r\nprogress\r");
+
+        assertEquals(decode(stream, stream.length), asList("STDOUT:line", "STDOUT:progress\r"));
+    }
+
+    @Test
+    public void shouldNotSendEmptyMessageWhenLineFeedFollowsCarriageReturnInNextPortion() throws Exception {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(frame(STDOUT, "line\r"));
+        stream.write(frame(STDOUT, "\nnext\n"));
+
+        assertEquals(decode(stream.toByteArray(), 13), asList("STDOUT:line\r", "STDOUT:next"));
+    }
+
+    @Test
+    public void shouldSplitTooLongLines() throws Exception {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < LogMessageFrameDecoder.MAX_LINE_LENGTH + 10; i++) {
+            line.append('a');
+        }
+        final List<String> messages = new ArrayList<>();
+        final LogMessageFrameDecoder decoder = new LogMessageFrameDecoder(message -> messages.add(message.getContent()));
+
+        final byte[] stream = frame(STDOUT, line + "\n");
+        decoder.decode(stream, 0, stream.length);
+        decoder.finish();
+
+        assertEquals(messages.size(), 2);
+        assertEquals(messages.get(0).length(), LogMessageFrameDecoder.MAX_LINE_LENGTH);
+        assertEquals(messages.get(1).length(), 10);
+    }
+
+    @Test
+    public void shouldNotMixContentOfDifferentStreamsInOneMessage() throws Exception {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(frame(STDOUT, "out"));
+        stream.write(frame(STDERR, "err\n"));
+
+        assertEquals(decode(stream.toByteArray(), 1024), asList("STDOUT:out", "STDERR:err"));
+    }
+
+    @Test
+    public void shouldSendIncompleteLineOnFinish() throws Exception {
+        final byte[] stream = frame(STDERR, "line\n\nincomplete");
+
+        assertEquals(decode(stream, stream.length), asList("STDERR:line", "STDERR:", "STDERR:incomplete"));
+    }
+
+    private static List<String> decode(byte[] stream, int portionSize) {
+        final List<String> messages = new ArrayList<>();
+        final LogMessageFrameDecoder decoder =
+                new LogMessageFrameDecoder(message -> messages.add(message.getType() + ":" + message.getContent()));
+        for (int i = 0; i < stream.length; i += portionSize) {
+            decoder.decode(stream, i, Math.min(portionSize, stream.length - i));
+        }
+        decoder.finish();
+        return messages;
+    }
+
+    private static byte[] frame(int type, String payload) throws IOException {
+        final byte[] payloadBytes = payload.getBytes();
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(new byte[] {(byte)type, 0, 0, 0,
+                                (byte)(payloadBytes.length >>> 24),
+                                (byte)(payloadBytes.length >>> 16),
+                                (byte)(payloadBytes.length >>> 8),
+                                (byte)payloadBytes.length});
+        frame.write(payloadBytes);
+        return frame.toByteArray();
+    }
+}
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.api.core.util.SystemInfo;
+import org.eclipse.che.plugin.docker.client.connection.DockerConnection;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.plugin.docker.client.CLibrary.POLLIN;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for {@link LogStreamsMultiplexer}.
+ *
+ * <p>Pipes are used instead of sockets of docker connections, so the tests run only on linux.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class LogStreamsMultiplexerTest {
+    private static final int STDOUT = 1;
+
+    @Mock
+    private DockerConnection connection;
+
+    private ExecutorService       fallbackExecutor;
+    private LogStreamsMultiplexer multiplexer;
+    private List<Pipe>            pipes;
+
+    @BeforeClass
+    public void checkSystem() {
+        if (!SystemInfo.isLinux()) {
+            throw new SkipException("Native library is available only on linux");
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        fallbackExecutor = Executors.newCachedThreadPool();
+        multiplexer = new LogStreamsMultiplexer(2, fallbackExecutor);
+        pipes = new ArrayList<>();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        multiplexer.shutdown();
+        fallbackExecutor.shutdownNow();
+        for (Pipe pipe : pipes) {
+            pipe.closeWriteEnd();
+            pipe.closeReadEnd();
+        }
+    }
+
+    @Test
+    public void shouldReadSeveralStreams() throws Exception {
+        final List<Pipe> streams = new ArrayList<>();
+        final List<BlockingQueue<String>> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Pipe pipe = openPipe();
+            final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+            multiplexer.pump(mockConnection(pipe), pipe.input(), message -> queue.add(message.getContent()));
+            streams.add(pipe);
+            messages.add(queue);
+        }
+
+        for (int line = 0; line < 3; line++) {
+            for (int i = streams.size() - 1; i >= 0; i--) {
+                streams.get(i).write(frame(STDOUT, "stream " + i + " line " + line + '\n'));
+            }
+        }
+
+        for (int i = 0; i < streams.size(); i++) {
+            for (int line = 0; line < 3; line++) {
+                assertEquals(messages.get(i).poll(5, SECONDS), "stream " + i + " line " + line);
+            }
+        }
+    }
+
+    @Test
+    public void shouldCompleteFutureAndCloseConnectionWhenEndOfStreamIsReached() throws Exception {
+        final Pipe pipe = openPipe();
+        final DockerConnection connection = mockConnection(pipe);
+        final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        final CompletableFuture<Void> future = multiplexer.pump(connection, pipe.input(), message -> messages.add(message.getContent()));
+
+        pipe.write(frame(STDOUT, "line\nincomplete"));
+        pipe.closeWriteEnd();
+
+        future.get(5, SECONDS);
+        assertEquals(messages.poll(), "line");
+        assertEquals(messages.poll(), "incomplete");
+        verify(connection).close();
+        assertTrue(pipe.isReadEndClosed());
+    }
+
+    @Test
+    public void shouldStopReadingAndCloseConnectionWhenFutureIsCancelled() throws Exception {
+        final Pipe detached = openPipe();
+        final DockerConnection detachedConnection = mockConnection(detached);
+        final BlockingQueue<String> detachedMessages = new LinkedBlockingQueue<>();
+        final CompletableFuture<Void> future = multiplexer.pump(detachedConnection,
+                                                                detached.input(),
+                                                                message -> detachedMessages.add(message.getContent()));
+        final Pipe attached = openPipe();
+        final BlockingQueue<String> attachedMessages = new LinkedBlockingQueue<>();
+        multiplexer.pump(mockConnection(attached), attached.input(), message -> attachedMessages.add(message.getContent()));
+        detached.write(frame(STDOUT, "first\n"));
+        assertEquals(detachedMessages.poll(5, SECONDS), "first");
+
+        future.cancel(true);
+
+        verify(detachedConnection, timeout(5000)).close();
+        assertTrue(detached.isReadEndClosed());
+        attached.write(frame(STDOUT, "still read\n"));
+        assertEquals(attachedMessages.poll(5, SECONDS), "still read");
+        assertNull(detachedMessages.poll(100, MILLISECONDS));
+    }
+
+    @Test
+    public void shouldCompleteFutureExceptionallyWhenProcessorFails() throws Exception {
+        final Pipe pipe = openPipe();
+        final DockerConnection connection = mockConnection(pipe);
+        final CompletableFuture<Void> future = multiplexer.pump(connection, pipe.input(), message -> {
+            throw new IllegalStateException("processor error");
+        });
+
+        pipe.write(frame(STDOUT, "line\n"));
+
+        try {
+            future.get(5, SECONDS);
+            fail("Processor error is expected");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "processor error");
+        }
+        verify(connection, timeout(5000)).close();
+    }
+
+    @Test
+    public void shouldCompleteFuturesExceptionallyOnShutdown() throws Exception {
+        final Pipe pipe = openPipe();
+        final DockerConnection connection = mockConnection(pipe);
+        final CompletableFuture<Void> future = multiplexer.pump(connection, pipe.input(), message -> {});
+
+        multiplexer.shutdown();
+
+        assertTrue(future.isCompletedExceptionally());
+        verify(connection, timeout(5000)).close();
+    }
+
+    @Test
+    public void shouldReadStreamOfConnectionWithoutSocketWithFallbackExecutor() throws Exception {
+        when(connection.getSocketFd()).thenReturn(-1);
+        final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+        multiplexer.pump(connection, new ByteArrayInputStream(frame(STDOUT, "line\n")), message -> messages.add(message.getContent()))
+                   .get(5, SECONDS);
+
+        assertEquals(messages.poll(), "line");
+        verify(connection, timeout(5000)).close();
+    }
+
+    private Pipe openPipe() throws IOException {
+        final Pipe pipe = new Pipe();
+        pipes.add(pipe);
+        return pipe;
+    }
+
+    private static DockerConnection mockConnection(Pipe pipe) {
+        final DockerConnection connection = mock(DockerConnection.class);
+        when(connection.getSocketFd()).thenReturn(pipe.fds[0]);
+        return connection;
+    }
+
+    private static byte[] frame(int type, String payload) throws IOException {
+        final byte[] payloadBytes = payload.getBytes();
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(new byte[] {(byte)type, 0, 0, 0,
+                                (byte)(payloadBytes.length >>> 24),
+                                (byte)(payloadBytes.length >>> 16),
+                                (byte)(payloadBytes.length >>> 8),
+                                (byte)payloadBytes.length});
+        frame.write(payloadBytes);
+        return frame.toByteArray();
+    }
+
+    private static class Pipe {
+        final CLibrary cLib = getCLibrary();
+        final int[]    fds  = new int[2];
+
+        boolean readEndClosed;
+        boolean writeEndClosed;
+
+        Pipe() throws IOException {
+            if (cLib.pipe(fds) == -1) {
+                throw new IOException("Unable to create pipe");
+            }
+        }
+
+        InputStream input() {
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    final byte[] b = new byte[1];
+                    return read(b, 0, 1) == -1 ? -1 : b[0];
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    final byte[] buf = new byte[len];
+                    final int n = cLib.read(fds[0], buf, len);
+                    if (n == -1) {
+                        throw new IOException("Unable to read pipe");
+                    }
+                    if (n == 0) {
+                        return -1;
+                    }
+                    System.arraycopy(buf, 0, b, off, n);
+                    return n;
+                }
+
+                /** Pipe is readable without blocking when it has data or its write end is closed. */
+                @Override
+                public int available() throws IOException {
+                    final CLibrary.PollFd[] pollFds = (CLibrary.PollFd[])new CLibrary.PollFd().toArray(1);
+                    pollFds[0].fd = fds[0];
+                    pollFds[0].events = POLLIN;
+                    final int n = cLib.poll(pollFds, 1, 0);
+                    if (n == -1) {
+                        throw new IOException("Unable to poll pipe");
+                    }
+                    return n;
+                }
+
+                @Override
+                public void close() {
+                    closeReadEnd();
+                }
+            };
+        }
+
+        void write(byte[] data) {
+            assertEquals(cLib.write(fds[1], data, data.length), data.length);
+        }
+
+        synchronized boolean isReadEndClosed() {
+            return readEndClosed;
+        }
+
+        synchronized void closeReadEnd() {
+            if (!readEndClosed) {
+                readEndClosed = true;
+                cLib.close(fds[0]);
+            }
+        }
+
+        synchronized void closeWriteEnd() {
+            if (!writeEndClosed) {
+                writeEndClosed = true;
+                cLib.close(fds[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.ByteStreams;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ChunkedInputStream}.
+ */
+public class ChunkedInputStreamTest {
+    private PipedOutputStream  source;
+    private ChunkedInputStream chunked;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        source = new PipedOutputStream();
+        chunked = new ChunkedInputStream(new PipedInputStream(source));
+    }
+
+    @Test
+    public void shouldReadChunks() throws Exception {
+        final ChunkedInputStream stream =
+                new ChunkedInputStream(new ByteArrayInputStream("5\r\nhello\r\n6;ext=1\r\n world\r\n0\r\n\r\n".getBytes()));
+
+        assertEquals(new String(ByteStreams.toByteArray(stream)), "hello world");
+    }
+
+    @Test
+    public void shouldNotReportAvailableBytesUntilChunkHeaderIsComplete() throws Exception {
+        write("1");
+        assertEquals(chunked.available(), 0);
+
+        write("a");
+        assertEquals(chunked.available(), 0);
+
+        write("\r\n0123");
+        assertEquals(chunked.available(), 4);
+        assertEquals(read(4), "0123");
+    }
+
+    @Test
+    public void shouldNotReportAvailableBytesUntilCrlfAfterChunkAndNextHeaderAreReceived() throws Exception {
+        write("3\r\nabc");
+        assertEquals(read(3), "abc");
+        assertEquals(chunked.available(), 0);
+
+        write("\r");
+        assertEquals(chunked.available(), 0);
+
+        write("\n2\r");
+        assertEquals(chunked.available(), 0);
+
+        write("\nde");
+        assertEquals(chunked.available(), 2);
+        assertEquals(read(2), "de");
+    }
+
+    @Test
+    public void shouldReportAvailableByteWhenLastChunkIsReceived() throws Exception {
+        write("1\r\na\r\n");
+        assertEquals(read(1), "a");
+
+        write("0\r\n\r\n");
+        assertEquals(chunked.available(), 1);
+        assertEquals(chunked.read(), -1);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailWhenCrlfIsMissingAfterChunk() throws Exception {
+        write("1\r\nab\r\n");
+        read(1);
+
+        chunked.available();
+    }
+
+    private void write(String data) throws IOException {
+        source.write(data.getBytes());
+        source.flush();
+    }
+
+    private String read(int length) throws IOException {
+        final byte[] buf = new byte[length];
+        ByteStreams.readFully(chunked, buf);
+        return new String(buf);
+    }
+}
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Striped;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.ContainerPathStat;
+import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads files of docker container without creating processes inside of the container.
+ *
+ * <p>Content of a file is fetched once with docker archive API into a local copy,
+ * the copy is reused while size and modification time of the file reported by docker stay the same.
+ * Checking of these attributes requires only {@code HEAD} request to docker API.
+ * While local copy is created index of lines offsets is built, so reading of a page
+ * of lines doesn't require scanning the file from its beginning.
+ *
+ * <p>When file grows, e.g. it is a log, the archive is read again, but the already fetched part
+ * of it is skipped and only appended bytes are written to the local copy and indexed.
+ * The whole file is fetched anew only if it is truncated or rewritten.
+ *
+ * <p>Total size of local copies is limited, the least recently used copies are removed when
+ * the limit is exceeded or on {@link #close()}. Only index of lines offsets is kept for a file
+ * bigger than the limit, its pages are read from the archive stream which is skipped to the
+ * indexed offset and is closed as soon as the page is read.
+ *
+ * <p>Readings of different files don't block each other.
+ */
+class ContainerFileReader implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ContainerFileReader.class);
+
+    /** Number of lines between two neighbour entries of lines offsets index. */
+    static final int LINES_INDEX_STEP = 128;
+
+    /** Default limit of total size of local copies of files of a single container. */
+    static final long MAX_LOCAL_COPIES_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Number of already fetched bytes which are compared with the file content when appended bytes are fetched,
+     * if they differ then file is rewritten and it is fetched anew.
+     */
+    static final int APPEND_CHECK_SIZE = 64;
+
+    /** Max number of indexes of files which are bigger than the limit of local copies. */
+    private static final int MAX_INDEXED_FILES = 16;
+
+    private final DockerConnector           docker;
+    private final String                    container;
+    private final long                      maxLocalCopiesSize;
+    private final Cache<String, CachedFile> files;
+    private final Cache<String, CachedFile> indexes;
+    private final Striped<Lock>             locks;
+
+    ContainerFileReader(DockerConnector docker, String container) {
+        this(docker, container, MAX_LOCAL_COPIES_SIZE);
+    }
+
+    ContainerFileReader(DockerConnector docker, String container, long maxLocalCopiesSize) {
+        this.docker = docker;
+        this.container = container;
+        this.maxLocalCopiesSize = maxLocalCopiesSize;
+        // weight is counted in kilobytes, as it is limited with int
+        this.files = CacheBuilder.newBuilder()
+                                 .maximumWeight(Math.max(1, maxLocalCopiesSize / 1024))
+                                 .weigher((String path, CachedFile file) -> (int)Math.min(Integer.MAX_VALUE, file.size / 1024 + 1))
+                                 .removalListener((RemovalListener<String, CachedFile>)n -> {
+                                     // the same copy is put again when appended content is fetched
+                                     if (n.getCause() != RemovalCause.REPLACED) {
+                                         n.getValue().delete();
+                                     }
+                                 })
+                                 .build();
+        this.indexes = CacheBuilder.newBuilder()
+                                   .maximumSize(MAX_INDEXED_FILES)
+                                   .build();
+        this.locks = Striped.lock(16);
+    }
+
+    /**
+     * Reads lines of the file starting from line {@code startFrom} to line {@code startFrom + limit} inclusively.
+     * Lines are numbered from 1.
+     *
+     * @return lines separated with '\n' or empty string if file contains less lines than {@code startFrom}
+     * @throws FileNotFoundException
+     *         if file doesn't exist in container or it is a directory
+     * @throws IOException
+     *         if any other error occurs
+     */
+    String readLines(String path, int startFrom, int limit) throws IOException {
+        final Lock lock = locks.get(path);
+        lock.lock();
+        try {
+            final CachedFile file = getFile(path);
+            if (startFrom > file.getLinesCount()) {
+                return "";
+            }
+            final int indexPos = (startFrom - 1) / LINES_INDEX_STEP;
+            int line = indexPos * LINES_INDEX_STEP + 1;
+            final long lastLine = (long)startFrom + limit;
+            final StringBuilder content = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(file, file.linesIndex[indexPos]), UTF_8))) {
+                String current;
+                while (line <= lastLine && (current = reader.readLine()) != null) {
+                    if (line > startFrom) {
+                        content.append('\n');
+                    }
+                    if (line >= startFrom) {
+                        content.append(current);
+                    }
+                    line++;
+                }
+            }
+            return content.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads at most {@code length} bytes of the file starting from byte {@code offset}.
+     *
+     * @return read bytes or empty array if file is shorter than {@code offset}
+     * @throws FileNotFoundException
+     *         if file doesn't exist in container or it is a directory
+     * @throws IOException
+     *         if any other error occurs
+     */
+    byte[] readBytes(String path, long offset, int length) throws IOException {
+        final Lock lock = locks.get(path);
+        lock.lock();
+        try {
+            final CachedFile file = getFile(path);
+            if (offset >= file.size) {
+                return new byte[0];
+            }
+            final byte[] bytes = new byte[(int)Math.min(length, file.size - offset)];
+            final int read;
+            try (InputStream content = open(file, offset)) {
+                read = ByteStreams.read(content, bytes, 0, bytes.length);
+            }
+            return read == bytes.length ? bytes : Arrays.copyOf(bytes, read);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Removes all local copies of files. */
+    @Override
+    public void close() {
+        files.invalidateAll();
+        indexes.invalidateAll();
+    }
+
+    private CachedFile getFile(String path) throws IOException {
+        ContainerPathStat stat = docker.getResourceStat(GetResourceParams.create(container, path));
+        String sourcePath = path;
+        if (stat.getLinkTarget() != null && !stat.getLinkTarget().isEmpty()) {
+            sourcePath = stat.getLinkTarget();
+            stat = docker.getResourceStat(GetResourceParams.create(container, sourcePath));
+        }
+        if (stat.isDirectory()) {
+            throw new FileNotFoundException(format("Path %s is a directory", path));
+        }
+
+        CachedFile file = files.getIfPresent(path);
+        if (file == null) {
+            file = indexes.getIfPresent(path);
+        }
+        if (file != null && file.stat.equals(stat) && file.sourcePath.equals(sourcePath)) {
+            return file;
+        }
+        if (file != null && file.sourcePath.equals(sourcePath) && stat.getSize() > file.size
+            && (file.localCopy == null || stat.getSize() <= maxLocalCopiesSize) && fetchAppended(file, stat)) {
+            // weight of the copy is updated
+            put(path, file);
+            return file;
+        }
+        files.invalidate(path);
+        indexes.invalidate(path);
+        final CachedFile fetched = fetch(sourcePath, stat, stat.getSize() <= maxLocalCopiesSize);
+        put(path, fetched);
+        return fetched;
+    }
+
+    private void put(String path, CachedFile file) {
+        if (file.localCopy != null) {
+            files.put(path, file);
+        } else {
+            indexes.put(path, file);
+        }
+    }
+
+    /** Fetches the file and builds its lines index, content is saved to local copy only if {@code keepCopy} is {@code true}. */
+    private CachedFile fetch(String path, ContainerPathStat stat, boolean keepCopy) throws IOException {
+        final CachedFile file = new CachedFile(path, stat, keepCopy ? Files.createTempFile("machine-file-", null) : null);
+        try (TarArchiveInputStream tar = openArchive(path);
+             OutputStream out = file.localCopy == null ? ByteStreams.nullOutputStream()
+                                                       : new BufferedOutputStream(Files.newOutputStream(file.localCopy))) {
+            copy(tar, out, file);
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Fetches bytes which are appended to the file since it is fetched, adds them to the local copy and to the lines index.
+     * The already fetched part of the archive stream is skipped except for the last bytes which must stay the same.
+     *
+     * @return {@code false} if appended bytes can't be fetched or the file is rewritten, so it should be fetched anew
+     */
+    private boolean fetchAppended(CachedFile file, ContainerPathStat stat) {
+        final byte[] check = new byte[file.tail.length];
+        try (TarArchiveInputStream tar = openArchive(file.sourcePath)) {
+            ByteStreams.skipFully(tar, file.size - check.length);
+            ByteStreams.readFully(tar, check);
+            if (!Arrays.equals(check, file.tail)) {
+                return false;
+            }
+            try (OutputStream out = file.localCopy == null ? ByteStreams.nullOutputStream()
+                                                           : new BufferedOutputStream(Files.newOutputStream(file.localCopy, APPEND))) {
+                copy(tar, out, file);
+            }
+        } catch (EOFException e) {
+            // file is truncated after its attributes are read
+            return false;
+        } catch (IOException e) {
+            LOG.debug("Unable to fetch appended content of file {} in container {}. Cause: {}", file.sourcePath, container, e.getMessage());
+            return false;
+        }
+        file.stat = stat;
+        return true;
+    }
+
+    /** Opens content of the file starting from byte {@code offset}, from the local copy if it is kept or from the archive. */
+    private InputStream open(CachedFile file, long offset) throws IOException {
+        if (file.localCopy != null) {
+            try {
+                final FileChannel channel = FileChannel.open(file.localCopy, READ);
+                channel.position(offset);
+                return Channels.newInputStream(channel);
+            } catch (NoSuchFileException e) {
+                // copy is removed as reading of other files has exceeded the limit, content is read from container
+            }
+        }
+        final TarArchiveInputStream tar = openArchive(file.sourcePath);
+        try {
+            ByteStreams.skipFully(tar, offset);
+        } catch (IOException e) {
+            tar.close();
+            throw e;
+        }
+        return tar;
+    }
+
+    private TarArchiveInputStream openArchive(String path) throws IOException {
+        final TarArchiveInputStream tar = new TarArchiveInputStream(docker.getResource(GetResourceParams.create(container, path)));
+        final TarArchiveEntry entry;
+        try {
+            entry = tar.getNextTarEntry();
+        } catch (IOException e) {
+            tar.close();
+            throw e;
+        }
+        if (entry == null || !entry.isFile()) {
+            tar.close();
+            throw new FileNotFoundException(format("File %s not found", path));
+        }
+        return tar;
+    }
+
+    private static void copy(InputStream in, OutputStream out, CachedFile file) throws IOException {
+        final byte[] buf = new byte[8192];
+        int read;
+        while ((read = in.read(buf)) != -1) {
+            out.write(buf, 0, read);
+            file.index(buf, read);
+        }
+    }
+
+    private static class CachedFile {
+        final String sourcePath;
+        final Path   localCopy;
+
+        ContainerPathStat stat;
+        long[]            linesIndex;
+        long              size;
+        int               terminatedLines;
+        boolean           lineStarted;
+        int               indexSize;
+        /** Last fetched bytes, at most {@link #APPEND_CHECK_SIZE}. */
+        byte[]            tail;
+
+        CachedFile(String sourcePath, ContainerPathStat stat, Path localCopy) {
+            this.sourcePath = sourcePath;
+            this.stat = stat;
+            this.localCopy = localCopy;
+            this.linesIndex = new long[16];
+            // offset of the first line is 0
+            this.indexSize = 1;
+            this.tail = new byte[0];
+        }
+
+        /** Adds fetched bytes to lines offsets index. */
+        void index(byte[] buf, int length) {
+            for (int i = 0; i < length; i++) {
+                size++;
+                if (buf[i] == '\n') {
+                    terminatedLines++;
+                    lineStarted = false;
+                    if (terminatedLines % LINES_INDEX_STEP == 0) {
+                        if (indexSize == linesIndex.length) {
+                            linesIndex = Arrays.copyOf(linesIndex, linesIndex.length * 2);
+                        }
+                        linesIndex[indexSize++] = size;
+                    }
+                } else {
+                    lineStarted = true;
+                }
+            }
+            final byte[] newTail = new byte[(int)Math.min(APPEND_CHECK_SIZE, size)];
+            final int fromBuf = Math.min(length, newTail.length);
+            final int fromTail = newTail.length - fromBuf;
+            System.arraycopy(tail, tail.length - fromTail, newTail, 0, fromTail);
+            System.arraycopy(buf, length - fromBuf, newTail, fromTail, fromBuf);
+            tail = newTail;
+        }
+
+        /** Last line may be not terminated with line separator. */
+        int getLinesCount() {
+            return lineStarted ? terminatedLines + 1 : terminatedLines;
+        }
+
+        void delete() {
+            if (localCopy == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(localCopy);
+            } catch (IOException e) {
+                LOG.warn("Unable to remove local copy {} of container file. Cause: {}", localCopy, e.getLocalizedMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.Filters;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Shared cache of docker containers state.
+ *
+ * <p>Holds results of {@link DockerConnector#inspectContainer(String)} and
+ * {@link DockerConnector#listContainers(ListContainersParams)} and keeps them up to date using
+ * a single subscription to docker events. Cached entries are invalidated
+ * when any event related to the container is received and are lazily loaded
+ * again on the next request. Entries also expire after configured period of time
+ * in case events are not delivered by the connector implementation.
+ *
+ * <p>Components interested in container events should register listener with
+ * {@link #addEventListener(MessageProcessor)} instead of subscribing to docker events on their own.
+ *
+ * <p>Note that containers info is cached by identifier which was used for inspection,
+ * so full container identifier should be used to get benefits from events driven invalidation.
+ */
+@Singleton
+public class DockerContainerStateCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerContainerStateCache.class);
+
+    private static final Filters CONTAINER_EVENTS_FILTERS = new Filters().withFilter("event",
+                                                                                     "create",
+                                                                                     "start",
+                                                                                     "restart",
+                                                                                     "pause",
+                                                                                     "unpause",
+                                                                                     "rename",
+                                                                                     "update",
+                                                                                     "kill",
+                                                                                     "stop",
+                                                                                     "oom",
+                                                                                     "die",
+                                                                                     "destroy");
+
+    /** Only fields which are used by consumers of the cached list are read from docker response. */
+    private static final ListContainersParams LIST_CONTAINERS_PARAMS = ListContainersParams.create()
+                                                                                           .withAll(true)
+                                                                                           .withFields("id", "names", "status");
+
+    private final DockerConnector               dockerConnector;
+    private final Cache<String, ContainerInfo>  containers;
+    private final List<MessageProcessor<Event>> listeners;
+    private final ExecutorService               executorService;
+    /** Incremented on each invalidation, prevents caching of values loaded concurrently with invalidation. */
+    private final AtomicLong                    generation;
+    private final long                          ttlSec;
+
+    private volatile List<ContainerListEntry> containersList;
+    private volatile long                     containersListLoadTime;
+    private volatile boolean                  stopped;
+
+    private long lastProcessedEventDate = 0;
+
+    @Inject
+    public DockerContainerStateCache(DockerConnectorProvider dockerConnectorProvider,
+                                     @Named("che.docker.container_state_cache.ttl_sec") long ttlSec) {
+        this.dockerConnector = dockerConnectorProvider.get();
+        this.ttlSec = ttlSec;
+        this.containers = CacheBuilder.newBuilder()
+                                      .expireAfterWrite(ttlSec, TimeUnit.SECONDS)
+                                      .build();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.generation = new AtomicLong();
+        this.executorService = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("DockerContainerStateCache-%d")
+                                          .setUncaughtExceptionHandler(
+                                                  LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
+    }
+
+    /**
+     * Returns information about container, inspects container if it is not cached yet.
+     *
+     * @param container
+     *         id of the container
+     * @return information about container or {@code null} if connector didn't provide it
+     * @throws IOException
+     *         when any error occurs during container inspection
+     */
+    public ContainerInfo inspectContainer(String container) throws IOException {
+        ContainerInfo info = containers.getIfPresent(container);
+        if (info == null) {
+            final long gen = generation.get();
+            info = dockerConnector.inspectContainer(container);
+            if (info != null && gen == generation.get()) {
+                containers.put(container, info);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Returns list of containers, lists containers using connector if it is not cached yet.
+     * Only identifiers, names and statuses of the containers are set.
+     *
+     * @throws IOException
+     *         when any error occurs during containers listing
+     */
+    public List<ContainerListEntry> listContainers() throws IOException {
+        List<ContainerListEntry> list = containersList;
+        if (list == null || System.currentTimeMillis() - containersListLoadTime > TimeUnit.SECONDS.toMillis(ttlSec)) {
+            final long gen = generation.get();
+            final long loadTime = System.currentTimeMillis();
+            list = unmodifiableList(dockerConnector.listContainers(LIST_CONTAINERS_PARAMS));
+            if (gen == generation.get()) {
+                containersListLoadTime = loadTime;
+                containersList = list;
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Removes cached information about specified container.
+     *
+     * @param container
+     *         id of the container
+     */
+    public void invalidate(String container) {
+        generation.incrementAndGet();
+        containers.invalidate(container);
+        containersList = null;
+    }
+
+    /** Removes all cached information. */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        containers.invalidateAll();
+        containersList = null;
+    }
+
+    /**
+     * Registers listener of containers events.
+     * Listener is notified after cached state of the container is invalidated.
+     */
+    public void addEventListener(MessageProcessor<Event> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes listener of containers events.
+     */
+    public void removeEventListener(MessageProcessor<Event> listener) {
+        listeners.remove(listener);
+    }
+
+    @PostConstruct
+    private void subscribeToEvents() {
+        executorService.execute(() -> {
+            while (!stopped) {
+                try {
+                    dockerConnector.getEvents(GetEventsParams.create()
+                                                             .withSinceSecond(lastProcessedEventDate)
+                                                             .withFilters(CONTAINER_EVENTS_FILTERS),
+                                              this::onEvent);
+                } catch (IOException e) {
+                    // usually connection timeout, events may be missed so drop everything
+                    invalidateAll();
+                    LOG.debug(e.getLocalizedMessage(), e);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    private void unsubscribeFromEvents() {
+        stopped = true;
+        executorService.shutdownNow();
+    }
+
+    @VisibleForTesting
+    void onEvent(Event event) {
+        if (event.getType() != null && !"container".equals(event.getType())) {
+            // this check is added because of bug in the docker swarm which do not filter events
+            // in case of new response format of 'get events' we should skip all not filtered by swarm event types
+            return;
+        }
+        if (event.getId() != null) {
+            invalidate(event.getId());
+        }
+        if (event.getTime() > lastProcessedEventDate) {
+            lastProcessedEventDate = event.getTime();
+        }
+        for (MessageProcessor<Event> listener : listeners) {
+            try {
+                listener.process(event);
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+}
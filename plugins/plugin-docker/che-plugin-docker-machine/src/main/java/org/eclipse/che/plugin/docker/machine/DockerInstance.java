@@ -21,6 +21,7 @@ import org.eclipse.che.api.core.model.machine.MachineSource;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineRuntimeInfoImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.machine.server.spi.InstanceProcess;
@@ -32,6 +33,7 @@ import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
 import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
@@ -46,8 +48,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -99,10 +103,15 @@ public class DockerInstance extends AbstractInstance {
     private final String                                      registryNamespace;
     private final DockerNode                                  node;
     private final DockerInstanceStopDetector                  dockerInstanceStopDetector;
+    private final DockerContainerStateCache                   containerStateCache;
     private final DockerInstanceProcessesCleaner              processesCleaner;
     private final ConcurrentHashMap<Integer, InstanceProcess> machineProcesses;
     private final boolean                                     snapshotUseRegistry;
     private final MachineRuntimeInfoImpl                      machineRuntime;
+    private final ContainerFileReader                         fileReader;
+
+    /** Set when the connector doesn't support docker archive API, files are read with processes in the container then. */
+    private volatile boolean archiveApiUnsupported;
 
     @Inject
     public DockerInstance(DockerConnectorProvider dockerProvider,
@@ -115,6 +124,7 @@ public class DockerInstance extends AbstractInstance {
                           @Assisted DockerNode node,
                           @Assisted LineConsumer outputConsumer,
                           DockerInstanceStopDetector dockerInstanceStopDetector,
+                          DockerContainerStateCache containerStateCache,
                           DockerInstanceProcessesCleaner processesCleaner,
                           @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry) throws MachineException {
         super(machine);
@@ -127,10 +137,12 @@ public class DockerInstance extends AbstractInstance {
         this.registryNamespace = registryNamespace;
         this.node = node;
         this.dockerInstanceStopDetector = dockerInstanceStopDetector;
+        this.containerStateCache = containerStateCache;
         this.processesCleaner = processesCleaner;
         this.machineProcesses = new ConcurrentHashMap<>();
         processesCleaner.trackProcesses(this);
         this.snapshotUseRegistry = snapshotUseRegistry;
+        this.fileReader = new ContainerFileReader(docker, container);
         this.machineRuntime = doGetRuntime();
     }
 
@@ -260,6 +272,7 @@ public class DockerInstance extends AbstractInstance {
             outputConsumer.close();
         } catch (IOException ignored) {}
 
+        fileReader.close();
         machineProcesses.clear();
         processesCleaner.untrackProcesses(getId());
         dockerInstanceStopDetector.stopDetection(container);
@@ -272,6 +285,7 @@ public class DockerInstance extends AbstractInstance {
             docker.removeContainer(RemoveContainerParams.create(container)
                                                         .withRemoveVolumes(true)
                                                         .withForce(true));
+            containerStateCache.invalidate(container);
         } catch (IOException | ServerException e) {
             LOG.error(e.getLocalizedMessage(), e);
             throw new MachineException(e.getLocalizedMessage());
@@ -292,11 +306,9 @@ public class DockerInstance extends AbstractInstance {
     /**
      * Reads file content by specified file path.
      *
-     * TODO:
-     * add file size checking,
-     * note that size checking and file content reading
-     * should be done in an atomic way,
-     * which means that two separate instance processes is not the case.
+     * <p>File is read through docker archive API without creating processes in the container,
+     * see {@link ContainerFileReader}. If the connector doesn't support archive API, e.g. OpenShift,
+     * the file is read with a {@code sed} process in the container.
      *
      * @param filePath
      *         path to file on machine instance
@@ -316,26 +328,116 @@ public class DockerInstance extends AbstractInstance {
             throw new MachineException("Impossible to read file " + limit + " lines from " + startFrom + " line");
         }
 
+        if (!archiveApiUnsupported) {
+            try {
+                return fileReader.readLines(filePath, startFrom, limit);
+            } catch (IOException e) {
+                throw toFileReadingException(filePath, e);
+            } catch (UnsupportedOperationException e) {
+                archiveApiUnsupported = true;
+            }
+        }
+
         // command sed getting file content from startFrom line to (startFrom + limit)
-        String shCommand = format("sed -n \'%1$2s, %2$2sp\' %3$2s", startFrom, startFrom + limit, filePath);
+        final String content = execAndRead(format("sed -n '%d, %dp' %s", startFrom, startFrom + limit, quote(filePath)));
+        if (content.contains("sed: can't read " + filePath + ": No such file or directory")) {
+            throw new MachineException("File with path " + filePath + " not found");
+        }
+        return content;
+    }
 
-        final String[] command = {"/bin/sh", "-c", shCommand};
+    /**
+     * Reads bytes range of the file by specified file path.
+     *
+     * @param filePath
+     *         path to file on machine instance
+     * @param offset
+     *         offset of the first byte to read
+     * @param length
+     *         maximum number of bytes to read
+     * @return read bytes, empty array if file is shorter than {@code offset}
+     * @throws MachineException
+     *         if any error occurs with file reading
+     */
+    public byte[] readFileBytes(String filePath, long offset, int length) throws MachineException {
+        if (offset < 0 || length <= 0) {
+            throw new MachineException("Impossible to read file " + length + " bytes from " + offset + " byte");
+        }
+
+        if (!archiveApiUnsupported) {
+            try {
+                return fileReader.readBytes(filePath, offset, length);
+            } catch (IOException e) {
+                throw toFileReadingException(filePath, e);
+            } catch (UnsupportedOperationException e) {
+                archiveApiUnsupported = true;
+            }
+        }
 
-        ListLineConsumer lines = new ListLineConsumer();
+        // output is transferred as lines of text, so it is encoded, encoded content never contains spaces
+        final String content = execAndRead(format("if [ -f %1$s ]; then tail -c +%2$d %1$s | head -c %3$d | base64; else echo 'not found'; fi",
+                                                  quote(filePath), offset + 1, length));
+        if ("not found".equals(content.trim())) {
+            throw new MachineException("File with path " + filePath + " not found");
+        }
+        try {
+            return Base64.getMimeDecoder().decode(content);
+        } catch (IllegalArgumentException e) {
+            throw new MachineException(format("Error occurs while reading file %s in docker container %s: %s",
+                                              filePath, container, content));
+        }
+    }
+
+    /**
+     * Creates process which follows content appended to the file by specified file path.
+     * Single process streams content for the whole following session,
+     * it should be killed with {@link InstanceProcess#kill()} when following is not needed anymore.
+     *
+     * @param filePath
+     *         path to file on machine instance
+     * @param startFrom
+     *         line number to start streaming from
+     * @param outputChannel
+     *         channel for process output
+     * @return process which is not started yet
+     * @throws MachineException
+     *         if any error occurs on process creation
+     */
+    public InstanceProcess createFileFollowingProcess(String filePath, int startFrom, String outputChannel) throws MachineException {
+        if (startFrom <= 0) {
+            throw new MachineException("Impossible to follow file from " + startFrom + " line");
+        }
+        final CommandImpl command = new CommandImpl("follow " + filePath,
+                                                    format("tail -n +%d -F %s", startFrom, quote(filePath)),
+                                                    "custom");
+        return createProcess(command, outputChannel);
+    }
+
+    /** Runs the shell command in the container and returns its output, used when archive API is not supported. */
+    private String execAndRead(String shCommand) throws MachineException {
+        final String[] command = {"/bin/sh", "-c", shCommand};
+        final ListLineConsumer lines = new ListLineConsumer();
         try {
-            Exec exec = docker.createExec(CreateExecParams.create(container, command).withDetach(false));
+            final Exec exec = docker.createExec(CreateExecParams.create(container, command).withDetach(false));
             docker.startExec(StartExecParams.create(exec.getId()), new LogMessagePrinter(lines, LogMessage::getContent));
         } catch (IOException e) {
             throw new MachineException(format("Error occurs while initializing command %s in docker container %s: %s",
                                               Arrays.toString(command), container, e.getLocalizedMessage()), e);
         }
+        return lines.getText();
+    }
 
-        String content = lines.getText();
-        if (content.contains("sed: can't read " + filePath + ": No such file or directory") ||
-            content.contains("cat: " + filePath + ": No such file or directory")) {
-            throw new MachineException("File with path " + filePath + " not found");
+    private static String quote(String path) {
+        return '\'' + path.replace("'", "'\\''") + '\'';
+    }
+
+    private MachineException toFileReadingException(String filePath, IOException e) {
+        if (e instanceof FileNotFoundException ||
+            (e instanceof DockerException && ((DockerException)e).getStatus() == 404)) {
+            return new MachineException("File with path " + filePath + " not found");
         }
-        return content;
+        return new MachineException(format("Error occurs while reading file %s in docker container %s: %s",
+                                           filePath, container, e.getLocalizedMessage()), e);
     }
 
     @Override
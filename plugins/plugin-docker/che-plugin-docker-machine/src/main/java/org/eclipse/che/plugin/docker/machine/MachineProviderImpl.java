@@ -85,13 +85,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
-import static java.lang.Thread.sleep;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toMap;
@@ -116,7 +117,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
     private final DockerConnector                               docker;
     private final UserSpecificDockerRegistryCredentialsProvider dockerCredentials;
-    private final ExecutorService                               executor;
+    private final ScheduledExecutorService                      executor;
     private final DockerInstanceStopDetector                    dockerInstanceStopDetector;
     private final RequestTransmitter                            transmitter;
     private final JsonRpcEndpointIdsHolder                      endpointIdsHolder;
@@ -255,12 +256,12 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                     .flatMap(Set::stream)
                                                     .collect(toSet());
 
-        // TODO single point of failure in case of highly loaded system
-        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("MachineLogsStreamer-%d")
-                                                                           .setUncaughtExceptionHandler(
-                                                                                   LoggingUncaughtExceptionHandler.getInstance())
-                                                                           .setDaemon(true)
-                                                                           .build());
+        // logs streams are connected and read by docker connector, this executor only schedules reconnects
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MachineLogsStreamer-%d")
+                                                                                        .setUncaughtExceptionHandler(
+                                                                                                LoggingUncaughtExceptionHandler.getInstance())
+                                                                                        .setDaemon(true)
+                                                                                        .build());
     }
 
     @Override
@@ -628,56 +629,86 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                    String workspaceId,
                                                    String machineId,
                                                    LineConsumer outputConsumer) {
-        executor.execute(() -> {
-            long lastProcessedLogDate = 0;
-            boolean isContainerRunning = true;
-            int errorsCounter = 0;
-            long lastErrorTime = 0;
-            while (isContainerRunning) {
-                try {
-                    docker.getContainerLogs(GetContainerLogsParams.create(container)
-                                                                  .withFollow(true)
-                                                                  .withSince(lastProcessedLogDate),
-                                            new LogMessagePrinter(outputConsumer));
-                    isContainerRunning = false;
-                } catch (SocketTimeoutException ste) {
-                    lastProcessedLogDate = System.currentTimeMillis() / 1000L;
-                    // reconnect to container
-                } catch (ContainerNotFoundException e) {
-                    isContainerRunning = false;
-                } catch (IOException e) {
-                    long errorTime = System.currentTimeMillis();
-                    lastProcessedLogDate = errorTime / 1000L;
-                    LOG.warn("Failed to get logs from machine {} of workspace {} backed by container {}, because: {}.",
-                             machineId,
-                             workspaceId,
-                             container,
-                             e.getMessage(),
-                             e);
-                    if (errorTime - lastErrorTime < 20_000L) { // if new error occurs less than 20 seconds after previous
-                        if (++errorsCounter == 5) {
-                            LOG.error("Too many errors while streaming logs from machine {} of workspace {} backed by container {}. " +
-                                      "Logs streaming is closed. Last error: {}.",
-                                      machineId,
-                                      workspaceId,
-                                      container,
-                                      e.getMessage(),
-                                      e);
-                            break;
-                        }
-                    } else {
-                        errorsCounter = 1;
-                    }
-                    lastErrorTime = errorTime;
-
-                    try {
-                        sleep(1_000);
-                    } catch (InterruptedException ie) {
-                        return;
-                    }
+        new ContainerLogsStreamer(container, workspaceId, machineId, outputConsumer).connect(0);
+    }
+
+    /**
+     * Follows logs of the container without holding a thread per container.
+     * Reconnects to the logs stream on timeouts and errors until the container is removed
+     * or too many errors occur.
+     */
+    private class ContainerLogsStreamer {
+        private final String       container;
+        private final String       workspaceId;
+        private final String       machineId;
+        private final LineConsumer outputConsumer;
+
+        private int  errorsCounter;
+        private long lastErrorTime;
+
+        ContainerLogsStreamer(String container, String workspaceId, String machineId, LineConsumer outputConsumer) {
+            this.container = container;
+            this.workspaceId = workspaceId;
+            this.machineId = machineId;
+            this.outputConsumer = outputConsumer;
+        }
+
+        /** Doesn't block, connection to logs stream is established by docker connector. */
+        void connect(long since) {
+            docker.getContainerLogsAsync(GetContainerLogsParams.create(container)
+                                                               .withFollow(true)
+                                                               .withSince(since),
+                                         new LogMessagePrinter(outputConsumer))
+                  .whenComplete((ignored, error) -> {
+                      if (error != null) {
+                          onError(error instanceof CompletionException ? error.getCause() : error);
+                      }
+                  });
+        }
+
+        private void onError(Throwable e) {
+            if (e instanceof ContainerNotFoundException) {
+                return;
+            }
+            if (e instanceof SocketTimeoutException) {
+                final long lastProcessedLogDate = System.currentTimeMillis() / 1000L;
+                // reconnect to container
+                connect(lastProcessedLogDate);
+                return;
+            }
+            if (!(e instanceof IOException)) {
+                LOG.error("Logs streaming from machine {} of workspace {} backed by container {} is closed because of error: {}.",
+                          machineId,
+                          workspaceId,
+                          container,
+                          e.getMessage(),
+                          e);
+                return;
+            }
+            long errorTime = System.currentTimeMillis();
+            LOG.warn("Failed to get logs from machine {} of workspace {} backed by container {}, because: {}.",
+                     machineId,
+                     workspaceId,
+                     container,
+                     e.getMessage(),
+                     e);
+            if (errorTime - lastErrorTime < 20_000L) { // if new error occurs less than 20 seconds after previous
+                if (++errorsCounter == 5) {
+                    LOG.error("Too many errors while streaming logs from machine {} of workspace {} backed by container {}. " +
+                              "Logs streaming is closed. Last error: {}.",
+                              machineId,
+                              workspaceId,
+                              container,
+                              e.getMessage(),
+                              e);
+                    return;
                 }
+            } else {
+                errorsCounter = 1;
             }
-        });
+            lastErrorTime = errorTime;
+            executor.schedule(() -> connect(errorTime / 1000L), 1, TimeUnit.SECONDS);
+        }
     }
 
     private void cleanUpContainer(String containerId) {
@@ -25,6 +25,7 @@ import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
 import org.eclipse.che.plugin.docker.client.params.network.GetNetworksParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.eclipse.che.plugin.docker.machine.DockerContainerStateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,7 +57,9 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(DockerAbandonedResourcesCleaner.class);
 
     private static final Filters           NETWORK_FILTERS          = new Filters().withFilter("type", "custom");
-    private static final GetNetworksParams GET_NETWORKS_PARAMS      = GetNetworksParams.create().withFilters(NETWORK_FILTERS);
+    private static final GetNetworksParams GET_NETWORKS_PARAMS      = GetNetworksParams.create()
+                                                                                       .withFilters(NETWORK_FILTERS)
+                                                                                       .withFields("id", "name", "containers");
     private static final String            WORKSPACE_ID_REGEX_GROUP = "workspaceId";
     private static final String            CHE_NETWORK_REGEX        = "^(?<" + WORKSPACE_ID_REGEX_GROUP + ">workspace[a-z\\d]{16})_[a-z\\d]{16}$";
     private static final Pattern           CHE_NETWORK_PATTERN      = Pattern.compile(CHE_NETWORK_REGEX);
@@ -64,6 +67,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     // TODO replace with WorkspaceManager
     private final CheEnvironmentEngine         environmentEngine;
     private final DockerConnector              dockerConnector;
+    private final DockerContainerStateCache    containerStateCache;
     private final DockerContainerNameGenerator nameGenerator;
     private final WorkspaceRuntimes            runtimes;
     private final Set<String>                  additionalNetworks;
@@ -71,11 +75,13 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     @Inject
     public DockerAbandonedResourcesCleaner(CheEnvironmentEngine environmentEngine,
                                            DockerConnectorProvider dockerConnectorProvider,
+                                           DockerContainerStateCache containerStateCache,
                                            DockerContainerNameGenerator nameGenerator,
                                            WorkspaceRuntimes workspaceRuntimes,
                                            @Named("machine.docker.networks") Set<Set<String>> additionalNetworks) {
         this.environmentEngine = environmentEngine;
         this.dockerConnector = dockerConnectorProvider.get();
+        this.containerStateCache = containerStateCache;
         this.nameGenerator = nameGenerator;
         this.runtimes = workspaceRuntimes;
         this.additionalNetworks = additionalNetworks.stream()
@@ -99,7 +105,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     void cleanContainers() {
         List<String> activeContainers = new ArrayList<>();
         try {
-            for (ContainerListEntry container : dockerConnector.listContainers()) {
+            for (ContainerListEntry container : containerStateCache.listContainers()) {
                 String containerName = container.getNames()[0];
                 Optional<ContainerNameInfo> optional = nameGenerator.parse(containerName);
                 if (optional.isPresent()) {
@@ -146,6 +152,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     private void removeContainer(String containerId, String containerName) {
         try {
             dockerConnector.removeContainer(create(containerId).withForce(true).withRemoveVolumes(true));
+            containerStateCache.invalidate(containerId);
             LOG.warn("Unused container with 'id': '{}' and 'name': '{}' was removed", containerId, containerName);
         } catch (IOException e) {
             LOG.error(format("Failed to delete unused container with 'id': '%s' and 'name': '%s'", containerId, containerName), e);
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.json.ContainerPathStat;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ContainerFileReader}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class ContainerFileReaderTest {
+    private static final String CONTAINER = "container123";
+    private static final String FILE_PATH = "/var/log/app.log";
+    private static final String MTIME     = "2017-01-01T00:00:00Z";
+
+    @Mock
+    private DockerConnector docker;
+
+    private ContainerFileReader reader;
+
+    @BeforeMethod
+    public void setUp() {
+        reader = new ContainerFileReader(docker, CONTAINER);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        reader.close();
+    }
+
+    @Test
+    public void shouldReadLinesRangeInclusively() throws Exception {
+        mockFile(lines(10), MTIME);
+
+        assertEquals(reader.readLines(FILE_PATH, 3, 2), "line3\nline4\nline5");
+    }
+
+    @Test
+    public void shouldReadLinesBeyondFirstIndexStep() throws Exception {
+        final int linesCount = ContainerFileReader.LINES_INDEX_STEP * 3 + 5;
+        mockFile(lines(linesCount), MTIME);
+
+        final int startFrom = ContainerFileReader.LINES_INDEX_STEP * 2 + 7;
+        assertEquals(reader.readLines(FILE_PATH, startFrom, 1), "line" + startFrom + "\nline" + (startFrom + 1));
+        assertEquals(reader.readLines(FILE_PATH, linesCount, 10), "line" + linesCount);
+    }
+
+    @Test
+    public void shouldReturnEmptyContentWhenFileHasLessLinesThanRequested() throws Exception {
+        mockFile(lines(3), MTIME);
+
+        assertEquals(reader.readLines(FILE_PATH, 4, 10), "");
+    }
+
+    @Test
+    public void shouldReadLastLineWithoutLineSeparator() throws Exception {
+        mockFile("first\nlast", MTIME);
+
+        assertEquals(reader.readLines(FILE_PATH, 2, 10), "last");
+    }
+
+    @Test
+    public void shouldNotFetchFileAgainWhenItIsNotModified() throws Exception {
+        mockFile(lines(300), MTIME);
+
+        reader.readLines(FILE_PATH, 1, 10);
+        reader.readLines(FILE_PATH, 200, 10);
+
+        verify(docker, times(1)).getResource(any(GetResourceParams.class));
+    }
+
+    @Test
+    public void shouldFetchFileAgainWhenItIsRewritten() throws Exception {
+        mockFile("line1\nline2\n", MTIME);
+        assertEquals(reader.readLines(FILE_PATH, 1, 10), "line1\nline2");
+
+        mockFile("line3\nline4\n", "2017-01-01T00:00:01Z");
+        assertEquals(reader.readLines(FILE_PATH, 1, 10), "line3\nline4");
+
+        verify(docker, times(2)).getResource(any(GetResourceParams.class));
+        verify(docker, never()).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldFetchFileAgainWhenItIsTruncated() throws Exception {
+        mockFile(lines(4), MTIME);
+        reader.readLines(FILE_PATH, 1, 10);
+
+        mockFile(lines(2), "2017-01-01T00:00:01Z");
+        assertEquals(reader.readLines(FILE_PATH, 1, 10), "line1\nline2");
+
+        verify(docker, times(2)).getResource(any(GetResourceParams.class));
+        verify(docker, never()).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldFetchOnlyAppendedContentWhenFileGrows() throws Exception {
+        mockFile(lines(ContainerFileReader.LINES_INDEX_STEP + 10), MTIME);
+        reader.readLines(FILE_PATH, 1, 10);
+
+        mockFile(lines(ContainerFileReader.LINES_INDEX_STEP * 2 + 3), "2017-01-01T00:00:01Z");
+
+        final int startFrom = ContainerFileReader.LINES_INDEX_STEP * 2 + 1;
+        assertEquals(reader.readLines(FILE_PATH, startFrom, 10), "line" + startFrom + "\nline" + (startFrom + 1) + "\nline" + (startFrom + 2));
+        assertEquals(reader.readLines(FILE_PATH, 1, 0), "line1");
+
+        // the second archive is read only to append its new part to the local copy
+        verify(docker, times(2)).getResource(any(GetResourceParams.class));
+        verify(docker, never()).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldFetchFileAgainWhenAlreadyFetchedContentIsChanged() throws Exception {
+        mockFile("line1\nline2\n", MTIME);
+        reader.readLines(FILE_PATH, 1, 10);
+
+        mockFile("lineA\nlineB\nline3\n", "2017-01-01T00:00:01Z");
+
+        assertEquals(reader.readLines(FILE_PATH, 1, 10), "lineA\nlineB\nline3");
+        verify(docker, times(3)).getResource(any(GetResourceParams.class));
+    }
+
+    @Test
+    public void shouldFetchFileAgainWhenAppendedContentCanNotBeFetched() throws Exception {
+        mockFile("line1\n", MTIME);
+        reader.readLines(FILE_PATH, 1, 10);
+
+        mockFile("line1\nline2\n", "2017-01-01T00:00:01Z");
+        final InputStream archive = docker.getResource(GetResourceParams.create(CONTAINER, FILE_PATH));
+        when(docker.getResource(any(GetResourceParams.class))).thenThrow(new IOException("connection reset"))
+                                                               .thenReturn(archive);
+
+        assertEquals(reader.readLines(FILE_PATH, 1, 10), "line1\nline2");
+    }
+
+    @Test
+    public void shouldKeepOnlyLinesIndexOfFileBiggerThanLimit() throws Exception {
+        reader = new ContainerFileReader(docker, CONTAINER, 10);
+        mockFile(lines(ContainerFileReader.LINES_INDEX_STEP * 3), MTIME);
+
+        final int startFrom = ContainerFileReader.LINES_INDEX_STEP * 2 + 5;
+        assertEquals(reader.readLines(FILE_PATH, startFrom, 0), "line" + startFrom);
+        assertEquals(reader.readLines(FILE_PATH, 2, 0), "line2");
+
+        // file is indexed once, then each page is read from the archive stream
+        verify(docker, times(3)).getResource(any(GetResourceParams.class));
+    }
+
+    @Test
+    public void shouldFetchOnlyAppendedContentOfFileBiggerThanLimit() throws Exception {
+        reader = new ContainerFileReader(docker, CONTAINER, 10);
+        mockFile(lines(10), MTIME);
+        reader.readLines(FILE_PATH, 1, 0);
+
+        mockFile(lines(20), "2017-01-01T00:00:01Z");
+
+        assertEquals(reader.readLines(FILE_PATH, 20, 10), "line20");
+        // index, page, appended part, page
+        verify(docker, times(4)).getResource(any(GetResourceParams.class));
+    }
+
+    @Test
+    public void shouldReadBytesRange() throws Exception {
+        mockFile("0123456789", MTIME);
+
+        assertEquals(new String(reader.readBytes(FILE_PATH, 2, 3)), "234");
+        assertEquals(new String(reader.readBytes(FILE_PATH, 8, 10)), "89");
+        assertEquals(reader.readBytes(FILE_PATH, 10, 10).length, 0);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldNotBlockReadingOfFileWhileOtherFileIsFetched() throws Exception {
+        final byte[] content = "line1\n".getBytes();
+        final CountDownLatch fetchStarted = new CountDownLatch(1);
+        final CountDownLatch fetchMayFinish = new CountDownLatch(1);
+        when(docker.getResourceStat(any(GetResourceParams.class)))
+                .thenReturn(new ContainerPathStat().withName("app.log").withSize(content.length).withMtime(MTIME));
+        when(docker.getResource(any(GetResourceParams.class))).thenAnswer(invocation -> {
+            if ("/slow.log".equals(((GetResourceParams)invocation.getArguments()[0]).getSourcePath())) {
+                fetchStarted.countDown();
+                fetchMayFinish.await();
+            }
+            return tar(content);
+        });
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<String> slow = executor.submit(() -> reader.readLines("/slow.log", 1, 0));
+            fetchStarted.await();
+
+            assertEquals(reader.readLines(FILE_PATH, 1, 0), "line1");
+
+            fetchMayFinish.countDown();
+            assertEquals(slow.get(), "line1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void mockFile(String content, String mtime) throws IOException {
+        final byte[] bytes = content.getBytes();
+        when(docker.getResourceStat(any(GetResourceParams.class)))
+                .thenReturn(new ContainerPathStat().withName("app.log").withSize(bytes.length).withMtime(mtime));
+        when(docker.getResource(any(GetResourceParams.class))).thenAnswer(invocation -> tar(bytes));
+    }
+
+    private static InputStream tar(byte[] bytes) throws IOException {
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(tar)) {
+            final TarArchiveEntry entry = new TarArchiveEntry("app.log");
+            entry.setSize(bytes.length);
+            tarOut.putArchiveEntry(entry);
+            tarOut.write(bytes);
+            tarOut.closeArchiveEntry();
+        }
+        return new ByteArrayInputStream(tar.toByteArray());
+    }
+
+    private static String lines(int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            sb.append("line").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Tests for {@link DockerContainerStateCache}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerContainerStateCacheTest {
+    private static final String CONTAINER = "container123";
+
+    @Mock
+    private DockerConnector         dockerConnector;
+    @Mock
+    private DockerConnectorProvider dockerConnectorProvider;
+    @Mock
+    private ContainerInfo           containerInfo;
+
+    private DockerContainerStateCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerConnectorProvider.get()).thenReturn(dockerConnector);
+        when(dockerConnector.inspectContainer(CONTAINER)).thenReturn(containerInfo);
+        cache = new DockerContainerStateCache(dockerConnectorProvider, 300);
+    }
+
+    @Test
+    public void shouldInspectContainerOnlyOnceWhileNoEventsReceived() throws Exception {
+        assertSame(cache.inspectContainer(CONTAINER), containerInfo);
+        assertSame(cache.inspectContainer(CONTAINER), containerInfo);
+
+        verify(dockerConnector, times(1)).inspectContainer(CONTAINER);
+    }
+
+    @Test
+    public void shouldInspectContainerAgainAfterContainerEvent() throws Exception {
+        cache.inspectContainer(CONTAINER);
+
+        cache.onEvent(new Event().withId(CONTAINER).withStatus("die").withType("container"));
+        cache.inspectContainer(CONTAINER);
+
+        verify(dockerConnector, times(2)).inspectContainer(CONTAINER);
+    }
+
+    @Test
+    public void shouldNotInvalidateCacheOnNotContainerEvent() throws Exception {
+        cache.inspectContainer(CONTAINER);
+
+        cache.onEvent(new Event().withId(CONTAINER).withStatus("delete").withType("image"));
+        cache.inspectContainer(CONTAINER);
+
+        verify(dockerConnector, times(1)).inspectContainer(CONTAINER);
+    }
+
+    @Test
+    public void shouldListContainersAgainAfterContainerEvent() throws Exception {
+        List<ContainerListEntry> containers = singletonList(new ContainerListEntry());
+        when(dockerConnector.listContainers(any(ListContainersParams.class))).thenReturn(containers);
+
+        assertEquals(cache.listContainers(), containers);
+        assertEquals(cache.listContainers(), containers);
+        cache.onEvent(new Event().withId(CONTAINER).withStatus("create"));
+        cache.listContainers();
+
+        verify(dockerConnector, times(2)).listContainers(ListContainersParams.create()
+                                                                             .withAll(true)
+                                                                             .withFields("id", "names", "status"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotifyListenersAboutContainerEvents() throws Exception {
+        MessageProcessor<Event> listener = mock(MessageProcessor.class);
+        Event event = new Event().withId(CONTAINER).withStatus("die");
+        cache.addEventListener(listener);
+
+        cache.onEvent(event);
+        cache.removeEventListener(listener);
+        cache.onEvent(event);
+
+        verify(listener, times(1)).process(event);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotNotifyListenersAboutNotContainerEvents() throws Exception {
+        MessageProcessor<Event> listener = mock(MessageProcessor.class);
+        cache.addEventListener(listener);
+
+        cache.onEvent(new Event().withId(CONTAINER).withStatus("delete").withType("image"));
+
+        verify(listener, never()).process(any());
+    }
+}
@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.machine;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.MachineSource;
@@ -26,23 +29,31 @@ import org.eclipse.che.plugin.docker.client.Exec;
 import org.eclipse.che.plugin.docker.client.LogMessage;
 import org.eclipse.che.plugin.docker.client.MessageProcessor;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ContainerPathStat;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import static java.lang.String.format;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -83,9 +94,12 @@ public class DockerInstanceTest {
     @Mock
     private DockerInstanceStopDetector dockerInstanceStopDetectorMock;
     @Mock
+    private DockerContainerStateCache  containerStateCacheMock;
+    @Mock
     private LineConsumer               outputConsumer;
 
-    private DockerInstance dockerInstance;
+    private DockerMachineFactory machineFactory;
+    private DockerInstance       dockerInstance;
 
     @BeforeMethod
     public void setUp() throws IOException, MachineException {
@@ -108,24 +122,25 @@ public class DockerInstanceTest {
     }
 
     @Test(expectedExceptions = MachineException.class)
-    public void shouldThrowMachineExceptionWhenExecProblemOccurs() throws Exception {
-        when(dockerConnectorMock.createExec(any(CreateExecParams.class))).thenThrow(new IOException("File not found"));
+    public void shouldThrowMachineExceptionWhenDockerProblemOccurs() throws Exception {
+        when(dockerConnectorMock.getResourceStat(any(GetResourceParams.class))).thenThrow(new IOException("Connection refused"));
 
-        dockerInstance.readFileContent(FILE_PATH, -1, 10);
+        dockerInstance.readFileContent(FILE_PATH, 1, 10);
     }
 
     @Test(expectedExceptions = MachineException.class,
           expectedExceptionsMessageRegExp = "File with path " + FILE_PATH + " not found")
-    public void shouldThrowFileNotFoundDuringSedCommand() throws Exception {
-        when(logMessageMock.getContent()).thenReturn("sed: can't read " + FILE_PATH + ": No such file or directory");
+    public void shouldThrowFileNotFoundWhenDockerDoesNotFindFile() throws Exception {
+        when(dockerConnectorMock.getResourceStat(any(GetResourceParams.class))).thenThrow(new DockerException("not found", 404));
 
         dockerInstance.readFileContent(FILE_PATH, 1, 10);
     }
 
     @Test(expectedExceptions = MachineException.class,
           expectedExceptionsMessageRegExp = "File with path " + FILE_PATH + " not found")
-    public void shouldThrowFileNotFoundDuringCatCommand() throws Exception {
-        when(logMessageMock.getContent()).thenReturn("cat: " + FILE_PATH + ": No such file or directory");
+    public void shouldThrowFileNotFoundWhenPathIsDirectory() throws Exception {
+        when(dockerConnectorMock.getResourceStat(any(GetResourceParams.class)))
+                .thenReturn(new ContainerPathStat().withName("tmp").withMode(1L << 31));
 
         dockerInstance.readFileContent(FILE_PATH, 1, 10);
     }
@@ -133,13 +148,55 @@ public class DockerInstanceTest {
     @Test
     public void shouldFullyReadFileContent() throws Exception {
         final String content = "content";
-        when(logMessageMock.getContent()).thenReturn(content);
+        mockFile(content);
 
         final String res = dockerInstance.readFileContent(FILE_PATH, 1, 10);
 
         assertEquals(res.trim(), content);
     }
 
+    @Test
+    public void shouldNotCreateExecOnFileReading() throws Exception {
+        mockFile("line1\nline2\n");
+
+        dockerInstance.readFileContent(FILE_PATH, 1, 10);
+
+        verify(dockerConnectorMock, never()).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldReadFileBytes() throws Exception {
+        mockFile("0123456789");
+
+        final byte[] res = dockerInstance.readFileBytes(FILE_PATH, 2, 3);
+
+        assertEquals(new String(res), "234");
+    }
+
+    @Test
+    public void shouldReadFileContentWithExecWhenArchiveApiIsNotSupported() throws Exception {
+        when(dockerConnectorMock.getResourceStat(any(GetResourceParams.class))).thenThrow(new UnsupportedOperationException());
+        when(logMessageMock.getContent()).thenReturn("line1");
+
+        assertEquals(dockerInstance.readFileContent(FILE_PATH, 1, 10), "line1");
+        assertEquals(dockerInstance.readFileContent(FILE_PATH, 11, 10), "line1");
+
+        verify(dockerConnectorMock, times(1)).getResourceStat(any(GetResourceParams.class));
+        final ArgumentCaptor<CreateExecParams> captor = ArgumentCaptor.forClass(CreateExecParams.class);
+        verify(dockerConnectorMock, times(2)).createExec(captor.capture());
+        assertEquals(captor.getAllValues().get(0).getCmd()[2], "sed -n '1, 11p' '" + FILE_PATH + "'");
+    }
+
+    @Test
+    public void shouldCreateProcessWhichFollowsFile() throws Exception {
+        final ArgumentCaptor<Command> captor = ArgumentCaptor.forClass(Command.class);
+
+        dockerInstance.createFileFollowingProcess(FILE_PATH, 5, "output");
+
+        verify(machineFactory).createProcess(captor.capture(), any(), any(), any(), anyInt());
+        assertEquals(captor.getValue().getCommandLine(), "tail -n +5 -F '" + FILE_PATH + "'");
+    }
+
     @Test
     public void shouldCreateDockerImageLocally() throws Exception {
         final String comment = format("Suspended at %1$ta %1$tb %1$td %1$tT %1$tZ %1$tY",
@@ -202,6 +259,21 @@ public class DockerInstanceTest {
         dockerInstance.saveToSnapshot();
     }
 
+    private void mockFile(String content) throws IOException {
+        final byte[] bytes = content.getBytes();
+        when(dockerConnectorMock.getResourceStat(any(GetResourceParams.class)))
+                .thenReturn(new ContainerPathStat().withName("file").withSize(bytes.length).withMtime("2017-01-01T00:00:00Z"));
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(tar)) {
+            final TarArchiveEntry entry = new TarArchiveEntry("file");
+            entry.setSize(bytes.length);
+            tarOut.putArchiveEntry(entry);
+            tarOut.write(bytes);
+            tarOut.closeArchiveEntry();
+        }
+        when(dockerConnectorMock.getResource(any(GetResourceParams.class))).thenReturn(new ByteArrayInputStream(tar.toByteArray()));
+    }
+
     private DockerInstance getDockerInstance() throws MachineException {
         return getDockerInstance(getMachine(), REGISTRY, CONTAINER, IMAGE, false);
     }
@@ -211,7 +283,7 @@ public class DockerInstanceTest {
                                              String container,
                                              String image,
                                              boolean snapshotUseRegistry) throws MachineException {
-        DockerMachineFactory machineFactory = mock(DockerMachineFactory.class);
+        machineFactory = mock(DockerMachineFactory.class);
         when(machineFactory.createMetadata(any(), any(), any())).thenReturn(mock(DockerInstanceRuntimeInfo.class));
         return new DockerInstance(dockerConnectorProviderMock,
                                   registry,
@@ -223,6 +295,7 @@ public class DockerInstanceTest {
                                   mock(DockerNode.class),
                                   outputConsumer,
                                   dockerInstanceStopDetectorMock,
+                                  containerStateCacheMock,
                                   mock(DockerInstanceProcessesCleaner.class),
                                   snapshotUseRegistry);
     }
@@ -22,6 +22,7 @@ import org.eclipse.che.plugin.docker.client.json.network.ContainerInNetwork;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.eclipse.che.plugin.docker.machine.DockerContainerStateCache;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -94,6 +95,8 @@ public class DockerAbandonedResourcesCleanerTest {
     @Mock
     private DockerConnector              dockerConnector;
     @Mock
+    private DockerContainerStateCache    containerStateCache;
+    @Mock
     private DockerContainerNameGenerator nameGenerator;
     @Mock
     private WorkspaceRuntimes            workspaceRuntimes;
@@ -148,6 +151,7 @@ public class DockerAbandonedResourcesCleanerTest {
         when(dockerConnectorProvider.get()).thenReturn(dockerConnector);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          containerStateCache,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -157,7 +161,7 @@ public class DockerAbandonedResourcesCleanerTest {
         when(machineImpl1.getId()).thenReturn(machineId1);
         when(machineImpl1.getWorkspaceId()).thenReturn(workspaceId1);
 
-        when(dockerConnector.listContainers()).thenReturn(asList(container1, container2, container3));
+        when(containerStateCache.listContainers()).thenReturn(asList(container1, container2, container3));
 
         when(container1.getNames()).thenReturn(new String[] {containerName1});
         when(container1.getStatus()).thenReturn(RUNNING_STATUS);
@@ -212,7 +216,7 @@ public class DockerAbandonedResourcesCleanerTest {
     @Test
     public void cleanerShouldRunCleanNetworksEvenIfCleanOfContainersFailed() throws IOException {
         // given
-        when(dockerConnector.listContainers()).thenThrow(new IOException("Error while fetching docker containers list"));
+        when(containerStateCache.listContainers()).thenThrow(new IOException("Error while fetching docker containers list"));
 
         // when
         cleaner.run();
@@ -226,7 +230,7 @@ public class DockerAbandonedResourcesCleanerTest {
             throws Exception {
         cleaner.cleanContainers();
 
-        verify(dockerConnector).listContainers();
+        verify(containerStateCache).listContainers();
 
         verify(nameGenerator, times(3)).parse(anyString());
         verify(environmentEngine, times(3)).getMachine(anyString(), anyString());
@@ -345,6 +349,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          containerStateCache,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -365,6 +370,7 @@ public class DockerAbandonedResourcesCleanerTest {
         additionalNetworks.add(userNetworks);
         cleaner = spy(new DockerAbandonedResourcesCleaner(environmentEngine,
                                                           dockerConnectorProvider,
+                                                          containerStateCache,
                                                           nameGenerator,
                                                           workspaceRuntimes,
                                                           additionalNetworks));
@@ -40,6 +40,7 @@ import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
 import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.ContainerPathStat;
 import org.eclipse.che.plugin.docker.client.json.Event;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.HostConfig;
@@ -57,6 +58,7 @@ import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
 import org.eclipse.che.plugin.docker.client.params.KillContainerParams;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
 import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
@@ -268,11 +270,22 @@ public class OpenShiftConnector extends DockerConnector {
         return Collections.emptyList();
     }
 
+    @Override
+    public List<ContainerListEntry> listContainers(ListContainersParams params) throws IOException {
+        // Implement once 'Service Provider Interface' is defined
+        return Collections.emptyList();
+    }
+
     @Override
     public InputStream getResource(GetResourceParams params) throws IOException {
         throw new UnsupportedOperationException("'getResource' is currently not supported by OpenShift");
     }
 
+    @Override
+    public ContainerPathStat getResourceStat(GetResourceParams params) throws IOException {
+        throw new UnsupportedOperationException("'getResourceStat' is currently not supported by OpenShift");
+    }
+
     @Override
     public void putResource(PutResourceParams params) throws IOException {
         throw new UnsupportedOperationException("'putResource' is currently not supported by OpenShift");
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.jdb.server;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.sun.jdi.AbsentInformationException;
 import com.sun.jdi.Bootstrap;
 import com.sun.jdi.ClassNotPreparedException;
@@ -62,6 +64,7 @@ import org.eclipse.che.plugin.jdb.server.exceptions.DebuggerAbsentInformationExc
 import org.eclipse.che.plugin.jdb.server.expression.Evaluator;
 import org.eclipse.che.plugin.jdb.server.expression.ExpressionException;
 import org.eclipse.che.plugin.jdb.server.expression.ExpressionParser;
+import org.eclipse.che.plugin.jdb.server.expression.TypeMembersCache;
 import org.eclipse.che.plugin.jdb.server.utils.JavaDebuggerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +78,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -95,6 +99,10 @@ public class JavaDebugger implements EventsHandler, Debugger {
     private static final Logger            LOG          = LoggerFactory.getLogger(JavaDebugger.class);
     private static final JavaDebuggerUtils debuggerUtil = new JavaDebuggerUtils();
 
+    private static final String CONDITION_PARSER_PROPERTY  = "org.eclipse.che.ide.java.debug.condition.expression.parser";
+    private static final String CONDITION_MEMBERS_PROPERTY = "org.eclipse.che.ide.java.debug.condition.type.members";
+    private static final int    MAX_PARSED_EXPRESSIONS     = 100;
+
     private final String           host;
     private final int              port;
     private final DebuggerCallback debuggerCallback;
@@ -108,14 +116,21 @@ public class JavaDebugger implements EventsHandler, Debugger {
     /** Stores ClassPrepareRequests to prevent making duplicate class prepare requests. */
     private final ConcurrentMap<String, ClassPrepareRequest> classPrepareRequests = new ConcurrentHashMap<>();
 
+    /** Parsed expressions, e.g. watch expressions which are evaluated after each step, by their text. */
+    private final Cache<String, ExpressionParser> parsedExpressions = CacheBuilder.newBuilder()
+                                                                                 .maximumSize(MAX_PARSED_EXPRESSIONS)
+                                                                                 .build();
+
     /** Target Java VM representation. */
     private VirtualMachine  vm;
     private EventsCollector eventsCollector;
 
     /** Current thread. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
-    private ThreadReference thread;
+    private ThreadReference  thread;
     /** Current stack frame. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
-    private JdiStackFrame   stackFrame;
+    private JdiStackFrame    stackFrame;
+    /** Lookups of fields and methods by evaluated expressions. Dropped when thread is resumed. */
+    private TypeMembersCache typeMembers;
     /** Lock for synchronization debug processes. */
     private Lock lock = new ReentrantLock();
 
@@ -252,8 +267,10 @@ public class JavaDebugger implements EventsHandler, Debugger {
             breakPointRequest.setSuspendPolicy(EventRequest.SUSPEND_ALL);
             String expression = breakpoint.getCondition();
             if (!(expression == null || expression.isEmpty())) {
-                ExpressionParser parser = ExpressionParser.newInstance(expression);
-                breakPointRequest.putProperty("org.eclipse.che.ide.java.debug.condition.expression.parser", parser);
+                // condition is parsed once and lookups of members are kept while the breakpoint exists,
+                // so each hit costs only evaluation of the expression tree against the target VM
+                breakPointRequest.putProperty(CONDITION_PARSER_PROPERTY, ExpressionParser.newInstance(expression));
+                breakPointRequest.putProperty(CONDITION_MEMBERS_PROPERTY, new TypeMembersCache());
             }
             breakPointRequest.setEnabled(true);
         } catch (NativeMethodException | IllegalThreadStateException | InvalidRequestStateException e) {
@@ -564,10 +581,10 @@ public class JavaDebugger implements EventsHandler, Debugger {
     private boolean processBreakPointEvent(com.sun.jdi.event.BreakpointEvent event) throws DebuggerException {
         setCurrentThread(event.thread());
         boolean hitBreakpoint;
-        ExpressionParser parser =
-                (ExpressionParser)event.request().getProperty("org.eclipse.che.ide.java.debug.condition.expression.parser");
+        ExpressionParser parser = (ExpressionParser)event.request().getProperty(CONDITION_PARSER_PROPERTY);
         if (parser != null) {
-            com.sun.jdi.Value result = evaluate(parser);
+            TypeMembersCache members = (TypeMembersCache)event.request().getProperty(CONDITION_MEMBERS_PROPERTY);
+            com.sun.jdi.Value result = evaluate(parser, members);
             hitBreakpoint = result instanceof com.sun.jdi.BooleanValue && ((com.sun.jdi.BooleanValue)result).value();
         } else {
             // If there is no expression.
@@ -585,6 +602,9 @@ public class JavaDebugger implements EventsHandler, Debugger {
             }
 
             debuggerCallback.onEvent(new SuspendEventImpl(location));
+        } else {
+            // thread is resumed right away
+            invalidateCurrentThread();
         }
 
         // Left target JVM in suspended state if result of evaluation of expression is boolean value and true
@@ -671,14 +691,22 @@ public class JavaDebugger implements EventsHandler, Debugger {
 
     @Override
     public String evaluate(String expression) throws DebuggerException {
-        com.sun.jdi.Value result = evaluate(ExpressionParser.newInstance(expression));
-        return result == null ? "null" : result.toString();
+        lock.lock();
+        try {
+            ExpressionParser parser = parsedExpressions.get(expression, () -> ExpressionParser.newInstance(expression));
+            com.sun.jdi.Value result = evaluate(parser, getTypeMembers());
+            return result == null ? "null" : result.toString();
+        } catch (ExecutionException e) {
+            throw new DebuggerException(e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private com.sun.jdi.Value evaluate(ExpressionParser parser) throws DebuggerException {
+    private com.sun.jdi.Value evaluate(ExpressionParser parser, TypeMembersCache members) throws DebuggerException {
         final long startTime = System.currentTimeMillis();
         try {
-            return parser.evaluate(new Evaluator(vm, getCurrentThread()));
+            return parser.evaluate(new Evaluator(vm, getCurrentThread(), members));
         } catch (ExpressionException e) {
             throw new DebuggerException(e.getMessage(), e);
         } finally {
@@ -708,8 +736,16 @@ public class JavaDebugger implements EventsHandler, Debugger {
         return stackFrame;
     }
 
+    private TypeMembersCache getTypeMembers() {
+        if (typeMembers == null) {
+            typeMembers = new TypeMembersCache();
+        }
+        return typeMembers;
+    }
+
     private void setCurrentThread(ThreadReference t) {
         stackFrame = null;
+        typeMembers = null;
         thread = t;
     }
 
@@ -719,6 +755,7 @@ public class JavaDebugger implements EventsHandler, Debugger {
 
     private void invalidateCurrentThread() {
         this.thread = null;
+        this.typeMembers = null;
         invalidateCurrentFrame();
     }
 
@@ -16,13 +16,25 @@ import com.sun.jdi.Value;
 
 /** @author andrew00x */
 public class JdiArrayElementImpl implements JdiArrayElement {
-    private final int    index;
-    private final Value  value;
-    private final String name;
+    private final int                     index;
+    private final String                  name;
+    private final JdiValuesBatch<Integer> batch;
+
+    private Value    value;
+    private JdiValue jdiValue;
 
     public JdiArrayElementImpl(int index, Value value) {
-        this.index = index;
+        this(index, (JdiValuesBatch<Integer>)null);
         this.value = value;
+    }
+
+    /**
+     * @param batch
+     *         values of the page of array elements which contains value of this element
+     */
+    JdiArrayElementImpl(int index, JdiValuesBatch<Integer> batch) {
+        this.index = index;
+        this.batch = batch;
         this.name = "[" + index + "]";
     }
 
@@ -38,27 +50,36 @@ public class JdiArrayElementImpl implements JdiArrayElement {
 
     @Override
     public boolean isArray() {
-        return value instanceof ArrayReference;
+        return getTargetValue() instanceof ArrayReference;
     }
 
     @Override
     public boolean isPrimitive() {
-        return value instanceof PrimitiveValue;
+        return getTargetValue() instanceof PrimitiveValue;
     }
 
     @Override
     public JdiValue getValue() {
-        if (value == null) {
-            return new JdiNullValue();
+        if (jdiValue == null) {
+            Value targetValue = getTargetValue();
+            jdiValue = targetValue == null ? new JdiNullValue() : new JdiValueImpl(targetValue);
         }
-        return new JdiValueImpl(value);
+        return jdiValue;
     }
 
     @Override
     public String getTypeName() {
-        if (value == null) {
+        Value targetValue = getTargetValue();
+        if (targetValue == null) {
             return "null";
         }
-        return value.type().name();
+        return targetValue.type().name();
+    }
+
+    private Value getTargetValue() {
+        if (value == null && batch != null) {
+            value = batch.get(index);
+        }
+        return value;
     }
 }
@@ -23,16 +23,39 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
     private final ReferenceType   type;
     private final ObjectReference object;
 
+    private final JdiValuesBatch<Field> batch;
+    private       JdiValue              value;
+
     public JdiFieldImpl(Field field, ObjectReference object) {
+        this(field, object, null);
+    }
+
+    public JdiFieldImpl(Field field, ReferenceType type) {
+        this(field, type, null);
+    }
+
+    /**
+     * @param batch
+     *         values of fields of the same object which contains value of this field, or {@code null}
+     *         if the value should be fetched separately
+     */
+    JdiFieldImpl(Field field, ObjectReference object, JdiValuesBatch<Field> batch) {
         this.field = field;
         this.object = object;
         this.type = null;
+        this.batch = batch;
     }
 
-    public JdiFieldImpl(Field field, ReferenceType type) {
+    /**
+     * @param batch
+     *         values of static fields of the same type which contains value of this field, or {@code null}
+     *         if the value should be fetched separately
+     */
+    JdiFieldImpl(Field field, ReferenceType type, JdiValuesBatch<Field> batch) {
         this.field = field;
         this.type = type;
         this.object = null;
+        this.batch = batch;
     }
 
     @Override
@@ -72,11 +95,16 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
 
     @Override
     public JdiValue getValue() {
-        Value value = object == null ? type.getValue(field) : object.getValue(field);
         if (value == null) {
-            return new JdiNullValue();
+            Value fieldValue;
+            if (batch != null) {
+                fieldValue = batch.get(field);
+            } else {
+                fieldValue = object == null ? type.getValue(field) : object.getValue(field);
+            }
+            value = fieldValue == null ? new JdiNullValue() : new JdiValueImpl(fieldValue);
         }
-        return new JdiValueImpl(value);
+        return value;
     }
 
     @Override
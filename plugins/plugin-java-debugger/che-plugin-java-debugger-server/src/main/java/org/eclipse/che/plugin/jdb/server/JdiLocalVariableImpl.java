@@ -21,9 +21,22 @@ public class JdiLocalVariableImpl implements JdiLocalVariable {
     private final LocalVariable variable;
     private final StackFrame    stackFrame;
 
+    private final JdiValuesBatch<LocalVariable> batch;
+    private       JdiValue                      value;
+
     public JdiLocalVariableImpl(StackFrame stackFrame, LocalVariable variable) {
+        this(stackFrame, variable, null);
+    }
+
+    /**
+     * @param batch
+     *         values of local variables of the same stack frame which contains value of this variable, or {@code null}
+     *         if the value should be fetched separately
+     */
+    JdiLocalVariableImpl(StackFrame stackFrame, LocalVariable variable, JdiValuesBatch<LocalVariable> batch) {
         this.stackFrame = stackFrame;
         this.variable = variable;
+        this.batch = batch;
     }
 
     @Override
@@ -43,11 +56,11 @@ public class JdiLocalVariableImpl implements JdiLocalVariable {
 
     @Override
     public JdiValue getValue() {
-        Value value = stackFrame.getValue(variable);
         if (value == null) {
-            return new JdiNullValue();
+            Value variableValue = batch == null ? stackFrame.getValue(variable) : batch.get(variable);
+            value = variableValue == null ? new JdiNullValue() : new JdiValueImpl(variableValue);
         }
-        return new JdiValueImpl(value);
+        return value;
     }
 
     @Override
@@ -25,7 +25,15 @@ import org.eclipse.che.plugin.jdb.server.exceptions.DebuggerAbsentInformationExc
 import java.util.Arrays;
 import java.util.List;
 
-/** @author andrew00x */
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Stack frame of the suspended thread. Fields and local variables are listed without fetching their values,
+ * values of all the fields and of all the local variables are fetched with a single request for each group
+ * when any of them is needed and are kept until the frame is dropped when the thread is resumed.
+ *
+ * @author andrew00x
+ */
 public class JdiStackFrameImpl implements JdiStackFrame {
     private final StackFrame         stackFrame;
     private       JdiField[]         fields;
@@ -42,18 +50,22 @@ public class JdiStackFrameImpl implements JdiStackFrame {
                 ObjectReference object = stackFrame.thisObject();
                 if (object == null) {
                     ReferenceType type = stackFrame.location().declaringType();
-                    List<Field> fs = stackFrame.location().declaringType().allFields();
+                    List<Field> fs = type.allFields();
+                    // only static fields have values without instance, the rest are fetched separately as before
+                    List<Field> staticFields = fs.stream().filter(Field::isStatic).collect(toList());
+                    JdiValuesBatch<Field> batch = new JdiValuesBatch<>(staticFields, type::getValues);
                     fields = new JdiField[fs.size()];
                     int i = 0;
                     for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, type);
+                        fields[i++] = new JdiFieldImpl(f, type, f.isStatic() ? batch : null);
                     }
                 } else {
                     List<Field> fs = object.referenceType().allFields();
+                    JdiValuesBatch<Field> batch = new JdiValuesBatch<>(fs, object::getValues);
                     fields = new JdiField[fs.size()];
                     int i = 0;
                     for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, object);
+                        fields[i++] = new JdiFieldImpl(f, object, batch);
                     }
                 }
 
@@ -83,10 +95,11 @@ public class JdiStackFrameImpl implements JdiStackFrame {
         if (localVariables == null) {
             try {
                 List<LocalVariable> targetVariables = stackFrame.visibleVariables();
+                JdiValuesBatch<LocalVariable> batch = new JdiValuesBatch<>(targetVariables, stackFrame::getValues);
                 localVariables = new JdiLocalVariable[targetVariables.size()];
                 int i = 0;
                 for (LocalVariable var : targetVariables) {
-                    localVariables[i++] = new JdiLocalVariableImpl(stackFrame, var);
+                    localVariables[i++] = new JdiLocalVariableImpl(stackFrame, var, batch);
                 }
             } catch (AbsentInformationException e) {
                 throw new DebuggerAbsentInformationException(e.getMessage(), e);
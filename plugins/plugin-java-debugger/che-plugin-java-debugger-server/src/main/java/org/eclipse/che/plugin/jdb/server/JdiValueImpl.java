@@ -19,11 +19,22 @@ import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-/** @author andrew00x */
+/**
+ * Value of variable. Nested variables are listed on demand, values of all fields of an object are fetched
+ * with a single request and elements of an array are fetched in pages of {@value #ARRAY_PAGE_SIZE} elements
+ * when the first element of the page is needed.
+ *
+ * @author andrew00x
+ */
 public class JdiValueImpl implements JdiValue {
+    static final int ARRAY_PAGE_SIZE = 1000;
+
     private final Value         value;
     private       JdiVariable[] variables;
 
@@ -49,17 +60,23 @@ public class JdiValueImpl implements JdiValue {
                     ArrayReference array = (ArrayReference)value;
                     int length = array.length();
                     variables = new JdiVariable[length];
+                    JdiValuesBatch<Integer> page = null;
                     for (int i = 0; i < length; i++) {
-                        variables[i] = new JdiArrayElementImpl(i, array.getValue(i));
+                        if (i % ARRAY_PAGE_SIZE == 0) {
+                            page = new JdiValuesBatch<>(pageIndexes(i, Math.min(ARRAY_PAGE_SIZE, length - i)),
+                                                        indexes -> getArrayValues(array, indexes));
+                        }
+                        variables[i] = new JdiArrayElementImpl(i, page);
                     }
                 } else {
                     ObjectReference object = (ObjectReference)value;
                     ReferenceType type = object.referenceType();
                     List<Field> fields = type.allFields();
+                    JdiValuesBatch<Field> batch = new JdiValuesBatch<>(fields, object::getValues);
                     variables = new JdiVariable[fields.size()];
                     int i = 0;
                     for (Field f : fields) {
-                        variables[i++] = new JdiFieldImpl(f, object);
+                        variables[i++] = new JdiFieldImpl(f, object, batch);
                     }
                     // See JdiFieldImpl#compareTo(JdiFieldImpl).
                     Arrays.sort(variables);
@@ -82,6 +99,25 @@ public class JdiValueImpl implements JdiValue {
         return null;
     }
 
+    private static List<Integer> pageIndexes(int from, int length) {
+        List<Integer> indexes = new ArrayList<>(length);
+        for (int i = from; i < from + length; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    /** Fetches values of the consecutive array elements with a single request. */
+    private static Map<Integer, Value> getArrayValues(ArrayReference array, List<Integer> indexes) {
+        int from = indexes.get(0);
+        List<Value> values = array.getValues(from, indexes.size());
+        Map<Integer, Value> result = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            result.put(from + i, values.get(i));
+        }
+        return result;
+    }
+
     private boolean isArray() {
         return value instanceof ArrayReference;
     }
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Values of several variables of the target VM, e.g. all fields of an object or all visible local variables
+ * of a stack frame, which are fetched with a single JDWP request when the value of any of them is needed
+ * for the first time. Fetched values are kept as long as the batch is referenced, that is until the thread
+ * is resumed and the stack frame which owns the variables is dropped.
+ *
+ * @param <K>
+ *         type of variable, e.g. {@link com.sun.jdi.Field} or {@link com.sun.jdi.LocalVariable}
+ */
+class JdiValuesBatch<K> {
+    private final List<K>                          variables;
+    private final Function<List<K>, Map<K, Value>> fetcher;
+
+    private Map<K, Value> values;
+
+    /**
+     * @param variables
+     *         variables which values are fetched together
+     * @param fetcher
+     *         fetches values of all the given variables at once, e.g. {@link com.sun.jdi.ObjectReference#getValues(List)}
+     */
+    JdiValuesBatch(List<K> variables, Function<List<K>, Map<K, Value>> fetcher) {
+        this.variables = variables;
+        this.fetcher = fetcher;
+    }
+
+    /** Returns value of the variable, which may be {@code null}, fetching values of all the variables of the batch if needed. */
+    synchronized Value get(K variable) {
+        if (values == null) {
+            values = fetcher.apply(variables);
+        }
+        return values.get(variable);
+    }
+}
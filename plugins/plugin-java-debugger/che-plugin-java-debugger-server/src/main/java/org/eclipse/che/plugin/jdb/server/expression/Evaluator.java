@@ -67,12 +67,22 @@ public class Evaluator {
         PRIMITIVE_TYPES.add("double");
     }
 
-    private final VirtualMachine  vm;
-    private final ThreadReference thread;
+    private final VirtualMachine   vm;
+    private final ThreadReference  thread;
+    private final TypeMembersCache typeMembers;
 
     public Evaluator(VirtualMachine vm, ThreadReference thread) {
+        this(vm, thread, new TypeMembersCache());
+    }
+
+    /**
+     * @param typeMembers
+     *         lookups of fields and methods shared with other evaluations in the same suspension of the target VM
+     */
+    public Evaluator(VirtualMachine vm, ThreadReference thread, TypeMembersCache typeMembers) {
         this.vm = vm;
         this.thread = thread;
+        this.typeMembers = typeMembers;
     }
 
     private static boolean isPrimitive(Type type) {
@@ -241,7 +251,7 @@ public class Evaluator {
         ExpressionValue value = null;
         try {
             ObjectReference object = (ObjectReference)parent;
-            Field field = object.referenceType().fieldByName(name);
+            Field field = typeMembers.fieldByName(object.referenceType(), name);
             if (field != null) {
                 value = new InstanceValue(object, field);
             }
@@ -391,7 +401,7 @@ public class Evaluator {
         }
         ObjectReference object = (ObjectReference)value;
         ReferenceType type = object.referenceType();
-        List<Method> methods = type.methodsByName(name);
+        List<Method> methods = typeMembers.methodsByName(type, name);
         Method method = findMethod(methods, arguments);
         if (method == null) {
             throw new ExpressionException("No method with name " + name + " matched to specified arguments for " + type.name());
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server.expression;
+
+import com.sun.jdi.Field;
+import com.sun.jdi.Method;
+import com.sun.jdi.ReferenceType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memoizes lookups of fields and methods of target VM types by name, which are repeated each time the same
+ * expression is evaluated. Members of a loaded type don't change, so the cache may be reused by evaluations
+ * of expressions while the target VM is suspended, or by evaluations of the condition of the same breakpoint.
+ * Instance of this class is not thread-safe.
+ */
+public class TypeMembersCache {
+    private final Map<ReferenceType, Map<String, Optional<Field>>> fields  = new HashMap<>();
+    private final Map<ReferenceType, Map<String, List<Method>>>    methods = new HashMap<>();
+
+    /**
+     * Returns visible field of the type with the specified name.
+     *
+     * @see ReferenceType#fieldByName(String)
+     */
+    public Field fieldByName(ReferenceType type, String name) {
+        return fields.computeIfAbsent(type, t -> new HashMap<>())
+                     .computeIfAbsent(name, n -> Optional.ofNullable(type.fieldByName(n)))
+                     .orElse(null);
+    }
+
+    /**
+     * Returns visible methods of the type with the specified name.
+     *
+     * @see ReferenceType#methodsByName(String)
+     */
+    public List<Method> methodsByName(ReferenceType type, String name) {
+        return methods.computeIfAbsent(type, t -> new HashMap<>())
+                      .computeIfAbsent(name, type::methodsByName);
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.Bootstrap;
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.Value;
+import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.connect.Connector;
+import com.sun.jdi.connect.LaunchingConnector;
+import com.sun.jdi.event.BreakpointEvent;
+import com.sun.jdi.event.ClassPrepareEvent;
+import com.sun.jdi.event.Event;
+import com.sun.jdi.event.EventSet;
+import com.sun.jdi.request.ClassPrepareRequest;
+
+import org.eclipse.che.plugin.jdb.server.expression.Evaluator;
+import org.eclipse.che.plugin.jdb.server.expression.ExpressionParser;
+import org.eclipse.che.plugin.jdb.server.expression.TypeMembersCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares time of evaluation of an expression in the suspended local JVM when the expression is parsed
+ * each time, as it was done for watch expressions, against evaluation of the parsed expression with
+ * the memoized lookups of fields, the way watch expressions and breakpoint conditions are evaluated now.
+ *
+ * <p>It is not run with the tests, use the following command from the module directory to run it:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.plugin.jdb.server.ExpressionEvaluationBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionEvaluationBenchmark {
+    private static final String EXPRESSION = "point.x * point.x + point.y * point.y > point.limit && point.limit != 0";
+
+    private VirtualMachine   vm;
+    private ThreadReference  thread;
+    private ExpressionParser parser;
+    private TypeMembersCache typeMembers;
+
+    @Setup
+    public void setUp() throws Exception {
+        final LaunchingConnector connector = Bootstrap.virtualMachineManager().defaultConnector();
+        final Map<String, Connector.Argument> arguments = connector.defaultArguments();
+        arguments.get("main").setValue(Target.class.getName());
+        arguments.get("options").setValue("-cp " + System.getProperty("java.class.path"));
+        vm = connector.launch(arguments);
+
+        final ClassPrepareRequest classPrepareRequest = vm.eventRequestManager().createClassPrepareRequest();
+        classPrepareRequest.addClassFilter(Target.class.getName());
+        classPrepareRequest.enable();
+        vm.resume();
+        while (thread == null) {
+            final EventSet eventSet = vm.eventQueue().remove();
+            for (Event event : eventSet) {
+                if (event instanceof ClassPrepareEvent) {
+                    vm.eventRequestManager()
+                      .createBreakpointRequest(((ClassPrepareEvent)event).referenceType()
+                                                                         .methodsByName("suspend")
+                                                                         .get(0)
+                                                                         .location())
+                      .enable();
+                } else if (event instanceof BreakpointEvent) {
+                    // keep target VM suspended at the breakpoint
+                    thread = ((BreakpointEvent)event).thread();
+                }
+            }
+            if (thread == null) {
+                eventSet.resume();
+            }
+        }
+
+        parser = ExpressionParser.newInstance(EXPRESSION);
+        typeMembers = new TypeMembersCache();
+    }
+
+    @TearDown
+    public void tearDown() {
+        vm.exit(0);
+    }
+
+    @Benchmark
+    public Value evaluateParsingEachTime() {
+        return ExpressionParser.newInstance(EXPRESSION).evaluate(new Evaluator(vm, thread));
+    }
+
+    @Benchmark
+    public Value evaluateParsedExpression() {
+        return parser.evaluate(new Evaluator(vm, thread, typeMembers));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExpressionEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Debuggee which is suspended in {@link #suspend(Point)} while the expression is evaluated. */
+    public static class Target {
+        public static void main(String[] args) {
+            suspend(new Point(3, 4, 20));
+        }
+
+        static void suspend(Point point) {
+            System.out.println(point.x + point.y);
+        }
+    }
+
+    static class Point {
+        final int x;
+        final int y;
+        final int limit;
+
+        Point(int x, int y, int limit) {
+            this.x = x;
+            this.y = y;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.ArrayReference;
+import com.sun.jdi.Field;
+import com.sun.jdi.LocalVariable;
+import com.sun.jdi.Location;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.Value;
+
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that values of variables are fetched from the target VM in batches.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JdiValuesBatchTest {
+
+    @Mock
+    private StackFrame      stackFrame;
+    @Mock
+    private ObjectReference object;
+    @Mock
+    private ReferenceType   type;
+
+    @Test
+    public void shouldFetchValuesOfBatchOnceWhenFirstValueIsNeeded() throws Exception {
+        Value first = mock(Value.class);
+        List<String> fetched = new ArrayList<>();
+        JdiValuesBatch<String> batch = new JdiValuesBatch<>(asList("a", "b", "c"), variables -> {
+            fetched.addAll(variables);
+            Map<String, Value> values = new HashMap<>();
+            values.put("a", first);
+            return values;
+        });
+
+        assertTrue(fetched.isEmpty());
+        assertEquals(batch.get("a"), first);
+        assertEquals(batch.get("b"), null);
+        assertEquals(batch.get("c"), null);
+        assertEquals(fetched, asList("a", "b", "c"));
+    }
+
+    @Test
+    public void shouldFetchAllFieldsOfThisObjectWithSingleRequest() throws Exception {
+        List<Field> fields = asList(field("a", false), field("b", false), field("c", false));
+        Map<Field, Value> values = values(fields);
+        when(stackFrame.thisObject()).thenReturn(object);
+        when(object.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        when(object.getValues(fields)).thenReturn(values);
+
+        JdiStackFrameImpl frame = new JdiStackFrameImpl(stackFrame);
+        JdiField[] jdiFields = frame.getFields();
+
+        verify(object, never()).getValues(anyListOf(Field.class));
+        for (JdiField jdiField : jdiFields) {
+            assertEquals(jdiField.getValue().getAsString(), values.get(field(fields, jdiField.getName())).toString());
+        }
+        verify(object, times(1)).getValues(fields);
+        verify(object, never()).getValue(any(Field.class));
+    }
+
+    @Test
+    public void shouldFetchStaticFieldsOfTypeWithSingleRequest() throws Exception {
+        Field a = field("a", true);
+        Field b = field("b", true);
+        Field instanceField = field("c", false);
+        List<Field> staticFields = asList(a, b);
+        Map<Field, Value> values = values(staticFields);
+        Location location = mock(Location.class);
+        when(stackFrame.thisObject()).thenReturn(null);
+        when(stackFrame.location()).thenReturn(location);
+        when(location.declaringType()).thenReturn(type);
+        when(type.allFields()).thenReturn(asList(a, b, instanceField));
+        when(type.getValues(staticFields)).thenReturn(values);
+
+        JdiStackFrameImpl frame = new JdiStackFrameImpl(stackFrame);
+
+        assertEquals(frame.getFieldByName("a").getValue().getAsString(), values.get(a).toString());
+        assertEquals(frame.getFieldByName("b").getValue().getAsString(), values.get(b).toString());
+        verify(type, times(1)).getValues(staticFields);
+        verify(type, never()).getValue(any(Field.class));
+    }
+
+    @Test
+    public void shouldFetchAllLocalVariablesOfStackFrameWithSingleRequest() throws Exception {
+        LocalVariable a = localVariable("a");
+        LocalVariable b = localVariable("b");
+        List<LocalVariable> variables = asList(a, b);
+        Map<LocalVariable, Value> values = new HashMap<>();
+        values.put(a, mock(Value.class));
+        values.put(b, mock(Value.class));
+        when(stackFrame.visibleVariables()).thenReturn(variables);
+        when(stackFrame.getValues(variables)).thenReturn(values);
+
+        JdiStackFrameImpl frame = new JdiStackFrameImpl(stackFrame);
+        frame.getLocalVariables();
+
+        verify(stackFrame, never()).getValues(anyListOf(LocalVariable.class));
+        assertEquals(frame.getLocalVariableByName("b").getValue().getAsString(), values.get(b).toString());
+        assertEquals(frame.getLocalVariableByName("a").getValue().getAsString(), values.get(a).toString());
+        verify(stackFrame, times(1)).getValues(variables);
+        verify(stackFrame, never()).getValue(any(LocalVariable.class));
+    }
+
+    @Test
+    public void shouldFetchAllFieldsOfNestedObjectWithSingleRequest() throws Exception {
+        List<Field> fields = asList(field("a", false), field("b", false));
+        Map<Field, Value> values = values(fields);
+        when(object.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        when(object.getValues(fields)).thenReturn(values);
+
+        JdiValueImpl value = new JdiValueImpl(object);
+        JdiVariable[] variables = value.getVariables();
+
+        assertEquals(variables.length, 2);
+        assertEquals(value.getVariableByName("a").getValue().getAsString(), values.get(fields.get(0)).toString());
+        assertEquals(value.getVariableByName("b").getValue().getAsString(), values.get(fields.get(1)).toString());
+        verify(object, times(1)).getValues(fields);
+        verify(object, never()).getValue(any(Field.class));
+    }
+
+    @DataProvider(name = "arrayLengths")
+    public Object[][] arrayLengths() {
+        return new Object[][] {{999}, {1000}, {1001}};
+    }
+
+    @Test(dataProvider = "arrayLengths")
+    public void shouldFetchArrayElementsInPages(int length) throws Exception {
+        ArrayReference array = array(length);
+
+        JdiVariable[] elements = new JdiValueImpl(array).getVariables();
+
+        assertEquals(elements.length, length);
+        verify(array, never()).getValues(anyInt(), anyInt());
+
+        for (int i = 0; i < length; i++) {
+            assertEquals(elements[i].getValue().getAsString(), "element-" + i);
+        }
+
+        int fullPages = length / JdiValueImpl.ARRAY_PAGE_SIZE;
+        for (int page = 0; page < fullPages; page++) {
+            verify(array, times(1)).getValues(page * JdiValueImpl.ARRAY_PAGE_SIZE, JdiValueImpl.ARRAY_PAGE_SIZE);
+        }
+        int rest = length % JdiValueImpl.ARRAY_PAGE_SIZE;
+        if (rest > 0) {
+            verify(array, times(1)).getValues(fullPages * JdiValueImpl.ARRAY_PAGE_SIZE, rest);
+        }
+        verify(array, times(fullPages + (rest > 0 ? 1 : 0))).getValues(anyInt(), anyInt());
+        verify(array, never()).getValue(anyInt());
+    }
+
+    @Test
+    public void shouldFetchOnlyPageOfRequestedArrayElement() throws Exception {
+        ArrayReference array = array(1001);
+
+        JdiVariable[] elements = new JdiValueImpl(array).getVariables();
+
+        assertEquals(elements[1000].getValue().getAsString(), "element-1000");
+        verify(array, times(1)).getValues(1000, 1);
+        verify(array, never()).getValues(0, JdiValueImpl.ARRAY_PAGE_SIZE);
+
+        assertEquals(elements[999].getValue().getAsString(), "element-999");
+        assertEquals(elements[0].getValue().getAsString(), "element-0");
+        verify(array, times(1)).getValues(0, JdiValueImpl.ARRAY_PAGE_SIZE);
+        verify(array, times(2)).getValues(anyInt(), anyInt());
+    }
+
+    private static ArrayReference array(int length) {
+        ArrayReference array = mock(ArrayReference.class);
+        when(array.length()).thenReturn(length);
+        when(array.getValues(anyInt(), anyInt())).thenAnswer(invocation -> {
+            int from = (Integer)invocation.getArguments()[0];
+            int count = (Integer)invocation.getArguments()[1];
+            List<Value> values = new ArrayList<>(count);
+            for (int i = from; i < from + count; i++) {
+                Value value = mock(Value.class);
+                when(value.toString()).thenReturn("element-" + i);
+                values.add(value);
+            }
+            return values;
+        });
+        return array;
+    }
+
+    private static Field field(String name, boolean isStatic) {
+        Field field = mock(Field.class);
+        when(field.name()).thenReturn(name);
+        when(field.isStatic()).thenReturn(isStatic);
+        return field;
+    }
+
+    private static Field field(List<Field> fields, String name) {
+        return fields.stream().filter(f -> f.name().equals(name)).findFirst().get();
+    }
+
+    private static LocalVariable localVariable(String name) {
+        LocalVariable variable = mock(LocalVariable.class);
+        when(variable.name()).thenReturn(name);
+        return variable;
+    }
+
+    private static <K> Map<K, Value> values(List<K> variables) {
+        Map<K, Value> values = new HashMap<>();
+        for (K variable : variables) {
+            values.put(variable, mock(Value.class));
+        }
+        return values;
+    }
+}
@@ -74,6 +74,10 @@ public class AntValueProviderFactory implements ValueProviderFactory {
         return new AntValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        return Collections.singletonList(BUILD_FILE);
+    }
 
 
     /** Provide access to value of various information from {@link org.apache.tools.ant.Project}. */
@@ -27,6 +27,8 @@ import static org.eclipse.che.ide.ext.java.shared.Constants.CONTAINS_JAVA_FILES;
 /**
  * {@link ValueProviderFactory} for Java project type.
  * Factory creates a class which provides values of Java project's attributes.
+ * It doesn't declare trigger paths since {@code contains_java_files} depends on any file of the project,
+ * so values are not cached and are read each time attributes of the project are requested.
  *
  * @author gazarenkov
  * @author Florent Benoit
@@ -69,8 +71,9 @@ public class JavaValueProviderFactory implements ValueProviderFactory {
          */
         protected boolean hasJavaFilesInFolder(final FolderEntry folderEntry) {
             try {
-                return folderEntry.getChildFolders().stream().anyMatch(this::hasJavaFilesInFolder) ||
-                       folderEntry.getChildFiles().stream().anyMatch(fileEntry -> fileEntry.getName().endsWith(".java"));
+                // check files of the folder first, so the walk stops before going deeper when possible
+                return folderEntry.getChildFiles().stream().anyMatch(fileEntry -> fileEntry.getName().endsWith(".java")) ||
+                       folderEntry.getChildFolders().stream().anyMatch(this::hasJavaFilesInFolder);
             } catch (ServerException e) {
                 throw new IllegalStateException(String.format("Unable to get files from ''%s''", folderEntry.getName()), e);
             }
@@ -93,7 +96,7 @@ public class JavaValueProviderFactory implements ValueProviderFactory {
         }
 
         @Override
-        public List<String> getValues(String attributeName) throws ValueStorageException {
+        public synchronized List<String> getValues(String attributeName) throws ValueStorageException {
             if (!initialized) {
                 init();
             }
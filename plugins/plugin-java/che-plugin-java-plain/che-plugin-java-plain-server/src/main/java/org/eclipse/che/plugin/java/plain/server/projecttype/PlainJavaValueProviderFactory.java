@@ -54,6 +54,12 @@ public class PlainJavaValueProviderFactory implements ValueProviderFactory {
         return new PlainJavaValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        // source and output folders are stored in the classpath of the project
+        return singletonList(".che/classpath");
+    }
+
     private class PlainJavaValueProvider extends SettableValueProvider {
         private FolderEntry projectFolder;
 
@@ -371,6 +371,9 @@ public interface MachineLocalizationConstant extends Messages {
     @Key("consoles.autoScrollButton.tooltip")
     String consolesAutoScrollButtonTooltip();
 
+    @Key("consoles.linesEvicted")
+    String consolesLinesEvicted(int lines);
+
     @Key("view.processes.title")
     String viewProcessesTitle();
 
@@ -17,6 +17,7 @@ import com.google.web.bindery.event.shared.EventBus;
 
 import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.machine.shared.dto.MachineProcessDto;
+import org.eclipse.che.api.machine.shared.dto.execagent.GetProcessLogsResponseDto;
 import org.eclipse.che.api.machine.shared.dto.execagent.ProcessKillResponseDto;
 import org.eclipse.che.api.machine.shared.dto.execagent.ProcessSubscribeResponseDto;
 import org.eclipse.che.api.machine.shared.dto.execagent.event.ProcessDiedEventDto;
@@ -25,6 +26,7 @@ import org.eclipse.che.api.machine.shared.dto.execagent.event.ProcessStdErrEvent
 import org.eclipse.che.api.machine.shared.dto.execagent.event.ProcessStdOutEventDto;
 import org.eclipse.che.api.promises.client.Operation;
 import org.eclipse.che.api.promises.client.OperationException;
+import org.eclipse.che.api.promises.client.PromiseError;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.ide.api.command.CommandExecutor;
 import org.eclipse.che.ide.api.command.CommandImpl;
@@ -65,6 +67,18 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
     /** Follow output when printing text */
     private boolean followOutput = true;
 
+    /** Text of the lines removed from the console, fetched from the process logs while the output is downloaded */
+    private String evictedText;
+
+    /** Number of the process logs received by the console, each stdout or stderr event is a single log of the process */
+    private int receivedLogs;
+
+    /** Time of the last received process log */
+    private String lastLogTime;
+
+    /** Number of the process logs received before the console was cleared last time */
+    private int clearedLogs;
+
     private final List<ActionDelegate> actionDelegates = new ArrayList<>();
 
     @Inject
@@ -143,7 +157,8 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
                 String text = event.getText();
                 boolean carriageReturn = text.endsWith("\r");
                 String color = "red";
-                view.print(text, carriageReturn, color);
+                lastLogTime = event.getTime();
+                view.printLog(text, carriageReturn, color, receivedLogs++);
 
                 for (ActionDelegate actionDelegate : actionDelegates) {
                     actionDelegate.onConsoleOutput(CommandOutputConsolePresenter.this);
@@ -159,7 +174,8 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
             public void apply(ProcessStdOutEventDto event) throws OperationException {
                 String stdOutMessage = event.getText();
                 boolean carriageReturn = stdOutMessage.endsWith("\r");
-                view.print(stdOutMessage, carriageReturn);
+                lastLogTime = event.getTime();
+                view.printLog(stdOutMessage, carriageReturn, null, receivedLogs++);
 
                 for (ActionDelegate actionDelegate : actionDelegates) {
                     actionDelegate.onConsoleOutput(CommandOutputConsolePresenter.this);
@@ -256,10 +272,50 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
     @Override
     public void clearOutputsButtonClicked() {
         view.clearConsole();
+        clearedLogs = receivedLogs;
     }
 
     @Override
     public void downloadOutputsButtonClicked() {
+        if (view.getEvictedLinesCount() == 0 || pid == 0) {
+            downloadOutput();
+            return;
+        }
+
+        // the oldest lines were removed from the console, the logs from the first cleared one till the first kept one
+        // are fetched, logs are counted from the end and the logs appeared after the last received one are not taken
+        final int firstKeptLog = view.getFirstLogIndex() == -1 ? receivedLogs : view.getFirstLogIndex();
+        final int evictedLogs = firstKeptLog - clearedLogs;
+        if (evictedLogs <= 0) {
+            downloadOutput();
+            return;
+        }
+        execAgentCommandManager.getProcessLogs(machine.getId(), pid, null, lastLogTime, evictedLogs, receivedLogs - firstKeptLog)
+                               .then(new Operation<List<GetProcessLogsResponseDto>>() {
+                                   @Override
+                                   public void apply(List<GetProcessLogsResponseDto> logs) throws OperationException {
+                                       StringBuilder text = new StringBuilder();
+                                       for (GetProcessLogsResponseDto log : logs) {
+                                           text.append(log.getText()).append("\r\n");
+                                       }
+
+                                       evictedText = text.toString();
+                                       try {
+                                           downloadOutput();
+                                       } finally {
+                                           evictedText = null;
+                                       }
+                                   }
+                               })
+                               .catchError(new Operation<PromiseError>() {
+                                   @Override
+                                   public void apply(PromiseError arg) throws OperationException {
+                                       downloadOutput();
+                                   }
+                               });
+    }
+
+    private void downloadOutput() {
         for (ActionDelegate actionDelegate : actionDelegates) {
             actionDelegate.onDownloadOutput(this);
         }
@@ -293,7 +349,7 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
      *          console text
      */
     public String getText() {
-        return view.getText();
+        return evictedText == null ? view.getText() : evictedText + view.getText();
     }
 
 }
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Lines of the console output kept in a ring buffer of a limited capacity.
+ * When the buffer is full the oldest line is evicted to free the space for a new one,
+ * number of the evicted lines is kept so they can be fetched from the process logs.
+ *
+ * <p>Each line has an absolute number which doesn't change when the older lines are evicted,
+ * the number of the first line which is kept in the buffer is equal to the number of evicted lines.
+ * Lines printed from the process logs keep the index of their log, so the evicted logs can be fetched
+ * regardless of the lines replaced after carriage returns and the lines which don't come from the logs.
+ */
+public class OutputConsoleBuffer {
+
+    private final Line[] lines;
+
+    private int     head;
+    private int     size;
+    private int     evicted;
+    private boolean carriageReturn;
+
+    public OutputConsoleBuffer(int capacity) {
+        checkArgument(capacity > 0, "Capacity should be positive");
+
+        this.lines = new Line[capacity];
+    }
+
+    /**
+     * Adds the line to the end of the buffer.
+     *
+     * @param text
+     *         text of the line
+     * @param carriageReturn
+     *         if {@code true} - next line replaces this one
+     * @param color
+     *         color of the text or {@code null}
+     * @param logIndex
+     *         index of the process log the line is printed from or {@code -1} if the line doesn't come from the process logs
+     * @return {@code true} if the line replaced the last one, because the last one was added with carriage return
+     */
+    public boolean add(String text, boolean carriageReturn, String color, int logIndex) {
+        final boolean replace = this.carriageReturn && size > 0;
+        this.carriageReturn = carriageReturn;
+
+        final Line line = new Line(text, color, logIndex);
+        if (replace) {
+            lines[index(size - 1)] = line;
+        } else if (size == lines.length) {
+            lines[head] = line;
+            head = (head + 1) % lines.length;
+            evicted++;
+        } else {
+            lines[index(size)] = line;
+            size++;
+        }
+        return replace;
+    }
+
+    /** Returns number of the lines kept in the buffer. */
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /** Returns number of the lines evicted from the buffer, it is the absolute number of the first line in the buffer. */
+    public int getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * Returns the line of the buffer.
+     *
+     * @param index
+     *         index of the line in the buffer, from {@code 0} for the oldest kept line to {@code size() - 1}
+     */
+    public Line get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return lines[index(index)];
+    }
+
+    /** Removes all the lines and resets the number of evicted lines. */
+    public void clear() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = null;
+        }
+        head = size = evicted = 0;
+        carriageReturn = false;
+    }
+
+    /**
+     * Returns index of the process log of the oldest kept line which is printed from the process logs,
+     * all the older logs were evicted or cleared. Returns {@code -1} if there is no such line.
+     */
+    public int getFirstLogIndex() {
+        for (int i = 0; i < size; i++) {
+            final int logIndex = get(i).getLogIndex();
+            if (logIndex >= 0) {
+                return logIndex;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the text of all the lines kept in the buffer, each line ends with line separator. */
+    public String getText() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            final String lineText = get(i).getText();
+            if (lineText != null) {
+                text.append(lineText);
+            }
+            text.append("\r\n");
+        }
+        return text.toString();
+    }
+
+    private int index(int index) {
+        return (head + index) % lines.length;
+    }
+
+    /** Line of the console output. */
+    public static class Line {
+        private final String text;
+        private final String color;
+        private final int    logIndex;
+
+        Line(String text, String color, int logIndex) {
+            this.text = text;
+            this.color = color;
+            this.logIndex = logIndex;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /** Returns color of the text or {@code null} if the default color should be used. */
+        public String getColor() {
+            return color;
+        }
+
+        /** Returns index of the process log the line is printed from or {@code -1} if the line doesn't come from the logs. */
+        public int getLogIndex() {
+            return logIndex;
+        }
+    }
+}
@@ -59,6 +59,21 @@ public interface OutputConsoleView extends View<OutputConsoleView.ActionDelegate
      */
     void print(String text, boolean carriageReturn, String color);
 
+    /**
+     * Prints colored text of the process log.
+     *
+     * @param text
+     *         text to print
+     * @param carriageReturn
+     *         if {@code true} - next message should replace the current one,
+     *         if {@code false} - next message will be printed in a new line
+     * @param color
+     *         color of the text or NULL
+     * @param logIndex
+     *         index of the log among all the logs of the process
+     */
+    void printLog(String text, boolean carriageReturn, String color, int logIndex);
+
     /**
      * Returns the console text.
      *
@@ -67,6 +82,22 @@ public interface OutputConsoleView extends View<OutputConsoleView.ActionDelegate
      */
     String getText();
 
+    /**
+     * Returns index of the oldest process log which is kept in the console.
+     *
+     * @return
+     *         index of the log or {@code -1} if the console doesn't keep any process log
+     */
+    int getFirstLogIndex();
+
+    /**
+     * Returns number of the oldest lines which were removed from the console because of the lines limit.
+     *
+     * @return
+     *         number of removed lines
+     */
+    int getEvictedLinesCount();
+
     /**
      * Hides command title and command label.
      */
@@ -11,12 +11,14 @@
 package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
 
 import com.google.common.base.Strings;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
-import com.google.gwt.dom.client.Node;
-import com.google.gwt.dom.client.NodeList;
 import com.google.gwt.dom.client.PreElement;
+import com.google.gwt.dom.client.Style;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.event.dom.client.ScrollEvent;
@@ -39,6 +41,7 @@ import com.google.inject.Inject;
 import org.eclipse.che.ide.extension.machine.client.MachineLocalizationConstant;
 import org.eclipse.che.ide.extension.machine.client.MachineResources;
 import org.eclipse.che.ide.FontAwesome;
+import org.eclipse.che.ide.api.preferences.PreferencesManager;
 import org.eclipse.che.ide.ui.Tooltip;
 import org.eclipse.che.ide.util.Pair;
 import org.vectomatic.dom.svg.ui.SVGImage;
@@ -53,11 +56,22 @@ import static org.eclipse.che.ide.ui.menu.PositionController.VerticalAlign.BOTTO
 /**
  * View representation of output console.
  *
+ * <p>Output lines are kept in the {@link OutputConsoleBuffer} limited by the {@link #MAX_LINES_PREFERENCE} preference,
+ * the lines are rendered on animation frames, so many lines printed at once are rendered together.
+ * Only the lines which are in the visible area of the console are rendered, unless the text is wrapped.
+ *
  * @author Artem Zatsarynnyi
  * @author Vitaliy Guliy
  */
 public class OutputConsoleViewImpl extends Composite implements OutputConsoleView, ScrollHandler {
 
+    /** Preference which defines max number of lines kept in the console. */
+    public static final String MAX_LINES_PREFERENCE = "consoleMaxLines";
+
+    private static final int DEFAULT_MAX_LINES   = 10000;
+    private static final int OVERSCAN_LINES      = 50;
+    private static final int DEFAULT_LINE_HEIGHT = 13;
+
     private final List<Pair<RegExp, String>> output2Color = newArrayList(new Pair<>(compile("\\[\\s*(DOCKER)\\s*\\]"), "#4EABFF"),
                                                                          new Pair<>(compile("\\[\\s*(ERROR)\\s*\\]"), "#FF2727"),
                                                                          new Pair<>(compile("\\[\\s*(WARN)\\s*\\]"), "#F5A623"),
@@ -113,8 +127,28 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
     @UiField
     FlowPanel scrollToBottomButton;
 
-    /** If true - next printed line should replace the previous one. */
-    private boolean carriageReturn;
+    private final MachineLocalizationConstant localization;
+    private final OutputConsoleBuffer         buffer;
+
+    /** Shows number of lines removed from the console because of the lines limit. */
+    private final Element evictedLinesLabel;
+
+    /** Keep space of the lines which are not rendered above and below the rendered ones. */
+    private final Element topSpacer;
+    private final Element bottomSpacer;
+
+    /** Absolute number of the first rendered line and number of rendered lines. */
+    private int renderedFirst;
+    private int renderedCount;
+
+    /** Absolute number of the first line replaced after rendering or -1 if there is no such line. */
+    private int replacedLine = -1;
+
+    private boolean renderScheduled;
+
+    private boolean wrapText;
+
+    private int lineHeight = DEFAULT_LINE_HEIGHT;
 
     /** Follow the output. Scroll to the bottom automatically when <b>true</b>. */
     private boolean followOutput = true;
@@ -124,9 +158,20 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
 
     @Inject
     public OutputConsoleViewImpl(MachineResources resources,
-                                 MachineLocalizationConstant localization) {
+                                 MachineLocalizationConstant localization,
+                                 PreferencesManager preferencesManager) {
+        this.localization = localization;
+        this.buffer = new OutputConsoleBuffer(getMaxLines(preferencesManager));
+
         initWidget(UI_BINDER.createAndBindUi(this));
 
+        evictedLinesLabel = DOM.createElement("pre");
+        evictedLinesLabel.getStyle().setDisplay(Style.Display.NONE);
+        evictedLinesLabel.getStyle().setColor("#8E8E8E");
+        topSpacer = Document.get().createDivElement();
+        bottomSpacer = Document.get().createDivElement();
+        resetLines();
+
         reRunProcessButton.add(new SVGImage(resources.reRunIcon()));
         stopProcessButton.add(new SVGImage(resources.stopIcon()));
         clearOutputsButton.add(new SVGImage(resources.clearOutputsIcon()));
@@ -234,6 +279,8 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
 
     @Override
     public void wrapText(boolean wrap) {
+        wrapText = wrap;
+        scheduleRender();
         if (wrap) {
             consoleLines.getElement().setAttribute("wrap", "");
         } else {
@@ -244,12 +291,13 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
     @Override
     public void enableAutoScroll(boolean enable) {
         followOutput = enable;
-        followOutput();
+        scheduleRender();
     }
 
     @Override
     public void clearConsole() {
-        consoleLines.getElement().setInnerHTML("");
+        buffer.clear();
+        resetLines();
     }
 
     @Override
@@ -318,19 +366,155 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
     }
 
     @Override
-    public void print(final String text, boolean carriageReturn, String color) {
-        if (this.carriageReturn) {
-            Node lastChild = consoleLines.getElement().getLastChild();
-            if (lastChild != null) {
-                lastChild.removeFromParent();
+    public void print(String text, boolean carriageReturn, String color) {
+        printLog(text, carriageReturn, color, -1);
+    }
+
+    @Override
+    public void printLog(String text, boolean carriageReturn, String color, int logIndex) {
+        if (buffer.add(text, carriageReturn, color, logIndex)) {
+            final int line = buffer.getEvictedCount() + buffer.size() - 1;
+            replacedLine = replacedLine == -1 ? line : Math.min(replacedLine, line);
+        }
+        scheduleRender();
+    }
+
+    @Override
+    public String getText() {
+        return buffer.getText();
+    }
+
+    @Override
+    public int getFirstLogIndex() {
+        return buffer.getFirstLogIndex();
+    }
+
+    @Override
+    public int getEvictedLinesCount() {
+        return buffer.getEvictedCount();
+    }
+
+    @Override
+    public void onScroll(ScrollEvent event) {
+        // Do nothing if content height less scroll area height
+        if (scrollPanel.getElement().getScrollHeight() < scrollPanel.getElement().getOffsetHeight()) {
+            followOutput = true;
+            if (delegate != null) {
+                delegate.onOutputScrolled(followOutput);
             }
+            return;
         }
 
-        this.carriageReturn = carriageReturn;
+        // Follow output if scroll area is scrolled to the end
+        if (scrollPanel.getElement().getScrollTop() + scrollPanel.getElement().getOffsetHeight() >
+            scrollPanel.getElement().getScrollHeight()) {
+            followOutput = true;
+        } else {
+            followOutput = false;
+        }
+
+        if (delegate != null) {
+            delegate.onOutputScrolled(followOutput);
+        }
+
+        if (!wrapText) {
+            scheduleRender();
+        }
+    }
+
+    private void scheduleRender() {
+        if (renderScheduled) {
+            return;
+        }
+        renderScheduled = true;
 
+        AnimationScheduler.get().requestAnimationFrame(new AnimationCallback() {
+            @Override
+            public void execute(double timestamp) {
+                renderScheduled = false;
+                render();
+            }
+        }, consoleLines.getElement());
+    }
+
+    /**
+     * Renders the lines which are in the visible area of the console, or all the lines if the text is wrapped
+     * as wrapped lines have different heights, and removes the other rendered lines.
+     */
+    private void render() {
+        final int evicted = buffer.getEvictedCount();
+        final int size = buffer.size();
+
+        if (evicted > 0) {
+            evictedLinesLabel.setInnerText(localization.consolesLinesEvicted(evicted));
+            evictedLinesLabel.getStyle().clearDisplay();
+        }
+
+        // remove the replaced lines, they are rendered again below
+        if (replacedLine != -1) {
+            while (renderedCount > 0 && renderedFirst + renderedCount > replacedLine) {
+                bottomSpacer.getPreviousSiblingElement().removeFromParent();
+                renderedCount--;
+            }
+            replacedLine = -1;
+        }
+
+        final Element scrollElement = scrollPanel.getElement();
+        final VisibleLines range = wrapText ? VisibleLines.all(size)
+                                            : VisibleLines.of(size,
+                                                              scrollElement.getScrollTop() - evictedLinesLabel.getOffsetHeight(),
+                                                              scrollElement.getOffsetHeight(),
+                                                              lineHeight,
+                                                              OVERSCAN_LINES,
+                                                              followOutput);
+        final int from = range.getFrom();
+        final int to = range.getTo();
+        final int absoluteFrom = evicted + from;
+        final int absoluteTo = evicted + to;
+
+        // remove rendered lines which are out of the range
+        while (renderedCount > 0 && renderedFirst < absoluteFrom) {
+            topSpacer.getNextSiblingElement().removeFromParent();
+            renderedFirst++;
+            renderedCount--;
+        }
+        while (renderedCount > 0 && renderedFirst + renderedCount > absoluteTo) {
+            bottomSpacer.getPreviousSiblingElement().removeFromParent();
+            renderedCount--;
+        }
+        if (renderedCount == 0) {
+            renderedFirst = absoluteFrom;
+        }
+
+        // render lines which are missing in the range
+        final Element consoleElement = consoleLines.getElement();
+        final Element firstRendered = topSpacer.getNextSiblingElement();
+        for (int line = absoluteFrom; line < renderedFirst; line++) {
+            consoleElement.insertBefore(renderLine(buffer.get(line - evicted)), firstRendered);
+        }
+        for (int line = Math.max(renderedFirst + renderedCount, absoluteFrom); line < absoluteTo; line++) {
+            consoleElement.insertBefore(renderLine(buffer.get(line - evicted)), bottomSpacer);
+        }
+        renderedFirst = absoluteFrom;
+        renderedCount = absoluteTo - absoluteFrom;
+
+        if (!wrapText && renderedCount > 0) {
+            final int renderedLineHeight = topSpacer.getNextSiblingElement().getOffsetHeight();
+            if (renderedLineHeight > 0) {
+                lineHeight = renderedLineHeight;
+            }
+        }
+        topSpacer.getStyle().setHeight(from * lineHeight, Style.Unit.PX);
+        bottomSpacer.getStyle().setHeight((size - to) * lineHeight, Style.Unit.PX);
+
+        followOutput();
+    }
+
+    private PreElement renderLine(final OutputConsoleBuffer.Line line) {
         final SafeHtml colorOutput = new SafeHtml() {
             @Override
             public String asString() {
+                final String text = line.getText();
 
                 if (Strings.isNullOrEmpty(text)) {
                     return " ";
@@ -351,50 +535,39 @@ public class OutputConsoleViewImpl extends Composite implements OutputConsoleVie
 
         PreElement pre = DOM.createElement("pre").cast();
         pre.setInnerSafeHtml(colorOutput);
-        if (color != null) {
-            pre.getStyle().setColor(color);
+        if (line.getColor() != null) {
+            pre.getStyle().setColor(line.getColor());
         }
-        consoleLines.getElement().appendChild(pre);
-
-        followOutput();
+        return pre;
     }
 
-    @Override
-    public String getText() {
-        String text = "";
-        NodeList<Node> nodes = consoleLines.getElement().getChildNodes();
-
-        for (int i = 0; i < nodes.getLength(); i++) {
-            Node node = nodes.getItem(i);
-            Element element = node.cast();
-            text += element.getInnerText() + "\r\n";
-        }
-
-        return text;
+    /** Removes all the rendered lines. */
+    private void resetLines() {
+        final Element consoleElement = consoleLines.getElement();
+        consoleElement.setInnerHTML("");
+        evictedLinesLabel.getStyle().setDisplay(Style.Display.NONE);
+        consoleElement.appendChild(evictedLinesLabel);
+        consoleElement.appendChild(topSpacer);
+        consoleElement.appendChild(bottomSpacer);
+        topSpacer.getStyle().setHeight(0, Style.Unit.PX);
+        bottomSpacer.getStyle().setHeight(0, Style.Unit.PX);
+        renderedFirst = renderedCount = 0;
+        replacedLine = -1;
     }
 
-    @Override
-    public void onScroll(ScrollEvent event) {
-        // Do nothing if content height less scroll area height
-        if (scrollPanel.getElement().getScrollHeight() < scrollPanel.getElement().getOffsetHeight()) {
-            followOutput = true;
-            if (delegate != null) {
-                delegate.onOutputScrolled(followOutput);
+    private static int getMaxLines(PreferencesManager preferencesManager) {
+        final String maxLines = preferencesManager.getValue(MAX_LINES_PREFERENCE);
+        if (!Strings.isNullOrEmpty(maxLines)) {
+            try {
+                final int value = Integer.parseInt(maxLines);
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException ignored) {
+                // use default value
             }
-            return;
-        }
-
-        // Follow output if scroll area is scrolled to the end
-        if (scrollPanel.getElement().getScrollTop() + scrollPanel.getElement().getOffsetHeight() >
-            scrollPanel.getElement().getScrollHeight()) {
-            followOutput = true;
-        } else {
-            followOutput = false;
-        }
-
-        if (delegate != null) {
-            delegate.onOutputScrolled(followOutput);
         }
+        return DEFAULT_MAX_LINES;
     }
 
     /**
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
+
+/**
+ * Range of the console lines which are rendered, the lines of the visible area of the console
+ * plus overscan lines above and below it.
+ */
+class VisibleLines {
+    private final int from;
+    private final int to;
+
+    VisibleLines(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /** Creates the range of all the lines, e.g. when wrapped lines of different heights are rendered. */
+    static VisibleLines all(int size) {
+        return new VisibleLines(0, size);
+    }
+
+    /**
+     * Creates the range of the lines which are in the visible area of the console.
+     *
+     * @param size
+     *         number of the lines kept in the console
+     * @param scrollTop
+     *         scroll position of the first line in pixels
+     * @param viewportHeight
+     *         height of the visible area in pixels
+     * @param lineHeight
+     *         height of a line in pixels
+     * @param overscanLines
+     *         number of lines added above and below the visible area
+     * @param followOutput
+     *         if {@code true} - the console is scrolled to the last line, so the range ends with the last line
+     */
+    static VisibleLines of(int size, int scrollTop, int viewportHeight, int lineHeight, int overscanLines, boolean followOutput) {
+        final int visibleLines = viewportHeight / lineHeight + 1;
+        if (followOutput) {
+            return new VisibleLines(Math.max(size - visibleLines - overscanLines, 0), size);
+        }
+        final int top = Math.max(scrollTop, 0) / lineHeight;
+        return new VisibleLines(Math.min(Math.max(top - overscanLines, 0), size), Math.min(top + visibleLines + overscanLines, size));
+    }
+
+    /** Returns index of the first rendered line, the height of the lines above it is kept by the top spacer. */
+    int getFrom() {
+        return from;
+    }
+
+    /** Returns index following the last rendered line, the height of the lines from it is kept by the bottom spacer. */
+    int getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
+
+import com.google.web.bindery.event.shared.EventBus;
+
+import org.eclipse.che.api.core.model.machine.Machine;
+import org.eclipse.che.api.machine.shared.dto.execagent.GetProcessLogsResponseDto;
+import org.eclipse.che.api.machine.shared.dto.execagent.ProcessSubscribeResponseDto;
+import org.eclipse.che.api.machine.shared.dto.execagent.event.ProcessStdErrEventDto;
+import org.eclipse.che.api.machine.shared.dto.execagent.event.ProcessStdOutEventDto;
+import org.eclipse.che.api.promises.client.Operation;
+import org.eclipse.che.api.promises.client.Promise;
+import org.eclipse.che.ide.api.command.CommandExecutor;
+import org.eclipse.che.ide.api.command.CommandImpl;
+import org.eclipse.che.ide.api.machine.ExecAgentCommandManager;
+import org.eclipse.che.ide.api.macro.MacroProcessor;
+import org.eclipse.che.ide.api.outputconsole.OutputConsole;
+import org.eclipse.che.ide.extension.machine.client.MachineResources;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link CommandOutputConsolePresenter}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CommandOutputConsolePresenterTest {
+
+    private static final String MACHINE_ID = "machine";
+    private static final int    PID        = 42;
+
+    @Mock
+    private OutputConsoleView                        view;
+    @Mock
+    private MachineResources                         resources;
+    @Mock
+    private CommandExecutor                          commandExecutor;
+    @Mock
+    private MacroProcessor                           macroProcessor;
+    @Mock
+    private EventBus                                 eventBus;
+    @Mock
+    private ExecAgentCommandManager                  execAgentCommandManager;
+    @Mock
+    private CommandImpl                              command;
+    @Mock
+    private Machine                                  machine;
+    @Mock
+    private OutputConsole.ActionDelegate             actionDelegate;
+    @Mock
+    private Promise<List<GetProcessLogsResponseDto>> logsPromise;
+
+    @Captor
+    private ArgumentCaptor<Operation<List<GetProcessLogsResponseDto>>> logsCaptor;
+
+    private CommandOutputConsolePresenter presenter;
+
+    @Before
+    public void setUp() throws Exception {
+        when(machine.getId()).thenReturn(MACHINE_ID);
+        when(view.getFirstLogIndex()).thenReturn(-1);
+        when(execAgentCommandManager.getProcessLogs(anyString(), anyInt(), any(String.class), any(String.class), anyInt(), anyInt()))
+                .thenReturn(logsPromise);
+        when(logsPromise.then(any(Operation.class))).thenReturn(logsPromise);
+
+        presenter = new CommandOutputConsolePresenter(view,
+                                                      resources,
+                                                      commandExecutor,
+                                                      macroProcessor,
+                                                      eventBus,
+                                                      execAgentCommandManager,
+                                                      command,
+                                                      machine);
+        presenter.addActionDelegate(actionDelegate);
+
+        ProcessSubscribeResponseDto process = mock(ProcessSubscribeResponseDto.class);
+        when(process.getPid()).thenReturn(PID);
+        presenter.getProcessSubscribeOperation().apply(process);
+    }
+
+    @Test
+    public void shouldPrintProcessLogsWithTheirIndexes() throws Exception {
+        printStdOut("first", "time-0");
+        printStdErr("second", "time-1");
+
+        verify(view).printLog("first", false, null, 0);
+        verify(view).printLog("second", false, "red", 1);
+    }
+
+    @Test
+    public void shouldDownloadConsoleTextWhenNoLinesAreEvicted() throws Exception {
+        printStdOut("first", "time-0");
+
+        presenter.downloadOutputsButtonClicked();
+
+        verify(execAgentCommandManager, never()).getProcessLogs(anyString(), anyInt(), any(String.class), any(String.class), anyInt(), anyInt());
+        verify(actionDelegate).onDownloadOutput(presenter);
+    }
+
+    @Test
+    public void shouldFetchLogsBeforeOldestKeptLog() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            printStdOut("line-" + i, "time-" + i);
+        }
+        // some evicted lines were replaced after carriage returns, so more logs than lines are evicted
+        when(view.getEvictedLinesCount()).thenReturn(4);
+        when(view.getFirstLogIndex()).thenReturn(6);
+
+        presenter.downloadOutputsButtonClicked();
+
+        verify(execAgentCommandManager).getProcessLogs(eq(MACHINE_ID), eq(PID), (String)isNull(), eq("time-9"), eq(6), eq(4));
+    }
+
+    @Test
+    public void shouldNotFetchLogsClearedFromConsole() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            printStdOut("line-" + i, "time-" + i);
+        }
+        presenter.clearOutputsButtonClicked();
+        for (int i = 10; i < 15; i++) {
+            printStdOut("line-" + i, "time-" + i);
+        }
+        when(view.getEvictedLinesCount()).thenReturn(3);
+        when(view.getFirstLogIndex()).thenReturn(13);
+
+        presenter.downloadOutputsButtonClicked();
+
+        verify(execAgentCommandManager).getProcessLogs(eq(MACHINE_ID), eq(PID), (String)isNull(), eq("time-14"), eq(3), eq(2));
+    }
+
+    @Test
+    public void shouldFetchAllLogsWhenConsoleKeepsNoLog() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            printStdOut("line-" + i, "time-" + i);
+        }
+        when(view.getEvictedLinesCount()).thenReturn(5);
+
+        presenter.downloadOutputsButtonClicked();
+
+        verify(execAgentCommandManager).getProcessLogs(eq(MACHINE_ID), eq(PID), (String)isNull(), eq("time-4"), eq(5), eq(0));
+    }
+
+    @Test
+    public void shouldPrependFetchedLogsToConsoleText() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            printStdOut("line-" + i, "time-" + i);
+        }
+        when(view.getEvictedLinesCount()).thenReturn(1);
+        when(view.getFirstLogIndex()).thenReturn(1);
+        when(view.getText()).thenReturn("line-1\r\nline-2\r\n");
+        final String[] downloadedText = new String[1];
+        OutputConsole.ActionDelegate downloader = new OutputConsole.ActionDelegate() {
+            @Override
+            public void onConsoleOutput(OutputConsole console) {
+            }
+
+            @Override
+            public void onDownloadOutput(OutputConsole console) {
+                downloadedText[0] = ((CommandOutputConsolePresenter)console).getText();
+            }
+        };
+        presenter.addActionDelegate(downloader);
+
+        presenter.downloadOutputsButtonClicked();
+        verify(logsPromise).then(logsCaptor.capture());
+        GetProcessLogsResponseDto log = mock(GetProcessLogsResponseDto.class);
+        when(log.getText()).thenReturn("line-0");
+        logsCaptor.getValue().apply(asList(log));
+
+        assertEquals("line-0\r\nline-1\r\nline-2\r\n", downloadedText[0]);
+        assertEquals("line-1\r\nline-2\r\n", presenter.getText());
+    }
+
+    private void printStdOut(String text, String time) throws Exception {
+        ProcessStdOutEventDto event = mock(ProcessStdOutEventDto.class);
+        when(event.getText()).thenReturn(text);
+        when(event.getTime()).thenReturn(time);
+        presenter.getStdOutOperation().apply(event);
+    }
+
+    private void printStdErr(String text, String time) throws Exception {
+        ProcessStdErrEventDto event = mock(ProcessStdErrEventDto.class);
+        when(event.getText()).thenReturn(text);
+        when(event.getTime()).thenReturn(time);
+        presenter.getStdErrOperation().apply(event);
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link OutputConsoleBuffer}.
+ */
+public class OutputConsoleBufferTest {
+
+    @Test
+    public void shouldKeepLinesInOrder() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(10);
+
+        buffer.add("first", false, null, -1);
+        buffer.add("second", false, "red", -1);
+
+        assertEquals(2, buffer.size());
+        assertEquals(0, buffer.getEvictedCount());
+        assertEquals("first", buffer.get(0).getText());
+        assertNull(buffer.get(0).getColor());
+        assertEquals("second", buffer.get(1).getText());
+        assertEquals("red", buffer.get(1).getColor());
+        assertEquals("first\r\nsecond\r\n", buffer.getText());
+    }
+
+    @Test
+    public void shouldEvictOldestLinesWhenBufferIsFull() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(3);
+
+        for (int i = 0; i < 7; i++) {
+            buffer.add("line-" + i, false, null, -1);
+        }
+
+        assertEquals(3, buffer.size());
+        assertEquals(4, buffer.getEvictedCount());
+        assertEquals("line-4", buffer.get(0).getText());
+        assertEquals("line-6", buffer.get(2).getText());
+    }
+
+    @Test
+    public void shouldReplaceLastLineAfterCarriageReturn() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(3);
+
+        assertFalse(buffer.add("10%\r", true, null, -1));
+        assertTrue(buffer.add("50%\r", true, null, -1));
+        assertTrue(buffer.add("100%", false, null, -1));
+        assertFalse(buffer.add("done", false, null, -1));
+
+        assertEquals(2, buffer.size());
+        assertEquals("100%", buffer.get(0).getText());
+        assertEquals("done", buffer.get(1).getText());
+    }
+
+    @Test
+    public void shouldReplaceLastLineOfFullBuffer() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(2);
+
+        buffer.add("first", false, null, -1);
+        buffer.add("second", false, null, -1);
+        buffer.add("third\r", true, null, -1);
+        buffer.add("fourth", false, null, -1);
+
+        assertEquals(1, buffer.getEvictedCount());
+        assertEquals("second", buffer.get(0).getText());
+        assertEquals("fourth", buffer.get(1).getText());
+    }
+
+    @Test
+    public void shouldReturnLogIndexOfOldestKeptLogLine() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(3);
+
+        buffer.add("started", false, null, -1);
+        assertEquals(-1, buffer.getFirstLogIndex());
+
+        buffer.add("10%\r", true, null, 0);
+        buffer.add("100%", false, null, 1);
+        buffer.add("first", false, null, 2);
+        buffer.add("second", false, null, 3);
+
+        // 'started' is evicted and '10%' is replaced by '100%', which is the oldest kept log
+        assertEquals(1, buffer.getFirstLogIndex());
+
+        buffer.add("third", false, null, 4);
+
+        assertEquals(2, buffer.getFirstLogIndex());
+    }
+
+    @Test
+    public void shouldResetEvictedLinesOnClear() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(1);
+        buffer.add("first", false, null, -1);
+        buffer.add("second\r", true, null, -1);
+
+        buffer.clear();
+        buffer.add("third", false, null, -1);
+
+        assertEquals(1, buffer.size());
+        assertEquals(0, buffer.getEvictedCount());
+        assertEquals("third", buffer.get(0).getText());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotReturnLineOutOfBuffer() {
+        OutputConsoleBuffer buffer = new OutputConsoleBuffer(3);
+        buffer.add("first", false, null, -1);
+
+        buffer.get(1);
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.extension.machine.client.outputspanel.console;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link VisibleLines}.
+ */
+public class VisibleLinesTest {
+
+    @Test
+    public void shouldRenderAllLinesWhenTextIsWrapped() {
+        VisibleLines range = VisibleLines.all(1000);
+
+        assertEquals(0, range.getFrom());
+        assertEquals(1000, range.getTo());
+    }
+
+    @Test
+    public void shouldRenderLastLinesWhenOutputIsFollowed() {
+        // 10 lines are visible
+        VisibleLines range = VisibleLines.of(1000, 0, 130, 13, 50, true);
+
+        assertEquals(939, range.getFrom());
+        assertEquals(1000, range.getTo());
+    }
+
+    @Test
+    public void shouldRenderAllLinesWhenFollowedOutputIsShort() {
+        VisibleLines range = VisibleLines.of(20, 0, 130, 13, 50, true);
+
+        assertEquals(0, range.getFrom());
+        assertEquals(20, range.getTo());
+    }
+
+    @Test
+    public void shouldAddOverscanLinesAroundScrolledArea() {
+        // lines from 100 to 110 are visible
+        VisibleLines range = VisibleLines.of(1000, 1300, 130, 13, 50, false);
+
+        assertEquals(50, range.getFrom());
+        assertEquals(161, range.getTo());
+    }
+
+    @Test
+    public void shouldNotGoOutOfLines() {
+        VisibleLines top = VisibleLines.of(1000, -20, 130, 13, 50, false);
+        VisibleLines bottom = VisibleLines.of(1000, 12870, 130, 13, 50, false);
+
+        assertEquals(0, top.getFrom());
+        assertEquals(61, top.getTo());
+        assertEquals(940, bottom.getFrom());
+        assertEquals(1000, bottom.getTo());
+    }
+
+    @Test
+    public void shouldRenderNothingWhenScrolledBeyondLines() {
+        // the lines were cleared while the console was scrolled
+        VisibleLines range = VisibleLines.of(10, 1300, 130, 13, 5, false);
+
+        assertEquals(10, range.getFrom());
+        assertEquals(10, range.getTo());
+    }
+}
@@ -66,19 +66,34 @@ public class MavenValueProviderFactory implements ValueProviderFactory {
         return new MavenValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        return Collections.singletonList("pom.xml");
+    }
+
     protected class MavenValueProvider extends ReadonlyValueProvider {
 
         protected FolderEntry projectFolder;
 
+        private Model model;
+
         protected MavenValueProvider(FolderEntry projectFolder) {
             this.projectFolder = projectFolder;
         }
 
+        /** Reads pom.xml once, so values of all the attributes requested from this provider are read with a single parse. */
+        private synchronized Model getModel() throws ValueStorageException, ServerException, ForbiddenException, IOException {
+            if (model == null) {
+                model = readModel(projectFolder);
+            }
+            return model;
+        }
+
         @Override
         public List<String> getValues(String attributeName) throws ValueStorageException {
             try {
                 String value = "";
-                final Model model = readModel(projectFolder);
+                final Model model = getModel();
                 if (attributeName.equals(ARTIFACT_ID)) {
                     value = model.getArtifactId();
                 } else if (attributeName.equals(GROUP_ID)) {
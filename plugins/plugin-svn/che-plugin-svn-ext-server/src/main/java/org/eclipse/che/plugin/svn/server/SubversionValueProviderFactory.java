@@ -34,6 +34,9 @@ public class SubversionValueProviderFactory implements ValueProviderFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(SubversionValueProviderFactory.class);
 
+    /** Working copy database which stores the repository URL, it is created by checkout and removed with '.svn' folder. */
+    private static final List<String> TRIGGER_PATHS = Collections.singletonList(".svn/wc.db");
+
     private final SubversionApi subversionApi;
 
     @Inject
@@ -41,6 +44,11 @@ public class SubversionValueProviderFactory implements ValueProviderFactory {
         this.subversionApi = subversionApi;
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        return TRIGGER_PATHS;
+    }
+
     @Override
     public ValueProvider newInstance(final FolderEntry project) {
         return new ReadonlyValueProvider() {
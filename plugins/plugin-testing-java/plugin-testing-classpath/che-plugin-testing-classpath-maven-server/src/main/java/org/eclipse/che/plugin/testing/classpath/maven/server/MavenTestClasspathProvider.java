@@ -15,8 +15,16 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.project.shared.dto.event.PomModifiedEventDto;
 import org.eclipse.che.ide.ext.java.shared.dto.classpath.ClasspathEntryDto;
 import org.eclipse.che.plugin.java.server.rest.ClasspathServiceInterface;
 import org.eclipse.che.plugin.testing.classpath.server.TestClasspathProvider;
@@ -25,23 +33,56 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 
 /**
  * Maven implementation for the test classpath provider.
  *
+ * <p>The resolved classpath of a project is kept till the project's pom.xml is modified
+ * or the classpath of the Java project is changed, e.g. when dependencies are resolved.
+ *
  * @author Mirage Abeysekara
  * @author David Festal
  */
+@Singleton
 public class MavenTestClasspathProvider implements TestClasspathProvider {
-    private ClasspathServiceInterface classpathService;
+    private final ClasspathServiceInterface classpathService;
+    private final EventService              eventService;
+    private final Map<String, URL[]>        classpaths;
+    private final PomModificationListener   pomModificationListener;
+    private final ClasspathChangeListener   classpathChangeListener;
+
+    /** Incremented on each invalidation, so classpath which is resolved concurrently with it is not kept. */
+    private long invalidations;
 
     @Inject
-    public MavenTestClasspathProvider(ClasspathServiceInterface classpathService) {
+    public MavenTestClasspathProvider(ClasspathServiceInterface classpathService, EventService eventService) {
         this.classpathService = classpathService;
+        this.eventService = eventService;
+        this.classpaths = new HashMap<>();
+        this.pomModificationListener = new PomModificationListener();
+        this.classpathChangeListener = new ClasspathChangeListener();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventService.subscribe(pomModificationListener);
+        JavaCore.addElementChangedListener(classpathChangeListener, ElementChangedEvent.POST_CHANGE);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        eventService.unsubscribe(pomModificationListener);
+        JavaCore.removeElementChangedListener(classpathChangeListener);
     }
 
     /**
@@ -50,7 +91,8 @@ public class MavenTestClasspathProvider implements TestClasspathProvider {
     @Override
     public ClassLoader getClassLoader(String projectAbsolutePath, String projectRelativePath, boolean updateClasspath) throws Exception {
         try {
-            return new URLClassLoader(getProjectClasspath(projectAbsolutePath, projectRelativePath, getWorkspaceRoot()), null);
+            return new URLClassLoader(getProjectClasspath(projectAbsolutePath, projectRelativePath, updateClasspath, getWorkspaceRoot()),
+                                      null);
         } catch (JavaModelException e) {
             throw new Exception("Failed to build the classpath for testing project: " + projectRelativePath, e);
         }
@@ -74,10 +116,51 @@ public class MavenTestClasspathProvider implements TestClasspathProvider {
         });
     }
 
+    /**
+     * Forgets resolved classpath of the project, of its modules and of the projects which contain it,
+     * as their classpath depends on each other through parent and module poms.
+     */
+    synchronized void invalidate(String projectPath) {
+        final String path = normalize(projectPath);
+        invalidations++;
+        classpaths.keySet().removeIf(cached -> cached.equals(path) || cached.startsWith(path + '/') || path.startsWith(cached + '/'));
+    }
+
+    private static String normalize(String projectPath) {
+        final String path = projectPath.startsWith("/") ? projectPath : '/' + projectPath;
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
     private IWorkspaceRoot getWorkspaceRoot() {
         return ResourcesPlugin.getWorkspace().getRoot();
     }
     
+    /**
+     * Returns resolved classpath of the project, it is resolved only if it is not resolved yet
+     * or if the update is requested.
+     */
+    URL[] getProjectClasspath(String projectAbsolutePath,
+                              String projectRelativePath,
+                              boolean updateClasspath,
+                              IWorkspaceRoot root) throws JavaModelException {
+        final String projectPath = normalize(projectRelativePath);
+        final long invalidationsBefore;
+        synchronized (this) {
+            final URL[] cached = classpaths.get(projectPath);
+            if (cached != null && !updateClasspath) {
+                return cached;
+            }
+            invalidationsBefore = invalidations;
+        }
+        final URL[] classpath = getProjectClasspath(projectAbsolutePath, projectRelativePath, root);
+        synchronized (this) {
+            if (invalidations == invalidationsBefore) {
+                classpaths.put(projectPath, classpath);
+            }
+        }
+        return classpath;
+    }
+
     public URL[] getProjectClasspath(String projectAbsolutePath, String projectRelativePath, IWorkspaceRoot root) throws JavaModelException {
         Stream<ClasspathEntryDto> rawClasspath = classpathService.getClasspath(projectRelativePath).stream();
         Stream<ClasspathEntryDto> resolvedClasspath = toResolvedClassPath(rawClasspath);
@@ -117,4 +200,25 @@ public class MavenTestClasspathProvider implements TestClasspathProvider {
             }
         }).filter(url -> url != null).distinct().toArray(URL[]::new);
     }
+
+    private class PomModificationListener implements EventSubscriber<PomModifiedEventDto> {
+        @Override
+        public void onEvent(PomModifiedEventDto event) {
+            invalidate(new Path(event.getPath()).removeLastSegments(1).toString());
+        }
+    }
+
+    private class ClasspathChangeListener implements IElementChangedListener {
+        private static final int CLASSPATH_CHANGED = IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+        @Override
+        public void elementChanged(ElementChangedEvent event) {
+            for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+                if (delta.getElement().getElementType() == IJavaElement.JAVA_PROJECT
+                    && (delta.getKind() == IJavaElementDelta.REMOVED || (delta.getFlags() & CLASSPATH_CHANGED) != 0)) {
+                    invalidate(delta.getElement().getPath().toString());
+                }
+            }
+        }
+    }
 }
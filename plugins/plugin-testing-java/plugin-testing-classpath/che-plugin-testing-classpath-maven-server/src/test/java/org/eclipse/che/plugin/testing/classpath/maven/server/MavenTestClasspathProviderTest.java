@@ -12,8 +12,11 @@ package org.eclipse.che.plugin.testing.classpath.maven.server;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
@@ -22,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.ide.ext.java.shared.dto.classpath.ClasspathEntryDto;
 import org.eclipse.che.plugin.java.server.rest.ClasspathServiceInterface;
@@ -46,6 +50,8 @@ public class MavenTestClasspathProviderTest {
     private ClasspathServiceInterface  classpathService;
     @Mock
     private IWorkspaceRoot             workspaceRoot;
+    @Mock
+    private EventService               eventService;
 
     private MavenTestClasspathProvider classpathProvider;
 
@@ -54,7 +60,7 @@ public class MavenTestClasspathProviderTest {
     @Before
     public void initMocks() {
         MockitoAnnotations.initMocks(this);
-        classpathProvider = new MavenTestClasspathProvider(classpathService);
+        classpathProvider = new MavenTestClasspathProvider(classpathService, eventService);
     }
 
     public static class ClasspathEntry {
@@ -151,4 +157,40 @@ public class MavenTestClasspathProviderTest {
                                     new URL("file:/projects/exampleProject/target/test-classes")
         }, classpath);
     }
+
+    @Test
+    public void testClasspathIsResolvedOnceTillInvalidation() throws JavaModelException {
+        buildMocks(asList(externalLib("/home/user/.m2/repository/com/google/guava/guava/20.0/guava-20.0.jar"),
+                          source("exampleProject/src/test/java")));
+
+        URL[] first = classpathProvider.getProjectClasspath("/projects/exampleProject", "/exampleProject", false, workspaceRoot);
+        URL[] second = classpathProvider.getProjectClasspath("/projects/exampleProject", "/exampleProject", false, workspaceRoot);
+        assertSame(first, second);
+        verify(classpathService, times(1)).getClasspath(anyString());
+
+        classpathProvider.invalidate("/exampleProject");
+        classpathProvider.getProjectClasspath("/projects/exampleProject", "/exampleProject", false, workspaceRoot);
+        verify(classpathService, times(2)).getClasspath(anyString());
+    }
+
+    @Test
+    public void testClasspathIsResolvedWhenUpdateIsRequested() throws JavaModelException {
+        buildMocks(asList(source("exampleProject/src/test/java")));
+
+        classpathProvider.getProjectClasspath("/projects/exampleProject", "/exampleProject", false, workspaceRoot);
+        classpathProvider.getProjectClasspath("/projects/exampleProject", "/exampleProject", true, workspaceRoot);
+
+        verify(classpathService, times(2)).getClasspath(anyString());
+    }
+
+    @Test
+    public void testClasspathOfModulesIsInvalidatedWithParentProject() throws JavaModelException {
+        buildMocks(asList(source("parent/module/src/test/java")));
+
+        classpathProvider.getProjectClasspath("/projects/parent/module", "/parent/module", false, workspaceRoot);
+        classpathProvider.invalidate("/parent");
+        classpathProvider.getProjectClasspath("/projects/parent/module", "/parent/module", false, workspaceRoot);
+
+        verify(classpathService, times(2)).getClasspath(anyString());
+    }
 }
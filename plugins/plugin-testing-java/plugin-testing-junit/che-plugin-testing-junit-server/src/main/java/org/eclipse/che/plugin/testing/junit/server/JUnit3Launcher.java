@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import org.eclipse.che.api.testing.server.fork.ForkedTestEvents;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestListener;
+import junit.framework.TestResult;
+import junit.framework.TestSuite;
+
+/**
+ * Runs JUnit 3 test classes in the JVM forked by {@link org.eclipse.che.api.testing.server.fork.ForkedTestExecutor}.
+ * It is loaded from the project classpath, so it must not depend on anything except of JDK, JUnit and
+ * {@link ForkedTestEvents}.
+ */
+public class JUnit3Launcher {
+
+    public static void main(String[] args) throws Exception {
+        ForkedTestEvents events = ForkedTestEvents.toStandardOutput();
+        events.serve(testClasses -> {
+            TestSuite testSuite = new TestSuite();
+            for (Class< ? > testClass : testClasses) {
+                testSuite.addTestSuite(testClass.asSubclass(TestCase.class));
+            }
+
+            TestResult testResult = new TestResult();
+            testResult.addListener(new TestListener() {
+                @Override
+                public void startTest(Test test) {
+                    events.testStarted(getTestKey(test), test.getClass().getName(), getMethodName(test));
+                }
+
+                @Override
+                public void endTest(Test test) {
+                    events.testFinished(getTestKey(test), test.getClass().getName(), getMethodName(test));
+                }
+
+                @Override
+                public void addError(Test test, Throwable throwable) {
+                    events.testFailed(getTestKey(test), test.getClass().getName(), getMethodName(test), true, throwable);
+                }
+
+                @Override
+                public void addFailure(Test test, AssertionFailedError error) {
+                    events.testFailed(getTestKey(test), test.getClass().getName(), getMethodName(test), false, error);
+                }
+            });
+            testSuite.run(testResult);
+        });
+        // threads started by tests must not keep the JVM running
+        System.exit(0);
+    }
+
+    private static String getMethodName(Test test) {
+        return test instanceof TestCase ? ((TestCase)test).getName() : test.toString();
+    }
+
+    private static String getTestKey(Test test) {
+        return getMethodName(test) + "(" + test.getClass().getName() + ")";
+    }
+}
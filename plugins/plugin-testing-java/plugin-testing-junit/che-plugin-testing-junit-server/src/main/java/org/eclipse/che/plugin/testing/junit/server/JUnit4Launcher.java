@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import org.eclipse.che.api.testing.server.fork.ForkedTestEvents;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Runs JUnit 4 test classes in the JVM forked by {@link org.eclipse.che.api.testing.server.fork.ForkedTestExecutor}.
+ * It is loaded from the project classpath, so it must not depend on anything except of JDK, JUnit and
+ * {@link ForkedTestEvents}.
+ */
+public class JUnit4Launcher {
+
+    public static void main(String[] args) throws Exception {
+        ForkedTestEvents events = ForkedTestEvents.toStandardOutput();
+        events.serve(testClasses -> {
+            JUnitCore jUnitCore = new JUnitCore();
+            jUnitCore.addListener(new RunListener() {
+                @Override
+                public void testStarted(Description description) {
+                    events.testStarted(description.getDisplayName(), description.getClassName(), description.getMethodName());
+                }
+
+                @Override
+                public void testFinished(Description description) {
+                    events.testFinished(description.getDisplayName(), description.getClassName(), description.getMethodName());
+                }
+
+                @Override
+                public void testFailure(Failure failure) {
+                    Description description = failure.getDescription();
+                    events.testFailed(description.getDisplayName(),
+                                      description.getClassName(),
+                                      description.getMethodName(),
+                                      false,
+                                      failure.getException());
+                }
+
+                @Override
+                public void testAssumptionFailure(Failure failure) {
+                    Description description = failure.getDescription();
+                    events.testFailed(description.getDisplayName(),
+                                      description.getClassName(),
+                                      description.getMethodName(),
+                                      true,
+                                      failure.getException());
+                }
+            });
+            jUnitCore.run(testClasses.toArray(new Class< ? >[testClasses.size()]));
+        });
+        // threads started by tests must not keep the JVM running
+        System.exit(0);
+    }
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.eclipse.che.plugin.testing.junit.server.LauncherFixtures.findTestCase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link JUnit3Launcher} in a forked JVM.
+ */
+public class JUnit3LauncherTest {
+    private LauncherFixtures fixtures;
+
+    @Before
+    public void setUp() throws Exception {
+        fixtures = new LauncherFixtures();
+        fixtures.compile("fixture.LegacyTest",
+                         "package fixture;\n"
+                         + "import junit.framework.TestCase;\n"
+                         + "public class LegacyTest extends TestCase {\n"
+                         + "    public void testPasses() {}\n"
+                         + "    public void testFails() {\n"
+                         + "        fail(\"expected failure\");\n"
+                         + "    }\n"
+                         + "    public void testBreaks() {\n"
+                         + "        throw new IllegalStateException(\"expected error\");\n"
+                         + "    }\n"
+                         + "}");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        deleteRecursive(fixtures.getProjectDirectory().toFile());
+    }
+
+    @Test
+    public void shouldReportResultsOfAllTests() throws Exception {
+        TestResult result = fixtures.run(JUnit3Launcher.class, asList("fixture.LegacyTest"));
+
+        assertFalse(result.isSuccess());
+        assertEquals(3, result.getTestCaseCount());
+        assertEquals(2, result.getFailureCount());
+        assertFalse(findTestCase(result, "testPasses").isFailed());
+    }
+
+    @Test
+    public void shouldReportFailuresAndErrorsWithFailingLines() throws Exception {
+        TestResult result = fixtures.run(JUnit3Launcher.class, asList("fixture.LegacyTest"));
+
+        TestCase failed = findTestCase(result, "testFails");
+        assertTrue(failed.isFailed());
+        assertEquals("fixture.LegacyTest", failed.getClassName());
+        assertEquals("expected failure", failed.getMessage());
+        assertEquals(6, failed.getFailingLine().intValue());
+        TestCase broken = findTestCase(result, "testBreaks");
+        assertTrue(broken.isFailed());
+        assertEquals("expected error", broken.getMessage());
+        assertEquals(9, broken.getFailingLine().intValue());
+    }
+}
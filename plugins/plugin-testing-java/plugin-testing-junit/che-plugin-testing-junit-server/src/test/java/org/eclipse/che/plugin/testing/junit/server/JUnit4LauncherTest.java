@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.eclipse.che.plugin.testing.junit.server.LauncherFixtures.findTestCase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link JUnit4Launcher} in a forked JVM.
+ */
+public class JUnit4LauncherTest {
+    private LauncherFixtures fixtures;
+
+    @Before
+    public void setUp() throws Exception {
+        fixtures = new LauncherFixtures();
+        fixtures.compile("fixture.FirstTest",
+                         "package fixture;\n"
+                         + "import org.junit.Assert;\n"
+                         + "import org.junit.Test;\n"
+                         + "public class FirstTest {\n"
+                         + "    @Test public void passes() {}\n"
+                         + "    @Test public void fails() {\n"
+                         + "        Assert.assertEquals(\"expected failure\", 1, 2);\n"
+                         + "    }\n"
+                         + "}",
+                         "fixture.SecondTest",
+                         "package fixture;\n"
+                         + "public class SecondTest {\n"
+                         + "    @org.junit.Test public void passes() {\n"
+                         + "        System.out.println(\"output of the test\");\n"
+                         + "    }\n"
+                         + "}");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        deleteRecursive(fixtures.getProjectDirectory().toFile());
+    }
+
+    @Test
+    public void shouldReportResultsOfAllTests() throws Exception {
+        TestResult result = fixtures.run(JUnit4Launcher.class, asList("fixture.FirstTest", "fixture.SecondTest"));
+
+        assertFalse(result.isSuccess());
+        assertEquals(3, result.getTestCaseCount());
+        assertEquals(1, result.getFailureCount());
+    }
+
+    @Test
+    public void shouldReportFailureWithFailingLine() throws Exception {
+        TestResult result = fixtures.run(JUnit4Launcher.class, asList("fixture.FirstTest"));
+
+        TestCase failed = findTestCase(result, "fails");
+        assertTrue(failed.isFailed());
+        assertEquals("fixture.FirstTest", failed.getClassName());
+        assertEquals(7, failed.getFailingLine().intValue());
+        assertTrue(failed.getMessage().startsWith("expected failure"));
+        assertFalse(findTestCase(result, "passes").isFailed());
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import org.eclipse.che.api.testing.server.fork.ForkedTestExecutor;
+import org.eclipse.che.api.testing.server.listener.AbstractTestListener;
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Compiles test classes of a fake project in a temporary directory and runs them with the launcher
+ * in a JVM forked by {@link ForkedTestExecutor}, the way they are run for a real project.
+ */
+class LauncherFixtures {
+    private final Path projectDirectory;
+    private final Path testClasses;
+
+    LauncherFixtures() throws Exception {
+        projectDirectory = Files.createTempDirectory("launcher-fixtures");
+        testClasses = projectDirectory.resolve("test-classes");
+    }
+
+    /** Compiles sources, given as pairs of class name and source code, against the test framework. */
+    void compile(String... sources) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests must be run with JDK", compiler);
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(Files.createDirectories(testClasses).toString());
+        arguments.add("-cp");
+        arguments.add(location(org.junit.Test.class).toString());
+        for (int i = 0; i < sources.length; i += 2) {
+            final Path source = projectDirectory.resolve("src").resolve(sources[i].replace('.', File.separatorChar) + ".java");
+            Files.createDirectories(source.getParent());
+            Files.write(source, sources[i + 1].getBytes(UTF_8));
+            arguments.add(source.toString());
+        }
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])));
+    }
+
+    /** Runs the compiled test classes with the launcher and returns the result. */
+    TestResult run(Class<?> launcher, List<String> classNames) throws Exception {
+        final List<URL> classpath = new ArrayList<>();
+        classpath.add(testClasses.toUri().toURL());
+        classpath.add(location(org.junit.Test.class).toUri().toURL());
+        classpath.add(location(org.hamcrest.Matcher.class).toUri().toURL());
+        return new ForkedTestExecutor(1, false).execute("junit",
+                                                        launcher,
+                                                        emptyList(),
+                                                        classNames,
+                                                        classpath,
+                                                        projectDirectory,
+                                                        new NoopTestListener());
+    }
+
+    Path getProjectDirectory() {
+        return projectDirectory;
+    }
+
+    static TestCase findTestCase(TestResult result, String method) {
+        return result.getTestCases()
+                     .stream()
+                     .filter(testCase -> method.equals(testCase.getMethod()))
+                     .findFirst()
+                     .orElseThrow(() -> new AssertionError("Test case " + method + " is not found in " + result.getTestCases()));
+    }
+
+    private static Path location(Class<?> aClass) throws Exception {
+        return Paths.get(aClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static class NoopTestListener extends AbstractTestListener {
+        @Override
+        protected void startedTest(String testKey, String testName) {
+        }
+
+        @Override
+        protected void endedTest(String testKey, String testName, TestSummary summary) {
+        }
+
+        @Override
+        protected void addedFailure(String testKey, Throwable throwable) {
+        }
+
+        @Override
+        protected void addedError(String testKey, Throwable throwable) {
+        }
+    }
+}
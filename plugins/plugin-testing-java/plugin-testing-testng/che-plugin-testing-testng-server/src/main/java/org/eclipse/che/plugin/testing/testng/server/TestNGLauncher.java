@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.testng.server;
+
+import java.util.Collections;
+
+import org.eclipse.che.api.testing.server.fork.ForkedTestEvents;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+
+/**
+ * Runs TestNG test classes, or the testng.xml suite, in the JVM forked by
+ * {@link org.eclipse.che.api.testing.server.fork.ForkedTestExecutor}. It is loaded from the project classpath,
+ * so it must not depend on anything except of JDK, TestNG and {@link ForkedTestEvents}.
+ *
+ * <pre>
+ * Arguments: output directory [path to the testng.xml suite]
+ * </pre>
+ */
+public class TestNGLauncher {
+
+    public static void main(String[] args) throws Exception {
+        ForkedTestEvents events = ForkedTestEvents.toStandardOutput();
+        events.serve(testClasses -> {
+            TestNG testNG = new TestNG();
+            testNG.addListener(new ITestListener() {
+                @Override
+                public void onTestStart(ITestResult result) {
+                    events.testStarted(getTestKey(result), result.getTestClass().getName(), result.getMethod().getMethodName());
+                }
+
+                @Override
+                public void onTestSuccess(ITestResult result) {
+                    events.testFinished(getTestKey(result), result.getTestClass().getName(), result.getMethod().getMethodName());
+                }
+
+                @Override
+                public void onTestFailure(ITestResult result) {
+                    String className = result.getTestClass().getName();
+                    String methodName = result.getMethod().getMethodName();
+                    events.testFailed(getTestKey(result), className, methodName, false, result.getThrowable());
+                    events.testFinished(getTestKey(result), className, methodName);
+                }
+
+                @Override
+                public void onTestSkipped(ITestResult result) {
+                }
+
+                @Override
+                public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+                }
+
+                @Override
+                public void onStart(ITestContext context) {
+                }
+
+                @Override
+                public void onFinish(ITestContext context) {
+                }
+            });
+
+            if (args.length > 1) {
+                testNG.setTestSuites(Collections.singletonList(args[1]));
+            } else {
+                testNG.setTestClasses(testClasses.toArray(new Class< ? >[testClasses.size()]));
+            }
+            // forks of the same test run must not overwrite reports of each other
+            int forkIndex = ForkedTestEvents.getForkIndex();
+            testNG.setOutputDirectory(forkIndex == 0 ? args[0] : args[0] + '-' + forkIndex);
+            testNG.run();
+        });
+        // threads started by tests must not keep the JVM running
+        System.exit(0);
+    }
+
+    private static String getTestKey(ITestResult result) {
+        return result.getMethod().getMethodName() + '(' + result.getTestClass().getName() + ')';
+    }
+}
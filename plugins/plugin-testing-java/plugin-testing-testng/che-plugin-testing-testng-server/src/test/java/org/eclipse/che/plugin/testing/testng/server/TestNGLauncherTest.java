@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.testng.server;
+
+import org.eclipse.che.api.testing.server.fork.ForkedTestExecutor;
+import org.eclipse.che.api.testing.server.listener.AbstractTestListener;
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link TestNGLauncher} in JVMs forked by {@link ForkedTestExecutor}, test classes
+ * of a fake project are compiled in a temporary directory.
+ */
+public class TestNGLauncherTest {
+    private Path projectDirectory;
+    private Path testClasses;
+    private Path outputDirectory;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        projectDirectory = Files.createTempDirectory("testng-launcher");
+        testClasses = Files.createDirectories(projectDirectory.resolve("test-classes"));
+        outputDirectory = projectDirectory.resolve("test-output");
+        compile("fixture.FirstTest",
+                "package fixture;\n"
+                + "import org.testng.Assert;\n"
+                + "import org.testng.annotations.Test;\n"
+                + "public class FirstTest {\n"
+                + "    @Test public void passes() {}\n"
+                + "    @Test public void fails() {\n"
+                + "        Assert.fail(\"expected failure\");\n"
+                + "    }\n"
+                + "}",
+                "fixture.SecondTest",
+                "package fixture;\n"
+                + "@org.testng.annotations.Test\n"
+                + "public class SecondTest {\n"
+                + "    public void passes() {\n"
+                + "        System.out.println(\"output of the test\");\n"
+                + "    }\n"
+                + "}");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        deleteRecursive(projectDirectory.toFile());
+    }
+
+    @Test
+    public void shouldReportFailureWithFailingLine() throws Exception {
+        final TestResult result = run(1, singletonList(outputDirectory.toString()), asList("fixture.FirstTest", "fixture.SecondTest"));
+
+        assertFalse(result.isSuccess());
+        assertEquals(result.getTestCaseCount(), 3);
+        assertEquals(result.getFailureCount(), 1);
+        final TestCase failed = result.getTestCases().stream().filter(TestCase::isFailed).findFirst().get();
+        assertEquals(failed.getClassName(), "fixture.FirstTest");
+        assertEquals(failed.getMethod(), "fails");
+        assertEquals(failed.getMessage(), "expected failure");
+        assertEquals(failed.getFailingLine().intValue(), 7);
+    }
+
+    @Test
+    public void shouldWriteReportsOfForksToSeparateDirectories() throws Exception {
+        final TestResult result = run(2, singletonList(outputDirectory.toString()), asList("fixture.FirstTest", "fixture.SecondTest"));
+
+        assertEquals(result.getTestCaseCount(), 3);
+        assertTrue(Files.isDirectory(outputDirectory));
+        assertTrue(Files.isDirectory(Paths.get(outputDirectory + "-1")));
+    }
+
+    @Test
+    public void shouldRunSuiteFile() throws Exception {
+        final Path suite = projectDirectory.resolve("testng.xml");
+        Files.write(suite, ("<!DOCTYPE suite SYSTEM \"http://testng.org/testng-1.0.dtd\">\n"
+                            + "<suite name=\"fixture\">\n"
+                            + "    <test name=\"second\">\n"
+                            + "        <classes>\n"
+                            + "            <class name=\"fixture.SecondTest\"/>\n"
+                            + "        </classes>\n"
+                            + "    </test>\n"
+                            + "</suite>").getBytes(UTF_8));
+
+        final TestResult result = run(1, asList(outputDirectory.toString(), suite.toString()), emptyList());
+
+        assertTrue(result.isSuccess());
+        assertEquals(result.getTestCaseCount(), 1);
+        assertEquals(result.getTestCases().get(0).getClassName(), "fixture.SecondTest");
+    }
+
+    private TestResult run(int forkCount, List<String> arguments, List<String> classNames) throws Exception {
+        // the test framework and its dependencies are taken from the classpath of this test
+        final List<URL> classpath = new ArrayList<>();
+        classpath.add(testClasses.toUri().toURL());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                classpath.add(Paths.get(entry).toUri().toURL());
+            }
+        }
+        return new ForkedTestExecutor(forkCount, false).execute("testng",
+                                                                TestNGLauncher.class,
+                                                                arguments,
+                                                                classNames,
+                                                                classpath,
+                                                                projectDirectory,
+                                                                new NoopTestListener());
+    }
+
+    /** Compiles sources, given as pairs of class name and source code, against TestNG. */
+    private void compile(String... sources) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Tests must be run with JDK");
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(testClasses.toString());
+        arguments.add("-cp");
+        arguments.add(Paths.get(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        for (int i = 0; i < sources.length; i += 2) {
+            final Path source = projectDirectory.resolve("src").resolve(sources[i].replace('.', File.separatorChar) + ".java");
+            Files.createDirectories(source.getParent());
+            Files.write(source, sources[i + 1].getBytes(UTF_8));
+            arguments.add(source.toString());
+        }
+        assertEquals(compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])), 0);
+    }
+
+    private static class NoopTestListener extends AbstractTestListener {
+        @Override
+        protected void startedTest(String testKey, String testName) {
+        }
+
+        @Override
+        protected void endedTest(String testKey, String testName, TestSummary summary) {
+        }
+
+        @Override
+        protected void addedFailure(String testKey, Throwable throwable) {
+        }
+
+        @Override
+        protected void addedError(String testKey, Throwable throwable) {
+        }
+    }
+}
@@ -57,7 +57,7 @@ public class RunTestActionDelegate {
         final StatusNotification notification = new StatusNotification("Running Tests...", PROGRESS, FLOAT_MODE);
         source.getNotificationManager().notify(notification);
         final Project project = source.getAppContext().getRootProject();
-        parameters.put("updateClasspath", "true");
+        parameters.put("updateClasspath", "false");
         Promise<TestResult> testResultPromise = source.getService().getTestResult(project.getPath(), source.getTestingFramework(), parameters, notification);
         testResultPromise.then(new Operation<TestResult>() {
             @Override
@@ -21,6 +21,7 @@ import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 
 import javax.inject.Singleton;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -34,6 +35,7 @@ import static org.eclipse.che.api.git.GitProjectType.VCS_PROVIDER_NAME;
  */
 @Singleton
 public class GitValueProviderFactory implements ValueProviderFactory {
+    private static final List<String> TRIGGER_PATHS = Arrays.asList(".git/HEAD", ".git/config");
 
     @Inject
     private GitConnectionFactory gitConnectionFactory;
@@ -72,6 +74,12 @@ public class GitValueProviderFactory implements ValueProviderFactory {
         };
     }
 
+    @Override
+    public List<String> getTriggerPaths() {
+        // current branch is stored in HEAD and remotes are stored in config
+        return TRIGGER_PATHS;
+    }
+
     private String resolveLocalPath(FolderEntry folder) throws ApiException {
         return folder.getVirtualFile().toIoFile().getAbsolutePath();
     }
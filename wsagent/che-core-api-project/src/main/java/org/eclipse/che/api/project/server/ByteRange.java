@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+/**
+ * Single range of bytes requested with HTTP {@code Range} header, e.g. {@code bytes=0-499},
+ * {@code bytes=500-} or {@code bytes=-500}.
+ */
+class ByteRange {
+    private final long start;
+    private final long end;
+    private final long length;
+
+    private ByteRange(long start, long end, long length) {
+        this.start = start;
+        this.end = end;
+        this.length = length;
+    }
+
+    /**
+     * Parses value of the {@code Range} header.
+     *
+     * @param header
+     *         value of the header, may be {@code null}
+     * @param length
+     *         length of the whole content
+     * @return requested range or {@code null} if the whole content should be sent, that is when there is no header,
+     * when the header is malformed or when it contains more than one range
+     */
+    static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = header.substring("bytes=".length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            final String first = spec.substring(0, dash).trim();
+            final String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // suffix range, last N bytes
+                final long suffix = Long.parseLong(last);
+                return suffix < 0 ? null : new ByteRange(Math.max(0, length - suffix), length - 1, length);
+            }
+            final long start = Long.parseLong(first);
+            final long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                return null;
+            }
+            return new ByteRange(start, end, length);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Returns {@code false} if the range doesn't overlap the content, so it can't be sent. */
+    boolean isSatisfiable() {
+        return start < length && start <= end;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    /** Returns number of bytes in the range. */
+    long getCount() {
+        return end - start + 1;
+    }
+
+    /** Returns value of the {@code Content-Range} header of the response. */
+    String toContentRange() {
+        return isSatisfiable() ? "bytes " + start + '-' + end + '/' + length : "bytes */" + length;
+    }
+}
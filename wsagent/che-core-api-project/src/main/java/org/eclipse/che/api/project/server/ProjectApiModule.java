@@ -28,6 +28,7 @@ import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.impl.file.DefaultFileWatcherNotificationHandler;
 import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationHandler;
+import org.eclipse.che.api.vfs.impl.file.HashSumsInvalidatingConsumer;
 import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.impl.file.event.detectors.EditorFileTracker;
 import org.eclipse.che.api.vfs.impl.file.event.detectors.ProjectTreeTracker;
@@ -119,9 +120,18 @@ public class ProjectApiModule extends AbstractModule {
         Multibinder<PathMatcher> fileExcludes =
                 newSetBinder(binder(), new TypeLiteral<PathMatcher>(){}, Names.named("che.fs.file.excludes"));
 
+        Multibinder<Consumer<Path>> subtreeImportConsumers =
+                newSetBinder(binder(), new TypeLiteral<Consumer<Path>>(){}, Names.named("che.fs.subtree.import"));
+
         fileCreateConsumers.addBinding().to(IndexedFileCreateConsumer.class);
         fileUpdateConsumers.addBinding().to(IndexedFileUpdateConsumer.class);
         fileDeleteConsumers.addBinding().to(IndexedFileDeleteConsumer.class);
+        // imported folder is indexed at once, as searcher indexes the whole tree of added folder
+        subtreeImportConsumers.addBinding().to(IndexedFileCreateConsumer.class);
+
+        fileUpdateConsumers.addBinding().to(HashSumsInvalidatingConsumer.class);
+        fileDeleteConsumers.addBinding().to(HashSumsInvalidatingConsumer.class);
+        directoryDeleteConsumers.addBinding().to(HashSumsInvalidatingConsumer.class);
 
         fileCreateConsumers.addBinding().to(FileWatcherByPathMatcher.class);
         fileDeleteConsumers.addBinding().to(FileWatcherByPathMatcher.class);
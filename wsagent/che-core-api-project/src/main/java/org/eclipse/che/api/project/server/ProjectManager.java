@@ -21,10 +21,10 @@ import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.model.project.NewProjectConfig;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.project.SourceStorage;
-import org.eclipse.che.api.core.model.project.type.ProjectType;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.project.server.RegisteredProject.Problem;
 import org.eclipse.che.api.project.server.handlers.CreateProjectHandler;
+import org.eclipse.che.api.project.server.handlers.PostImportProjectHandler;
 import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
 import org.eclipse.che.api.project.server.importer.ProjectImporter;
 import org.eclipse.che.api.project.server.importer.ProjectImporterRegistry;
@@ -33,6 +33,7 @@ import org.eclipse.che.api.project.server.type.BaseProjectType;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
 import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.project.server.type.ProvidedValues;
 import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
@@ -55,14 +56,18 @@ import java.io.IOException;
 import java.nio.file.PathMatcher;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static org.eclipse.che.api.core.ErrorCodes.NOT_UPDATED_PROJECT;
 
 /**
@@ -82,6 +87,7 @@ public class ProjectManager {
     private final FileTreeWatcher                fileWatcher;
     private final FileWatcherNotificationHandler fileWatchNotifier;
     private final ExecutorService                executor;
+    private final ExecutorService                postImportExecutor;
     private final WorkspaceProjectsSyncer        workspaceProjectsHolder;
     private final FileWatcherManager             fileWatcherManager;
 
@@ -106,10 +112,14 @@ public class ProjectManager {
         this.fileWatcherManager = fileWatcherManager;
 
         executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
-                                                new ThreadFactoryBuilder().setNameFormat("ProjectService-IndexingThread-")
+                                                new ThreadFactoryBuilder().setNameFormat("ProjectService-ResolveSources-%d")
                                                                           .setUncaughtExceptionHandler(
                                                                                   LoggingUncaughtExceptionHandler.getInstance())
                                                                           .setDaemon(true).build());
+        postImportExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("ProjectService-PostImport-%d")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true).build());
     }
 
     void initWatcher() throws IOException {
@@ -133,6 +143,7 @@ public class ProjectManager {
     @PreDestroy
     void stop() {
         executor.shutdownNow();
+        postImportExecutor.shutdownNow();
     }
 
     public FolderEntry getProjectsRoot() throws ServerException {
@@ -437,6 +448,7 @@ public class ProjectManager {
     /**
      *
      * Import source code as a Basic type of Project
+     * Post import handler of the project type is run in background after the project is registered.
      *
      * @param path where to import
      * @param sourceStorage where sources live
@@ -488,11 +500,15 @@ public class ProjectManager {
             folder = getProjectsRoot().createFolder(normalizePath);
         }
 
+        // imported files are reported to the indexer and watchers at once when import is finished
+        fileWatcherManager.importStarted(normalizePath);
         try {
             importer.importSources(folder, sourceStorage, lineConsumerFactory);
         } catch (final Exception e) {
             folder.remove();
             throw e;
+        } finally {
+            fileWatcherManager.importFinished(normalizePath);
         }
 
         final String name = folder.getPath().getName();
@@ -500,12 +516,17 @@ public class ProjectManager {
             if (normalizePath.equals(project.getPath())) {
                 // TODO Needed for factory project importing with keepDir. It needs to find more appropriate solution
                 List<String> innerProjects = projectRegistry.getProjects(normalizePath);
+                final List<String> folders = new ArrayList<>(innerProjects);
+                folders.add(normalizePath);
+                final Map<String, List<ProjectTypeDef>> transientTypes = resolveTransientTypes(folders);
                 for (String innerProject : innerProjects) {
                     RegisteredProject registeredProject = projectRegistry.getProject(innerProject);
-                    projectRegistry.putProject(registeredProject, asFolder(registeredProject.getPath()), true, false);
+                    projectRegistry.putProject(registeredProject, asFolder(registeredProject.getPath()), true, false,
+                                               transientTypes.get(innerProject));
                 }
-                RegisteredProject rp = projectRegistry.putProject(project, folder, true, false);
+                RegisteredProject rp = projectRegistry.putProject(project, folder, true, false, transientTypes.get(normalizePath));
                 workspaceProjectsHolder.sync(projectRegistry);
+                postImport(rp, folder);
                 return rp;
             }
         }
@@ -513,9 +534,28 @@ public class ProjectManager {
         RegisteredProject rp = projectRegistry
                 .putProject(new NewProjectConfigImpl(normalizePath, name, BaseProjectType.ID, sourceStorage), folder, true, false);
         workspaceProjectsHolder.sync(projectRegistry);
+        postImport(rp, folder);
         return rp;
     }
 
+    /**
+     * Runs post import handler of the imported project type, if there is any, in background. So the import request
+     * doesn't wait for it and extraction of the next project overlaps with it.
+     */
+    private void postImport(RegisteredProject project, FolderEntry folder) {
+        final PostImportProjectHandler handler = handlers.getPostImportProjectHandler(project.getType());
+        if (handler == null) {
+            return;
+        }
+        postImportExecutor.execute(() -> {
+            try {
+                handler.onProjectImported(folder);
+            } catch (Exception e) {
+                LOG.error(format("Post import handler failed for project %s: %s", project.getPath(), e.getMessage()), e);
+            }
+        });
+    }
+
     /**
      * Estimates if the folder can be treated as a project of particular type
      *
@@ -548,25 +588,107 @@ public class ProjectManager {
      * @param path to the folder
      * @param transientOnly whether it can be estimated to the transient types of Project only
      *
-     * @return list of resolutions
+     * @return matched resolutions, ordered from child project types to parent ones
      * @throws ServerException
      * @throws NotFoundException
      */
     public List<ProjectTypeResolution> resolveSources(String path, boolean transientOnly) throws ServerException, NotFoundException {
-        final List<ProjectTypeResolution> resolutions = new ArrayList<>();
+        return resolveSources(singletonList(path), transientOnly).get(path);
+    }
+
+    /**
+     * Estimates to which project types each of the folders can be converted to, e.g. modules of the imported project.
+     * Values of the provided attributes of a folder are read once and are shared by all the project types,
+     * the project types and the folders are resolved in parallel.
+     *
+     * @param paths paths of the folders
+     * @param transientOnly whether it can be estimated to the transient types of Project only
+     *
+     * @return matched resolutions of each folder, resolutions are ordered from child project types to parent ones
+     * @throws ServerException
+     * @throws NotFoundException if any of the folders is not found
+     */
+    public Map<String, List<ProjectTypeResolution>> resolveSources(List<String> paths, boolean transientOnly) throws ServerException,
+                                                                                                                    NotFoundException {
+        final List<ProjectTypeDef> types = projectTypeRegistry.getProjectTypes(ProjectTypeRegistry.CHILD_TO_PARENT_COMPARATOR)
+                                                              .stream()
+                                                              .filter(type -> !transientOnly || !type.isPersisted())
+                                                              .collect(Collectors.toList());
+        final Map<String, FolderEntry> folders = new LinkedHashMap<>();
+        for (String path : paths) {
+            final FolderEntry folder = asFolder(path);
+            if (folder == null) {
+                throw new NotFoundException("Folder not found: " + path);
+            }
+            folders.put(path, folder);
+        }
 
-        for (ProjectType type : projectTypeRegistry.getProjectTypes(ProjectTypeRegistry.CHILD_TO_PARENT_COMPARATOR)) {
-            if (transientOnly && type.isPersisted()) {
-                continue;
+        final Map<String, List<Future<ProjectTypeResolution>>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, FolderEntry> entry : folders.entrySet()) {
+                final ProvidedValues providedValues = new ProvidedValues(entry.getValue());
+                final List<Future<ProjectTypeResolution>> folderFutures = new ArrayList<>(types.size());
+                for (ProjectTypeDef type : types) {
+                    folderFutures.add(executor.submit(() -> type.resolveSources(providedValues)));
+                }
+                futures.put(entry.getKey(), folderFutures);
             }
 
-            final ProjectTypeResolution resolution = estimateProject(path, type.getId());
-            if (resolution.matched()) {
-                resolutions.add(resolution);
+            final Map<String, List<ProjectTypeResolution>> resolutions = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Future<ProjectTypeResolution>>> entry : futures.entrySet()) {
+                final List<ProjectTypeResolution> matched = new ArrayList<>();
+                for (Future<ProjectTypeResolution> future : entry.getValue()) {
+                    final ProjectTypeResolution resolution = getResolution(future);
+                    if (resolution.matched()) {
+                        matched.add(resolution);
+                    }
+                }
+                resolutions.put(entry.getKey(), matched);
+            }
+            return resolutions;
+        } finally {
+            // stops resolution of the rest of types when one of them fails
+            futures.values().forEach(folderFutures -> folderFutures.forEach(future -> future.cancel(true)));
+        }
+    }
+
+    /**
+     * Resolves transient types of the folders of the imported project and of its modules in a single parallel batch,
+     * so registration of the projects doesn't resolve the folders one by one. Folders which don't exist are skipped.
+     */
+    private Map<String, List<ProjectTypeDef>> resolveTransientTypes(List<String> paths) throws ServerException, NotFoundException {
+        final List<String> existing = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            if (asFolder(path) != null) {
+                existing.add(path);
+            }
+        }
+        final Map<String, List<ProjectTypeDef>> transientTypes = new HashMap<>();
+        for (Map.Entry<String, List<ProjectTypeResolution>> entry : resolveSources(existing, true).entrySet()) {
+            final List<ProjectTypeDef> types = new ArrayList<>(entry.getValue().size());
+            for (ProjectTypeResolution resolution : entry.getValue()) {
+                types.add(projectTypeRegistry.getProjectType(resolution.getType()));
             }
+            transientTypes.put(entry.getKey(), types);
         }
+        return transientTypes;
+    }
 
-        return resolutions;
+    private static ProjectTypeResolution getResolution(Future<ProjectTypeResolution> future) throws ServerException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new ServerException(cause.getLocalizedMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while resolving project types");
+        }
     }
 
     /**
@@ -19,52 +19,90 @@ import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
 import org.eclipse.che.api.project.server.handlers.ProjectInitHandler;
+import org.eclipse.che.api.core.model.project.type.Attribute;
 import org.eclipse.che.api.project.server.type.BaseProjectType;
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.project.server.type.Variable;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.VirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static java.nio.file.Files.isDirectory;
+import static org.eclipse.che.api.vfs.watcher.FileWatcherManager.EMPTY_CONSUMER;
 
 /**
  * Stores internal representation of Projects registered in the Workspace Agent.
  *
+ * <p>Folders of the workspace root which are not configured as projects are registered as projects too.
+ * The root is listed once on start, after that it is listed again only when the file watcher reports
+ * that an entry is created in the root, so lookups of projects don't touch the file system.
+ * Projects are kept sorted by path, so projects under a path are found without scanning all of them.
+ *
+ * <p>Values of the provided attributes are cached by projects, they are invalidated when the file watcher
+ * reports a change of a file which value providers declare as their trigger, e.g. {@code pom.xml}.
+ *
  * @author gazarenkov
  */
 @Singleton
 public class ProjectRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(ProjectRegistry.class);
 
-    private final Map<String, RegisteredProject> projects;
-    private final WorkspaceProjectsSyncer        workspaceHolder;
-    private final VirtualFileSystem              vfs;
-    private final ProjectTypeRegistry            projectTypeRegistry;
-    private final ProjectHandlerRegistry         handlers;
-    private final FolderEntry                    root;
-    private final EventService                   eventService;
+    private final NavigableMap<String, RegisteredProject> projects;
+    private final Set<String>                             unconfiguredProjects;
+    private final WorkspaceProjectsSyncer                 workspaceHolder;
+    private final VirtualFileSystem                       vfs;
+    private final ProjectTypeRegistry                     projectTypeRegistry;
+    private final ProjectHandlerRegistry                  handlers;
+    private final FolderEntry                             root;
+    private final EventService                            eventService;
+    private final FileWatcherManager                      fileWatcherManager;
+
+    private boolean     initialized;
+    private int         rootWatchId;
+    private int         triggersWatchId;
+    private Set<String> triggerPaths;
 
-    private boolean initialized;
+    /**
+     * Creates registry which doesn't watch the workspace root, so the root is listed on every lookup.
+     * Used when file watcher is not available, e.g. in tests.
+     */
+    public ProjectRegistry(WorkspaceProjectsSyncer workspaceHolder,
+                           VirtualFileSystemProvider vfsProvider,
+                           ProjectTypeRegistry projectTypeRegistry,
+                           ProjectHandlerRegistry handlers,
+                           EventService eventService) throws ServerException {
+        this(workspaceHolder, vfsProvider, projectTypeRegistry, handlers, eventService, null);
+    }
 
     @Inject
     public ProjectRegistry(WorkspaceProjectsSyncer workspaceHolder,
                            VirtualFileSystemProvider vfsProvider,
                            ProjectTypeRegistry projectTypeRegistry,
                            ProjectHandlerRegistry handlers,
-                           EventService eventService) throws ServerException {
+                           EventService eventService,
+                           FileWatcherManager fileWatcherManager) throws ServerException {
         this.eventService = eventService;
-        this.projects = new ConcurrentHashMap<>();
+        this.fileWatcherManager = fileWatcherManager;
+        this.projects = new ConcurrentSkipListMap<>();
+        this.unconfiguredProjects = newConcurrentHashSet();
         this.workspaceHolder = workspaceHolder;
         this.vfs = vfsProvider.getVirtualFileSystem();
         this.projectTypeRegistry = projectTypeRegistry;
@@ -89,6 +127,18 @@ public class ProjectRegistry {
 
         initUnconfiguredFolders();
 
+        if (fileWatcherManager != null) {
+            rootWatchId = fileWatcherManager.registerByPath(root.getPath().toString(),
+                                                            created -> initUnconfiguredFolders(),
+                                                            EMPTY_CONSUMER,
+                                                            this::removeUnconfiguredProject);
+            triggerPaths = collectTriggerPaths();
+            triggersWatchId = fileWatcherManager.registerByMatcher(it -> !isDirectory(it) && isTriggerPath(it),
+                                                                   this::invalidateProvidedAttributes,
+                                                                   this::invalidateProvidedAttributes,
+                                                                   this::invalidateProvidedAttributes);
+        }
+
         initialized = true;
 
         for (RegisteredProject project : projects.values()) {
@@ -106,11 +156,20 @@ public class ProjectRegistry {
     public List<RegisteredProject> getProjects() {
         checkInitializationState();
 
-        initUnconfiguredFolders();
+        refreshUnconfiguredFolders();
 
         return new ArrayList<>(projects.values());
     }
 
+    /** Stops watching the projects root folder and the files which trigger project type detection. */
+    @PreDestroy
+    void stopWatching() {
+        if (fileWatcherManager != null && initialized) {
+            fileWatcherManager.unRegisterByPath(rootWatchId);
+            fileWatcherManager.unRegisterByMatcher(triggersWatchId);
+        }
+    }
+
     /**
      * @param projectPath
      *         project path
@@ -119,9 +178,16 @@ public class ProjectRegistry {
     public RegisteredProject getProject(String projectPath) {
         checkInitializationState();
 
-        initUnconfiguredFolders();
+        refreshUnconfiguredFolders();
 
-        return projects.get(absolutizePath(projectPath));
+        final String path = absolutizePath(projectPath);
+        final RegisteredProject project = projects.get(path);
+        if (project == null && fileWatcherManager != null && isRootFolder(path)) {
+            // folder may be created so recently that the file watcher hasn't reported it yet
+            initUnconfiguredFolders();
+            return projects.get(path);
+        }
+        return project;
     }
 
     /**
@@ -132,14 +198,14 @@ public class ProjectRegistry {
     public List<String> getProjects(String parentPath) {
         checkInitializationState();
 
-        initUnconfiguredFolders();
-
-        final Path root = Path.of(absolutizePath(parentPath));
+        refreshUnconfiguredFolders();
 
-        return projects.keySet()
-                       .stream()
-                       .filter(key -> Path.of(key).isChild(root))
-                       .collect(Collectors.toList());
+        final Path parent = Path.of(absolutizePath(parentPath));
+        if (parent.isRoot()) {
+            return new ArrayList<>(projects.tailMap(parent.toString(), false).keySet());
+        }
+        final String prefix = parent.toString() + '/';
+        return new ArrayList<>(projects.subMap(prefix, prefix + Character.MAX_VALUE).keySet());
     }
 
     /**
@@ -188,9 +254,29 @@ public class ProjectRegistry {
                                  FolderEntry folder,
                                  boolean updated,
                                  boolean detected) throws ServerException {
+        return putProject(config, folder, updated, detected, null);
+    }
+
+    /**
+     * Creates RegisteredProject with the transient types which are already resolved against its folder and caches it.
+     *
+     * @param transientTypes
+     *         transient types matched by the folder, or {@code null} to resolve them against the folder
+     * @see #putProject(ProjectConfig, FolderEntry, boolean, boolean)
+     */
+    RegisteredProject putProject(ProjectConfig config,
+                                 FolderEntry folder,
+                                 boolean updated,
+                                 boolean detected,
+                                 List<ProjectTypeDef> transientTypes) throws ServerException {
 
-        final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry);
+        final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry, transientTypes);
         projects.put(project.getPath(), project);
+        if (config == null) {
+            unconfiguredProjects.add(project.getPath());
+        } else {
+            unconfiguredProjects.remove(project.getPath());
+        }
 
         return project;
     }
@@ -208,6 +294,7 @@ public class ProjectRegistry {
         Optional.ofNullable(projects.remove(path)).ifPresent(removed::add);
         getProjects(path).forEach(p -> Optional.ofNullable(projects.remove(p))
                                                .ifPresent(removed::add));
+        removed.forEach(registeredProject -> unconfiguredProjects.remove(registeredProject.getPath()));
 
         removed.forEach(registeredProject -> eventService.publish(new ProjectDeletedEvent(registeredProject.getPath())));
     }
@@ -358,6 +445,73 @@ public class ProjectRegistry {
         return (path.startsWith("/")) ? path : "/".concat(path);
     }
 
+    /** Lists the root on every lookup if it is not watched, otherwise projects of root folders are updated by file watcher. */
+    private void refreshUnconfiguredFolders() {
+        if (fileWatcherManager == null) {
+            initUnconfiguredFolders();
+        }
+    }
+
+    private static boolean isRootFolder(String path) {
+        return Path.of(path).length() == 1;
+    }
+
+    /** Collects paths of the files which values of the provided attributes of all the known project types depend on. */
+    private Set<String> collectTriggerPaths() {
+        final Set<String> paths = new HashSet<>();
+        for (ProjectTypeDef type : projectTypeRegistry.getProjectTypes()) {
+            for (Attribute attribute : type.getAttributes()) {
+                if (attribute.isVariable() && ((Variable)attribute).isValueProvided()) {
+                    paths.addAll(((Variable)attribute).getValueProviderFactory().getTriggerPaths());
+                }
+            }
+        }
+        return paths;
+    }
+
+    private boolean isTriggerPath(java.nio.file.Path path) {
+        for (String triggerPath : triggerPaths) {
+            if (path.endsWith(triggerPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Invalidates provided attributes of the project which folder contains the changed trigger file and of its
+     * sub-projects, e.g. change of {@code .git/HEAD} affects all the projects of the repository.
+     */
+    private void invalidateProvidedAttributes(String path) {
+        for (String triggerPath : triggerPaths) {
+            if (path.endsWith('/' + triggerPath)) {
+                final String folder = path.substring(0, path.length() - triggerPath.length() - 1);
+                final String parent = folder.isEmpty() ? "/" : folder;
+                final RegisteredProject project = projects.get(parent);
+                if (project != null) {
+                    project.invalidateProvidedAttributes();
+                }
+                for (String child : getProjects(parent)) {
+                    final RegisteredProject childProject = projects.get(child);
+                    if (childProject != null) {
+                        childProject.invalidateProvidedAttributes();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Removes project of the root folder which is deleted if the folder is not configured as project in workspace. */
+    private void removeUnconfiguredProject(String path) {
+        if (unconfiguredProjects.contains(path)) {
+            try {
+                removeProjects(path);
+            } catch (ServerException e) {
+                LOG.warn(e.getLocalizedMessage());
+            }
+        }
+    }
+
     /** Try to initialize projects from unconfigured folders on root. */
     private void initUnconfiguredFolders() {
         try {
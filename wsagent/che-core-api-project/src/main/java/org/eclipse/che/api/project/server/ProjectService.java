@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.common.io.ByteStreams;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -43,6 +45,7 @@ import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.util.FileChannelInputStream;
 import org.eclipse.che.api.workspace.shared.dto.NewProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
@@ -59,6 +62,7 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -70,7 +74,9 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -487,12 +493,13 @@ public class ProjectService extends Service {
     @GET
     @Path("/file/{path:.*}")
     public Response getFile(@ApiParam(value = "Path to a file", required = true)
-                            @PathParam("path") String path) throws IOException, NotFoundException, ForbiddenException, ServerException {
+                            @PathParam("path") String path,
+                            @HeaderParam("Range") String range) throws IOException, NotFoundException, ForbiddenException, ServerException {
         final FileEntry file = projectManager.asFile(path);
         if (file == null) {
             throw new NotFoundException("File not found for " + path);
         }
-        return Response.ok().entity(file.getInputStream()).type(TIKA.detect(file.getName())).build();
+        return contentResponse(file.getVirtualFile(), range).type(TIKA.detect(file.getName())).build();
     }
 
     @PUT
@@ -738,7 +745,8 @@ public class ProjectService extends Service {
     @Path("/export/file/{path:.*}")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response exportFile(@ApiParam(value = "Path to resource to be imported")
-                               @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+                               @PathParam("path") String path,
+                               @HeaderParam("Range") String range) throws NotFoundException, ForbiddenException, ServerException {
 
         final FileEntry file = projectManager.asFile(path);
 
@@ -748,11 +756,59 @@ public class ProjectService extends Service {
 
         final VirtualFile virtualFile = file.getVirtualFile();
 
-        return Response.ok(virtualFile.getContent(), TIKA.detect(virtualFile.getName()))
-                       .lastModified(new Date(virtualFile.getLastModificationDate()))
-                       .header(HttpHeaders.CONTENT_LENGTH, Long.toString(virtualFile.getLength()))
-                       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
-                       .build();
+        return contentResponse(virtualFile, range).type(TIKA.detect(virtualFile.getName()))
+                                                   .lastModified(new Date(virtualFile.getLastModificationDate()))
+                                                   .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                           "attachment; filename=\"" + virtualFile.getName() + '"')
+                                                   .build();
+    }
+
+    /**
+     * Creates response which streams content of the file, or its part if a single range of bytes is requested.
+     * Content of the file on the local file system is read from the file channel while it is written to the response,
+     * so it is not copied to memory or temporary file. Content of unknown length is streamed as is, without
+     * {@code Content-Length} and without support of ranges.
+     */
+    private static Response.ResponseBuilder contentResponse(VirtualFile virtualFile, String range) throws ForbiddenException,
+                                                                                                           ServerException {
+        // length is taken from the content itself, so it matches the streamed bytes even if the file is modified meanwhile
+        final InputStream content = virtualFile.getContent();
+        final long length;
+        if (content instanceof FileChannelInputStream) {
+            length = ((FileChannelInputStream)content).getLength();
+        } else if (content instanceof ByteArrayInputStream) {
+            length = ((ByteArrayInputStream)content).available();
+        } else {
+            return Response.ok(streamContent(content, 0, Long.MAX_VALUE)).header("Accept-Ranges", "none");
+        }
+        final ByteRange byteRange = ByteRange.parse(range, length);
+        final Response.ResponseBuilder response;
+        if (byteRange == null) {
+            response = Response.ok(streamContent(content, 0, length))
+                               .header(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+        } else if (byteRange.isSatisfiable()) {
+            response = Response.status(Response.Status.PARTIAL_CONTENT)
+                               .entity(streamContent(content, byteRange.getStart(), byteRange.getCount()))
+                               .header(HttpHeaders.CONTENT_LENGTH, Long.toString(byteRange.getCount()))
+                               .header("Content-Range", byteRange.toContentRange());
+        } else {
+            try {
+                content.close();
+            } catch (IOException ignored) {
+            }
+            response = Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                               .header("Content-Range", byteRange.toContentRange());
+        }
+        return response.header("Accept-Ranges", "bytes");
+    }
+
+    private static StreamingOutput streamContent(InputStream content, long offset, long count) {
+        return output -> {
+            try (InputStream in = content) {
+                ByteStreams.skipFully(in, offset);
+                ByteStreams.copy(ByteStreams.limit(in, count), output);
+            }
+        };
     }
 
     @GET
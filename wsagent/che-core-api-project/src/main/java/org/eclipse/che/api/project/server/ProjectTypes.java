@@ -15,6 +15,7 @@ import org.eclipse.che.api.core.model.project.type.Attribute;
 import org.eclipse.che.api.project.server.RegisteredProject.Problem;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.project.server.type.ProvidedValues;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -185,9 +186,21 @@ public class ProjectTypes {
     }
 
     void addTransient(FolderEntry projectFolder) {
+        final ProvidedValues providedValues = new ProvidedValues(projectFolder);
+        final List<ProjectTypeDef> matched = new ArrayList<>();
+        for (ProjectTypeDef pt : projectTypeRegistry.getProjectTypes()) {
+            if (pt.isMixable() && !pt.isPersisted() && pt.resolveSources(providedValues).matched()) {
+                matched.add(pt);
+            }
+        }
+        addTransient(matched);
+    }
+
+    /** Adds transient types which are already resolved against the project folder, e.g. together with other folders. */
+    void addTransient(List<ProjectTypeDef> matched) {
         for (ProjectTypeDef pt : projectTypeRegistry.getProjectTypes()) {
             // NOTE: Only mixable types allowed
-            if (pt.isMixable() && !pt.isPersisted() && pt.resolveSources(projectFolder).matched()) {
+            if (pt.isMixable() && !pt.isPersisted() && matched.contains(pt)) {
                 all.put(pt.getId(), pt);
                 mixins.put(pt.getId(), pt);
                 for (Attribute attr : pt.getAttributes()) {
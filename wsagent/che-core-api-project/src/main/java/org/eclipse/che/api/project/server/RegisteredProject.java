@@ -18,32 +18,51 @@ import org.eclipse.che.api.core.model.project.type.Value;
 import org.eclipse.che.api.project.server.type.AttributeValue;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.project.server.type.ProvidedValues;
 import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.server.type.Variable;
 import org.eclipse.che.api.vfs.Path;
+import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.eclipse.che.api.core.ErrorCodes.ATTRIBUTE_NAME_PROBLEM;
 import static org.eclipse.che.api.core.ErrorCodes.NO_PROJECT_CONFIGURED_IN_WS;
 import static org.eclipse.che.api.core.ErrorCodes.NO_PROJECT_ON_FILE_SYSTEM;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Internal Project implementation.
  * It is supposed that it is object always consistent.
  *
+ * <p>Values of the attributes which are read from value providers, e.g. the current git branch or
+ * the maven artifact id, are evaluated lazily when attributes or problems of the project are read
+ * for the first time and are cached till {@link #invalidateProvidedAttributes()} is called. Values of
+ * the factories which don't declare trigger paths are not cached and are read each time.
+ *
  * @author gazarenkov
  */
 public class RegisteredProject implements ProjectConfig {
+    private static final Logger LOG = getLogger(RegisteredProject.class);
+
+    private final List<Problem>         problems;
+    private final Map<String, Value>    attributes;
+    private final Map<String, Variable> providedVariables;
 
-    private final List<Problem>      problems;
-    private final Map<String, Value> attributes;
+    private Map<String, Value> providedAttributes;
+    private List<Problem>      providedProblems;
+    private List<Problem>      uncachedProblems = new ArrayList<>();
+    private boolean            hasUncachedVariables;
 
     private final FolderEntry   folder;
     private final ProjectConfig config;
@@ -72,8 +91,24 @@ public class RegisteredProject implements ProjectConfig {
                       boolean updated,
                       boolean detected,
                       ProjectTypeRegistry projectTypeRegistry) throws ServerException {
-        problems = new ArrayList<>();
+        this(folder, config, updated, detected, projectTypeRegistry, null);
+    }
+
+    /**
+     * @param transientTypes
+     *         transient project types matched by the folder, e.g. resolved together with other folders,
+     *         or {@code null} to resolve them against the folder
+     * @see #RegisteredProject(FolderEntry, ProjectConfig, boolean, boolean, ProjectTypeRegistry)
+     */
+    RegisteredProject(FolderEntry folder,
+                      ProjectConfig config,
+                      boolean updated,
+                      boolean detected,
+                      ProjectTypeRegistry projectTypeRegistry,
+                      List<ProjectTypeDef> transientTypes) throws ServerException {
+        problems = new CopyOnWriteArrayList<>();
         attributes = new HashMap<>();
+        providedVariables = new LinkedHashMap<>();
 
         Path path;
         if (folder != null) {
@@ -102,7 +137,11 @@ public class RegisteredProject implements ProjectConfig {
         this.types = new ProjectTypes(this.config.getPath(), this.config.getType(), this.config.getMixins(), projectTypeRegistry, problems);
 
         // 2. init transient (implicit, like git) project types.
-        types.addTransient(folder);
+        if (transientTypes == null) {
+            types.addTransient(folder);
+        } else {
+            types.addTransient(transientTypes);
+        }
 
         // 3. initialize attributes
         initAttributes();
@@ -110,7 +149,8 @@ public class RegisteredProject implements ProjectConfig {
 
 
     /**
-     * Initialize project attributes.
+     * Initialize project attributes, values which have to be read from value providers are only collected here
+     * and are evaluated with {@link #getProvidedAttributes()}.
      * Note: the problem with {@link Problem#code} = 13 will be added when a value for some attribute is not initialized
      */
     private void initAttributes() {
@@ -131,18 +171,19 @@ public class RegisteredProject implements ProjectConfig {
                 // value provided
                 if (variable.isValueProvided()) {
 
-                    final ValueProvider valueProvider = variable.getValueProviderFactory().newInstance(folder);
-
                     if (folder != null) {
 
+                        final ValueProvider valueProvider = variable.getValueProviderFactory().newInstance(folder);
+
+                        if (!valueProvider.isSettable() || value.isEmpty()) {
+                            // get provided value when it is read for the first time
+                            providedVariables.put(name, variable);
+                            hasUncachedVariables |= !isCached(variable);
+                            continue;
+                        }
                         try {
-                            if (!valueProvider.isSettable() || value.isEmpty()) {
-                                // get provided value
-                                value = new AttributeValue(valueProvider.getValues(name));
-                            } else {
-                                // set provided (not empty) value
-                                valueProvider.setValues(name, value.getList());
-                            }
+                            // set provided (not empty) value
+                            valueProvider.setValues(name, value.getList());
                         } catch (ValueStorageException e) {
                             final Problem problem = new Problem(ATTRIBUTE_NAME_PROBLEM,
                                                                 format("Value for attribute %s is not initialized, caused by: %s",
@@ -169,6 +210,81 @@ public class RegisteredProject implements ProjectConfig {
         }
     }
 
+    /**
+     * Returns values of the attributes which are read from value providers. Values of the factories which declare
+     * {@link ValueProviderFactory#getTriggerPaths() trigger paths} are read when this method is called for the first
+     * time or for the first time after invalidation, values of the other factories are read on each call since
+     * the project is not notified when they are changed.
+     * Note: the problem with {@link Problem#code} = 13 will be added when a value for some attribute is not initialized
+     */
+    private synchronized Map<String, Value> getProvidedAttributes() {
+        if (providedAttributes == null) {
+            providedProblems = new ArrayList<>();
+            providedAttributes = readProvidedAttributes(true, providedProblems);
+            problems.addAll(providedProblems);
+        }
+        if (!hasUncachedVariables) {
+            return providedAttributes;
+        }
+        problems.removeAll(uncachedProblems);
+        uncachedProblems = new ArrayList<>();
+        final Map<String, Value> values = new HashMap<>(providedAttributes);
+        values.putAll(readProvidedAttributes(false, uncachedProblems));
+        problems.addAll(uncachedProblems);
+        return values;
+    }
+
+    private Map<String, Value> readProvidedAttributes(boolean cached, List<Problem> valuesProblems) {
+        final ProvidedValues providedValues = new ProvidedValues(folder);
+        final Map<String, Value> values = new HashMap<>();
+        for (Map.Entry<String, Variable> entry : providedVariables.entrySet()) {
+            final String name = entry.getKey();
+            final Variable variable = entry.getValue();
+            if (isCached(variable) != cached) {
+                continue;
+            }
+            AttributeValue value = new AttributeValue(config.getAttributes().get(name));
+
+            final long start = System.nanoTime();
+            try {
+                value = new AttributeValue(providedValues.getValues(variable.getValueProviderFactory(), name));
+            } catch (ValueStorageException e) {
+                valuesProblems.add(new Problem(ATTRIBUTE_NAME_PROBLEM,
+                                               format("Value for attribute %s is not initialized, caused by: %s",
+                                                      variable.getId(), e.getLocalizedMessage())));
+            }
+            LOG.debug("Value of attribute '{}' of project '{}' is provided in {} ms",
+                      name, getPath(), NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            if (value.isEmpty() && variable.isRequired()) {
+                valuesProblems.add(new Problem(ATTRIBUTE_NAME_PROBLEM,
+                                               "Value for required attribute is not initialized " + variable.getId()));
+            }
+            if (!value.isEmpty()) {
+                values.put(name, value);
+            }
+        }
+        return values;
+    }
+
+    /** Values are cached only if the project is notified when they are changed, i.e. when trigger files are changed. */
+    private static boolean isCached(Variable variable) {
+        return !variable.getValueProviderFactory().getTriggerPaths().isEmpty();
+    }
+
+    /**
+     * Forgets values of the attributes which are read from value providers, so they are read again
+     * when attributes of the project are requested next time. Should be called when files which
+     * the values depend on are changed.
+     */
+    public synchronized void invalidateProvidedAttributes() {
+        if (providedAttributes != null) {
+            problems.removeAll(providedProblems);
+            providedAttributes = null;
+            providedProblems = null;
+        }
+    }
+
     /**
      * @return primary project type
      */
@@ -194,7 +310,13 @@ public class RegisteredProject implements ProjectConfig {
      * @return attributes as name / Value Map
      */
     public Map<String, Value> getAttributeEntries() {
-        return attributes;
+        final Map<String, Value> provided = getProvidedAttributes();
+        if (provided.isEmpty()) {
+            return attributes;
+        }
+        final Map<String, Value> all = new HashMap<>(attributes);
+        all.putAll(provided);
+        return all;
     }
 
     /**
@@ -231,6 +353,7 @@ public class RegisteredProject implements ProjectConfig {
      * @return problems in case if root or config is null (project is not synced)
      */
     public List<Problem> getProblems() {
+        getProvidedAttributes();
         return problems;
     }
 
@@ -240,7 +363,7 @@ public class RegisteredProject implements ProjectConfig {
     public String getProblemsStr() {
         StringBuilder builder = new StringBuilder();
         int i = 0;
-        for( RegisteredProject.Problem prb : problems ) {
+        for( RegisteredProject.Problem prb : getProblems() ) {
             builder.append("[").append(i++).append("] : ").append(prb.message).append("\n");
         }
         return builder.toString();
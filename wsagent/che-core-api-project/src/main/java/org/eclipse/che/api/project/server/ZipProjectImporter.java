@@ -10,26 +10,73 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Striped;
+
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.project.SourceStorage;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.project.server.importer.ProjectImporter;
+import org.eclipse.che.api.vfs.util.FileContentInputStream;
+import org.slf4j.Logger;
 
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.util.concurrent.TimeUnit.DAYS;
 import static org.eclipse.che.api.project.shared.Constants.ZIP_IMPORTER_ID;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Imports project from ZIP archive.
+ *
+ * <p>Archive which is downloaded over HTTP is saved to a local file and is extracted from this file when the download is
+ * finished, the file is not copied to a temporary one. If the download is interrupted, the next import of the same archive
+ * requests only the rest of the archive from the server with a range request, provided that the archive is not changed
+ * on the server since the interrupted download.
+ *
  * @author Vitaly Parfonov
  */
 @Singleton
 public class ZipProjectImporter implements ProjectImporter {
+    private static final Logger LOG = getLogger(ZipProjectImporter.class);
+
+    /** Saved parts of interrupted downloads which are older are deleted. */
+    private static final long MAX_DOWNLOAD_AGE = DAYS.toMillis(1);
+
+    private final Path          downloads;
+    private final Striped<Lock> downloadLocks;
+
+    public ZipProjectImporter() {
+        this(Paths.get(System.getProperty("java.io.tmpdir"), "che-zip-import"));
+    }
+
+    /**
+     * @param downloads
+     *         directory where archives are saved while they are downloaded
+     */
+    ZipProjectImporter(Path downloads) {
+        this.downloads = downloads;
+        this.downloadLocks = Striped.lock(16);
+    }
 
     @Override
     public String getId() {
@@ -80,12 +127,34 @@ public class ZipProjectImporter implements ProjectImporter {
         }
 
         Map<String, String> parameters = storage.getParameters();
-        try (InputStream zip = url.openStream()) {
-            int stripNumber = 0;
-            if (parameters != null && parameters.containsKey("skipFirstLevel")) {
-                stripNumber = Boolean.parseBoolean(parameters.get("skipFirstLevel")) ? 1 : 0;
+        int stripNumber = 0;
+        if (parameters != null && parameters.containsKey("skipFirstLevel")) {
+            stripNumber = Boolean.parseBoolean(parameters.get("skipFirstLevel")) ? 1 : 0;
+        }
+        if (!"http".equals(url.getProtocol()) && !"https".equals(url.getProtocol())) {
+            try (InputStream zip = url.openStream()) {
+                baseFolder.getVirtualFile().unzip(zip, true, stripNumber);
+            }
+            return;
+        }
+
+        final String key = Hashing.sha1().hashString(url.toString(), UTF_8).toString();
+        final Lock lock = downloadLocks.get(key);
+        lock.lock();
+        try {
+            deleteOutdatedDownloads();
+            final Path part = downloads.resolve(key + ".part");
+            final Path validator = downloads.resolve(key + ".validator");
+            // the downloaded part is kept if the download is interrupted, so the next import resumes it
+            download(url, part, validator);
+            try (InputStream zip = new FileContentInputStream(part.toFile())) {
+                baseFolder.getVirtualFile().unzip(zip, true, stripNumber);
+            } finally {
+                Files.deleteIfExists(part);
+                Files.deleteIfExists(validator);
             }
-            baseFolder.getVirtualFile().unzip(zip, true, stripNumber);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -93,4 +162,82 @@ public class ZipProjectImporter implements ProjectImporter {
     public ImporterCategory getCategory() {
         return ImporterCategory.ARCHIVE;
     }
+
+    /**
+     * Saves the archive to the part file. The previously downloaded part is completed with the rest of the archive
+     * if the server confirms that it is still valid, otherwise the archive is downloaded anew.
+     */
+    private void download(URL url, Path part, Path validator) throws IOException {
+        Files.createDirectories(downloads);
+        final long downloaded = Files.exists(part) && Files.exists(validator) ? Files.size(part) : 0;
+
+        final HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+        if (downloaded > 0) {
+            connection.setRequestProperty("Range", "bytes=" + downloaded + '-');
+            connection.setRequestProperty("If-Range", new String(Files.readAllBytes(validator), UTF_8));
+        }
+        final int responseCode = connection.getResponseCode();
+        if (downloaded > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL) {
+            final String range = connection.getHeaderField("Content-Range");
+            if (range == null || !range.startsWith("bytes " + downloaded + '-')) {
+                // server sent other part of the archive than requested, download it anew
+                connection.disconnect();
+                Files.delete(part);
+                Files.delete(validator);
+                download(url, part, validator);
+                return;
+            }
+            LOG.info("Resuming download of {} from byte {}", url, downloaded);
+            save(connection, part, APPEND);
+            return;
+        }
+        if (downloaded > 0 && responseCode == 416) {
+            // the whole archive is downloaded already, the server doesn't ignore the range as the archive is not changed
+            connection.disconnect();
+            return;
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new IOException(String.format("Can't download %s, server responded with %d", url, responseCode));
+        }
+
+        final String etag = connection.getHeaderField("ETag");
+        final String newValidator = etag != null && !etag.startsWith("W/") ? etag : connection.getHeaderField("Last-Modified");
+        Files.deleteIfExists(validator);
+        if (newValidator != null) {
+            Files.write(validator, newValidator.getBytes(UTF_8));
+        }
+        save(connection, part, CREATE, TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes content of the response to the part file, connection which is closed before the announced number of bytes
+     * is received is considered interrupted.
+     */
+    private static void save(HttpURLConnection connection, Path part, OpenOption... options) throws IOException {
+        final long length = connection.getContentLengthLong();
+        try (InputStream remote = connection.getInputStream();
+             OutputStream output = Files.newOutputStream(part, options)) {
+            final long received = ByteStreams.copy(remote, output);
+            if (length > 0 && received < length) {
+                throw new IOException(String.format("Download is interrupted, %d bytes are not received", length - received));
+            }
+        }
+    }
+
+    private void deleteOutdatedDownloads() {
+        if (!Files.isDirectory(downloads)) {
+            return;
+        }
+        final long outdated = System.currentTimeMillis() - MAX_DOWNLOAD_AGE;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(downloads)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < outdated) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Can't delete outdated downloads: {}", e.getMessage());
+        }
+    }
 }
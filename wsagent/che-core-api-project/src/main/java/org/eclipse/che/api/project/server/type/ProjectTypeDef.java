@@ -173,6 +173,14 @@ public abstract class ProjectTypeDef implements ProjectType {
     }
 
     public ProjectTypeResolution resolveSources(FolderEntry projectFolder) {
+        return resolveSources(new ProvidedValues(projectFolder));
+    }
+
+    /**
+     * Resolves sources of the folder against values of the provided attributes, which may be shared with
+     * other project types resolved against the same folder, so every value is read only once.
+     */
+    public ProjectTypeResolution resolveSources(ProvidedValues providedValues) {
         Map<String, Value> matchAttrs = new HashMap<>();
         for (Map.Entry<String, Attribute> entry : attributes.entrySet()) {
             Attribute attr = entry.getValue();
@@ -185,7 +193,7 @@ public abstract class ProjectTypeDef implements ProjectType {
                     Value value;
                     String errorMessage = "";
                     try {
-                        value = new AttributeValue(factory.newInstance(projectFolder).getValues(name));
+                        value = new AttributeValue(providedValues.getValues(factory, name));
                     } catch (ValueStorageException e) {
                         value = null;
                         errorMessage = e.getLocalizedMessage();
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server.type;
+
+import org.eclipse.che.api.project.server.FolderEntry;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Values of the provided attributes of a folder, which are shared by all the project types resolved against the folder.
+ *
+ * <p>Each value is read from its value provider once, even if it is requested by several project types at the same
+ * time, e.g. attributes of java project type are requested by every project type which extends it. A single value
+ * provider is created for each factory, so the provider may reuse data read for other attributes, e.g. the parsed
+ * build file. Value providers are not required to be thread safe, so values of the same factory are read one by one,
+ * while values of different factories may be read in parallel. Values are not updated when files of the folder are
+ * changed, so the instance should be used for a single resolution or evaluation only.
+ */
+public class ProvidedValues {
+    private final FolderEntry                                                                  folder;
+    private final ConcurrentMap<ValueProviderFactory, ValueProvider>                           providers;
+    private final ConcurrentMap<ValueProviderFactory, ConcurrentMap<String, FutureTask<List<String>>>> values;
+
+    /**
+     * @param folder
+     *         folder to read values from, may be {@code null} if project has no folder
+     */
+    public ProvidedValues(FolderEntry folder) {
+        this.folder = folder;
+        this.providers = new ConcurrentHashMap<>();
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    public FolderEntry getFolder() {
+        return folder;
+    }
+
+    /**
+     * Returns value of the attribute provided by the factory, the value is read by the calling thread
+     * unless it is already read or is being read by another thread.
+     *
+     * @throws ValueStorageException
+     *         if value provider fails to read the value
+     */
+    public List<String> getValues(ValueProviderFactory factory, String attributeName) throws ValueStorageException {
+        final ConcurrentMap<String, FutureTask<List<String>>> factoryValues = values.computeIfAbsent(factory,
+                                                                                                     f -> new ConcurrentHashMap<>());
+        FutureTask<List<String>> value = factoryValues.get(attributeName);
+        if (value == null) {
+            final FutureTask<List<String>> newValue = new FutureTask<>(() -> readValues(factory, attributeName));
+            value = factoryValues.putIfAbsent(attributeName, newValue);
+            if (value == null) {
+                value = newValue;
+                newValue.run();
+            }
+        }
+        try {
+            return value.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ValueStorageException) {
+                throw (ValueStorageException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new ValueStorageException(cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueStorageException("Interrupted while waiting for value of attribute " + attributeName);
+        }
+    }
+
+    private List<String> readValues(ValueProviderFactory factory, String attributeName) throws ValueStorageException {
+        final ValueProvider provider = providers.computeIfAbsent(factory, f -> f.newInstance(folder));
+        // the provider is shared by all the threads which resolve project types, e.g. it may initialize its state lazily
+        synchronized (provider) {
+            return provider.getValues(attributeName);
+        }
+    }
+}
@@ -12,6 +12,10 @@ package org.eclipse.che.api.project.server.type;
 
 import org.eclipse.che.api.project.server.FolderEntry;
 
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
 /**
  * Factory for {@link ValueProvider}.
  *
@@ -25,4 +29,14 @@ public interface ValueProviderFactory {
      * @param projectFolder
      */
     ValueProvider newInstance(FolderEntry projectFolder);
+
+    /**
+     * Returns paths of the files which provided values depend on, relative to the project folder, e.g. {@code pom.xml}.
+     * Values are cached by the project and are read again only when one of these files is created, modified or deleted.
+     * Values of the factory which doesn't declare any path are not cached and are read each time attributes of
+     * the project are requested.
+     */
+    default List<String> getTriggerPaths() {
+        return emptyList();
+    }
 }
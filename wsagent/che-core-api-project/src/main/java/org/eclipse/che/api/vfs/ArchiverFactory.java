@@ -10,13 +10,42 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import java.util.zip.Deflater;
+
 public class ArchiverFactory {
+    private final int compressionLevel;
+    private final int extractThreads;
+
+    public ArchiverFactory() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compressionLevel
+     *         compression level of zip archives from 0 to 9 or -1 for the default level
+     */
+    public ArchiverFactory(int compressionLevel) {
+        this(compressionLevel, 1);
+    }
+
+    /**
+     * @param compressionLevel
+     *         compression level of zip archives from 0 to 9 or -1 for the default level
+     * @param extractThreads
+     *         max number of threads which extract files of a zip archive, virtual file system
+     *         must allow concurrent creation of files if it is more than 1
+     */
+    public ArchiverFactory(int compressionLevel, int extractThreads) {
+        this.compressionLevel = compressionLevel;
+        this.extractThreads = extractThreads;
+    }
+
     public Archiver createArchiver(VirtualFile folder, String archiveType) {
         if (archiveType == null) {
             throw new IllegalArgumentException("Archive type might not be null");
         }
         if ("zip".equals(archiveType.toLowerCase())) {
-            return new ZipArchiver(folder);
+            return new ZipArchiver(folder, compressionLevel, extractThreads);
         } else if ("tar".equals(archiveType.toLowerCase())) {
             return new TarArchiver(folder);
         }
@@ -10,6 +10,16 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 /**
  * Advisory file locks. It does not prevent access to the file from other programs.
  * <p/>
@@ -30,15 +40,43 @@ package org.eclipse.che.api.vfs;
  *         }
  *      }
  * </pre>
+ * <p/>
+ * Lock of a path covers the whole subtree of the path, e.g. exclusive lock of a folder can't be obtained while
+ * any file of the folder is locked by other thread. Locks are kept in a trie of paths: the locked path is locked
+ * in shared or exclusive mode and all its ancestors are locked in the corresponding intention mode, so conflicts
+ * are found by looking at the nodes of the path only and locks of unrelated subtrees never contend. Each node has
+ * its own monitor, threads which wait for a lock are woken only when a lock of the same node is released.
+ * Locks are reentrant, locks of the current thread never conflict with each other. Lock must be released
+ * by the thread which has acquired it. Nodes are removed from the trie when they are not used any more.
  *
  * @author andrew00x>
  */
 public final class PathLockFactory {
     private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+
+    /* Lock modes, intention modes are used for ancestors of the locked path. */
+    private static final int INTENTION_SHARED    = 0;
+    private static final int INTENTION_EXCLUSIVE = 1;
+    private static final int SHARED              = 2;
+    private static final int EXCLUSIVE           = 3;
+
+    private static final boolean[][] COMPATIBLE = {
+            // IS    IX     S      X
+            {true, true, true, false},   // IS
+            {true, true, false, false},  // IX
+            {true, false, true, false},  // S
+            {false, false, false, false} // X
+    };
+
     /** Max number of threads allowed to access file. */
-    private final int maxThreads;
-    // Tail of the "lock table".
-    private final Node tail = new Node(null, 0, null);
+    private final int  maxThreads;
+    private final Node root;
+
+    private final LongAdder  acquisitions;
+    private final LongAdder  contendedAcquisitions;
+    private final LongAdder  timeouts;
+    private final LongAdder  totalWaitNanos;
+    private final AtomicLong maxWaitNanos;
 
     /**
      * @param maxThreads
@@ -50,145 +88,210 @@ public final class PathLockFactory {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        this.root = new Node("");
+        this.acquisitions = new LongAdder();
+        this.contendedAcquisitions = new LongAdder();
+        this.timeouts = new LongAdder();
+        this.totalWaitNanos = new LongAdder();
+        this.maxWaitNanos = new AtomicLong();
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
-        return new PathLock(path, exclusive ? maxThreads : 1);
+        return new PathLock(path, exclusive ? EXCLUSIVE : SHARED);
     }
 
-    private synchronized void acquire(Path path, int permits) {
-        while (!tryAcquire(path, permits)) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
-            }
-        }
+    /** Returns statistics of waiting for locks since this factory is created. */
+    public PathLockStatistics getStatistics() {
+        final long acquired = acquisitions.sum();
+        return new PathLockStatistics(acquired,
+                                      contendedAcquisitions.sum(),
+                                      timeouts.sum(),
+                                      acquired == 0 ? 0 : NANOSECONDS.toMillis(totalWaitNanos.sum() / acquired),
+                                      NANOSECONDS.toMillis(maxWaitNanos.get()));
     }
 
-    private synchronized void acquire(Path path, int permits, long timeoutMilliseconds) {
-        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
-        long waitTime = timeoutMilliseconds;
-        while (!tryAcquire(path, permits)) {
-            try {
-                wait(waitTime);
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
+    /**
+     * @param timeoutNanos
+     *         max time to wait for the lock or negative value to wait without timeout
+     */
+    private void acquire(Path path, int mode, long timeoutNanos) {
+        final long start = System.nanoTime();
+        final long deadline = timeoutNanos < 0 ? Long.MAX_VALUE : start + timeoutNanos;
+        final Node[] nodes = pin(path);
+        final int intentionMode = mode == EXCLUSIVE ? INTENTION_EXCLUSIVE : INTENTION_SHARED;
+        boolean waited = false;
+        int locked = 0;
+        try {
+            for (; locked < nodes.length; locked++) {
+                waited |= nodes[locked].acquire(locked == nodes.length - 1 ? mode : intentionMode, deadline, path);
             }
-            long now = System.currentTimeMillis();
-            if (now >= endTime) {
-                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+        } catch (RuntimeException | Error e) {
+            for (int i = locked - 1; i >= 0; i--) {
+                nodes[i].release(i == nodes.length - 1 ? mode : intentionMode, path);
             }
-            waitTime = endTime - now;
+            unpin(nodes);
+            throw e;
+        }
+        acquisitions.increment();
+        if (waited) {
+            final long waitNanos = System.nanoTime() - start;
+            contendedAcquisitions.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
         }
     }
 
-    private synchronized void release(Path path, int permits) {
-        Node node = tail;
-        while (node != null) {
-            Node prev = node.prev;
-            if (prev == null) {
-                break;
-            }
-            if (prev.path.equals(path)) {
-                if (prev.threadDeep == 1) {
-                    // If last recursive lock.
-                    prev.permits += permits;
-                    if (prev.permits >= maxThreads) {
-                        // remove
-                        node.prev = prev.prev;
-                        prev.prev = null;
-                    }
-                } else {
-                    --prev.threadDeep;
-                }
+    private void release(Path path, int mode) {
+        final Node[] nodes = new Node[path.length() + 1];
+        nodes[0] = root;
+        for (int i = 0; i < path.length(); i++) {
+            nodes[i + 1] = nodes[i].children.get(path.element(i));
+            if (nodes[i + 1] == null) {
+                throw new IllegalStateException(String.format("Lock of '%s' is not acquired", path));
             }
-            node = node.prev;
         }
-        notifyAll();
-        //System.err.printf(">>>>> release: %s : %d%n", path, permits);
+        final int intentionMode = mode == EXCLUSIVE ? INTENTION_EXCLUSIVE : INTENTION_SHARED;
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            nodes[i].release(i == nodes.length - 1 ? mode : intentionMode, path);
+        }
+        unpin(nodes);
     }
 
-    private boolean tryAcquire(Path path, int permits) {
-        //System.err.printf(">>>>> acquire: %s : %d%n", path, permits);
-        Node node = tail.prev;
-        final Thread current = Thread.currentThread();
-        while (node != null) {
-            if (node.path.equals(path)) {
-                if (node.threadId == current.getId()) {
-                    // Current thread already has direct lock for this path
-                    if (node.threadDeep > MAX_RECURSIVE_LOCKS) {
-                        throw new Error("Max number of recursive locks exceeded. ");
-                    }
-                    ++node.threadDeep;
-                    return true;
-                }
-                if (node.permits > permits) {
-                    // Lock already exists and current thread is not owner of this lock,
-                    // but lock is not exclusive and we can "share" it for other thread.
-                    node.permits -= permits; // decrement number of allowed concurrent threads
-                    return true;
-                }
-                // Lock is exclusive or max number of allowed concurrent thread is reached.
-                return false;
-            } else if ((node.path.isChild(path) || path.isChild(node.path)) && node.permits <= permits) {
-                // Found some path which already has lock that prevents us to get required permits.
-                // There is two possibilities:
-                // 1. Parent of the path we try to lock already locked
-                // 2. Child of the path we try to lock already locked
-                // Need to check is such lock obtained by current thread or not.
-                // If such lock obtained by other thread stop here immediately there is no reasons to continue.
-                if (node.threadId != current.getId()) {
-                    return false;
-                }
-            }
-            node = node.prev;
+    /** Returns nodes of the path starting from the root, nodes are created if needed and kept in the trie till they are unpinned. */
+    private Node[] pin(Path path) {
+        final Node[] nodes = new Node[path.length() + 1];
+        nodes[0] = root;
+        for (int i = 0; i < path.length(); i++) {
+            // number of users is changed only by the atomic operations of the parent map, so the node can't be removed concurrently
+            nodes[i + 1] = nodes[i].children.compute(path.element(i), (name, node) -> {
+                final Node pinned = node == null ? new Node(name) : node;
+                pinned.users++;
+                return pinned;
+            });
         }
-        // If we are here there is no lock for path yet.
-        tail.prev = new Node(path, maxThreads - permits, tail.prev);
-        return true;
+        return nodes;
     }
 
-    public synchronized void checkClean() {
-        assert tail.prev == null;
+    private void unpin(Node[] nodes) {
+        for (int i = nodes.length - 1; i > 0; i--) {
+            nodes[i - 1].children.computeIfPresent(nodes[i].name, (name, node) -> --node.users == 0 ? null : node);
+        }
+    }
+
+    public void checkClean() {
+        assert root.children.isEmpty() && root.owners.isEmpty();
     }
 
    /* =============================================== */
 
-    private static class Node {
-        final Path path;
-        final long threadId = Thread.currentThread().getId();
-        int  permits;
-        int  threadDeep;
-        Node prev;
+    private final class Node {
+        final String                      name;
+        final ConcurrentMap<String, Node> children = new ConcurrentHashMap<>();
+        /** Number of held locks of each mode, guarded by this node. */
+        final int[]                       granted  = new int[4];
+        /** Number of held locks of each mode per thread, guarded by this node. */
+        final Map<Thread, int[]>          owners   = new HashMap<>();
 
-        Node(Path path, int permits, Node prev) {
-            this.path = path;
-            this.permits = permits;
-            this.prev = prev;
-            threadDeep = 1;
+        /** Number of threads which wait for lock of this node, guarded by this node. */
+        int waiters;
+        /** Number of locks of this node and of its descendants, including not acquired yet, guarded by the parent map. */
+        int users;
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        /** Returns {@code true} if the current thread had to wait for the lock. */
+        synchronized boolean acquire(int mode, long deadline, Path path) {
+            final Thread current = Thread.currentThread();
+            boolean waited = false;
+            while (!isGrantable(mode, owners.get(current))) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.increment();
+                    throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+                }
+                waiters++;
+                try {
+                    if (deadline == Long.MAX_VALUE) {
+                        wait();
+                    } else {
+                        // wait(0) waits without timeout
+                        wait(Math.max(1, NANOSECONDS.toMillis(remaining)));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                } finally {
+                    waiters--;
+                }
+                waited = true;
+            }
+            owners.computeIfAbsent(current, thread -> new int[4])[mode]++;
+            granted[mode]++;
+            return waited;
+        }
+
+        synchronized void release(int mode, Path path) {
+            final Thread current = Thread.currentThread();
+            final int[] own = owners.get(current);
+            if (own == null || own[mode] == 0) {
+                throw new IllegalStateException(String.format("Lock of '%s' is not acquired by the current thread", path));
+            }
+            own[mode]--;
+            granted[mode]--;
+            if (own[INTENTION_SHARED] + own[INTENTION_EXCLUSIVE] + own[SHARED] + own[EXCLUSIVE] == 0) {
+                owners.remove(current);
+            }
+            if (waiters > 0) {
+                notifyAll();
+            }
+        }
+
+        private boolean isGrantable(int mode, int[] own) {
+            if ((mode == SHARED || mode == EXCLUSIVE) && own != null && (own[SHARED] > 0 || own[EXCLUSIVE] > 0)) {
+                // current thread already has direct lock for this path
+                if (own[SHARED] + own[EXCLUSIVE] > MAX_RECURSIVE_LOCKS) {
+                    throw new Error("Max number of recursive locks exceeded. ");
+                }
+                return true;
+            }
+            for (int held = 0; held < granted.length; held++) {
+                final int heldByOthers = granted[held] - (own == null ? 0 : own[held]);
+                if (heldByOthers > 0 && !COMPATIBLE[mode][held]) {
+                    return false;
+                }
+            }
+            if (mode == SHARED) {
+                int sharingThreads = 0;
+                for (int[] threadLocks : owners.values()) {
+                    if (threadLocks[SHARED] > 0) {
+                        sharingThreads++;
+                    }
+                }
+                return sharingThreads < maxThreads;
+            }
+            return true;
         }
 
         @Override
         public String toString() {
             return "Node{" +
-                   "path=" + path +
-                   ", threadId=" + threadId +
-                   ", permits=" + permits +
-                   ", prev=" + prev +
+                   "name='" + name + '\'' +
+                   ", users=" + users +
+                   ", owners=" + owners.size() +
+                   ", waiters=" + waiters +
                    '}';
         }
     }
 
     public final class PathLock {
         private final Path path;
-        private final int  permits;
+        private final int  mode;
 
-        private PathLock(Path path, int permits) {
+        private PathLock(Path path, int mode) {
             this.path = path;
-            this.permits = permits;
+            this.mode = mode;
         }
 
         /**
@@ -197,7 +300,7 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            PathLockFactory.this.acquire(path, mode, -1);
             return this;
         }
 
@@ -212,18 +315,18 @@ public final class PathLockFactory {
          *         if waiting timeout reached
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            PathLockFactory.this.acquire(path, mode, MILLISECONDS.toNanos(timeoutMilliseconds));
             return this;
         }
 
         /** Release file permit. */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            PathLockFactory.this.release(path, mode);
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
-            return permits == PathLockFactory.this.maxThreads;
+            return mode == EXCLUSIVE;
         }
     }
 }
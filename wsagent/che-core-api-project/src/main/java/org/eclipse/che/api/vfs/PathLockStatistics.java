@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+/**
+ * Statistics of waiting for locks of {@link PathLockFactory}.
+ *
+ * @see PathLockFactory#getStatistics()
+ */
+public class PathLockStatistics {
+    private final long acquisitions;
+    private final long contendedAcquisitions;
+    private final long timeouts;
+    private final long averageWaitTime;
+    private final long maxWaitTime;
+
+    public PathLockStatistics(long acquisitions, long contendedAcquisitions, long timeouts, long averageWaitTime, long maxWaitTime) {
+        this.acquisitions = acquisitions;
+        this.contendedAcquisitions = contendedAcquisitions;
+        this.timeouts = timeouts;
+        this.averageWaitTime = averageWaitTime;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    /** Returns number of acquired locks. */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /** Returns number of acquired locks which were held by other threads, so the current thread had to wait for them. */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /** Returns number of locks which are not acquired because of timeout. */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /** Returns average time in milliseconds of waiting for a lock, including locks which are acquired without waiting. */
+    public long getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    /** Returns max time in milliseconds of waiting for a lock. */
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "PathLockStatistics{" +
+               "acquisitions=" + acquisitions +
+               ", contendedAcquisitions=" + contendedAcquisitions +
+               ", timeouts=" + timeouts +
+               ", averageWaitTime=" + averageWaitTime +
+               ", maxWaitTime=" + maxWaitTime +
+               '}';
+    }
+}
@@ -702,6 +702,16 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     List<Pair<String, String>> countMd5Sums() throws ServerException;
 
+    /**
+     * Same as {@link #countMd5Sums()}, but hash sums are counted with the algorithm configured for the virtual file system,
+     * which is usually much faster than md5. Use it when hash sums are only compared with each other, e.g. to find
+     * modified files.
+     *
+     * @throws ServerException
+     *         if any error occurs
+     */
+    List<Pair<String, String>> countHashSums() throws ServerException;
+
     /**
      * Gets java.io.File if implementation uses java.io.File as backend.
      *
@@ -17,17 +17,70 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
 import org.eclipse.che.api.vfs.util.ZipContent;
+import org.eclipse.che.commons.lang.ZipUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import static java.util.Comparator.comparingInt;
+
+/**
+ * Compresses folder to zip archive and extracts zip archive to folder.
+ *
+ * <p>Archive which is spooled to a file is extracted in parallel if more than one extract thread
+ * is allowed: entries are found in the central directory of the archive, all the folders are
+ * created up front and then files are inflated and written by the threads of the pool which is
+ * shared by all the extractions, see {@link ZipUtils#getExtractExecutor()}. Compression ratio of
+ * each entry is checked while it is inflated. Small archives which are kept in memory are checked
+ * up front and are extracted entry by entry while they are read.
+ */
 public class ZipArchiver extends Archiver {
+    private final int compressionLevel;
+    private final int extractThreads;
+
     public ZipArchiver(VirtualFile folder) {
+        this(folder, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compressionLevel
+     *         compression level from 0 to 9 or -1 for the default level,
+     *         lower levels compress faster, e.g. for transfers over fast network
+     */
+    public ZipArchiver(VirtualFile folder, int compressionLevel) {
+        this(folder, compressionLevel, 1);
+    }
+
+    /**
+     * @param compressionLevel
+     *         compression level from 0 to 9 or -1 for the default level,
+     *         lower levels compress faster, e.g. for transfers over fast network
+     * @param extractThreads
+     *         max number of threads which extract files, archive is extracted by the calling thread if it is less than 2
+     */
+    public ZipArchiver(VirtualFile folder, int compressionLevel, int extractThreads) {
         super(folder);
+        this.compressionLevel = compressionLevel;
+        this.extractThreads = extractThreads;
     }
 
     @Override
@@ -38,6 +91,7 @@ public class ZipArchiver extends Archiver {
     @Override
     public void compress(OutputStream zipOutput, VirtualFileFilter filter) throws IOException, ServerException {
         try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipOutput)) {
+            zipOutputStream.setLevel(compressionLevel);
             folder.accept(new VirtualFileVisitor() {
                 @Override
                 public void visit(VirtualFile visitedVirtualFile) throws ServerException {
@@ -87,19 +141,24 @@ public class ZipArchiver extends Archiver {
     @Override
     public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
-        try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
+        // archive which is extracted in parallel is checked for zip bomb while entries of its central directory are inflated
+        final ZipContent zipContent = extractThreads > 1 ? ZipContent.spool(zipInput) : ZipContent.of(zipInput);
+        if (extractThreads > 1 && zipContent.getFile() != null) {
+            // closing of the content deletes the spooled file
+            try (InputStream ignored = zipContent.getContent()) {
+                extractInParallel(zipContent.getFile(), overwrite, stripNumber);
+            }
+            return;
+        }
+        try (ZipInputStream zip = new ZipInputStream(zipContent.getContent())) {
             InputStream notClosableInputStream = new NotClosableInputStream(zip);
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
                 VirtualFile extractFolder = folder;
 
-                Path relativePath = Path.of(zipEntry.getName());
-
-                if (stripNumber > 0) {
-                    if (relativePath.length() <= stripNumber) {
-                        continue;
-                    }
-                    relativePath = relativePath.subPath(stripNumber);
+                Path relativePath = getRelativePath(zipEntry, stripNumber);
+                if (relativePath == null) {
+                    continue;
                 }
 
                 if (zipEntry.isDirectory()) {
@@ -118,18 +177,128 @@ public class ZipArchiver extends Archiver {
                     extractFolder = neededParent;
                 }
 
-                String fileName = relativePath.getName();
-                VirtualFile file = extractFolder.getChild(Path.of(fileName));
-                if (file == null) {
-                    extractFolder.createFile(fileName, notClosableInputStream);
-                } else {
-                    if (overwrite) {
-                        file.updateContent(notClosableInputStream);
-                    } else {
-                        throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
+                extractFile(extractFolder, relativePath.getName(), notClosableInputStream, overwrite);
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private void extractInParallel(java.io.File zip, boolean overwrite, int stripNumber)
+            throws IOException, ForbiddenException, ConflictException, ServerException {
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            final Map<Path, ZipEntry> files = new LinkedHashMap<>();
+            final Set<Path> folders = new LinkedHashSet<>();
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry zipEntry = zipEntries.nextElement();
+                final Path relativePath = getRelativePath(zipEntry, stripNumber);
+                if (relativePath == null) {
+                    continue;
+                }
+                if (zipEntry.isDirectory()) {
+                    folders.add(relativePath);
+                    continue;
+                }
+                if (files.containsKey(relativePath)) {
+                    // the same file is extracted twice by the sequential extraction, so the last entry wins
+                    if (!overwrite) {
+                        throw new ConflictException(String.format("File '%s' already exists", folder.getPath().newPath(relativePath)));
                     }
+                    files.remove(relativePath);
                 }
-                zip.closeEntry();
+                files.put(relativePath, zipEntry);
+                if (relativePath.length() > 1) {
+                    folders.add(relativePath.getParent());
+                }
+            }
+
+            final Map<Path, VirtualFile> parents = new HashMap<>();
+            final List<Path> sortedFolders = new ArrayList<>(folders);
+            sortedFolders.sort(comparingInt(Path::length));
+            for (Path relativePath : sortedFolders) {
+                VirtualFile child = folder.getChild(relativePath);
+                if (child == null) {
+                    child = folder.createFolder(relativePath.toString());
+                }
+                parents.put(relativePath, child);
+            }
+
+            // each task extracts files till there are no more left, so at most the given number of threads is used
+            final Queue<Map.Entry<Path, ZipEntry>> queue = new ConcurrentLinkedQueue<>(files.entrySet());
+            final List<FutureTask<Void>> futures = new ArrayList<>(extractThreads);
+            try {
+                for (int i = 0; i < Math.min(extractThreads, files.size()); i++) {
+                    final FutureTask<Void> future = new FutureTask<>(() -> {
+                        try {
+                            Map.Entry<Path, ZipEntry> file;
+                            while (!Thread.currentThread().isInterrupted() && (file = queue.poll()) != null) {
+                                final Path relativePath = file.getKey();
+                                final VirtualFile parent = relativePath.length() > 1 ? parents.get(relativePath.getParent()) : folder;
+                                try (InputStream content = ZipContent.inflate(zipFile, file.getValue())) {
+                                    extractFile(parent, relativePath.getName(), content, overwrite);
+                                }
+                            }
+                        } catch (Exception | Error e) {
+                            // other tasks stop as well, so the failure is reported without extracting the rest of files
+                            queue.clear();
+                            throw e;
+                        }
+                        return null;
+                    });
+                    ZipUtils.getExtractExecutor().execute(future);
+                    futures.add(future);
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof ForbiddenException) {
+                    throw (ForbiddenException)cause;
+                } else if (cause instanceof ConflictException) {
+                    throw (ConflictException)cause;
+                } else if (cause instanceof ServerException) {
+                    throw (ServerException)cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new ServerException(cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServerException(String.format("Extraction of zip archive to '%s' is interrupted", folder.getPath()));
+            } finally {
+                // stops extraction of the rest of files when one of them fails
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    /** Returns path of the entry relative to the folder or {@code null} if the entry is stripped. */
+    private Path getRelativePath(ZipEntry zipEntry, int stripNumber) {
+        Path relativePath = Path.of(zipEntry.getName());
+        if (stripNumber > 0) {
+            if (relativePath.length() <= stripNumber) {
+                return null;
+            }
+            relativePath = relativePath.subPath(stripNumber);
+        }
+        return relativePath;
+    }
+
+    private void extractFile(VirtualFile parent, String fileName, InputStream content, boolean overwrite)
+            throws ForbiddenException, ConflictException, ServerException {
+        VirtualFile file = parent.getChild(Path.of(fileName));
+        if (file == null) {
+            parent.createFile(fileName, content);
+        } else {
+            if (overwrite) {
+                file.updateContent(content);
+            } else {
+                throw new ConflictException(String.format("File '%s' already exists", file.getPath()));
             }
         }
     }
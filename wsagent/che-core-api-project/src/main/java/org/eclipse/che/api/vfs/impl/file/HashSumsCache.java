@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileVisitor;
+import org.eclipse.che.commons.lang.Pair;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.hash.Funnels.asOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Hash sums of files of {@link LocalVirtualFileSystem} which are remembered together with modification time,
+ * size and identity (inode) of the file they are counted for, so hash sum of the file is counted anew only if
+ * any of them is changed. Hash sums are counted in parallel and are saved to the file, so they survive restarts.
+ * The file is rewritten in background a few seconds after hash sums are modified, so a series of calls which count
+ * hash sums of different folders is saved once and callers never wait for the file to be written.
+ *
+ * <p>Hash sums of the files which are modified or deleted are dropped by {@link #invalidate(Path)}, which
+ * is called for changes made through the virtual file system and for changes found by the file watcher.
+ */
+class HashSumsCache {
+    private static final Logger LOG = getLogger(HashSumsCache.class);
+
+    private static final int  VERSION            = 1;
+    private static final long SAVE_DELAY_SECONDS = 5;
+
+    private final java.nio.file.Path                    storage;
+    private final HashFunction                          hashFunction;
+    private final ExecutorService                       executor;
+    private final ScheduledExecutorService              saver;
+    private final ConcurrentNavigableMap<String, Entry> entries;
+    private final Object                                saveLock;
+
+    private boolean loaded;
+    private boolean modified;
+    private boolean saveScheduled;
+
+    /**
+     * @param storage
+     *         file where hash sums are saved
+     * @param hashFunction
+     *         function which counts hash sums
+     * @param executor
+     *         executor which counts hash sums of files in parallel
+     * @param saver
+     *         executor which saves modified hash sums to the file in background
+     */
+    HashSumsCache(java.nio.file.Path storage, HashFunction hashFunction, ExecutorService executor, ScheduledExecutorService saver) {
+        this.storage = storage;
+        this.hashFunction = hashFunction;
+        this.executor = executor;
+        this.saver = saver;
+        this.entries = new ConcurrentSkipListMap<>();
+        this.saveLock = new Object();
+    }
+
+    /**
+     * Returns hash function by name of the algorithm: {@code md5}, {@code sha256}, or one of non-cryptographic
+     * algorithms which are considerably faster than md5: {@code murmur3_128} and {@code sip_hash24}.
+     *
+     * @throws IllegalArgumentException
+     *         if the algorithm is unknown
+     */
+    static HashFunction hashFunction(String algorithm) {
+        switch (algorithm) {
+            case "md5":
+                return Hashing.md5();
+            case "sha256":
+                return Hashing.sha256();
+            case "murmur3_128":
+                return Hashing.murmur3_128();
+            case "sip_hash24":
+                return Hashing.sipHash24();
+            default:
+                throw new IllegalArgumentException("Unknown hash sums algorithm " + algorithm);
+        }
+    }
+
+    /**
+     * Returns hash sums of all files of the folder, each {@code Pair} contains hash sum of the file
+     * represented as HEX string and path of the file relative to the folder.
+     */
+    List<Pair<String, String>> countHashSums(VirtualFile folder) throws ServerException {
+        load();
+        final List<VirtualFile> files = new ArrayList<>();
+        folder.accept(new FilesCollector(files));
+
+        final List<Pair<String, String>> hashSums = new ArrayList<>(files.size());
+        final List<Pair<VirtualFile, Future<Entry>>> counting = new ArrayList<>();
+        final Set<String> visited = new HashSet<>(files.size());
+        for (VirtualFile file : files) {
+            final String key = file.getPath().toString();
+            visited.add(key);
+            final Entry entry = entries.get(key);
+            if (entry != null && entry.isCountedFor(readAttributes(file))) {
+                hashSums.add(Pair.of(entry.hashSum, relativePath(folder, file)));
+            } else {
+                counting.add(Pair.of(file, executor.submit(() -> count(file))));
+            }
+        }
+        for (Pair<VirtualFile, Future<Entry>> pair : counting) {
+            final Entry entry = getResult(pair.second);
+            entries.put(pair.first.getPath().toString(), entry);
+            hashSums.add(Pair.of(entry.hashSum, relativePath(folder, pair.first)));
+        }
+        // forget files of the folder which don't exist anymore
+        final boolean removed = descendants(folder.getPath()).keySet().retainAll(visited);
+        if (!counting.isEmpty() || removed) {
+            scheduleSave();
+        }
+        return hashSums;
+    }
+
+    /** Drops hash sums of the file or of all files of the folder with the given path. */
+    void invalidate(Path path) {
+        final ConcurrentNavigableMap<String, Entry> descendants = descendants(path);
+        final boolean removed = entries.remove(path.toString()) != null || !descendants.isEmpty();
+        descendants.clear();
+        if (removed) {
+            synchronized (this) {
+                modified = true;
+            }
+        }
+    }
+
+    /** Saves hash sums to the file if they are modified since they are loaded or saved last time. */
+    void save() {
+        synchronized (saveLock) {
+            synchronized (this) {
+                saveScheduled = false;
+                if (!modified) {
+                    return;
+                }
+                // hash sums which are modified while the file is written are saved next time
+                modified = false;
+            }
+            try {
+                Files.createDirectories(storage.getParent());
+                final java.nio.file.Path temp = storage.resolveSibling(storage.getFileName() + ".tmp");
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    output.writeInt(VERSION);
+                    final List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+                    output.writeInt(snapshot.size());
+                    for (Map.Entry<String, Entry> entry : snapshot) {
+                        output.writeUTF(entry.getKey());
+                        entry.getValue().write(output);
+                    }
+                }
+                Files.move(temp, storage, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                synchronized (this) {
+                    modified = true;
+                }
+                LOG.warn("Unable save hash sums to '{}': {}", storage, e.getMessage());
+            }
+        }
+    }
+
+    /** Marks hash sums as modified and schedules saving them, unless it is already scheduled. */
+    private synchronized void scheduleSave() {
+        modified = true;
+        if (saveScheduled) {
+            return;
+        }
+        try {
+            saver.schedule(this::save, SAVE_DELAY_SECONDS, SECONDS);
+            saveScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // file system is closed, hash sums are saved on close
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(storage)) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(storage)))) {
+            if (input.readInt() != VERSION) {
+                return;
+            }
+            final int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                entries.put(input.readUTF(), Entry.read(input));
+            }
+        } catch (IOException e) {
+            // hash sums are counted anew
+            entries.clear();
+            LOG.warn("Unable load hash sums from '{}': {}", storage, e.getMessage());
+        }
+    }
+
+    private ConcurrentNavigableMap<String, Entry> descendants(Path folder) {
+        final String prefix = folder.isRoot() ? "/" : folder.toString() + '/';
+        return entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private Entry count(VirtualFile file) throws ServerException {
+        // attributes are read before content, so if file is modified while it is read, its hash sum is counted anew next time
+        final BasicFileAttributes attributes = readAttributes(file);
+        try (InputStream in = file.getContent()) {
+            final Hasher hasher = hashFunction.newHasher();
+            ByteStreams.copy(in, asOutputStream(hasher));
+            return new Entry(attributes, hasher.hash().toString());
+        } catch (IOException e) {
+            throw new ServerException(e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(VirtualFile file) throws ServerException {
+        try {
+            return Files.readAttributes(file.toIoFile().toPath(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new ServerException(String.format("File '%s' is removed while hash sums are counted", file.getPath()));
+        } catch (IOException e) {
+            throw new ServerException(e);
+        }
+    }
+
+    private static Entry getResult(Future<Entry> future) throws ServerException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while counting hash sums");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServerException) {
+                throw (ServerException)e.getCause();
+            }
+            throw new ServerException(e.getCause());
+        }
+    }
+
+    private static String relativePath(VirtualFile folder, VirtualFile file) {
+        return file.getPath().subPath(folder.getPath()).toString();
+    }
+
+    private static class FilesCollector implements VirtualFileVisitor {
+        private final List<VirtualFile> files;
+
+        FilesCollector(List<VirtualFile> files) {
+            this.files = files;
+        }
+
+        @Override
+        public void visit(VirtualFile virtualFile) throws ServerException {
+            if (virtualFile.isFile()) {
+                files.add(virtualFile);
+            } else {
+                for (VirtualFile child : virtualFile.getChildren()) {
+                    child.accept(this);
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        final long   lastModified;
+        final long   length;
+        final String fileKey;
+        final String hashSum;
+
+        Entry(long lastModified, long length, String fileKey, String hashSum) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.fileKey = fileKey;
+            this.hashSum = hashSum;
+        }
+
+        Entry(BasicFileAttributes attributes, String hashSum) {
+            this(attributes.lastModifiedTime().to(NANOSECONDS), attributes.size(), fileKey(attributes), hashSum);
+        }
+
+        boolean isCountedFor(BasicFileAttributes attributes) {
+            return lastModified == attributes.lastModifiedTime().to(NANOSECONDS)
+                   && length == attributes.size()
+                   && Objects.equals(fileKey, fileKey(attributes));
+        }
+
+        void write(DataOutputStream output) throws IOException {
+            output.writeLong(lastModified);
+            output.writeLong(length);
+            output.writeUTF(fileKey);
+            output.writeUTF(hashSum);
+        }
+
+        static Entry read(DataInputStream input) throws IOException {
+            return new Entry(input.readLong(), input.readLong(), input.readUTF(), input.readUTF());
+        }
+
+        /** Returns identity of the file, e.g. device and inode on unix, or empty string if it is unknown. */
+        private static String fileKey(BasicFileAttributes attributes) {
+            final Object fileKey = attributes.fileKey();
+            return fileKey == null ? "" : fileKey.toString();
+        }
+    }
+}
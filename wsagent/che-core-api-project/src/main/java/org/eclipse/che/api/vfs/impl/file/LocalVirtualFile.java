@@ -314,6 +314,11 @@ public class LocalVirtualFile implements VirtualFile {
         return fileSystem.countMd5Sums(this);
     }
 
+    @Override
+    public List<Pair<String, String>> countHashSums() throws ServerException {
+        return fileSystem.countHashSums(this);
+    }
+
     @Override
     public File toIoFile() {
         return ioFile;
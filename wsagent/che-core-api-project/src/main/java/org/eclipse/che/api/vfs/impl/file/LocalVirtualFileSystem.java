@@ -10,44 +10,38 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
-import org.eclipse.che.api.vfs.HashSumsCounter;
 import org.eclipse.che.api.vfs.LockedFileFinder;
 import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.PathLockFactory;
+import org.eclipse.che.api.vfs.PathLockStatistics;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.Searcher;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
-import org.eclipse.che.api.vfs.util.DeleteOnCloseFileInputStream;
+import org.eclipse.che.api.vfs.util.FileChannelInputStream;
+import org.eclipse.che.api.vfs.util.NotClosableOutputStream;
+import org.eclipse.che.api.vfs.util.PipedContentInputStream;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -56,16 +50,20 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
-import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
@@ -79,89 +77,102 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     static final int MAX_BUFFER_SIZE = 200 * 1024; // 200k
 
+    /** Algorithm of hash sums counted by {@link VirtualFile#countHashSums()} if it is not configured. */
+    public static final String DEFAULT_HASH_SUMS_ALGORITHM = "murmur3_128";
+
     private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS      = 1024;
+    private static final int  ARCHIVE_PIPE_BUFFER_SIZE   = 64 * 1024;
+    /** Max number of archives which are compressed at the same time. */
+    private static final int  ARCHIVER_MAX_THREADS       = 16;
+    /** Archive which isn't read by the client for longer than this is not compressed anymore. */
+    private static final long ARCHIVE_WRITE_TIMEOUT      = 60000; // 60 seconds
 
-    private static final String   VFS_SERVICE_DIR        = ".vfs";
-    private static final String   FILE_LOCKS_DIR         = VFS_SERVICE_DIR + File.separatorChar + "locks";
-    private static final String   LOCK_FILE_SUFFIX       = "_lock";
-    private static final FileLock NO_LOCK                = new FileLock("no_lock", 0);
-    private static final String   FILE_PROPERTIES_DIR    = VFS_SERVICE_DIR + File.separatorChar + "props";
-    private static final String   PROPERTIES_FILE_SUFFIX = "_props";
+    private static final String   VFS_SERVICE_DIR = ".vfs";
+    private static final FileLock NO_LOCK         = new FileLock("no_lock", 0);
+    private static final String   METADATA_FILE   = VFS_SERVICE_DIR + File.separatorChar + "metadata";
+    private static final String   HASH_SUMS_DIR   = VFS_SERVICE_DIR + File.separatorChar + "hashes";
 
     private static final FilenameFilter DOT_VFS_DIR_FILTER = (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
 
-    private static final FilenameFilter VFS_LOCK_FILTER =
-            (dir, name) -> !(dir.getAbsolutePath().endsWith(FILE_LOCKS_DIR) || name.endsWith(LOCK_FILE_SUFFIX));
-
-    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
-        @Override
-        public FileLock load(Path path) throws Exception {
-            final File lockIoFile = getFileLockIoFile(path);
-            if (lockIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
-                    return locksSerializer.read(dis);
-                }
-            }
-            return NO_LOCK;
-        }
-    }
-
-    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
-        @Override
-        public Map<String, String> load(Path path) throws Exception {
-            final File metadataIoFile = getMetadataIoFile(path);
-            if (metadataIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
-                    return ImmutableMap.copyOf(metadataSerializer.read(dis));
-                }
-            }
-            return emptyMap();
-        }
-    }
-
     private final File                                            ioRoot;
     private final ArchiverFactory                                 archiverFactory;
     private final SearcherProvider                                searcherProvider;
     private final AbstractVirtualFileSystemProvider.CloseCallback closeCallback;
+    private final ExecutorService                                 archiverExecutor;
+    private final ExecutorService                                 hashingExecutor;
+    private final ScheduledExecutorService                        hashSumsSaver;
+    private final HashSumsCache                                   md5SumsCache;
+    private final HashSumsCache                                   hashSumsCache;
+    private final MetadataStore                                   metadataStore;
 
     /* NOTE -- This does not related to virtual file system locking in any kind. -- */
     private final PathLockFactory pathLockFactory;
 
     private final LocalVirtualFile root;
 
-    private final FileLockSerializer           locksSerializer;
-    private final LoadingCache<Path, FileLock> lockTokensCache;
-
-    private final FileMetadataSerializer                  metadataSerializer;
-    private final LoadingCache<Path, Map<String, String>> metadataCache;
+    public LocalVirtualFileSystem(File ioRoot,
+                                  ArchiverFactory archiverFactory,
+                                  SearcherProvider searcherProvider,
+                                  AbstractVirtualFileSystemProvider.CloseCallback closeCallback) {
+        this(ioRoot, archiverFactory, searcherProvider, closeCallback, DEFAULT_HASH_SUMS_ALGORITHM);
+    }
 
+    /**
+     * @param hashSumsAlgorithm
+     *         algorithm of hash sums counted by {@link VirtualFile#countHashSums()}, see {@link HashSumsCache#hashFunction(String)}
+     * @throws IllegalArgumentException
+     *         if the algorithm is unknown
+     */
     @SuppressWarnings("unchecked")
     public LocalVirtualFileSystem(File ioRoot,
                                   ArchiverFactory archiverFactory,
                                   SearcherProvider searcherProvider,
-                                  AbstractVirtualFileSystemProvider.CloseCallback closeCallback) {
+                                  AbstractVirtualFileSystemProvider.CloseCallback closeCallback,
+                                  String hashSumsAlgorithm) {
         this.ioRoot = ioRoot;
         this.archiverFactory = archiverFactory;
         this.searcherProvider = searcherProvider;
         this.closeCallback = closeCallback;
+        // tasks are not queued, so a client never waits for an archive which is not being compressed
+        this.archiverExecutor = new ThreadPoolExecutor(0, ARCHIVER_MAX_THREADS,
+                                                       60L, SECONDS,
+                                                       new SynchronousQueue<>(),
+                                                       new ThreadFactoryBuilder().setNameFormat("LocalVirtualFileSystem-Archiver-%d")
+                                                                                 .setUncaughtExceptionHandler(
+                                                                                         LoggingUncaughtExceptionHandler.getInstance())
+                                                                                 .setDaemon(true)
+                                                                                 .build());
+        final int hashingThreads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor hashingExecutor = new ThreadPoolExecutor(hashingThreads, hashingThreads,
+                                                                          60L, SECONDS,
+                                                                          new LinkedBlockingQueue<>(),
+                                                                          new ThreadFactoryBuilder()
+                                                                                  .setNameFormat("LocalVirtualFileSystem-Hashing-%d")
+                                                                                  .setUncaughtExceptionHandler(
+                                                                                          LoggingUncaughtExceptionHandler.getInstance())
+                                                                                  .setDaemon(true)
+                                                                                  .build());
+        // threads are stopped when hash sums are not counted for a while
+        hashingExecutor.allowCoreThreadTimeOut(true);
+        this.hashingExecutor = hashingExecutor;
+        // hash sums are saved in background, so counting them doesn't wait for the file to be written
+        this.hashSumsSaver = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                                .setNameFormat("LocalVirtualFileSystem-HashSumsSaver-%d")
+                                                                                .setUncaughtExceptionHandler(
+                                                                                        LoggingUncaughtExceptionHandler.getInstance())
+                                                                                .setDaemon(true)
+                                                                                .build());
+        this.md5SumsCache = new HashSumsCache(hashSumsFile(ioRoot, "md5"), Hashing.md5(), hashingExecutor, hashSumsSaver);
+        this.hashSumsCache = "md5".equals(hashSumsAlgorithm) ? md5SumsCache
+                                                             : new HashSumsCache(hashSumsFile(ioRoot, hashSumsAlgorithm),
+                                                                                 HashSumsCache.hashFunction(hashSumsAlgorithm),
+                                                                                 hashingExecutor,
+                                                                                 hashSumsSaver);
+        this.metadataStore = new MetadataStore(new File(ioRoot, METADATA_FILE).toPath(), ioRoot.toPath());
 
         root = new LocalVirtualFile(ioRoot, Path.ROOT, this);
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
-
-        locksSerializer = new FileLockSerializer();
-        lockTokensCache = CacheBuilder.newBuilder()
-                                      .concurrencyLevel(8)
-                                      .maximumSize(256)
-                                      .expireAfterAccess(10, MINUTES)
-                                      .build(new LockTokenCacheLoader());
-
-        metadataSerializer = new FileMetadataSerializer();
-        metadataCache = CacheBuilder.newBuilder()
-                                    .concurrencyLevel(8)
-                                    .maximumSize(256)
-                                    .expireAfterAccess(10, MINUTES)
-                                    .build(new FilePropertiesCacheLoader());
     }
 
     @Override
@@ -176,7 +187,13 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     @Override
     public void close() throws ServerException {
-        cleanUpCaches();
+        LOG.debug("Statistics of file locks of {}: {}", ioRoot, pathLockFactory.getStatistics());
+        archiverExecutor.shutdownNow();
+        hashingExecutor.shutdownNow();
+        hashSumsSaver.shutdownNow();
+        md5SumsCache.save();
+        hashSumsCache.save();
+        metadataStore.close();
         if (searcherProvider != null) {
             Searcher searcher = searcherProvider.getSearcher(this, false);
             if (searcher != null) {
@@ -205,9 +222,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return Objects.hashCode(ioRoot);
     }
 
-    private void cleanUpCaches() {
-        lockTokensCache.invalidateAll();
-        metadataCache.invalidateAll();
+    /** Used in tests. */
+    MetadataStore getMetadataStore() {
+        return metadataStore;
     }
 
     /** Used in tests. Need this to check state of PathLockFactory. All locks MUST be released at the end of request lifecycle. */
@@ -215,6 +232,11 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return pathLockFactory;
     }
 
+    /** Returns statistics of waiting for the internal locks of files, e.g. for monitoring of contention between requests. */
+    public PathLockStatistics getPathLockStatistics() {
+        return pathLockFactory.getStatistics();
+    }
+
 
     LocalVirtualFile getParent(LocalVirtualFile virtualFile) {
         if (virtualFile.isRoot()) {
@@ -375,13 +397,9 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             // will see error and may try to copy again. But if we successfully copy tree (or single file) and then fail to copy
             // metadata client may not try to copy again because copy destination already exists.
 
-            final File fromMetadataFile = getMetadataIoFile(from.getPath());
-            final File toMetadataFile = getMetadataIoFile(to.getPath());
-            if (fromMetadataFile.exists()) {
-                IoUtil.copy(fromMetadataFile, toMetadataFile, null);
-            }
+            metadataStore.copy(from.getPath(), to.getPath());
 
-            IoUtil.copy(from.toIoFile(), to.toIoFile(), VFS_LOCK_FILTER);
+            IoUtil.copy(from.toIoFile(), to.toIoFile(), DOT_VFS_DIR_FILTER);
         } catch (IOException e) {
             String errorMessage = String.format("Unable copy '%s' to '%s'", from, to);
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -389,6 +407,21 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
+    private void doMove(LocalVirtualFile from, LocalVirtualFile to) throws ServerException {
+        try {
+            // Unlike copying, metadata is moved after tree (or single file) is copied, otherwise source loses its
+            // metadata if copying fails. Properties of all items of the tree are moved at once.
+
+            IoUtil.copy(from.toIoFile(), to.toIoFile(), DOT_VFS_DIR_FILTER);
+
+            metadataStore.move(from.getPath(), to.getPath());
+        } catch (IOException e) {
+            String errorMessage = String.format("Unable move '%s' to '%s'", from, to);
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
+            throw new ServerException(errorMessage);
+        }
+    }
+
 
     LocalVirtualFile rename(LocalVirtualFile virtualFile, String newName, String lockToken)
             throws ForbiddenException, ConflictException, ServerException {
@@ -420,7 +453,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                 throw new ConflictException(String.format("Item '%s' already exists", newVirtualFile.getName()));
             }
 
-            doCopy(virtualFile, newVirtualFile);
+            doMove(virtualFile, newVirtualFile);
             addInSearcher(newVirtualFile);
 
             final Path path = virtualFile.getPath();
@@ -476,7 +509,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             }
         }
 
-        doCopy(virtualFile, newVirtualFile);
+        doMove(virtualFile, newVirtualFile);
         addInSearcher(newVirtualFile);
 
         final Path path = virtualFile.getPath();
@@ -491,21 +524,16 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     InputStream getContent(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         if (virtualFile.isFile()) {
             final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
-            File spoolFile = null;
             try {
                 final File ioFile = virtualFile.toIoFile();
                 final long fileLength = ioFile.length();
                 if (fileLength <= MAX_BUFFER_SIZE) {
                     return new ByteArrayInputStream(Files.toByteArray(ioFile));
                 }
-                // Copy this file to be able release the file lock before leave this method.
-                spoolFile = File.createTempFile("spool_file", null);
-                Files.copy(ioFile, spoolFile);
-                return new DeleteOnCloseFileInputStream(spoolFile);
+                // Content is read from the file channel after the file lock is released,
+                // the stream fails if the file is modified while it is read.
+                return new FileChannelInputStream(ioFile.toPath());
             } catch (IOException e) {
-                if (spoolFile != null) {
-                    FileCleaner.addFile(spoolFile);
-                }
                 String errorMessage = String.format("Unable get content of '%s'", virtualFile.getPath());
                 LOG.error(errorMessage + "\n" + e.getMessage(), e);
                 throw new ServerException(errorMessage);
@@ -530,6 +558,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             } finally {
                 lock.release();
             }
+            invalidateHashSums(virtualFile.getPath());
             updateInSearcher(virtualFile);
         } else {
             throw new ForbiddenException(String.format("Unable update content. Item '%s' is not file", virtualFile.getPath()));
@@ -571,28 +600,18 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(String.format("Unable delete file '%s'. File is locked", virtualFile.getPath()));
         }
 
-        cleanUpCaches();
-
-        final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-        if (fileLockIoFile.delete()) {
-            if (fileLockIoFile.exists()) {
-                LOG.error("Unable delete lock file {}", fileLockIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
-        }
-
-        final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-        if (metadataIoFile.delete()) {
-            if (metadataIoFile.exists()) {
-                LOG.error("Unable delete metadata file {}", metadataIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
-        }
-
+        // metadata is kept if the item is not deleted, otherwise items which are left lose their properties
         if (!deleteRecursive(virtualFile.toIoFile())) {
             LOG.error("Unable delete file {}", virtualFile.toIoFile());
             throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
         }
+
+        try {
+            metadataStore.delete(virtualFile.getPath());
+        } catch (IOException e) {
+            LOG.error("Unable delete metadata of {}\n{}", virtualFile.getPath(), e.getMessage(), e);
+            throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
+        }
     }
 
 
@@ -646,18 +665,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
+    /** Returns archive which is compressed while it is read, so it is never stored in a temporary file. */
     private InputStream compress(Archiver archiver) throws ForbiddenException, ServerException {
-        File archive = null;
         try {
-            archive = File.createTempFile("export", ".arc");
-            try (FileOutputStream fileOut = new FileOutputStream(archive)) {
-                archiver.compress(fileOut, dotGitFilter());
-            }
-            return new DeleteOnCloseFileInputStream(archive);
+            return new PipedContentInputStream(output -> archiver.compress(new NotClosableOutputStream(output), dotGitFilter()),
+                                               archiverExecutor,
+                                               ARCHIVE_PIPE_BUFFER_SIZE,
+                                               ARCHIVE_WRITE_TIMEOUT);
         } catch (IOException e) {
-            if (archive != null) {
-                FileCleaner.addFile(archive);
-            }
             throw new ServerException(e.getMessage(), e);
         }
     }
@@ -686,24 +701,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private String doLock(LocalVirtualFile virtualFile, long timeout) throws ConflictException, ServerException {
         try {
-            if (NO_LOCK == lockTokensCache.get(virtualFile.getPath())) {
+            if (metadataStore.getLock(virtualFile.getPath()) == null) {
                 final FileLock lock = createLock(timeout);
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                fileLockIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
-                    locksSerializer.write(dos, lock);
-                }
-                lockTokensCache.put(virtualFile.getPath(), lock);
+                metadataStore.setLock(virtualFile.getPath(), lock);
                 return lock.getLockToken();
             }
             throw new ConflictException(String.format("Unable lock file '%s'. File already locked", virtualFile.getPath()));
-        } catch (IOException | ExecutionException e) {
+        } catch (IOException e) {
             String errorMessage = String.format("Unable lock file '%s'", virtualFile.getPath());
-            if (e instanceof ExecutionException) {
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-            } else {
-                LOG.error(errorMessage + "\n" + e.getMessage(), e);
-            }
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         }
     }
@@ -743,13 +749,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private void doUnlock(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         try {
-            final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-            if (!fileLockIoFile.delete()) {
-                if (fileLockIoFile.exists()) {
-                    throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
-                }
-            }
-            lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
+            metadataStore.removeLock(virtualFile.getPath());
         } catch (IOException e) {
             String errorMessage = String.format("Unable unlock file '%s'", virtualFile.getPath());
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -773,54 +773,36 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         final PathLockFactory.PathLock lockFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), true).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            final FileLock lock;
-            try {
-                lock = lockTokensCache.get(virtualFile.getPath());
-            } catch (ExecutionException e) {
-                String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-                throw new ServerException(errorMessage);
-            }
-            if (NO_LOCK == lock) {
-                return lock;
+            final FileLock lock = metadataStore.getLock(virtualFile.getPath());
+            if (lock == null) {
+                return NO_LOCK;
             }
             if (lock.getExpired() < System.currentTimeMillis()) {
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                if (!fileLockIoFile.delete()) {
-                    if (fileLockIoFile.exists()) {
-                        FileCleaner.addFile(fileLockIoFile);
-                        LOG.warn("Unable delete lock file %s", fileLockIoFile);
-                    }
+                try {
+                    metadataStore.removeLock(virtualFile.getPath());
+                } catch (IOException e) {
+                    LOG.warn("Unable remove expired lock of file {}: {}", virtualFile.getPath(), e.getMessage());
                 }
-                lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
                 return NO_LOCK;
             }
             return lock;
+        } catch (IOException e) {
+            String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
+            throw new ServerException(errorMessage);
         } finally {
             lockFilePathLock.release();
         }
     }
 
-    private File getFileLockIoFile(Path virtualFilePath) {
-        final String fileLockFileName = virtualFilePath.getName() + LOCK_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_LOCKS_DIR, fileLockFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_LOCKS_DIR, fileLockFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     Map<String, String> getProperties(LocalVirtualFile virtualFile) throws ServerException {
         final PathLockFactory.PathLock metadataFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            return newLinkedHashMap(metadataCache.get(virtualFile.getPath()));
-        } catch (ExecutionException e) {
+            return newLinkedHashMap(metadataStore.getProperties(virtualFile.getPath()));
+        } catch (IOException e) {
             String errorMessage = String.format("Unable read properties of file '%s'", virtualFile.getPath());
-            LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         } finally {
             metadataFilePathLock.release();
@@ -858,22 +840,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                 }
             }
 
-            final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-            if (properties.isEmpty()) {
-                if (!metadataIoFile.delete()) {
-                    if (metadataIoFile.exists()) {
-                        LOG.error("Unable delete metadata file {}", metadataIoFile);
-                        throw new IOException(String.format("Unable update properties of item '%s'", virtualFile.getPath()));
-                    }
-                }
-            } else {
-                metadataIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
-                    metadataSerializer.write(dos, properties);
-                }
-            }
-
-            metadataCache.put(virtualFile.getPath(), properties);
+            metadataStore.setProperties(virtualFile.getPath(), properties);
 
             if (!virtualFile.toIoFile().setLastModified(System.currentTimeMillis())) {
                 LOG.warn("Unable to set timestamp to '{}'", virtualFile.toIoFile());
@@ -892,23 +859,31 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        final String metadataFileName = virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_PROPERTIES_DIR, metadataFileName);
+    List<Pair<String, String>> countMd5Sums(LocalVirtualFile virtualFile) throws ServerException {
+        if (virtualFile.isFile()) {
+            return emptyList();
         }
-        return new File(ioRoot, toIoPath(metadataFilePath));
+        return md5SumsCache.countHashSums(virtualFile);
     }
 
 
-    List<Pair<String, String>> countMd5Sums(LocalVirtualFile virtualFile) throws ServerException {
+    List<Pair<String, String>> countHashSums(LocalVirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
             return emptyList();
         }
-        return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+        return hashSumsCache.countHashSums(virtualFile);
+    }
+
+    /** Drops remembered hash sums of the file or of all files of the folder, e.g. when it is modified outside of the file system. */
+    void invalidateHashSums(Path path) {
+        md5SumsCache.invalidate(path);
+        if (hashSumsCache != md5SumsCache) {
+            hashSumsCache.invalidate(path);
+        }
+    }
+
+    private static java.nio.file.Path hashSumsFile(File ioRoot, String algorithm) {
+        return new File(ioRoot, HASH_SUMS_DIR + File.separatorChar + algorithm).toPath();
     }
 
 
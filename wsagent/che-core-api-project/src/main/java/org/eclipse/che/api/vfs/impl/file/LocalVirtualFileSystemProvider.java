@@ -15,6 +15,8 @@ import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.ArchiverFactory;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.schedule.ScheduleRate;
+import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -22,22 +24,58 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.zip.Deflater;
+
+import static org.slf4j.LoggerFactory.getLogger;
 
 @Singleton
 public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemProvider {
+    private static final Logger LOG = getLogger(LocalVirtualFileSystemProvider.class);
+
     private final File             rootDirectory;
     private final SearcherProvider searcherProvider;
+    private final int              compressionLevel;
+    private final String           hashSumsAlgorithm;
+
+    public LocalVirtualFileSystemProvider(File rootDirectory, SearcherProvider searcherProvider) throws IOException {
+        this(rootDirectory, searcherProvider, Deflater.DEFAULT_COMPRESSION, LocalVirtualFileSystem.DEFAULT_HASH_SUMS_ALGORITHM);
+    }
 
+    /**
+     * @param compressionLevel
+     *         compression level of exported zip archives from 0 to 9 or -1 for the default level
+     * @param hashSumsAlgorithm
+     *         algorithm of hash sums counted by {@link org.eclipse.che.api.vfs.VirtualFile#countHashSums()}:
+     *         md5, sha256, murmur3_128 or sip_hash24
+     */
     @Inject
     public LocalVirtualFileSystemProvider(@Named("che.user.workspaces.storage") File rootDirectory,
-                                          SearcherProvider searcherProvider) throws IOException {
+                                          SearcherProvider searcherProvider,
+                                          @Named("che.vfs.archive.compression_level") int compressionLevel,
+                                          @Named("che.vfs.hash_sums.algorithm") String hashSumsAlgorithm) throws IOException {
+        // fails fast on misconfiguration rather than when the file system is created
+        HashSumsCache.hashFunction(hashSumsAlgorithm);
         this.rootDirectory = rootDirectory;
         this.searcherProvider = searcherProvider;
+        this.compressionLevel = compressionLevel;
+        this.hashSumsAlgorithm = hashSumsAlgorithm;
         Files.createDirectories(rootDirectory.toPath());
     }
 
     @Override
     protected VirtualFileSystem createVirtualFileSystem(CloseCallback closeCallback) throws ServerException {
-        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback);
+        // local files may be created concurrently, so zip archives are extracted in parallel
+        final ArchiverFactory archiverFactory = new ArchiverFactory(compressionLevel, Runtime.getRuntime().availableProcessors());
+        return new LocalVirtualFileSystem(rootDirectory, archiverFactory, searcherProvider, closeCallback, hashSumsAlgorithm);
+    }
+
+    /** Periodically logs statistics of waiting for the locks of files, e.g. to monitor contention between requests. */
+    @ScheduleRate(initialDelayParameterName = "che.vfs.path_lock.statistics_log_period_sec",
+                  periodParameterName = "che.vfs.path_lock.statistics_log_period_sec")
+    void logPathLockStatistics() {
+        final VirtualFileSystem fileSystem = fileSystemReference.get();
+        if (fileSystem instanceof LocalVirtualFileSystem) {
+            LOG.info("File locks: {}", ((LocalVirtualFileSystem)fileSystem).getPathLockStatistics());
+        }
     }
 }
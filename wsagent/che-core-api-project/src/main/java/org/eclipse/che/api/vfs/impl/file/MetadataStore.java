@@ -0,0 +1,459 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.google.common.collect.Maps.immutableEntry;
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Properties and lock tokens of files of {@link LocalVirtualFileSystem} which are kept in memory in the map sorted by path,
+ * so all the items of a folder are a single range of the map, and are saved to the single file.
+ *
+ * <p>Each change is appended to the file as a record, removing, copying or moving of a folder is a single record for all
+ * its items. The file is rewritten with the current state when it is loaded and when it contains many more records than
+ * there are items, so it doesn't grow infinitely.
+ *
+ * <p>Properties and lock tokens which are saved by the previous versions to {@code .vfs/props} and {@code .vfs/locks}
+ * folders next to the files are imported when the file of the store doesn't exist yet.
+ */
+class MetadataStore {
+    private static final Logger LOG = getLogger(MetadataStore.class);
+
+    private static final int VERSION = 1;
+
+    private static final byte PROPERTIES = 1;
+    private static final byte LOCK       = 2;
+    private static final byte UNLOCK     = 3;
+    private static final byte DELETE     = 4;
+    private static final byte COPY       = 5;
+    private static final byte MOVE       = 6;
+
+    /** Min number of records in the file which makes it rewritten. */
+    private static final int MIN_REWRITE_RECORDS = 1024;
+
+    private static final String LEGACY_VFS_DIR           = ".vfs";
+    private static final String LEGACY_PROPERTIES_DIR    = "props";
+    private static final String LEGACY_PROPERTIES_SUFFIX = "_props";
+    private static final String LEGACY_LOCKS_DIR         = "locks";
+    private static final String LEGACY_LOCK_SUFFIX       = "_lock";
+
+    private final java.nio.file.Path                    storage;
+    private final java.nio.file.Path                    ioRoot;
+    private final FileMetadataSerializer                propertiesSerializer;
+    private final FileLockSerializer                    lockSerializer;
+    private final ConcurrentNavigableMap<String, Entry> entries;
+
+    private volatile boolean          loaded;
+    private          DataOutputStream log;
+    private          int              records;
+
+    /**
+     * @param storage
+     *         file where properties and lock tokens are saved
+     * @param ioRoot
+     *         root folder of the virtual file system, it is searched for the files of the previous versions
+     */
+    MetadataStore(java.nio.file.Path storage, java.nio.file.Path ioRoot) {
+        this.storage = storage;
+        this.ioRoot = ioRoot;
+        this.propertiesSerializer = new FileMetadataSerializer();
+        this.lockSerializer = new FileLockSerializer();
+        this.entries = new ConcurrentSkipListMap<>();
+    }
+
+    /** Returns properties of the item or empty map if it doesn't have properties. */
+    Map<String, String> getProperties(Path path) throws IOException {
+        load();
+        final Entry entry = entries.get(path.toString());
+        return entry == null ? emptyMap() : entry.properties;
+    }
+
+    /** Replaces properties of the item, empty map removes them. */
+    synchronized void setProperties(Path path, Map<String, String> properties) throws IOException {
+        load();
+        final String key = path.toString();
+        final Map<String, String> copy = ImmutableMap.copyOf(properties);
+        append(output -> writeProperties(output, key, copy));
+        update(key, copy, getLock(key));
+    }
+
+    /** Returns lock of the item or {@code null} if it isn't locked. */
+    FileLock getLock(Path path) throws IOException {
+        load();
+        return getLock(path.toString());
+    }
+
+    synchronized void setLock(Path path, FileLock lock) throws IOException {
+        load();
+        final String key = path.toString();
+        append(output -> writeLock(output, key, lock));
+        update(key, getProperties(key), lock);
+    }
+
+    synchronized void removeLock(Path path) throws IOException {
+        load();
+        final String key = path.toString();
+        if (getLock(key) != null) {
+            append(output -> {
+                output.writeByte(UNLOCK);
+                output.writeUTF(key);
+            });
+            update(key, getProperties(key), null);
+        }
+    }
+
+    /** Removes properties and locks of the item and of all items of the folder with the given path. */
+    synchronized void delete(Path path) throws IOException {
+        load();
+        final String key = path.toString();
+        if (hasEntries(key)) {
+            append(output -> {
+                output.writeByte(DELETE);
+                output.writeUTF(key);
+            });
+            doDelete(key);
+        }
+    }
+
+    /**
+     * Copies properties of the item and of all items of the folder to the new path, properties which the destination has
+     * are removed. Lock tokens are not copied.
+     */
+    synchronized void copy(Path from, Path to) throws IOException {
+        load();
+        writeCopy(COPY, from.toString(), to.toString());
+    }
+
+    /**
+     * Moves properties of the item and of all items of the folder to the new path, properties which the destination has
+     * are removed. Lock tokens are removed, as moved items are not locked anymore.
+     */
+    synchronized void move(Path from, Path to) throws IOException {
+        load();
+        writeCopy(MOVE, from.toString(), to.toString());
+    }
+
+    /** Closes the file of the store, it is reopened if the store is modified after that. */
+    synchronized void close() {
+        closeLog();
+    }
+
+    private void writeCopy(byte type, String from, String to) throws IOException {
+        if (hasEntries(from) || hasEntries(to)) {
+            append(output -> {
+                output.writeByte(type);
+                output.writeUTF(from);
+                output.writeUTF(to);
+            });
+            doCopy(from, to, type == MOVE);
+        }
+    }
+
+    private Map<String, String> getProperties(String key) {
+        final Entry entry = entries.get(key);
+        return entry == null ? emptyMap() : entry.properties;
+    }
+
+    private FileLock getLock(String key) {
+        final Entry entry = entries.get(key);
+        return entry == null ? null : entry.lock;
+    }
+
+    private void update(String key, Map<String, String> properties, FileLock lock) {
+        if (properties.isEmpty() && lock == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry(properties, lock));
+        }
+    }
+
+    private void doDelete(String key) {
+        entries.remove(key);
+        descendants(key).clear();
+    }
+
+    private void doCopy(String from, String to, boolean move) {
+        final List<Map.Entry<String, Entry>> source = new ArrayList<>();
+        final Entry entry = entries.get(from);
+        if (entry != null) {
+            source.add(immutableEntry(from, entry));
+        }
+        source.addAll(descendants(from).entrySet());
+        if (move) {
+            doDelete(from);
+        }
+        doDelete(to);
+        for (Map.Entry<String, Entry> item : source) {
+            final Map<String, String> properties = item.getValue().properties;
+            if (!properties.isEmpty()) {
+                entries.put(to + item.getKey().substring(from.length()), new Entry(properties, null));
+            }
+        }
+    }
+
+    private boolean hasEntries(String key) {
+        return entries.containsKey(key) || !descendants(key).isEmpty();
+    }
+
+    private ConcurrentNavigableMap<String, Entry> descendants(String key) {
+        final String prefix = "/".equals(key) ? key : key + '/';
+        return entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void append(Record record) throws IOException {
+        if (log == null || records > Math.max(MIN_REWRITE_RECORDS, entries.size() * 2)) {
+            rewrite();
+        }
+        try {
+            record.write(log);
+            log.flush();
+        } catch (IOException e) {
+            // the file may end with incomplete record, so it is rewritten before the next change
+            closeLog();
+            throw e;
+        }
+        records++;
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            entries.clear();
+            final List<java.nio.file.Path> legacyDirs;
+            if (Files.exists(storage)) {
+                legacyDirs = emptyList();
+                replay();
+            } else {
+                legacyDirs = importLegacyFiles();
+            }
+            // file is written even if there is nothing to save, so files of the previous versions are searched only once
+            rewrite();
+            for (java.nio.file.Path dir : legacyDirs) {
+                deleteRecursive(dir.toFile());
+                // removed only if there is nothing else in it
+                dir.getParent().toFile().delete();
+            }
+            loaded = true;
+        }
+    }
+
+    private void replay() {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(storage)))) {
+            if (input.readInt() != VERSION) {
+                LOG.warn("Unsupported version of properties and locks file '{}', it is skipped", storage);
+                return;
+            }
+            for (; ; ) {
+                final byte type;
+                try {
+                    type = input.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                apply(type, input);
+            }
+        } catch (IOException e) {
+            // the last record is incomplete if process is stopped while it is written
+            LOG.warn("Unable read properties and locks from '{}', rest of the file is skipped: {}", storage, e.getMessage());
+        }
+    }
+
+    private void apply(byte type, DataInputStream input) throws IOException {
+        final String key = input.readUTF();
+        switch (type) {
+            case PROPERTIES:
+                update(key, ImmutableMap.copyOf(propertiesSerializer.read(input)), getLock(key));
+                break;
+            case LOCK:
+                final FileLock lock = new FileLock(input.readUTF(), input.readLong());
+                update(key, getProperties(key), lock);
+                break;
+            case UNLOCK:
+                update(key, getProperties(key), null);
+                break;
+            case DELETE:
+                doDelete(key);
+                break;
+            case COPY:
+            case MOVE:
+                doCopy(key, input.readUTF(), type == MOVE);
+                break;
+            default:
+                throw new IOException(String.format("Unknown type of record %d", type));
+        }
+    }
+
+    private void rewrite() throws IOException {
+        closeLog();
+        Files.createDirectories(storage.getParent());
+        final java.nio.file.Path temp = storage.resolveSibling(storage.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(VERSION);
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (!entry.getValue().properties.isEmpty()) {
+                    writeProperties(output, entry.getKey(), entry.getValue().properties);
+                    written++;
+                }
+                if (entry.getValue().lock != null) {
+                    writeLock(output, entry.getKey(), entry.getValue().lock);
+                    written++;
+                }
+            }
+        }
+        Files.move(temp, storage, REPLACE_EXISTING, ATOMIC_MOVE);
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(storage, APPEND)));
+        records = written;
+    }
+
+    private void closeLog() {
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                LOG.warn("Unable close properties and locks file '{}': {}", storage, e.getMessage());
+            }
+            log = null;
+        }
+    }
+
+    private void writeProperties(DataOutput output, String key, Map<String, String> properties) throws IOException {
+        output.writeByte(PROPERTIES);
+        output.writeUTF(key);
+        propertiesSerializer.write(output, properties);
+    }
+
+    private static void writeLock(DataOutput output, String key, FileLock lock) throws IOException {
+        output.writeByte(LOCK);
+        output.writeUTF(key);
+        output.writeUTF(lock.getLockToken());
+        output.writeLong(lock.getExpired());
+    }
+
+    /** Imports files of the previous versions, returns folders where they are found. */
+    private List<java.nio.file.Path> importLegacyFiles() throws IOException {
+        final List<java.nio.file.Path> legacyDirs = new ArrayList<>();
+        if (!Files.isDirectory(ioRoot)) {
+            return legacyDirs;
+        }
+        Files.walkFileTree(ioRoot, new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attributes) {
+                if (!LEGACY_VFS_DIR.equals(String.valueOf(dir.getFileName()))) {
+                    return CONTINUE;
+                }
+                final String relative = ioRoot.relativize(dir.getParent()).toString().replace(File.separatorChar, '/');
+                final Path parent = Path.ROOT.newPath(relative);
+                final java.nio.file.Path propertiesDir = dir.resolve(LEGACY_PROPERTIES_DIR);
+                for (java.nio.file.Path file : listLegacyFiles(propertiesDir, LEGACY_PROPERTIES_SUFFIX)) {
+                    final String key = legacyKey(parent, file, LEGACY_PROPERTIES_SUFFIX);
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                        update(key, ImmutableMap.copyOf(propertiesSerializer.read(input)), getLock(key));
+                    } catch (IOException e) {
+                        LOG.warn("Unable import properties from '{}': {}", file, e.getMessage());
+                    }
+                }
+                final java.nio.file.Path locksDir = dir.resolve(LEGACY_LOCKS_DIR);
+                for (java.nio.file.Path file : listLegacyFiles(locksDir, LEGACY_LOCK_SUFFIX)) {
+                    final String key = legacyKey(parent, file, LEGACY_LOCK_SUFFIX);
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                        update(key, getProperties(key), lockSerializer.read(input));
+                    } catch (IOException e) {
+                        LOG.warn("Unable import lock from '{}': {}", file, e.getMessage());
+                    }
+                }
+                if (Files.isDirectory(propertiesDir)) {
+                    legacyDirs.add(propertiesDir);
+                }
+                if (Files.isDirectory(locksDir)) {
+                    legacyDirs.add(locksDir);
+                }
+                return SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(java.nio.file.Path file, IOException e) {
+                return CONTINUE;
+            }
+        });
+        return legacyDirs;
+    }
+
+    private static List<java.nio.file.Path> listLegacyFiles(java.nio.file.Path dir, String suffix) {
+        final List<java.nio.file.Path> files = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(dir, "*" + suffix)) {
+                stream.forEach(files::add);
+            } catch (IOException e) {
+                LOG.warn("Unable list files of '{}': {}", dir, e.getMessage());
+            }
+        }
+        return files;
+    }
+
+    /** Item of the folder itself has empty name, it happens only for the root folder. */
+    private static String legacyKey(Path parent, java.nio.file.Path file, String suffix) {
+        final String fileName = file.getFileName().toString();
+        final String name = fileName.substring(0, fileName.length() - suffix.length());
+        return (name.isEmpty() ? parent : parent.newPath(name)).toString();
+    }
+
+    private interface Record {
+        void write(DataOutput output) throws IOException;
+    }
+
+    private static class Entry {
+        final Map<String, String> properties;
+        final FileLock            lock;
+
+        Entry(Map<String, String> properties, FileLock lock) {
+            this.properties = properties;
+            this.lock = lock;
+        }
+    }
+}
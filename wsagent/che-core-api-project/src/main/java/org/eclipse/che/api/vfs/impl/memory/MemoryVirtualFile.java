@@ -228,6 +228,11 @@ public class MemoryVirtualFile implements VirtualFile {
         return new HashSumsCounter(this, Hashing.md5()).countHashSums();
     }
 
+    @Override
+    public List<Pair<String, String>> countHashSums() throws ServerException {
+        return countMd5Sums();
+    }
+
     @Override
     public List<VirtualFile> getChildren(VirtualFileFilter filter) {
         checkExistence();
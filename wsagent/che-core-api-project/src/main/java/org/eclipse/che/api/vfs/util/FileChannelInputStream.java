@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads content of the file directly from the file channel, so the file is neither copied
+ * into memory nor into temporary file and the file lock may be released right after opening it.
+ *
+ * <p>Modification time and size of the file are remembered when it is opened and are checked
+ * again when the content is read till its end, {@link IOException} is thrown instead of the end
+ * of the stream if the file is modified while it is read. So the reader never gets content which
+ * is mixed from two versions of the file without noticing it.
+ */
+public class FileChannelInputStream extends InputStream {
+    private final Path        file;
+    private final FileChannel channel;
+    private final long        length;
+    private final FileTime    lastModified;
+
+    private long position;
+    private long mark;
+
+    /**
+     * Opens the file, it should be done while the file lock is held.
+     *
+     * @throws IOException
+     *         if the file can't be opened
+     */
+    public FileChannelInputStream(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, READ);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            this.length = attributes.size();
+            this.lastModified = attributes.lastModifiedTime();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Returns length of the file at the moment it is opened. */
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            checkNotModified();
+            return -1;
+        }
+        final int read = channel.read(ByteBuffer.wrap(b, off, (int)Math.min(len, length - position)), position);
+        if (read == -1) {
+            // file is truncated
+            checkNotModified();
+            return -1;
+        }
+        position += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = Math.max(0, Math.min(n, length - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int)Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        mark = position;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        position = mark;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkNotModified() throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != length || !attributes.lastModifiedTime().equals(lastModified)) {
+            throw new IOException(String.format("File '%s' is modified while its content is read", file));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+
+/**
+ * Content which is already saved to a local file, e.g. downloaded archive. Consumers which need the content in a file,
+ * like {@link ZipContent}, read the file instead of copying the content to a temporary file. The file is not deleted
+ * when the stream is closed.
+ */
+public final class FileContentInputStream extends FileInputStream {
+    private final java.io.File file;
+
+    public FileContentInputStream(java.io.File file) throws FileNotFoundException {
+        super(file);
+        this.file = file;
+    }
+
+    public java.io.File getFile() {
+        return file;
+    }
+}
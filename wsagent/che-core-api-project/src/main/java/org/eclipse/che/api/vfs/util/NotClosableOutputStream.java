@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Wrapper for OutputStream which prevent close of wrapped stream, the wrapped stream is only flushed.
+ * <p/>
+ * For example, useful if need to finish writing of archive but the stream it is written to should be closed by its owner.
+ */
+public final class NotClosableOutputStream extends FilterOutputStream {
+    public NotClosableOutputStream(OutputStream delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    /** @see java.io.OutputStream#close() */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Input stream of content which is written to an output stream by another thread, e.g. an archive
+ * which is compressed while it is read, so the content is never stored in memory or in a temporary file.
+ *
+ * <p>The writer is blocked while the pipe buffer is full, so it never goes ahead of the reader for more
+ * than the size of the buffer. If the writer fails, the reader gets {@link IOException} instead of the end
+ * of the stream. If the reader closes the stream before its end, the blocked writer fails right away,
+ * and if the reader doesn't read the content for longer than the write timeout, the writer fails as well,
+ * so the thread which runs the writer is never held by an abandoned stream.
+ */
+public class PipedContentInputStream extends InputStream {
+    private static final Logger LOG = getLogger(PipedContentInputStream.class);
+
+    private final byte[]        buffer;
+    private final long          writeTimeoutNanos;
+    private final ReentrantLock lock;
+    private final Condition     dataAvailable;
+    private final Condition     spaceAvailable;
+
+    /** Position of the next byte to read. */
+    private int       readPos;
+    /** Number of bytes in the buffer. */
+    private int       count;
+    private boolean   writerClosed;
+    private boolean   readerClosed;
+    private Throwable failure;
+
+    /**
+     * Starts writing of the content with the given executor.
+     *
+     * @param writer
+     *         writes the content, it must not close the output stream
+     * @param executor
+     *         executor which runs the writer
+     * @param bufferSize
+     *         size of the pipe buffer
+     * @param writeTimeoutMillis
+     *         how long the writer waits for the reader to free space in the full buffer before it fails
+     * @throws IOException
+     *         if the executor rejects the writer
+     */
+    public PipedContentInputStream(ContentWriter writer, Executor executor, int bufferSize, long writeTimeoutMillis) throws IOException {
+        this.buffer = new byte[bufferSize];
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.lock = new ReentrantLock();
+        this.dataAvailable = lock.newCondition();
+        this.spaceAvailable = lock.newCondition();
+        try {
+            executor.execute(() -> {
+                Throwable error = null;
+                try {
+                    writer.write(new PipeOutputStream());
+                } catch (Exception e) {
+                    error = e;
+                    LOG.debug(e.getMessage(), e);
+                } finally {
+                    closeWriter(error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Unable to start writing of the content: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (readerClosed) {
+                    throw new IOException("Pipe is closed");
+                }
+                if (writerClosed) {
+                    if (failure != null) {
+                        throw failure instanceof IOException ? (IOException)failure : new IOException(failure.getMessage(), failure);
+                    }
+                    return -1;
+                }
+                try {
+                    dataAvailable.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Reading of the content is interrupted");
+                }
+            }
+            final int read = Math.min(len, Math.min(count, buffer.length - readPos));
+            System.arraycopy(buffer, readPos, b, off, read);
+            readPos = (readPos + read) % buffer.length;
+            count -= read;
+            spaceAvailable.signalAll();
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Closes the pipe, the writer fails on its next write. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            readerClosed = true;
+            count = 0;
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter(Throwable error) {
+        lock.lock();
+        try {
+            writerClosed = true;
+            failure = error;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            while (len > 0) {
+                long nanos = writeTimeoutNanos;
+                while (count == buffer.length && !readerClosed) {
+                    if (nanos <= 0) {
+                        throw new IOException(String.format("Content isn't read for %d ms, writing is stopped",
+                                                            TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos)));
+                    }
+                    try {
+                        nanos = spaceAvailable.awaitNanos(nanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Writing of the content is interrupted");
+                    }
+                }
+                if (readerClosed) {
+                    throw new IOException("Pipe is closed by reader");
+                }
+                final int writePos = (readPos + count) % buffer.length;
+                final int written = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+                System.arraycopy(b, off, buffer, writePos, written);
+                count += written;
+                off += written;
+                len -= written;
+                dataAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            PipedContentInputStream.this.write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            PipedContentInputStream.this.write(b, off, len);
+        }
+    }
+
+    /** Writes content to the pipe. */
+    public interface ContentWriter {
+        void write(OutputStream output) throws Exception;
+    }
+}
@@ -16,9 +16,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 /** @author andrew00x */
@@ -36,6 +38,75 @@ public final class ZipContent {
     private static final int  ZIP_RATIO                = 100;
 
     public static ZipContent of(InputStream in) throws IOException {
+        return of(in, true);
+    }
+
+    /**
+     * Spools the content like {@link #of(InputStream)}, but checks compression ratio only of the content which is kept
+     * in memory. Content which is spooled to a file must be extracted with {@link ZipFile} through {@link #inflate(ZipFile,
+     * ZipEntry)}, which checks compression ratio of each entry which is read at the offset found in the central directory,
+     * i.e. of the same data which is extracted, while the entry is inflated.
+     */
+    public static ZipContent spool(InputStream in) throws IOException {
+        return of(in, false);
+    }
+
+    /**
+     * Returns inflated content of the entry. Fails at once if the central directory declares the entry is inflated to
+     * many times more bytes than it takes in the archive, otherwise reading of the content fails when it is.
+     */
+    public static InputStream inflate(ZipFile zipFile, ZipEntry zipEntry) throws IOException {
+        final long compressedBytes = zipEntry.getCompressedSize();
+        if (isBomb(zipEntry.getSize(), compressedBytes)) {
+            throw new IOException("Zip bomb detected");
+        }
+        return new FilterInputStream(zipFile.getInputStream(zipEntry)) {
+            private long uncompressedBytes;
+
+            @Override
+            public int read() throws IOException {
+                final int b = super.read();
+                if (b != -1) {
+                    count(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                final int n = super.read(b, off, len);
+                if (n > 0) {
+                    count(n);
+                }
+                return n;
+            }
+
+            private void count(int n) throws IOException {
+                uncompressedBytes += n;
+                if (isBomb(uncompressedBytes, compressedBytes)) {
+                    throw new IOException("Zip bomb detected");
+                }
+            }
+        };
+    }
+
+    private static boolean isBomb(long uncompressedBytes, long compressedBytes) {
+        return uncompressedBytes > ZIP_THRESHOLD && uncompressedBytes > ZIP_RATIO * compressedBytes;
+    }
+
+    private static ZipContent of(InputStream in, boolean checkFile) throws IOException {
+        final byte[] buff = new byte[COPY_BUFFER_SIZE];
+        if (in instanceof FileContentInputStream) {
+            // content is saved to a file already, so the file is used instead of a spool
+            final java.io.File file = ((FileContentInputStream)in).getFile();
+            if (checkFile) {
+                try (InputStream spool = new FileInputStream(file)) {
+                    checkCompressionRatio(spool, buff);
+                }
+            }
+            return new ZipContent(in, file);
+        }
+
         java.io.File file = null;
         byte[] inMemory = null;
 
@@ -43,13 +114,11 @@ public final class ZipContent {
         ByteArrayOutputStream inMemorySpool = new ByteArrayOutputStream(KEEP_IN_MEMORY_THRESHOLD);
 
         int bytes;
-        final byte[] buff = new byte[COPY_BUFFER_SIZE];
         while (count <= KEEP_IN_MEMORY_THRESHOLD && (bytes = in.read(buff)) != -1) {
             inMemorySpool.write(buff, 0, bytes);
             count += bytes;
         }
 
-        InputStream spool;
         if (count > KEEP_IN_MEMORY_THRESHOLD) {
             file = java.io.File.createTempFile("import", ".zip");
             try (FileOutputStream fileSpool = new FileOutputStream(file)) {
@@ -58,12 +127,18 @@ public final class ZipContent {
                     fileSpool.write(buff, 0, bytes);
                 }
             }
-            spool = new FileInputStream(file);
+            if (checkFile) {
+                checkCompressionRatio(new FileInputStream(file), buff);
+            }
         } else {
             inMemory = inMemorySpool.toByteArray();
-            spool = new ByteArrayInputStream(inMemory);
+            checkCompressionRatio(new ByteArrayInputStream(inMemory), buff);
         }
 
+        return new ZipContent(inMemory == null ? new DeleteOnCloseFileInputStream(file) : new ByteArrayInputStream(inMemory), file);
+    }
+
+    private static void checkCompressionRatio(InputStream spool, byte[] buff) throws IOException {
         try (CountingInputStream compressedDataCounter = new CountingInputStream(spool);
              ZipInputStream zip = new ZipInputStream(compressedDataCounter)) {
             try (CountingInputStream uncompressedDataCounter = new CountingInputStream(zip)) {
@@ -82,18 +157,27 @@ public final class ZipContent {
                     }
                 }
             }
-
-            return new ZipContent(inMemory == null ? new DeleteOnCloseFileInputStream(file) : new ByteArrayInputStream(inMemory));
         }
     }
 
-    private final InputStream zipContent;
+    private final InputStream  zipContent;
+    private final java.io.File file;
 
-    private ZipContent(InputStream zipContent) {
+    private ZipContent(InputStream zipContent, java.io.File file) {
         this.zipContent = zipContent;
+        this.file = file;
     }
 
     public InputStream getContent() {
         return zipContent;
     }
+
+    /**
+     * Returns file where the content is spooled or {@code null} if the content is kept in memory.
+     * The file is deleted when the stream returned by {@link #getContent()} is closed, unless it is
+     * the file of {@link FileContentInputStream} which the content is read from.
+     */
+    public java.io.File getFile() {
+        return file;
+    }
 }
@@ -28,18 +28,27 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.walkFileTree;
+import static java.util.Collections.emptySet;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.util.stream.Collectors.toSet;
 
 /**
  * Walks a file system tree, register addition, update and removal of file system items.
  * On events runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>Subtree which is being imported, e.g. extracted from an archive or cloned, is not walked till
+ * the import is finished. Then the subtree is walked once and consumers of imported subtrees, e.g.
+ * the indexer, are notified once about the whole subtree instead of being notified about every
+ * created item, while the rest of create consumers still get an event per item.
  */
 @Singleton
 public class FileTreeWalker {
@@ -57,9 +66,35 @@ public class FileTreeWalker {
     private final Set<Consumer<Path>> fileDeleteConsumers;
     private final Set<PathMatcher>    fileExcludes;
 
+    private final Set<Consumer<Path>> subtreeImportConsumers;
+
     private final Map<Path, Long> files       = new HashMap<>();
     private final Map<Path, Long> directories = new HashMap<>();
 
+    private final Set<Path>   importingSubtrees = newConcurrentHashSet();
+    private final Queue<Path> importedSubtrees  = new ConcurrentLinkedQueue<>();
+
+    public FileTreeWalker(File root,
+                          Set<Consumer<Path>> directoryUpdateConsumers,
+                          Set<Consumer<Path>> directoryCreateConsumers,
+                          Set<Consumer<Path>> directoryDeleteConsumers,
+                          Set<PathMatcher> directoryExcludes,
+                          Set<Consumer<Path>> fileUpdateConsumers,
+                          Set<Consumer<Path>> fileCreateConsumers,
+                          Set<Consumer<Path>> fileDeleteConsumers,
+                          Set<PathMatcher> fileExcludes) {
+        this(root,
+             directoryUpdateConsumers,
+             directoryCreateConsumers,
+             directoryDeleteConsumers,
+             directoryExcludes,
+             fileUpdateConsumers,
+             fileCreateConsumers,
+             fileDeleteConsumers,
+             fileExcludes,
+             emptySet());
+    }
+
     @Inject
     public FileTreeWalker(@Named("che.user.workspaces.storage") File root,
 
@@ -71,7 +106,9 @@ public class FileTreeWalker {
                           @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
                           @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
                           @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-                          @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+                          @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+
+                          @Named("che.fs.subtree.import") Set<Consumer<Path>> subtreeImportConsumers) {
         this.root = root;
 
         this.directoryUpdateConsumers = directoryUpdateConsumers;
@@ -84,6 +121,33 @@ public class FileTreeWalker {
 
         this.directoryExcludes = directoryExcludes;
         this.fileExcludes = fileExcludes;
+
+        this.subtreeImportConsumers = subtreeImportConsumers;
+    }
+
+    /**
+     * Stops walking the directory till {@link #importFinished(String)} is called for it.
+     *
+     * @param path
+     *         absolute internal path of the directory
+     */
+    public void importStarted(String path) {
+        importingSubtrees.add(toWalkedPath(path));
+    }
+
+    /**
+     * Schedules the directory to be walked as imported subtree by the next walk.
+     *
+     * @param path
+     *         absolute internal path of the directory
+     */
+    public void importFinished(String path) {
+        importedSubtrees.add(toWalkedPath(path));
+    }
+
+    /** Returns path in the same form as paths which are found by walking the root. */
+    private Path toWalkedPath(String path) {
+        return root.toPath().resolve(path.startsWith("/") ? path.substring(1) : path);
     }
 
     @ScheduleRate(period = 10)
@@ -91,6 +155,15 @@ public class FileTreeWalker {
         try {
             LOG.debug("Tree walk started");
 
+            for (Path subtree; (subtree = importedSubtrees.poll()) != null; ) {
+                try {
+                    walkImportedSubtree(subtree);
+                } finally {
+                    // items which are not registered because of failure are found by the regular walk
+                    importingSubtrees.remove(subtree);
+                }
+            }
+
             Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
             fileDeleteConsumers.forEach(deletedFiles::forEach);
             files.keySet().removeAll(deletedFiles);
@@ -102,6 +175,9 @@ public class FileTreeWalker {
             walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (importingSubtrees.contains(dir)) {
+                        return SKIP_SUBTREE;
+                    }
                     for (PathMatcher matcher : directoryExcludes) {
                         if (matcher.matches(dir)) {
                             return SKIP_SUBTREE;
@@ -134,6 +210,54 @@ public class FileTreeWalker {
         }
     }
 
+    /**
+     * Registers items of the imported subtree, consumers of imported subtrees are notified once about the whole
+     * subtree and are not notified about the items separately, the other consumers are notified as usual.
+     */
+    private void walkImportedSubtree(Path subtree) throws IOException {
+        if (!exists(subtree)) {
+            return;
+        }
+        final Set<Consumer<Path>> directoryCreateItemConsumers = withoutSubtreeImportConsumers(directoryCreateConsumers);
+        final Set<Consumer<Path>> directoryUpdateItemConsumers = withoutSubtreeImportConsumers(directoryUpdateConsumers);
+        final Set<Consumer<Path>> fileCreateItemConsumers = withoutSubtreeImportConsumers(fileCreateConsumers);
+        final Set<Consumer<Path>> fileUpdateItemConsumers = withoutSubtreeImportConsumers(fileUpdateConsumers);
+
+        walkFileTree(subtree, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                for (PathMatcher matcher : directoryExcludes) {
+                    if (matcher.matches(dir)) {
+                        return SKIP_SUBTREE;
+                    }
+                }
+
+                updateFsTreeAndAcceptConsumables(directories, directoryUpdateItemConsumers, directoryCreateItemConsumers, dir, attrs);
+
+                return CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                for (PathMatcher matcher : fileExcludes) {
+                    if (matcher.matches(file)) {
+                        return CONTINUE;
+                    }
+                }
+
+                updateFsTreeAndAcceptConsumables(files, fileUpdateItemConsumers, fileCreateItemConsumers, file, attrs);
+
+                return CONTINUE;
+            }
+        });
+        LOG.debug("Imported subtree {} is registered", subtree);
+        subtreeImportConsumers.forEach(it -> it.accept(subtree));
+    }
+
+    private Set<Consumer<Path>> withoutSubtreeImportConsumers(Set<Consumer<Path>> consumers) {
+        return consumers.stream().filter(it -> !subtreeImportConsumers.contains(it)).collect(toSet());
+    }
+
     private void updateFsTreeAndAcceptConsumables(Map<Path, Long> items, Set<Consumer<Path>> updateConsumer,
                                                   Set<Consumer<Path>> createConsumer,
                                                   Path path, BasicFileAttributes attrs) {
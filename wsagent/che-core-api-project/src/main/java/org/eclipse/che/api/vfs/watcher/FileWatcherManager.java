@@ -37,14 +37,22 @@ public class FileWatcherManager {
     private final FileWatcherByPathValue   fileWatcherByPathValue;
     private final FileWatcherByPathMatcher fileWatcherByPathMatcher;
     private final FileWatcherService       service;
+    private final FileTreeWalker           fileTreeWalker;
     private final Path                     root;
 
+    public FileWatcherManager(File root, FileWatcherByPathValue watcherByPathValue,
+                              FileWatcherByPathMatcher watcherByPathMatcher, FileWatcherService service) {
+        this(root, watcherByPathValue, watcherByPathMatcher, service, null);
+    }
+
     @Inject
     public FileWatcherManager(@Named("che.user.workspaces.storage") File root, FileWatcherByPathValue watcherByPathValue,
-                              FileWatcherByPathMatcher watcherByPathMatcher, FileWatcherService service) {
+                              FileWatcherByPathMatcher watcherByPathMatcher, FileWatcherService service,
+                              FileTreeWalker fileTreeWalker) {
         this.fileWatcherByPathMatcher = watcherByPathMatcher;
         this.fileWatcherByPathValue = watcherByPathValue;
         this.service = service;
+        this.fileTreeWalker = fileTreeWalker;
         this.root = root.toPath().normalize().toAbsolutePath();
     }
 
@@ -62,6 +70,32 @@ public class FileWatcherManager {
         service.resume();
     }
 
+    /**
+     * Notifies that the folder is being imported, e.g. extracted from an archive or cloned, so items
+     * which are created in the folder are not reported one by one till {@link #importFinished(String)}.
+     *
+     * @param path
+     *         absolute internal path of the folder
+     */
+    public void importStarted(String path) {
+        if (fileTreeWalker != null) {
+            fileTreeWalker.importStarted(path);
+        }
+    }
+
+    /**
+     * Notifies that import of the folder is finished, either successfully or not, so the whole folder
+     * is reported to consumers of imported subtrees, e.g. to the indexer, at once.
+     *
+     * @param path
+     *         absolute internal path of the folder
+     */
+    public void importFinished(String path) {
+        if (fileTreeWalker != null) {
+            fileTreeWalker.importFinished(path);
+        }
+    }
+
     /**
      * Start watching a file system item by specifying its path. If path points
      * to a file than only file related events are taken into account, if path
@@ -13,19 +13,38 @@ package org.eclipse.che.api.project.server;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.project.server.handlers.ProjectHandlerRegistry;
 import org.eclipse.che.api.project.server.type.BaseProjectType;
+import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
+import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.project.server.type.ReadonlyValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.File;
+import java.nio.file.PathMatcher;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertTrue;
 
 
@@ -125,6 +144,179 @@ public class ProjectManagerReadTest extends WsAgentTestBase {
     }
 
 
+    @Test
+    public void testGetChildProjects() throws Exception {
+
+        assertEquals(singletonList("/normal/module"), projectRegistry.getProjects("/normal"));
+        assertEquals(new HashSet<>(asList("/normal", "/normal/module", "/fromConfig", "/fromFolder")),
+                     new HashSet<>(projectRegistry.getProjects("/")));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRootFoldersAreRegisteredByWatcherEvents() throws Exception {
+
+        ArgumentCaptor<Consumer<String>> create = ArgumentCaptor.forClass((Class)Consumer.class);
+        ArgumentCaptor<Consumer<String>> delete = ArgumentCaptor.forClass((Class)Consumer.class);
+        projectRegistry = new ProjectRegistry(workspaceHolder, vfsProvider, projectTypeRegistry, projectHandlerRegistry, eventService,
+                                              fileWatcherManager);
+        projectRegistry.initProjects();
+        verify(fileWatcherManager).registerByPath(eq("/"), create.capture(), any(), delete.capture());
+
+        new File(root, "/created").mkdir();
+        assertEquals(4, projectRegistry.getProjects().size());
+        create.getValue().accept("/created");
+        assertEquals(5, projectRegistry.getProjects().size());
+
+        // folder is found on lookup even if watcher hasn't reported it yet
+        new File(root, "/notReported").mkdir();
+        assertNotNull(projectRegistry.getProject("/notReported"));
+
+        new File(root, "/created").delete();
+        delete.getValue().accept("/created");
+        assertNull(projectRegistry.getProject("/created"));
+        // configured project is kept even if its folder is deleted
+        delete.getValue().accept("/fromConfig");
+        assertNotNull(projectRegistry.getProject("/fromConfig"));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testProvidedAttributesAreCachedTillTriggerFileIsChanged() throws Exception {
+
+        final AtomicInteger evaluations = new AtomicInteger();
+        final ValueProviderFactory factory = new ValueProviderFactory() {
+            @Override
+            public ValueProvider newInstance(FolderEntry projectFolder) {
+                return new ReadonlyValueProvider() {
+                    @Override
+                    public List<String> getValues(String attributeName) {
+                        return singletonList(String.valueOf(evaluations.incrementAndGet()));
+                    }
+                };
+            }
+
+            @Override
+            public List<String> getTriggerPaths() {
+                return singletonList("build.conf");
+            }
+        };
+        ProjectTypeRegistry projectTypeRegistry = new ProjectTypeRegistry(new HashSet<>());
+        projectTypeRegistry.registerProjectType(new ProjectTypeDef("counted", "counted", true, false) {
+            {
+                addVariableDefinition("counted-provided", "", false, factory);
+            }
+        });
+        workspaceHolder.addProject(DtoFactory.newDto(ProjectConfigDto.class)
+                                             .withPath("/normal/module/counted")
+                                             .withName("counted")
+                                             .withType("counted"));
+        new File(root, "/normal/module/counted").mkdir();
+
+        ArgumentCaptor<PathMatcher> matcher = ArgumentCaptor.forClass(PathMatcher.class);
+        ArgumentCaptor<Consumer<String>> modify = ArgumentCaptor.forClass((Class)Consumer.class);
+        projectRegistry = new ProjectRegistry(workspaceHolder, vfsProvider, projectTypeRegistry, projectHandlerRegistry, eventService,
+                                              fileWatcherManager);
+        projectRegistry.initProjects();
+        verify(fileWatcherManager).registerByMatcher(matcher.capture(), any(), modify.capture(), any());
+
+        // values are not provided till they are requested
+        assertEquals(0, evaluations.get());
+        final RegisteredProject project = projectRegistry.getProject("/normal/module/counted");
+        assertEquals(singletonList("1"), project.getAttributes().get("counted-provided"));
+        assertEquals(singletonList("1"), project.getAttributes().get("counted-provided"));
+        assertEquals(1, evaluations.get());
+
+        assertTrue(matcher.getValue().matches(new File(root, "/normal/build.conf").toPath()));
+        assertFalse(matcher.getValue().matches(new File(root, "/normal/pom.xml").toPath()));
+
+        // change of a file which is not a trigger of the project doesn't invalidate values
+        modify.getValue().accept("/fromFolder/build.conf");
+        assertEquals(singletonList("1"), project.getAttributes().get("counted-provided"));
+
+        // trigger of the parent folder invalidates values of the projects under it
+        modify.getValue().accept("/normal/build.conf");
+        assertEquals(singletonList("2"), project.getAttributes().get("counted-provided"));
+        assertEquals(2, evaluations.get());
+    }
+
+
+    @Test
+    public void testProvidedAttributesWithoutTriggerPathsAreNotCached() throws Exception {
+
+        final AtomicInteger evaluations = new AtomicInteger();
+        final ValueProviderFactory factory = projectFolder -> new ReadonlyValueProvider() {
+            @Override
+            public List<String> getValues(String attributeName) {
+                return singletonList(String.valueOf(evaluations.incrementAndGet()));
+            }
+        };
+        ProjectTypeRegistry projectTypeRegistry = new ProjectTypeRegistry(new HashSet<>());
+        projectTypeRegistry.registerProjectType(new ProjectTypeDef("uncached", "uncached", true, false) {
+            {
+                addVariableDefinition("uncached-provided", "", false, factory);
+            }
+        });
+        workspaceHolder.addProject(DtoFactory.newDto(ProjectConfigDto.class)
+                                             .withPath("/normal/module/uncached")
+                                             .withName("uncached")
+                                             .withType("uncached"));
+        new File(root, "/normal/module/uncached").mkdir();
+        projectRegistry = new ProjectRegistry(workspaceHolder, vfsProvider, projectTypeRegistry, projectHandlerRegistry, eventService,
+                                              fileWatcherManager);
+        projectRegistry.initProjects();
+
+        // the project is not notified when the value is changed, so it is read each time
+        final RegisteredProject project = projectRegistry.getProject("/normal/module/uncached");
+        assertEquals(singletonList("1"), project.getAttributes().get("uncached-provided"));
+        assertEquals(singletonList("2"), project.getAttributes().get("uncached-provided"));
+    }
+
+
+    @Test
+    public void testBulkResolveSourcesReadsEveryProvidedValueOnce() throws Exception {
+
+        final AtomicInteger evaluations = new AtomicInteger();
+        final ValueProviderFactory factory = projectFolder -> new ReadonlyValueProvider() {
+            @Override
+            public List<String> getValues(String attributeName) {
+                evaluations.incrementAndGet();
+                return new File(projectFolder.getVirtualFile().toIoFile(), "marker").exists() ? singletonList("marked") : emptyList();
+            }
+        };
+        ProjectTypeRegistry projectTypeRegistry = new ProjectTypeRegistry(new HashSet<>());
+        projectTypeRegistry.registerProjectType(new ProjectTypeDef("marked", "marked", true, false) {
+            {
+                addVariableDefinition("marked-provided", "", true, factory);
+            }
+        });
+        projectTypeRegistry.registerProjectType(new ProjectTypeDef("marked-child", "marked-child", true, false) {
+            {
+                addParent("marked");
+            }
+        });
+        new File(root, "/normal/marker").createNewFile();
+        ProjectManager projectManager = new ProjectManager(vfsProvider, projectTypeRegistry, projectRegistry, projectHandlerRegistry,
+                                                           null, fileWatcherNotificationHandler, fileTreeWatcher, workspaceHolder,
+                                                           fileWatcherManager);
+
+        Map<String, List<ProjectTypeResolution>> resolutions = projectManager.resolveSources(asList("/normal", "/fromFolder"), false);
+        List<ProjectTypeResolution> normalResolutions = resolutions.get("/normal");
+        List<ProjectTypeResolution> fromFolderResolutions = resolutions.get("/fromFolder");
+
+        List<String> normalTypes = normalResolutions.stream().map(ProjectTypeResolution::getType).collect(toList());
+        assertTrue(normalTypes.indexOf("marked-child") >= 0);
+        assertTrue(normalTypes.indexOf("marked-child") < normalTypes.indexOf("marked"));
+        ProjectTypeResolution childResolution = normalResolutions.get(normalTypes.indexOf("marked-child"));
+        assertEquals(singletonList("marked"), childResolution.getProvidedAttributes().get("marked-provided").getList());
+        assertFalse(fromFolderResolutions.stream().anyMatch(resolution -> resolution.getType().startsWith("marked")));
+        // value of the attribute which is inherited by the child type is read once per folder
+        assertEquals(2, evaluations.get());
+    }
+
+
     @Test
     public void testNormalProject() throws Exception {
 
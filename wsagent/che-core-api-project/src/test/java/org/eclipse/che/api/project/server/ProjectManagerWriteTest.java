@@ -23,6 +23,7 @@ import org.eclipse.che.api.core.util.LineConsumerFactory;
 import org.eclipse.che.api.core.util.ValueHolder;
 import org.eclipse.che.api.project.server.RegisteredProject.Problem;
 import org.eclipse.che.api.project.server.handlers.CreateProjectHandler;
+import org.eclipse.che.api.project.server.handlers.PostImportProjectHandler;
 import org.eclipse.che.api.project.server.importer.ProjectImportOutputWSLineConsumer;
 import org.eclipse.che.api.project.server.importer.ProjectImporter;
 import org.eclipse.che.api.project.server.type.AttributeValue;
@@ -45,6 +46,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -851,6 +854,50 @@ public class ProjectManagerWriteTest extends WsAgentTestBase {
         assertEquals(fileContent, project.getBaseFolder().getChild("file1").getVirtualFile().getContentAsString());
     }
 
+    @Test
+    public void testPostImportHandlerRunsInBackground() throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(bout);
+        zipOut.putNextEntry(new ZipEntry("file1"));
+        zipOut.write(FILE_CONTENT.getBytes());
+        zipOut.close();
+        final String importType = "_123_";
+        registerImporter(importType, new ByteArrayInputStream(bout.toByteArray()));
+
+        final CountDownLatch handlerMayFinish = new CountDownLatch(1);
+        final CountDownLatch handlerFinished = new CountDownLatch(1);
+        final ValueHolder<FolderEntry> importedFolder = new ValueHolder<>();
+        projectHandlerRegistry.register(new PostImportProjectHandler() {
+            @Override
+            public void onProjectImported(FolderEntry projectFolder) {
+                try {
+                    handlerMayFinish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                importedFolder.set(projectFolder);
+                handlerFinished.countDown();
+            }
+
+            @Override
+            public String getProjectType() {
+                return BaseProjectType.ID;
+            }
+        });
+
+        SourceStorage sourceConfig = DtoFactory.newDto(SourceStorageDto.class).withType(importType);
+        pm.importProject("/testPostImport", sourceConfig, false, () -> new ProjectImportOutputWSLineConsumer("BATCH", "ws", 300));
+
+        // import is not blocked by the handler
+        assertNotNull(projectRegistry.getProject("/testPostImport"));
+        assertNull(importedFolder.get());
+
+        handlerMayFinish.countDown();
+        assertTrue(handlerFinished.await(10, TimeUnit.SECONDS));
+        assertEquals("/testPostImport", importedFolder.get().getPath().toString());
+        assertNotNull(importedFolder.get().getChild("file1"));
+    }
+
     @Test
     public void testRemoveFolderForSourcesWhenImportingProjectIsFailed() throws Exception {
         final String projectPath = "/testImportProject";
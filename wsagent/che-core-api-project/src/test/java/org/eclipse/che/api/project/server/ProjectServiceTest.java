@@ -898,6 +898,46 @@ public class ProjectServiceTest {
         assertEquals(new String(writer.getBody()), myContent);
     }
 
+    @Test
+    public void testGetFileContentRange() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=3-4"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes 3-4/18");
+        assertEquals(new String(writer.getBody()), "be");
+    }
+
+    @Test
+    public void testGetFileContentLengthMatchesContent() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes(Charset.defaultCharset()));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Length"), Integer.toString(writer.getBody().length));
+        assertEquals(new String(writer.getBody()), myContent);
+    }
+
+    @Test
+    public void testGetFileContentUnsatisfiableRange() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be".getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=10-"));
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 416);
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes */5");
+    }
+
     @Test
     public void testUpdateFileContent() throws Exception {
         String myContent = "<test>hello</test>";
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.model.project.SourceStorage;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.util.FileContentInputStream;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ZipProjectImporterTest {
+    private static final String ETAG          = "\"v1\"";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private HttpServer            server;
+    private Path                  downloads;
+    private ZipProjectImporter    importer;
+    private FolderEntry           baseFolder;
+    private ByteArrayOutputStream extracted;
+    private List<String>          ranges;
+    private List<String>          ifRanges;
+    private byte[]                archive;
+    private String                etag;
+    private String                lastModified;
+    private int                   truncateAt;
+    private String                contentRange;
+
+    @Before
+    public void setUp() throws Exception {
+        archive = new byte[64 * 1024];
+        new Random(7).nextBytes(archive);
+        etag = ETAG;
+        lastModified = null;
+        truncateAt = -1;
+        contentRange = null;
+        ranges = new ArrayList<>();
+        ifRanges = new ArrayList<>();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/archive.zip", this::serveArchive);
+        server.start();
+
+        downloads = Files.createTempDirectory("zip-import");
+        importer = new ZipProjectImporter(downloads);
+
+        final VirtualFile virtualFile = mock(VirtualFile.class);
+        doAnswer(invocation -> {
+            extracted = new ByteArrayOutputStream();
+            final InputStream zip = (InputStream)invocation.getArguments()[0];
+            // downloaded file is passed to the archiver, so it is not spooled to a temporary file again
+            assertTrue(zip instanceof FileContentInputStream);
+            final byte[] buffer = new byte[1000];
+            int n;
+            try {
+                while ((n = zip.read(buffer)) != -1) {
+                    extracted.write(buffer, 0, n);
+                }
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            return null;
+        }).when(virtualFile).unzip(any(InputStream.class), anyBoolean(), anyInt());
+        baseFolder = new FolderEntry(virtualFile);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop(0);
+        IoUtil.deleteRecursive(downloads.toFile());
+    }
+
+    @Test
+    public void resumesInterruptedDownloadWithRangeRequest() throws Exception {
+        truncateAt = 20000;
+        importInterrupted();
+
+        assertEquals(20000, Files.size(savedFile(".part")));
+        assertEquals(ETAG, new String(Files.readAllBytes(savedFile(".validator")), UTF_8));
+
+        truncateAt = -1;
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+        assertEquals(Arrays.asList(null, "bytes=20000-"), ranges);
+        assertEquals(Arrays.asList(null, ETAG), ifRanges);
+        assertTrue(savedFiles().isEmpty());
+    }
+
+    @Test
+    public void downloadsArchiveAnewWhenServerSendsOtherRange() throws Exception {
+        truncateAt = 20000;
+        importInterrupted();
+
+        truncateAt = -1;
+        contentRange = "bytes 0-" + (archive.length - 1) + '/' + archive.length;
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+        assertEquals(Arrays.asList(null, "bytes=20000-", null), ranges);
+        assertTrue(savedFiles().isEmpty());
+    }
+
+    @Test
+    public void downloadsArchiveAnewWhenItIsChangedOnServer() throws Exception {
+        truncateAt = 20000;
+        importInterrupted();
+
+        new Random(8).nextBytes(archive);
+        etag = "\"v2\"";
+        truncateAt = 30000;
+        importInterrupted();
+
+        assertEquals(Arrays.asList(null, "bytes=20000-"), ranges);
+        assertEquals(30000, Files.size(savedFile(".part")));
+        assertEquals("\"v2\"", new String(Files.readAllBytes(savedFile(".validator")), UTF_8));
+
+        truncateAt = -1;
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+    }
+
+    @Test
+    public void treatsRangeNotSatisfiableAsCompleteDownload() throws Exception {
+        truncateAt = 20000;
+        importInterrupted();
+        // the whole archive is saved, but extraction of it has failed
+        Files.write(savedFile(".part"), archive);
+
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+        assertEquals(Arrays.asList(null, "bytes=" + archive.length + '-'), ranges);
+        assertTrue(savedFiles().isEmpty());
+    }
+
+    @Test
+    public void usesLastModifiedAsValidatorWhenEntityTagIsWeak() throws Exception {
+        etag = "W/\"v1\"";
+        lastModified = LAST_MODIFIED;
+        truncateAt = 20000;
+        importInterrupted();
+
+        assertEquals(LAST_MODIFIED, new String(Files.readAllBytes(savedFile(".validator")), UTF_8));
+
+        truncateAt = -1;
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+        assertEquals(Arrays.asList(null, LAST_MODIFIED), ifRanges);
+    }
+
+    @Test
+    public void doesNotResumeDownloadWithoutValidator() throws Exception {
+        etag = null;
+        truncateAt = 20000;
+        importInterrupted();
+
+        assertTrue(Files.exists(savedFile(".part")));
+        assertNull(savedFile(".validator"));
+
+        truncateAt = -1;
+        importArchive();
+
+        assertArrayEquals(archive, extracted.toByteArray());
+        assertEquals(Arrays.asList(null, null), ranges);
+    }
+
+    @Test
+    public void deletesOutdatedDownloads() throws Exception {
+        final Path outdated = Files.write(downloads.resolve("outdated.part"), new byte[10]);
+        Files.setLastModifiedTime(outdated, FileTime.fromMillis(System.currentTimeMillis() - DAYS.toMillis(2)));
+        final Path recent = Files.write(downloads.resolve("recent.part"), new byte[10]);
+
+        importArchive();
+
+        assertFalse(Files.exists(outdated));
+        assertTrue(Files.exists(recent));
+    }
+
+    private void importArchive() throws Exception {
+        final SourceStorage storage = mock(SourceStorage.class);
+        when(storage.getLocation()).thenReturn("http://localhost:" + server.getAddress().getPort() + "/archive.zip");
+        importer.importSources(baseFolder, storage);
+    }
+
+    private void importInterrupted() throws Exception {
+        extracted = null;
+        try {
+            importArchive();
+            fail("Import must fail when download is interrupted");
+        } catch (IOException expected) {
+        }
+        // archive is extracted only when it is downloaded completely
+        assertNull(extracted);
+    }
+
+    private List<Path> savedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(downloads)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private Path savedFile(String suffix) throws IOException {
+        return savedFiles().stream().filter(file -> file.toString().endsWith(suffix)).findFirst().orElse(null);
+    }
+
+    private void serveArchive(HttpExchange exchange) throws IOException {
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        final String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        ranges.add(range);
+        ifRanges.add(ifRange);
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+        }
+        if (lastModified != null) {
+            exchange.getResponseHeaders().set("Last-Modified", lastModified);
+        }
+
+        int from = 0;
+        if (range != null && ifRange != null && (ifRange.equals(etag) || ifRange.equals(lastModified))) {
+            from = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            if (from >= archive.length) {
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Range", contentRange != null
+                                                               ? contentRange
+                                                               : "bytes " + from + '-' + (archive.length - 1) + '/' + archive.length);
+            if (contentRange != null) {
+                from = 0;
+            }
+            exchange.sendResponseHeaders(206, archive.length - from);
+        } else {
+            exchange.sendResponseHeaders(200, archive.length);
+        }
+
+        final OutputStream body = exchange.getResponseBody();
+        final int to = truncateAt > 0 ? truncateAt : archive.length;
+        body.write(archive, from, to - from);
+        body.flush();
+        // closes the connection if not the whole content is sent
+        exchange.close();
+    }
+}
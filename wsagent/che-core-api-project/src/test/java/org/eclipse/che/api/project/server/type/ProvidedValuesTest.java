@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server.type;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class ProvidedValuesTest {
+    private static final int THREADS    = 16;
+    private static final int ATTRIBUTES = 4;
+
+    private ExecutorService executor;
+    private AtomicInteger   providers;
+    private AtomicInteger   reads;
+    private AtomicInteger   concurrentReads;
+    private AtomicInteger   maxConcurrentReads;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(THREADS);
+        providers = new AtomicInteger();
+        reads = new AtomicInteger();
+        concurrentReads = new AtomicInteger();
+        maxConcurrentReads = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readsAttributesOfTheSameFactoryConcurrentlyWithSingleProvider() throws Exception {
+        ValueProviderFactory factory = projectFolder -> {
+            providers.incrementAndGet();
+            return new NotThreadSafeValueProvider();
+        };
+        ProvidedValues values = new ProvidedValues(null);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<String>>> results = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            String attributeName = "attribute" + i % ATTRIBUTES;
+            results.add(executor.submit(() -> {
+                start.await();
+                return values.getValues(factory, attributeName);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < THREADS; i++) {
+            assertEquals(singletonList("attribute" + i % ATTRIBUTES + "-value"), results.get(i).get());
+        }
+        assertEquals(1, providers.get());
+        assertEquals(ATTRIBUTES, reads.get());
+        assertEquals(1, maxConcurrentReads.get());
+    }
+
+    /** Fails if its values are read by several threads at the same time, like providers with lazily initialized state. */
+    private class NotThreadSafeValueProvider extends ReadonlyValueProvider {
+        private String readingAttribute;
+
+        @Override
+        public List<String> getValues(String attributeName) throws ValueStorageException {
+            reads.incrementAndGet();
+            maxConcurrentReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+            try {
+                readingAttribute = attributeName;
+                Thread.sleep(20);
+                return singletonList(readingAttribute + "-value");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueStorageException("Interrupted");
+            } finally {
+                concurrentReads.decrementAndGet();
+            }
+        }
+    }
+}
@@ -236,4 +236,93 @@ public class PathLockFactoryTest extends TestCase {
         waiter.await();
         assertEquals(2, acquired.get());
     }
+
+    public void testLocksOfUnrelatedSubtreesDoNotConflict() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch finisher = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(Path.of("/a/b/d"), true).acquire();
+                starter.countDown();
+                try {
+                    finisher.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        t.start();
+        starter.await();
+        try {
+            // Must not wait for lock of the sibling folder.
+            pathLockFactory.getLock(path, true).acquire(100).release();
+        } finally {
+            finisher.countDown();
+            t.join();
+        }
+        pathLockFactory.checkClean();
+    }
+
+    public void testSharedLockOfParentPreventsExclusiveLockOfChild() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch finisher = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path.getParent(), false).acquire();
+                starter.countDown();
+                try {
+                    finisher.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        t.start();
+        starter.await();
+        try {
+            pathLockFactory.getLock(path, false).acquire(100).release();
+            try {
+                pathLockFactory.getLock(path, true).acquire(100);
+                fail();
+            } catch (RuntimeException e) {
+                // OK
+            }
+        } finally {
+            finisher.countDown();
+            t.join();
+        }
+        pathLockFactory.checkClean();
+        assertEquals(1, pathLockFactory.getStatistics().getTimeouts());
+    }
+
+    public void testWaitingForLockIsCounted() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire();
+                starter.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        t.start();
+        starter.await();
+        pathLockFactory.getLock(path, true).acquire(5000).release();
+        t.join();
+
+        PathLockStatistics statistics = pathLockFactory.getStatistics();
+        assertEquals(2, statistics.getAcquisitions());
+        assertEquals(1, statistics.getContendedAcquisitions());
+        assertTrue(statistics.getMaxWaitTime() > 0);
+        pathLockFactory.checkClean();
+    }
 }
@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -185,6 +187,48 @@ public class ZipArchiverTest {
         }
     }
 
+    @Test
+    public void extractsLargeArchiveToFolderInParallel() throws Exception {
+        byte[] archive = createLargeTestZipArchive();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        new ZipArchiver(folder, Deflater.DEFAULT_COMPRESSION, 4).extract(new ByteArrayInputStream(archive), false, 1);
+
+        Map<String, String> entries = getFileTreeAsList(folder).stream()
+                                                               .collect(toMap(f -> getZipEntryName(folder, f),
+                                                                              this::readContentUnchecked));
+
+        Map<String, String> originalArchiveEntriesWithoutFirstPathSegment =
+                readArchiveEntries(new ByteArrayInputStream(archive)).entrySet().stream()
+                                                                     .filter(e -> !"arc/".equals(e.getKey()))
+                                                                     .collect(toMap(e -> e.getKey().replace("arc/", ""),
+                                                                                    Map.Entry::getValue));
+        assertEquals(originalArchiveEntriesWithoutFirstPathSegment, entries);
+    }
+
+    @Test
+    public void failsExtractLargeArchiveInParallelWhenItContainsItemWithSameNameAndOverwritingIsDisabled() throws Exception {
+        byte[] archive = createLargeTestZipArchive();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+        VirtualFile lockedFile = folder.createFolder("arc").createFolder("a0").createFile("_0.txt", "xxx");
+
+        try {
+            new ZipArchiver(folder, Deflater.DEFAULT_COMPRESSION, 4).extract(new ByteArrayInputStream(archive), false, 0);
+            thrown.expect(ConflictException.class);
+        } catch (ConflictException expected) {
+            assertEquals("xxx", lockedFile.getContentAsString());
+        }
+    }
+
+    @Test
+    public void failsExtractArchiveInParallelWhenEntryIsInflatedTooMuch() throws Exception {
+        byte[] archive = createArchiveWithHighlyCompressedEntry();
+        VirtualFile folder = vfsRoot.createFolder("folder");
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Zip bomb detected");
+        new ZipArchiver(folder, Deflater.DEFAULT_COMPRESSION, 4).extract(new ByteArrayInputStream(archive), false, 0);
+    }
+
     private Map<String, String> readArchiveEntries(InputStream archive) throws Exception {
         Map<String, String> entries = newHashMap();
         try (ZipInputStream zip = new ZipInputStream(archive)) {
@@ -247,6 +291,52 @@ public class ZipArchiverTest {
         return byteOut.toByteArray();
     }
 
+    /** Creates archive which is big enough to be spooled to file, so it may be extracted in parallel. */
+    private byte[] createLargeTestZipArchive() throws IOException {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 4096) {
+            content.append(TEST_CONTENT);
+        }
+        byte[] contentBytes = content.toString().getBytes();
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(byteOut);
+        zipOut.setLevel(Deflater.NO_COMPRESSION);
+        zipOut.putNextEntry(new ZipEntry("arc/"));
+        for (int i = 0; i < 10; i++) {
+            zipOut.putNextEntry(new ZipEntry("arc/a" + i + '/'));
+            for (int j = 0; j < 10; j++) {
+                zipOut.putNextEntry(new ZipEntry("arc/a" + i + "/_" + j + ".txt"));
+                zipOut.write(contentBytes);
+            }
+        }
+        zipOut.close();
+        return byteOut.toByteArray();
+    }
+
+    /**
+     * Creates archive with an entry which is inflated to a thousand times more bytes than it takes in the archive,
+     * while the ratio of the whole archive is low because of the entry which is not compressed.
+     */
+    private byte[] createArchiveWithHighlyCompressedEntry() throws IOException {
+        byte[] padding = new byte[400 * 1024];
+        new Random(7).nextBytes(padding);
+
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        ZipOutputStream zipOut = new ZipOutputStream(byteOut);
+        zipOut.setLevel(Deflater.NO_COMPRESSION);
+        zipOut.putNextEntry(new ZipEntry("padding"));
+        zipOut.write(padding);
+        zipOut.setLevel(Deflater.BEST_COMPRESSION);
+        zipOut.putNextEntry(new ZipEntry("bomb"));
+        byte[] zeros = new byte[1024 * 1024];
+        for (int i = 0; i < 30; i++) {
+            zipOut.write(zeros);
+        }
+        zipOut.close();
+        return byteOut.toByteArray();
+    }
+
     private List<VirtualFile> getFileTreeAsList(VirtualFile rootOfTree) throws Exception {
         List<VirtualFile> list = newArrayList();
 
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
+import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class HashSumsCacheTest {
+    private File                     testDirectory;
+    private LocalVirtualFileSystem   fileSystem;
+    private ExecutorService          executor;
+    private ScheduledExecutorService saver;
+    private Path                     storage;
+    private HashSumsCache            cache;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        fileSystem = new LocalVirtualFileSystem(testDirectory,
+                                                mock(ArchiverFactory.class),
+                                                mock(SearcherProvider.class),
+                                                mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        executor = Executors.newSingleThreadExecutor();
+        saver = mock(ScheduledExecutorService.class);
+        storage = new File(targetDir, NameGenerator.generate("hashes-", 4)).toPath();
+        cache = new HashSumsCache(storage, Hashing.murmur3_128(), executor, saver);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        Files.deleteIfExists(storage);
+        IoUtil.deleteRecursive(testDirectory);
+        FileCleaner.stop();
+    }
+
+    @Test
+    public void countsHashSumsWithGivenHashFunction() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("folder");
+        folder.createFile("file", "content");
+
+        assertEquals(singletonList(Pair.of(ByteSource.wrap("content".getBytes()).hash(Hashing.murmur3_128()).toString(), "file")),
+                     cache.countHashSums(folder));
+    }
+
+    @Test
+    public void savesHashSumsInBackgroundOnceForSeveralModifications() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("folder");
+        folder.createFile("a", "content a");
+        cache.countHashSums(folder);
+        folder.createFile("b", "content b");
+        cache.countHashSums(folder);
+
+        assertFalse(Files.exists(storage));
+        ArgumentCaptor<Runnable> save = ArgumentCaptor.forClass(Runnable.class);
+        verify(saver).schedule(save.capture(), anyLong(), eq(SECONDS));
+
+        save.getValue().run();
+        assertTrue(Files.exists(storage));
+    }
+
+    @Test
+    public void schedulesSavingAgainAfterHashSumsAreSaved() throws Exception {
+        VirtualFile folder = fileSystem.getRoot().createFolder("folder");
+        folder.createFile("a", "content a");
+        cache.countHashSums(folder);
+        cache.save();
+
+        folder.createFile("b", "content b");
+        cache.countHashSums(folder);
+
+        verify(saver, times(2)).schedule(any(Runnable.class), anyLong(), eq(SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnUnknownAlgorithm() throws Exception {
+        HashSumsCache.hashFunction("unknown");
+    }
+}
@@ -14,18 +14,24 @@ import com.google.common.io.Files;
 
 import org.eclipse.che.api.vfs.Path;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class LocalVirtualFileAssertionHelper {
-    private final File testDirectory;
+    private final File          testDirectory;
+    private final MetadataStore metadataStore;
 
-    public LocalVirtualFileAssertionHelper(File testDirectory) {
+    public LocalVirtualFileAssertionHelper(File testDirectory, MetadataStore metadataStore) {
         this.testDirectory = testDirectory;
+        this.metadataStore = metadataStore;
     }
 
     public void assertThatIoFileExists(Path virtualFilePath) {
@@ -48,29 +54,26 @@ public class LocalVirtualFileAssertionHelper {
     }
 
 
-    public void assertThatMetadataIoFileDoesNotExist(Path virtualFilePath) {
-        File metadataIoFile = getMetadataIoFile(virtualFilePath);
-        assertFalse(metadataIoFile.exists());
+    public void assertThatMetadataDoesNotExist(Path virtualFilePath) throws IOException {
+        assertTrue(metadataStore.getProperties(virtualFilePath).isEmpty());
     }
 
-    public void assertThatMetadataIoFilesHaveSameContent(Path fileOne, Path fileTwo) throws IOException {
-        assertArrayEquals(String.format("Same content expected for files %s and %s", fileOne, fileTwo),
-                          Files.toByteArray(getMetadataIoFile(fileOne)), Files.toByteArray(getMetadataIoFile(fileTwo)));
+    public void assertThatMetadataIsSame(Path fileOne, Path fileTwo) throws IOException {
+        assertArrayEquals(String.format("Same metadata expected for files %s and %s", fileOne, fileTwo),
+                          serializeMetadata(fileOne), serializeMetadata(fileTwo));
     }
 
-    public void assertThatMetadataIoFileHasContent(Path virtualFilePath, byte[] bytes) throws IOException {
-        assertArrayEquals(bytes, Files.toByteArray(getMetadataIoFile(virtualFilePath)));
+    public void assertThatMetadataHasContent(Path virtualFilePath, byte[] bytes) throws IOException {
+        assertArrayEquals(bytes, serializeMetadata(virtualFilePath));
     }
 
 
-    public void assertThatLockIoFileExists(Path virtualFilePath) {
-        File ioFile = getLockIoFile(virtualFilePath);
-        assertTrue(ioFile.exists());
+    public void assertThatLockExists(Path virtualFilePath) throws IOException {
+        assertNotNull(metadataStore.getLock(virtualFilePath));
     }
 
-    public void assertThatLockIoFileDoesNotExist(Path virtualFilePath) {
-        File lockIoFile = getLockIoFile(virtualFilePath);
-        assertFalse(lockIoFile.exists());
+    public void assertThatLockDoesNotExist(Path virtualFilePath) throws IOException {
+        assertNull(metadataStore.getLock(virtualFilePath));
     }
 
 
@@ -78,24 +81,12 @@ public class LocalVirtualFileAssertionHelper {
         return new File(testDirectory, toIoPath(virtualFilePath));
     }
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(".vfs", "props", virtualFilePath.getName() + "_props");
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(".vfs", "props", virtualFilePath.getName() + "_props");
-        }
-        return new File(testDirectory, toIoPath(metadataFilePath));
-    }
-
-    private File getLockIoFile(Path virtualFilePath) {
-        Path lockFilePath;
-        if (virtualFilePath.isRoot()) {
-            lockFilePath = virtualFilePath.newPath(".vfs", "locks", virtualFilePath.getName() + "_lock");
-        } else {
-            lockFilePath = virtualFilePath.getParent().newPath(".vfs", "locks", virtualFilePath.getName() + "_lock");
-        }
-        return new File(testDirectory, toIoPath(lockFilePath));
+    private byte[] serializeMetadata(Path virtualFilePath) throws IOException {
+        ByteArrayOutputStream byteOutput = new ByteArrayOutputStream();
+        DataOutputStream dataOutput = new DataOutputStream(byteOutput);
+        new FileMetadataSerializer().write(dataOutput, metadataStore.getProperties(virtualFilePath));
+        dataOutput.flush();
+        return byteOutput.toByteArray();
     }
 
     private String toIoPath(Path vfsPath) {
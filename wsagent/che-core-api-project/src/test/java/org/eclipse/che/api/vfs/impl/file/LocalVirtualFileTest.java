@@ -45,15 +45,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -61,6 +65,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -85,7 +90,6 @@ public class LocalVirtualFileTest {
         File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
         testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
         assertTrue(testDirectory.mkdir());
-        assertionHelper = new LocalVirtualFileAssertionHelper(testDirectory);
 
         archiverFactory = mock(ArchiverFactory.class);
         SearcherProvider searcherProvider = mock(SearcherProvider.class);
@@ -93,6 +97,7 @@ public class LocalVirtualFileTest {
                                                 archiverFactory,
                                                 searcherProvider,
                                                 mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        assertionHelper = new LocalVirtualFileAssertionHelper(testDirectory, fileSystem.getMetadataStore());
         searcher = mock(Searcher.class);
         when(searcherProvider.getSearcher(eq(fileSystem), eq(true))).thenReturn(searcher);
         when(searcherProvider.getSearcher(eq(fileSystem))).thenReturn(searcher);
@@ -216,7 +221,7 @@ public class LocalVirtualFileTest {
         VirtualFile root = getRoot();
         VirtualFile file = root.createFile(generateFileName(), DEFAULT_CONTENT);
 
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(file.getPath());
+        assertionHelper.assertThatMetadataDoesNotExist(file.getPath());
         assertTrue(file.getProperties().isEmpty());
     }
 
@@ -226,7 +231,7 @@ public class LocalVirtualFileTest {
         VirtualFile file = root.createFile(generateFileName(), "");
         Map<String, String> properties = ImmutableMap.of("property1", "value1", "property2", "value2");
         file.updateProperties(properties);
-        assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(), serializeVirtualFileMetadata(properties));
+        assertionHelper.assertThatMetadataHasContent(file.getPath(), serializeVirtualFileMetadata(properties));
         assertEquals(properties, file.getProperties());
     }
 
@@ -237,7 +242,7 @@ public class LocalVirtualFileTest {
         Map<String, String> properties = ImmutableMap.of("property1", "value1");
         file.updateProperties(ImmutableMap.of("property1", "value1"));
 
-        assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(), serializeVirtualFileMetadata(properties));
+        assertionHelper.assertThatMetadataHasContent(file.getPath(), serializeVirtualFileMetadata(properties));
         assertEquals("value1", file.getProperty("property1"));
     }
 
@@ -250,7 +255,7 @@ public class LocalVirtualFileTest {
 
         Map<String, String> expected = ImmutableMap.of("property1", "valueX",
                                                        "new property1", "value3");
-        assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(), serializeVirtualFileMetadata(expected));
+        assertionHelper.assertThatMetadataHasContent(file.getPath(), serializeVirtualFileMetadata(expected));
         assertEquals(expected, file.getProperties());
     }
 
@@ -262,7 +267,7 @@ public class LocalVirtualFileTest {
         file.setProperty("property1", "value1");
 
         Map<String, String> expected = ImmutableMap.of("property1", "value1");
-        assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(), serializeVirtualFileMetadata(expected));
+        assertionHelper.assertThatMetadataHasContent(file.getPath(), serializeVirtualFileMetadata(expected));
         assertEquals(expected, file.getProperties());
     }
 
@@ -276,7 +281,7 @@ public class LocalVirtualFileTest {
 
         file.setProperty("property1", null);
 
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(file.getPath());
+        assertionHelper.assertThatMetadataDoesNotExist(file.getPath());
         assertTrue(file.getProperties().isEmpty());
     }
 
@@ -305,6 +310,51 @@ public class LocalVirtualFileTest {
         assertEquals(expected, newHashSet(folder.countMd5Sums()));
     }
 
+    @Test
+    public void countsHashSumsWithDefaultAlgorithm() throws Exception {
+        VirtualFile folder = getRoot().createFolder(generateFolderName());
+        VirtualFile file = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+
+        String hashSum = ByteSource.wrap(file.getContentAsBytes()).hash(Hashing.murmur3_128()).toString();
+        assertEquals(newArrayList(Pair.of(hashSum, file.getName())), folder.countHashSums());
+    }
+
+    @Test
+    public void countsMd5SumsAgainWhenFileIsUpdated() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+        folder.countMd5Sums();
+
+        file.updateContent("updated content");
+
+        assertEquals(newArrayList(Pair.of(countMd5Sum(file), file.getName())), folder.countMd5Sums());
+    }
+
+    @Test
+    public void reusesMd5SumsCountedBeforeRestartTillFileIsInvalidated() throws Exception {
+        VirtualFile folder = getRoot().createFolder(generateFolderName());
+        VirtualFile file = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+        String md5Sum = countMd5Sum(file);
+        FileTime lastModified = FileTime.fromMillis(1000000000000L);
+        Files.setLastModifiedTime(file.toIoFile().toPath(), lastModified);
+        folder.countMd5Sums();
+        fileSystem.close();
+        // content is changed in place but modification time and size are the same, so the saved hash sum is still used
+        Files.write(file.toIoFile().toPath(), "__TSET__".getBytes());
+        Files.setLastModifiedTime(file.toIoFile().toPath(), lastModified);
+
+        fileSystem = new LocalVirtualFileSystem(testDirectory,
+                                                archiverFactory,
+                                                mock(SearcherProvider.class),
+                                                mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        VirtualFile restoredFolder = fileSystem.getRoot().getChild(folder.getPath());
+        assertEquals(newArrayList(Pair.of(md5Sum, file.getName())), restoredFolder.countMd5Sums());
+
+        fileSystem.invalidateHashSums(file.getPath());
+        assertEquals(newArrayList(Pair.of(countMd5Sum(file), file.getName())), restoredFolder.countMd5Sums());
+    }
+
     @Test
     public void returnsEmptyListWhenCountMd5SumsOnFile() throws Exception {
         VirtualFile root = getRoot();
@@ -399,6 +449,36 @@ public class LocalVirtualFileTest {
         assertEquals(DEFAULT_CONTENT, new String(bytes));
     }
 
+    @Test
+    public void getsContentOfLargeFileAsStream() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] largeContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE * 2];
+        new Random().nextBytes(largeContent);
+        VirtualFile file = root.createFile(generateFileName(), largeContent);
+
+        byte[] bytes;
+        try (InputStream content = file.getContent()) {
+            bytes = ByteStreams.toByteArray(content);
+        }
+
+        assertArrayEquals(largeContent, bytes);
+    }
+
+    @Test
+    public void failsReadContentOfLargeFileWhenFileIsUpdatedWhileItIsRead() throws Exception {
+        VirtualFile root = getRoot();
+        byte[] largeContent = new byte[LocalVirtualFileSystem.MAX_BUFFER_SIZE * 2];
+        VirtualFile file = root.createFile(generateFileName(), largeContent);
+
+        try (InputStream content = file.getContent()) {
+            ByteStreams.readFully(content, new byte[1024]);
+            file.updateContent(DEFAULT_CONTENT);
+
+            thrown.expect(IOException.class);
+            ByteStreams.toByteArray(content);
+        }
+    }
+
     @Test
     public void getsContentAsBytes() throws Exception {
         VirtualFile root = getRoot();
@@ -628,7 +708,7 @@ public class LocalVirtualFileTest {
         VirtualFile copy = file.copyTo(targetFolder);
 
         assertionHelper.assertThatIoFilesHaveSameContent(file.getPath(), copy.getPath());
-        assertionHelper.assertThatMetadataIoFilesHaveSameContent(file.getPath(), copy.getPath());
+        assertionHelper.assertThatMetadataIsSame(file.getPath(), copy.getPath());
     }
 
     @Test
@@ -642,7 +722,7 @@ public class LocalVirtualFileTest {
 
         assertFalse(copy.isLocked());
         assertionHelper.assertThatIoFilesHaveSameContent(file.getPath(), copy.getPath());
-        assertionHelper.assertThatLockIoFileDoesNotExist(copy.getPath());
+        assertionHelper.assertThatLockDoesNotExist(copy.getPath());
     }
 
     @Test
@@ -655,7 +735,7 @@ public class LocalVirtualFileTest {
         VirtualFile copy = file.copyTo(targetFolder, "new name", false);
 
         assertionHelper.assertThatIoFilesHaveSameContent(file.getPath(), copy.getPath());
-        assertionHelper.assertThatMetadataIoFilesHaveSameContent(file.getPath(), copy.getPath());
+        assertionHelper.assertThatMetadataIsSame(file.getPath(), copy.getPath());
     }
 
     @Test
@@ -669,7 +749,7 @@ public class LocalVirtualFileTest {
         VirtualFile copy = file.copyTo(targetFolder, "existed_name", true);
 
         assertionHelper.assertThatIoFilesHaveSameContent(file.getPath(), copy.getPath());
-        assertionHelper.assertThatMetadataIoFilesHaveSameContent(file.getPath(), copy.getPath());
+        assertionHelper.assertThatMetadataIsSame(file.getPath(), copy.getPath());
     }
 
     @Test
@@ -709,7 +789,7 @@ public class LocalVirtualFileTest {
             VirtualFile original = originalIterator.next();
             VirtualFile copy = copiedIterator.next();
             assertionHelper.assertThatIoFileExists(copy.getPath());
-            assertionHelper.assertThatMetadataIoFilesHaveSameContent(original.getPath(), copy.getPath());
+            assertionHelper.assertThatMetadataIsSame(original.getPath(), copy.getPath());
             if (original.isFile()) {
                 assertionHelper.assertThatIoFilesHaveSameContent(original.getPath(), copy.getPath());
             }
@@ -730,7 +810,7 @@ public class LocalVirtualFileTest {
         VirtualFile copiedFile = copiedFolder.getChild(Path.of(file.getName()));
         assertionHelper.assertThatIoFileExists(copiedFolder.getPath());
         assertionHelper.assertThatIoFilesHaveSameContent(file.getPath(), copiedFile.getPath());
-        assertionHelper.assertThatLockIoFileDoesNotExist(copiedFile.getPath());
+        assertionHelper.assertThatLockDoesNotExist(copiedFile.getPath());
     }
 
     @Test
@@ -837,11 +917,11 @@ public class LocalVirtualFileTest {
 
         VirtualFile movedFile = file.moveTo(targetFolder);
 
-        assertionHelper.assertThatMetadataIoFileHasContent(movedFile.getPath(),
+        assertionHelper.assertThatMetadataHasContent(movedFile.getPath(),
                                                            serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         assertionHelper.assertThatIoFileHasContent(movedFile.getPath(), DEFAULT_CONTENT_BYTES);
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -853,11 +933,11 @@ public class LocalVirtualFileTest {
 
         VirtualFile movedFile = file.moveTo(targetFolder, "new_name", false, null);
 
-        assertionHelper.assertThatMetadataIoFileHasContent(movedFile.getPath(),
+        assertionHelper.assertThatMetadataHasContent(movedFile.getPath(),
                                                            serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         assertionHelper.assertThatIoFileHasContent(movedFile.getPath(), DEFAULT_CONTENT_BYTES);
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -870,11 +950,11 @@ public class LocalVirtualFileTest {
 
         VirtualFile movedFile = file.moveTo(targetFolder, "new_name", true, null);
 
-        assertionHelper.assertThatMetadataIoFileHasContent(movedFile.getPath(),
+        assertionHelper.assertThatMetadataHasContent(movedFile.getPath(),
                                                            serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         assertionHelper.assertThatIoFileHasContent(movedFile.getPath(), DEFAULT_CONTENT_BYTES);
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -887,9 +967,9 @@ public class LocalVirtualFileTest {
         VirtualFile movedFile = file.moveTo(targetFolder, null, false, lockToken);
 
         assertionHelper.assertThatIoFileHasContent(movedFile.getPath(), DEFAULT_CONTENT_BYTES);
-        assertionHelper.assertThatLockIoFileDoesNotExist(movedFile.getPath());
+        assertionHelper.assertThatLockDoesNotExist(movedFile.getPath());
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatLockIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatLockDoesNotExist(filePath);
     }
 
     @Test
@@ -906,13 +986,13 @@ public class LocalVirtualFileTest {
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileDoesNotExist(movedFilePath);
-            assertionHelper.assertThatLockIoFileDoesNotExist(movedFilePath);
-            assertionHelper.assertThatMetadataIoFileDoesNotExist(movedFilePath);
+            assertionHelper.assertThatLockDoesNotExist(movedFilePath);
+            assertionHelper.assertThatMetadataDoesNotExist(movedFilePath);
 
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
             assertionHelper
-                    .assertThatMetadataIoFileHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+                    .assertThatMetadataHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
+            assertionHelper.assertThatLockExists(filePath);
         }
     }
 
@@ -930,13 +1010,13 @@ public class LocalVirtualFileTest {
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileDoesNotExist(movedFilePath);
-            assertionHelper.assertThatLockIoFileDoesNotExist(movedFilePath);
-            assertionHelper.assertThatMetadataIoFileDoesNotExist(movedFilePath);
+            assertionHelper.assertThatLockDoesNotExist(movedFilePath);
+            assertionHelper.assertThatMetadataDoesNotExist(movedFilePath);
 
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
             assertionHelper
-                    .assertThatMetadataIoFileHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+                    .assertThatMetadataHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
+            assertionHelper.assertThatLockExists(filePath);
         }
     }
 
@@ -980,10 +1060,10 @@ public class LocalVirtualFileTest {
             if (moved.isFile()) {
                 assertionHelper.assertThatIoFileHasContent(moved.getPath(), DEFAULT_CONTENT_BYTES);
             }
-            assertionHelper.assertThatMetadataIoFileHasContent(moved.getPath(),
+            assertionHelper.assertThatMetadataHasContent(moved.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property" + i, "value" + i)));
             assertionHelper.assertThatIoFileDoesNotExist(originalPath);
-            assertionHelper.assertThatMetadataIoFileDoesNotExist(originalPath);
+            assertionHelper.assertThatMetadataDoesNotExist(originalPath);
             i++;
         }
         assertFalse(originalPathIterator.hasNext() || movedIterator.hasNext());
@@ -1055,7 +1135,7 @@ public class LocalVirtualFileTest {
 
             assertionHelper.assertThatIoFileExists(folder.getPath());
             assertionHelper.assertThatIoFileExists(lockedFile.getPath());
-            assertionHelper.assertThatLockIoFileExists(lockedFile.getPath());
+            assertionHelper.assertThatLockExists(lockedFile.getPath());
         }
     }
 
@@ -1126,10 +1206,10 @@ public class LocalVirtualFileTest {
         VirtualFile renamedFile = file.rename("new name");
 
         assertionHelper.assertThatIoFileHasContent(renamedFile.getPath(), DEFAULT_CONTENT_BYTES);
-        assertionHelper.assertThatMetadataIoFileHasContent(renamedFile.getPath(),
+        assertionHelper.assertThatMetadataHasContent(renamedFile.getPath(),
                                                            serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -1142,9 +1222,9 @@ public class LocalVirtualFileTest {
         VirtualFile renamedFile = file.rename("new name", lockToken);
 
         assertionHelper.assertThatIoFileHasContent(renamedFile.getPath(), DEFAULT_CONTENT_BYTES);
-        assertionHelper.assertThatLockIoFileDoesNotExist(renamedFile.getPath());
+        assertionHelper.assertThatLockDoesNotExist(renamedFile.getPath());
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatLockIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatLockDoesNotExist(filePath);
     }
 
     @Test
@@ -1162,12 +1242,12 @@ public class LocalVirtualFileTest {
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
             assertionHelper
-                    .assertThatMetadataIoFileHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+                    .assertThatMetadataHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
+            assertionHelper.assertThatLockExists(filePath);
 
             assertionHelper.assertThatIoFileDoesNotExist(newPath);
-            assertionHelper.assertThatLockIoFileDoesNotExist(newPath);
-            assertionHelper.assertThatMetadataIoFileDoesNotExist(newPath);
+            assertionHelper.assertThatLockDoesNotExist(newPath);
+            assertionHelper.assertThatMetadataDoesNotExist(newPath);
         }
     }
 
@@ -1186,12 +1266,12 @@ public class LocalVirtualFileTest {
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
             assertionHelper
-                    .assertThatMetadataIoFileHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+                    .assertThatMetadataHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
+            assertionHelper.assertThatLockExists(filePath);
 
             assertionHelper.assertThatIoFileDoesNotExist(newPath);
-            assertionHelper.assertThatLockIoFileDoesNotExist(newPath);
-            assertionHelper.assertThatMetadataIoFileDoesNotExist(newPath);
+            assertionHelper.assertThatLockDoesNotExist(newPath);
+            assertionHelper.assertThatMetadataDoesNotExist(newPath);
         }
     }
 
@@ -1210,11 +1290,11 @@ public class LocalVirtualFileTest {
             thrown.expect(ConflictException.class);
         } catch (ConflictException e) {
             assertionHelper.assertThatIoFileHasContent(conflictFilePath, "xxx".getBytes());
-            assertionHelper.assertThatMetadataIoFileHasContent(conflictFilePath,
+            assertionHelper.assertThatMetadataHasContent(conflictFilePath,
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property2", "value2")));
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
             assertionHelper
-                    .assertThatMetadataIoFileHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
+                    .assertThatMetadataHasContent(filePath, serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         }
     }
 
@@ -1234,15 +1314,15 @@ public class LocalVirtualFileTest {
         assertionHelper.assertThatIoFileExists(renamed.getPath());
         assertionHelper.assertThatIoFileHasContent(newFilePath, DEFAULT_CONTENT_BYTES);
 
-        assertionHelper.assertThatMetadataIoFileHasContent(renamed.getPath(),
+        assertionHelper.assertThatMetadataHasContent(renamed.getPath(),
                                                            serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         assertionHelper
-                .assertThatMetadataIoFileHasContent(newFilePath, serializeVirtualFileMetadata(ImmutableMap.of("property2", "value2")));
+                .assertThatMetadataHasContent(newFilePath, serializeVirtualFileMetadata(ImmutableMap.of("property2", "value2")));
 
         assertionHelper.assertThatIoFileDoesNotExist(folderPath);
         assertionHelper.assertThatIoFileDoesNotExist(folderPath.newPath(fileName));
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(folderPath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(folderPath.newPath(fileName));
+        assertionHelper.assertThatMetadataDoesNotExist(folderPath);
+        assertionHelper.assertThatMetadataDoesNotExist(folderPath.newPath(fileName));
     }
 
     @Test
@@ -1260,7 +1340,7 @@ public class LocalVirtualFileTest {
 
             assertionHelper.assertThatIoFileExists(folder.getPath());
             assertionHelper.assertThatIoFileHasContent(lockedFile.getPath(), DEFAULT_CONTENT_BYTES);
-            assertionHelper.assertThatLockIoFileExists(lockedFile.getPath());
+            assertionHelper.assertThatLockExists(lockedFile.getPath());
         }
     }
 
@@ -1291,7 +1371,7 @@ public class LocalVirtualFileTest {
         file.delete();
 
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -1305,8 +1385,8 @@ public class LocalVirtualFileTest {
         file.delete(lockToken);
 
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatLockIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
+        assertionHelper.assertThatLockDoesNotExist(filePath);
     }
 
     @Test
@@ -1323,9 +1403,9 @@ public class LocalVirtualFileTest {
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
-            assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(),
+            assertionHelper.assertThatMetadataHasContent(file.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+            assertionHelper.assertThatLockExists(filePath);
         }
     }
 
@@ -1343,9 +1423,9 @@ public class LocalVirtualFileTest {
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
-            assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(),
+            assertionHelper.assertThatMetadataHasContent(file.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
-            assertionHelper.assertThatLockIoFileExists(filePath);
+            assertionHelper.assertThatLockExists(filePath);
         }
     }
 
@@ -1361,9 +1441,9 @@ public class LocalVirtualFileTest {
         folder.delete();
 
         assertionHelper.assertThatIoFileDoesNotExist(folderPath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(folderPath);
+        assertionHelper.assertThatMetadataDoesNotExist(folderPath);
         assertionHelper.assertThatIoFileDoesNotExist(filePath);
-        assertionHelper.assertThatMetadataIoFileDoesNotExist(filePath);
+        assertionHelper.assertThatMetadataDoesNotExist(filePath);
     }
 
     @Test
@@ -1381,10 +1461,10 @@ public class LocalVirtualFileTest {
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
             assertionHelper.assertThatIoFileExists(folderPath);
-            assertionHelper.assertThatMetadataIoFileHasContent(folder.getPath(),
+            assertionHelper.assertThatMetadataHasContent(folder.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
             assertionHelper.assertThatIoFileHasContent(filePath, DEFAULT_CONTENT_BYTES);
-            assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(),
+            assertionHelper.assertThatMetadataHasContent(file.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property2", "value2")));
         }
     }
@@ -1394,10 +1474,54 @@ public class LocalVirtualFileTest {
         VirtualFile folder = getRoot().createFolder(generateFolderName());
         Archiver archiver = mock(Archiver.class);
         when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
-        folder.zip();
+        try (InputStream archive = folder.zip()) {
+            ByteStreams.toByteArray(archive);
+        }
         verify(archiver).compress(any(OutputStream.class), any(VirtualFileFilter.class));
     }
 
+    @Test
+    public void compressesFolderToZipArchiveWhileItIsRead() throws Exception {
+        VirtualFile folder = getRoot().createFolder(generateFolderName());
+        Archiver archiver = mock(Archiver.class);
+        doAnswer(invocation -> {
+            OutputStream output = (OutputStream)invocation.getArguments()[0];
+            for (int i = 0; i < 100; i++) {
+                output.write(DEFAULT_CONTENT_BYTES);
+            }
+            output.close();
+            return null;
+        }).when(archiver).compress(any(OutputStream.class), any(VirtualFileFilter.class));
+        when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
+
+        byte[] archive;
+        try (InputStream content = folder.zip()) {
+            archive = ByteStreams.toByteArray(content);
+        }
+
+        assertEquals(DEFAULT_CONTENT_BYTES.length * 100, archive.length);
+    }
+
+    @Test
+    public void failsReadZipArchiveWhenCompressionFails() throws Exception {
+        VirtualFile folder = getRoot().createFolder(generateFolderName());
+        Archiver archiver = mock(Archiver.class);
+        doAnswer(invocation -> {
+            OutputStream output = (OutputStream)invocation.getArguments()[0];
+            output.write(DEFAULT_CONTENT_BYTES);
+            output.close();
+            throw new IOException("Compression failed");
+        }).when(archiver).compress(any(OutputStream.class), any(VirtualFileFilter.class));
+        when(archiverFactory.createArchiver(eq(folder), eq("zip"))).thenReturn(archiver);
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("Compression failed");
+
+        try (InputStream content = folder.zip()) {
+            ByteStreams.toByteArray(content);
+        }
+    }
+
     @Test
     public void failsZipFile() throws Exception {
         VirtualFile root = getRoot();
@@ -1430,7 +1554,9 @@ public class LocalVirtualFileTest {
         VirtualFile folder = getRoot().createFolder(generateFolderName());
         Archiver archiver = mock(Archiver.class);
         when(archiverFactory.createArchiver(eq(folder), eq("tar"))).thenReturn(archiver);
-        folder.tar();
+        try (InputStream archive = folder.tar()) {
+            ByteStreams.toByteArray(archive);
+        }
         verify(archiver).compress(any(OutputStream.class), any(VirtualFileFilter.class));
     }
 
@@ -1455,7 +1581,7 @@ public class LocalVirtualFileTest {
     public void locksFile() throws Exception {
         VirtualFile file = getRoot().createFile(generateFileName(), DEFAULT_CONTENT);
         file.lock(0);
-        assertionHelper.assertThatLockIoFileExists(file.getPath());
+        assertionHelper.assertThatLockExists(file.getPath());
         assertTrue(file.isLocked());
     }
 
@@ -1463,11 +1589,11 @@ public class LocalVirtualFileTest {
     public void lockExpiredAfterTimeout() throws Exception {
         VirtualFile file = getRoot().createFile(generateFileName(), DEFAULT_CONTENT);
         file.lock(500);
-        assertionHelper.assertThatLockIoFileExists(file.getPath());
+        assertionHelper.assertThatLockExists(file.getPath());
         assertTrue(file.isLocked());
         Thread.sleep(1000);
         assertFalse(file.isLocked());
-        assertionHelper.assertThatLockIoFileDoesNotExist(file.getPath());
+        assertionHelper.assertThatLockDoesNotExist(file.getPath());
     }
 
     @Test
@@ -1477,7 +1603,7 @@ public class LocalVirtualFileTest {
             folder.lock(0);
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
-            assertionHelper.assertThatLockIoFileDoesNotExist(folder.getPath());
+            assertionHelper.assertThatLockDoesNotExist(folder.getPath());
             assertFalse(folder.isLocked());
         }
     }
@@ -1487,7 +1613,7 @@ public class LocalVirtualFileTest {
         VirtualFile file = getRoot().createFile(generateFileName(), DEFAULT_CONTENT);
         String lockToken = file.lock(0);
         file.unlock(lockToken);
-        assertionHelper.assertThatLockIoFileDoesNotExist(file.getPath());
+        assertionHelper.assertThatLockDoesNotExist(file.getPath());
         assertFalse(file.isLocked());
     }
 
@@ -1500,7 +1626,7 @@ public class LocalVirtualFileTest {
             file.unlock(null);
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
-            assertionHelper.assertThatLockIoFileExists(file.getPath());
+            assertionHelper.assertThatLockExists(file.getPath());
             assertTrue(file.isLocked());
         }
     }
@@ -1514,7 +1640,7 @@ public class LocalVirtualFileTest {
             file.unlock(invalidLockToken);
             thrown.expect(ForbiddenException.class);
         } catch (ForbiddenException e) {
-            assertionHelper.assertThatLockIoFileExists(file.getPath());
+            assertionHelper.assertThatLockExists(file.getPath());
             assertTrue(file.isLocked());
         }
     }
@@ -1574,7 +1700,7 @@ public class LocalVirtualFileTest {
             thrown.expect(ConflictException.class);
         } catch (ConflictException expected) {
             assertionHelper.assertThatIoFileHasContent(file.getPath(), DEFAULT_CONTENT_BYTES);
-            assertionHelper.assertThatMetadataIoFileHasContent(file.getPath(),
+            assertionHelper.assertThatMetadataHasContent(file.getPath(),
                                                                serializeVirtualFileMetadata(ImmutableMap.of("property1", "value1")));
         }
     }
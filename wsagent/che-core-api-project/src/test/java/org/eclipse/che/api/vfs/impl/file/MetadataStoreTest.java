@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetadataStoreTest {
+    private File          testDirectory;
+    private File          storage;
+    private MetadataStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        testDirectory = Files.createTempDirectory("metadata-").toFile();
+        storage = new File(testDirectory, ".vfs/metadata");
+        store = new MetadataStore(storage.toPath(), testDirectory.toPath());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.close();
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void restoresPropertiesAndLocksFromFile() throws Exception {
+        FileLock lock = new FileLock("token", Long.MAX_VALUE);
+        store.setProperties(Path.of("/a/file"), ImmutableMap.of("property1", "value1"));
+        store.setLock(Path.of("/a/file"), lock);
+        store.setProperties(Path.of("/b"), ImmutableMap.of("property2", "value2"));
+        store.setProperties(Path.of("/b"), emptyMap());
+        store.close();
+
+        MetadataStore restored = new MetadataStore(storage.toPath(), testDirectory.toPath());
+
+        assertEquals(ImmutableMap.of("property1", "value1"), restored.getProperties(Path.of("/a/file")));
+        assertEquals(lock, restored.getLock(Path.of("/a/file")));
+        assertTrue(restored.getProperties(Path.of("/b")).isEmpty());
+        restored.close();
+    }
+
+    @Test
+    public void deletesMetadataOfFolderAndAllItsItems() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "value1"));
+        store.setProperties(Path.of("/a/b/file"), ImmutableMap.of("property2", "value2"));
+        store.setLock(Path.of("/a/b/file"), new FileLock("token", Long.MAX_VALUE));
+        store.setProperties(Path.of("/ab"), ImmutableMap.of("property3", "value3"));
+
+        store.delete(Path.of("/a"));
+
+        assertTrue(store.getProperties(Path.of("/a")).isEmpty());
+        assertTrue(store.getProperties(Path.of("/a/b/file")).isEmpty());
+        assertNull(store.getLock(Path.of("/a/b/file")));
+        assertEquals(ImmutableMap.of("property3", "value3"), store.getProperties(Path.of("/ab")));
+    }
+
+    @Test
+    public void movesPropertiesOfFolderAndAllItsItemsWithoutLocks() throws Exception {
+        store.setProperties(Path.of("/a"), ImmutableMap.of("property1", "value1"));
+        store.setProperties(Path.of("/a/file"), ImmutableMap.of("property2", "value2"));
+        store.setLock(Path.of("/a/file"), new FileLock("token", Long.MAX_VALUE));
+        store.setProperties(Path.of("/c/file"), ImmutableMap.of("property3", "value3"));
+
+        store.move(Path.of("/a"), Path.of("/c"));
+        store.close();
+        MetadataStore restored = new MetadataStore(storage.toPath(), testDirectory.toPath());
+
+        assertTrue(restored.getProperties(Path.of("/a")).isEmpty());
+        assertTrue(restored.getProperties(Path.of("/a/file")).isEmpty());
+        assertNull(restored.getLock(Path.of("/a/file")));
+        assertEquals(ImmutableMap.of("property1", "value1"), restored.getProperties(Path.of("/c")));
+        assertEquals(ImmutableMap.of("property2", "value2"), restored.getProperties(Path.of("/c/file")));
+        assertNull(restored.getLock(Path.of("/c/file")));
+        restored.close();
+    }
+
+    @Test
+    public void copiesPropertiesOfFolderAndAllItsItems() throws Exception {
+        store.setProperties(Path.of("/a/file"), ImmutableMap.of("property1", "value1"));
+        store.setLock(Path.of("/a/file"), new FileLock("token", Long.MAX_VALUE));
+
+        store.copy(Path.of("/a"), Path.of("/c"));
+
+        assertEquals(ImmutableMap.of("property1", "value1"), store.getProperties(Path.of("/a/file")));
+        assertEquals(ImmutableMap.of("property1", "value1"), store.getProperties(Path.of("/c/file")));
+        assertNull(store.getLock(Path.of("/c/file")));
+    }
+
+    @Test
+    public void skipsIncompleteLastRecord() throws Exception {
+        store.setProperties(Path.of("/file"), ImmutableMap.of("property1", "value1"));
+        store.close();
+        Files.write(storage.toPath(), new byte[]{1, 0, 5, '/'}, APPEND);
+
+        MetadataStore restored = new MetadataStore(storage.toPath(), testDirectory.toPath());
+        restored.setProperties(Path.of("/file2"), ImmutableMap.of("property2", "value2"));
+        restored.close();
+        restored = new MetadataStore(storage.toPath(), testDirectory.toPath());
+
+        assertEquals(ImmutableMap.of("property1", "value1"), restored.getProperties(Path.of("/file")));
+        assertEquals(ImmutableMap.of("property2", "value2"), restored.getProperties(Path.of("/file2")));
+        restored.close();
+    }
+
+    @Test
+    public void importsPropertiesAndLocksOfPreviousVersions() throws Exception {
+        File folderVfs = new File(testDirectory, "folder/.vfs");
+        writeLegacyProperties(new File(folderVfs, "props/file_props"), ImmutableMap.of("property1", "value1"));
+        writeLegacyLock(new File(folderVfs, "locks/file_lock"), new FileLock("token", 100));
+        writeLegacyProperties(new File(testDirectory, ".vfs/props/folder_props"), ImmutableMap.of("property2", "value2"));
+
+        assertEquals(ImmutableMap.of("property1", "value1"), store.getProperties(Path.of("/folder/file")));
+        assertEquals(new FileLock("token", 100), store.getLock(Path.of("/folder/file")));
+        assertEquals(ImmutableMap.of("property2", "value2"), store.getProperties(Path.of("/folder")));
+        assertFalse(folderVfs.exists());
+        assertFalse(new File(testDirectory, ".vfs/props").exists());
+        assertTrue(storage.exists());
+    }
+
+    @Test
+    public void searchesFilesOfPreviousVersionsOnlyOnce() throws Exception {
+        assertTrue(store.getProperties(Path.of("/folder/file")).isEmpty());
+        store.close();
+        assertTrue(storage.exists());
+
+        writeLegacyProperties(new File(testDirectory, "folder/.vfs/props/file_props"), ImmutableMap.of("property1", "value1"));
+        MetadataStore restored = new MetadataStore(storage.toPath(), testDirectory.toPath());
+
+        assertTrue(restored.getProperties(Path.of("/folder/file")).isEmpty());
+        restored.close();
+    }
+
+    private void writeLegacyProperties(File file, ImmutableMap<String, String> properties) throws IOException {
+        assertTrue(file.getParentFile().mkdirs());
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+            new FileMetadataSerializer().write(output, properties);
+        }
+    }
+
+    private void writeLegacyLock(File file, FileLock lock) throws IOException {
+        assertTrue(file.getParentFile().mkdirs());
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+            new FileLockSerializer().write(output, lock);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import com.google.common.io.ByteStreams;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PipedContentInputStreamTest {
+    private static final int BUFFER_SIZE = 1024;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readsContentWrittenByWriter() throws Exception {
+        final byte[] content = new byte[BUFFER_SIZE * 100 + 7];
+        new Random(1).nextBytes(content);
+
+        try (InputStream in = new PipedContentInputStream(output -> output.write(content), executor, BUFFER_SIZE, 10000)) {
+            assertArrayEquals(content, ByteStreams.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void throwsWriterFailureInsteadOfEndOfStream() throws Exception {
+        try (InputStream in = new PipedContentInputStream(output -> {
+            output.write(1);
+            throw new IOException("writer failed");
+        }, executor, BUFFER_SIZE, 10000)) {
+            assertEquals(1, in.read());
+            in.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals("writer failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void writerFailsWhenReaderClosesPipe() throws Exception {
+        final CompletableFuture<Exception> writerFailure = new CompletableFuture<>();
+        final InputStream in = new PipedContentInputStream(output -> {
+            try {
+                while (true) {
+                    output.write(new byte[BUFFER_SIZE]);
+                }
+            } catch (IOException e) {
+                writerFailure.complete(e);
+            }
+        }, executor, BUFFER_SIZE, 10000);
+
+        in.read();
+        in.close();
+
+        assertTrue(writerFailure.get(5, SECONDS).getMessage().contains("closed"));
+    }
+
+    @Test
+    public void writerFailsWhenContentIsNotReadForWriteTimeout() throws Exception {
+        final CompletableFuture<Exception> writerFailure = new CompletableFuture<>();
+        try (InputStream ignored = new PipedContentInputStream(output -> {
+            try {
+                output.write(new byte[BUFFER_SIZE * 2]);
+            } catch (IOException e) {
+                writerFailure.complete(e);
+            }
+        }, executor, BUFFER_SIZE, 100)) {
+            assertTrue(writerFailure.get(5, SECONDS).getMessage().contains("isn't read"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void failsWhenExecutorRejectsWriter() throws Exception {
+        executor.shutdown();
+
+        new PipedContentInputStream(output -> {}, executor, BUFFER_SIZE, 10000);
+    }
+}
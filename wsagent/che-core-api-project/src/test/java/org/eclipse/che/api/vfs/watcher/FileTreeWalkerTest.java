@@ -58,6 +58,8 @@ public class FileTreeWalkerTest {
     Set<Consumer<Path>> fileDeleteConsumers      = new HashSet<>();
     Set<PathMatcher>    fileExcludes             = new HashSet<>();
 
+    Set<Consumer<Path>> subtreeImportConsumers   = new HashSet<>();
+
     @Mock
     Consumer<Path>     fileCreatedConsumerMock;
     @Mock
@@ -71,6 +73,8 @@ public class FileTreeWalkerTest {
 
     @Mock
     Consumer<Path> directoryDeleteConsumerMock;
+    @Mock
+    Consumer<Path> subtreeImportConsumerMock;
 
     @Before
     public void setUp() throws Exception {
@@ -82,7 +86,8 @@ public class FileTreeWalkerTest {
                                             fileUpdateConsumers,
                                             fileCreateConsumers,
                                             fileDeleteConsumers,
-                                            fileExcludes);
+                                            fileExcludes,
+                                            subtreeImportConsumers);
     }
 
     @After
@@ -95,6 +100,7 @@ public class FileTreeWalkerTest {
         fileCreateConsumers.clear();
         fileDeleteConsumers.clear();
         fileExcludes.clear();
+        subtreeImportConsumers.clear();
     }
 
     @Test
@@ -198,4 +204,26 @@ public class FileTreeWalkerTest {
         fileTreeWalker.walk();
         verify(directoryCreatedConsumerMock, never()).accept(file.toPath());
     }
+
+    @Test
+    public void shouldRunSubtreeImportConsumerOnceForImportedSubtree() throws Exception {
+        subtreeImportConsumers.add(subtreeImportConsumerMock);
+        fileCreateConsumers.add(subtreeImportConsumerMock);
+        fileCreateConsumers.add(fileCreatedConsumerMock);
+
+        fileTreeWalker.importStarted('/' + TEST_FOLDER_NAME);
+        File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+        File file = new File(folder, TEST_FILE_NAME);
+        write(file, TEST_FILE_CONTENT);
+
+        fileTreeWalker.walk();
+        verify(fileCreatedConsumerMock, never()).accept(file.toPath());
+
+        fileTreeWalker.importFinished('/' + TEST_FOLDER_NAME);
+        fileTreeWalker.walk();
+
+        verify(subtreeImportConsumerMock).accept(folder.toPath());
+        verify(subtreeImportConsumerMock, never()).accept(file.toPath());
+        verify(fileCreatedConsumerMock).accept(file.toPath());
+    }
 }
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.discovery;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes a Java class by the content of its class file, the class is not loaded.
+ * Only what is needed to recognize test classes is read: name of the class and of
+ * its superclass, access flags and runtime visible annotations of the class and
+ * of its declared methods.
+ */
+public class ClassFileInfo {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT  = 0x0400;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String      name;
+    private final String      superName;
+    private final int         access;
+    private final Set<String> annotations;
+    private final Set<String> methodAnnotations;
+
+    private ClassFileInfo(String name, String superName, int access, Set<String> annotations, Set<String> methodAnnotations) {
+        this.name = name;
+        this.superName = superName;
+        this.access = access;
+        this.annotations = annotations;
+        this.methodAnnotations = methodAnnotations;
+    }
+
+    /**
+     * Reads description of the class from the class file content.
+     *
+     * @throws IOException
+     *         if the stream can't be read or its content is not a class file
+     */
+    public static ClassFileInfo read(InputStream classFile) throws IOException {
+        final DataInputStream in = new DataInputStream(classFile);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // minor and major versions
+        in.skipBytes(4);
+        final String[] utf8 = new String[in.readUnsignedShort()];
+        final int[] classNameIndexes = new int[utf8.length];
+        for (int i = 1; i < utf8.length; i++) {
+            final int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    // takes two entries of the constant pool
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        final int access = in.readUnsignedShort();
+        final String name = toClassName(utf8[classNameIndexes[in.readUnsignedShort()]]);
+        final int superIndex = in.readUnsignedShort();
+        final String superName = superIndex == 0 ? null : toClassName(utf8[classNameIndexes[superIndex]]);
+        in.skipBytes(2 * in.readUnsignedShort());
+
+        // fields
+        for (int fields = in.readUnsignedShort(); fields > 0; fields--) {
+            in.skipBytes(6);
+            readAttributes(in, utf8, null);
+        }
+        final Set<String> methodAnnotations = new HashSet<>();
+        for (int methods = in.readUnsignedShort(); methods > 0; methods--) {
+            in.skipBytes(6);
+            readAttributes(in, utf8, methodAnnotations);
+        }
+        final Set<String> annotations = new HashSet<>();
+        readAttributes(in, utf8, annotations);
+        return new ClassFileInfo(name, superName, access, annotations, methodAnnotations);
+    }
+
+    /** Returns fully qualified name of the class, e.g. {@code org.test.MyTest}. */
+    public String getName() {
+        return name;
+    }
+
+    /** Returns fully qualified name of the superclass, or {@code null} if the class is {@code java.lang.Object}. */
+    public String getSuperName() {
+        return superName;
+    }
+
+    /** Returns {@code true} if the class may be instantiated, i.e. it is neither an interface nor an abstract class. */
+    public boolean isConcrete() {
+        return (access & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    }
+
+    /** Returns {@code true} if the class is annotated with the annotation, e.g. {@code org.testng.annotations.Test}. */
+    public boolean hasAnnotation(String annotation) {
+        return annotations.contains(annotation);
+    }
+
+    /** Returns {@code true} if any method declared by the class is annotated with the annotation, e.g. {@code org.junit.Test}. */
+    public boolean hasMethodAnnotation(String annotation) {
+        return methodAnnotations.contains(annotation);
+    }
+
+    /** Reads attributes adding names of runtime visible annotations to the given set, or skips them if it is {@code null}. */
+    private static void readAttributes(DataInputStream in, String[] utf8, Set<String> annotations) throws IOException {
+        for (int attributes = in.readUnsignedShort(); attributes > 0; attributes--) {
+            final String attributeName = utf8[in.readUnsignedShort()];
+            final int length = in.readInt();
+            if (annotations != null && RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                for (int count = in.readUnsignedShort(); count > 0; count--) {
+                    annotations.add(toClassName(readAnnotation(in, utf8)));
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+    }
+
+    /** Reads annotation skipping its elements, returns the descriptor of the annotation type. */
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        final String type = utf8[in.readUnsignedShort()];
+        for (int pairs = in.readUnsignedShort(); pairs > 0; pairs--) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+        return type;
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                for (int values = in.readUnsignedShort(); values > 0; values--) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                // constant value or class
+                in.skipBytes(2);
+        }
+    }
+
+    /** Converts internal name {@code org/test/MyTest} or descriptor {@code Lorg/test/MyTest;} to {@code org.test.MyTest}. */
+    private static String toClassName(String internalName) {
+        String name = internalName;
+        if (name.startsWith("L") && name.endsWith(";")) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.replace('/', '.');
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFileInfo{" +
+               "name='" + name + '\'' +
+               ", superName='" + superName + '\'' +
+               ", access=" + access +
+               ", annotations=" + annotations +
+               ", methodAnnotations=" + methodAnnotations +
+               '}';
+    }
+}
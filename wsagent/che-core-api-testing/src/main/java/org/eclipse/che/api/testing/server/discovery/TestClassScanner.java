@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.discovery;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Finds test classes in a directory of compiled classes, e.g. {@code target/test-classes}.
+ *
+ * <p>Class files are read and recognized by their annotations and superclasses with
+ * {@link ClassFileInfo}, so classes of the project are never loaded into the JVM which
+ * looks for tests. Class files of the directory are read in parallel.
+ */
+public class TestClassScanner {
+    private static final Logger LOG = getLogger(TestClassScanner.class);
+
+    private final Path                                           classesDirectory;
+    private final ClassLoader                                    resources;
+    private final ConcurrentMap<String, Optional<ClassFileInfo>> classes;
+
+    /**
+     * @param classesDirectory
+     *         directory with compiled test classes
+     * @param resources
+     *         used to read class files of superclasses which are not in the directory, e.g. classes of the project
+     *         dependencies, only resources are read with it and classes are never loaded
+     */
+    public TestClassScanner(Path classesDirectory, ClassLoader resources) {
+        this.classesDirectory = classesDirectory;
+        this.resources = resources;
+        this.classes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns sorted names of top level classes of the directory which may be instantiated and match the given predicate.
+     * Returns empty list if the directory doesn't exist, e.g. when tests are not compiled.
+     *
+     * @throws IOException
+     *         if the directory can't be read
+     */
+    public List<String> findTestClasses(Predicate<ClassFileInfo> isTestClass) throws IOException {
+        if (!Files.isDirectory(classesDirectory)) {
+            return emptyList();
+        }
+        final List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDirectory)) {
+            classFiles = files.filter(file -> file.toString().endsWith(".class") && Files.isRegularFile(file))
+                              .collect(toList());
+        }
+        final List<ClassFileInfo> infos = classFiles.parallelStream()
+                                                    .map(this::read)
+                                                    .filter(Objects::nonNull)
+                                                    .collect(toList());
+        infos.forEach(info -> classes.put(info.getName(), Optional.of(info)));
+        return infos.parallelStream()
+                    .filter(info -> info.isConcrete() && info.getName().indexOf('$') < 0)
+                    .filter(isTestClass)
+                    .map(ClassFileInfo::getName)
+                    .sorted()
+                    .collect(toList());
+    }
+
+    /** Returns {@code true} if the class extends the given class directly or through its superclasses. */
+    public boolean isSubclassOf(ClassFileInfo info, String superClassName) {
+        for (ClassFileInfo current = info; current != null; current = getSuperclass(current)) {
+            if (superClassName.equals(current.getSuperName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns {@code true} if a method of the class or of any of its superclasses is annotated with the annotation. */
+    public boolean hasMethodAnnotation(ClassFileInfo info, String annotation) {
+        for (ClassFileInfo current = info; current != null; current = getSuperclass(current)) {
+            if (current.hasMethodAnnotation(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns description of the superclass or {@code null} if it is {@code java.lang.Object} or it can't be found. */
+    private ClassFileInfo getSuperclass(ClassFileInfo info) {
+        final String superName = info.getSuperName();
+        if (superName == null || "java.lang.Object".equals(superName)) {
+            return null;
+        }
+        Optional<ClassFileInfo> superclass = classes.get(superName);
+        if (superclass == null) {
+            superclass = Optional.ofNullable(readResource(superName));
+            classes.putIfAbsent(superName, superclass);
+        }
+        return superclass.orElse(null);
+    }
+
+    private ClassFileInfo read(Path classFile) {
+        try (InputStream in = Files.newInputStream(classFile)) {
+            return ClassFileInfo.read(in);
+        } catch (IOException e) {
+            LOG.warn("Can't read class file {}: {}", classFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private ClassFileInfo readResource(String className) {
+        try (InputStream in = resources.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in == null ? null : ClassFileInfo.read(in);
+        } catch (IOException e) {
+            LOG.warn("Can't read class file of {}: {}", className, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Drains the error stream of the forked JVM and keeps its last lines,
+ * they are reported when the JVM fails.
+ */
+class ErrorStreamTail implements Runnable {
+    private static final Logger LOG = getLogger(ErrorStreamTail.class);
+
+    private static final int MAX_LINES = 20;
+
+    private final InputStream   errorStream;
+    private final Deque<String> lines;
+
+    ErrorStreamTail(InputStream errorStream) {
+        this.errorStream = errorStream;
+        this.lines = new ArrayDeque<>();
+    }
+
+    @Override
+    public void run() {
+        try (BufferedReader err = new BufferedReader(new InputStreamReader(errorStream, UTF_8))) {
+            String line;
+            while ((line = err.readLine()) != null) {
+                LOG.debug(line);
+                synchronized (lines) {
+                    if (lines.size() == MAX_LINES) {
+                        lines.poll();
+                    }
+                    lines.add(line);
+                }
+            }
+        } catch (IOException ignored) {
+            // the process is destroyed
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lines) {
+            return String.join("\n", lines);
+        }
+    }
+}
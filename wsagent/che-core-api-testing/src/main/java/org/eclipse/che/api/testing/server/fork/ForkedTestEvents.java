@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Line based protocol of events which are sent by the JVM running tests to {@link ForkedTestExecutor}.
+ *
+ * <p>Each event is a single line of the standard output of the forked JVM which starts with
+ * {@value #PREFIX} and consists of tab separated fields, tabs, line breaks and backslashes
+ * in the fields are escaped. The output of tests themselves is redirected to the standard
+ * error stream, so it can't be mixed with the events.
+ *
+ * <p>Names of test classes to run are passed to the forked JVM through its standard input,
+ * one name per line. The warm JVM, which is started with {@value #WARM_CLASSPATH_PROPERTY}
+ * property, runs tests repeatedly: each request is terminated by an empty line and is
+ * answered with {@link #RUN_FINISHED} event after all its tests are finished.
+ *
+ * <p>This class is used in the forked JVM, so it must not depend on anything except of JDK.
+ */
+public final class ForkedTestEvents {
+    public static final String PREFIX = "##che-test##";
+
+    /** System property of the forked JVM which holds its zero-based index among JVMs of the same test run. */
+    public static final String FORK_INDEX_PROPERTY = "che.testing.fork.index";
+
+    /**
+     * System property of the warm JVM which holds the classpath of the project classes separated with
+     * {@link File#pathSeparator}, these classes are loaded anew for each request while classes
+     * of the JVM classpath, e.g. libraries and the test framework, stay loaded between requests.
+     */
+    public static final String WARM_CLASSPATH_PROPERTY = "che.testing.warm.classpath";
+
+    public static final String STARTED  = "started";
+    public static final String FAILED   = "failed";
+    public static final String FINISHED = "finished";
+    /** Sent by the warm JVM when all the tests of a request are finished, it is an error if tests can't be run. */
+    public static final String RUN_FINISHED = "run_finished";
+
+    private final PrintStream out;
+
+    private ForkedTestEvents(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates events writer for the forked JVM, events are written to the standard output
+     * and everything which is printed by tests is redirected to the standard error stream.
+     */
+    public static ForkedTestEvents toStandardOutput() {
+        final PrintStream out = System.out;
+        System.setOut(System.err);
+        return new ForkedTestEvents(out);
+    }
+
+    /**
+     * Reads names of test classes from the standard input and runs them, the warm JVM
+     * does it repeatedly till the end of the input.
+     *
+     * @param runner
+     *         runs the test classes with the test framework
+     */
+    public void serve(TestClassesRunner runner) throws Exception {
+        final String warmClasspath = System.getProperty(WARM_CLASSPATH_PROPERTY);
+        if (warmClasspath == null) {
+            runner.run(loadClasses(readClassNames(System.in), ForkedTestEvents.class.getClassLoader()));
+            return;
+        }
+        final List<URL> urls = new ArrayList<>();
+        for (String entry : warmClasspath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                urls.add(Paths.get(entry).toUri().toURL());
+            }
+        }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, UTF_8));
+        final List<String> classNames = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                classNames.add(line.trim());
+                continue;
+            }
+            // project classes are loaded anew, so changes made since the previous request are picked up
+            Throwable failure = null;
+            try (URLClassLoader projectClasses = new URLClassLoader(urls.toArray(new URL[urls.size()]),
+                                                                    ForkedTestEvents.class.getClassLoader())) {
+                Thread.currentThread().setContextClassLoader(projectClasses);
+                runner.run(loadClasses(classNames, projectClasses));
+            } catch (Exception | LinkageError e) {
+                failure = e;
+            } finally {
+                Thread.currentThread().setContextClassLoader(ForkedTestEvents.class.getClassLoader());
+            }
+            classNames.clear();
+            if (failure == null) {
+                write(RUN_FINISHED, "", "", "");
+            } else {
+                write(RUN_FINISHED, "", "", "", "true", failure.toString(), toString(failure), "-1");
+            }
+        }
+    }
+
+    /** Reads names of test classes from the standard input of the forked JVM till its end. */
+    public static List<String> readClassNames(InputStream in) throws IOException {
+        final List<String> classNames = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                classNames.add(line.trim());
+            }
+        }
+        return classNames;
+    }
+
+    /** Returns index of the forked JVM among JVMs of the same test run. */
+    public static int getForkIndex() {
+        return Integer.getInteger(FORK_INDEX_PROPERTY, 0);
+    }
+
+    public void testStarted(String testKey, String className, String methodName) {
+        write(STARTED, testKey, className, methodName);
+    }
+
+    /**
+     * Sends failure of the test with its stack trace and number of line of the test method
+     * where it happened.
+     *
+     * @param error
+     *         {@code true} if test failed because of unexpected error rather than because of failed assertion
+     */
+    public void testFailed(String testKey, String className, String methodName, boolean error, Throwable throwable) {
+        int failingLine = -1;
+        for (StackTraceElement element : throwable.getStackTrace()) {
+            if (element.getClassName().equals(className) && element.getMethodName().equals(methodName)) {
+                failingLine = element.getLineNumber();
+                break;
+            }
+        }
+        write(FAILED,
+              testKey,
+              className,
+              methodName,
+              Boolean.toString(error),
+              throwable.getMessage(),
+              toString(throwable),
+              Integer.toString(failingLine));
+    }
+
+    public void testFinished(String testKey, String className, String methodName) {
+        write(FINISHED, testKey, className, methodName);
+    }
+
+    /** Parses line of the forked JVM output, returns {@code null} if the line is not an event. */
+    public static Event parse(String line) {
+        if (!line.startsWith(PREFIX)) {
+            return null;
+        }
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        for (int i = PREFIX.length(); i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                final char escaped = line.charAt(++i);
+                field.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (fields.size() < 4) {
+            return null;
+        }
+        final Event event = new Event(fields.get(0), fields.get(1), fields.get(2), fields.get(3));
+        if (fields.size() >= 8) {
+            event.error = Boolean.parseBoolean(fields.get(4));
+            event.message = fields.get(5);
+            event.trace = fields.get(6);
+            event.failingLine = Integer.parseInt(fields.get(7));
+        }
+        return event;
+    }
+
+    private void write(String... fields) {
+        final StringBuilder line = new StringBuilder(PREFIX);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            final String field = fields[i] == null ? "" : fields[i];
+            for (int j = 0; j < field.length(); j++) {
+                final char c = field.charAt(j);
+                switch (c) {
+                    case '\t':
+                        line.append("\\t");
+                        break;
+                    case '\n':
+                        line.append("\\n");
+                        break;
+                    case '\r':
+                        line.append("\\r");
+                        break;
+                    case '\\':
+                        line.append("\\\\");
+                        break;
+                    default:
+                        line.append(c);
+                }
+            }
+        }
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    private static String toString(Throwable throwable) {
+        final StringWriter trace = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(trace)) {
+            throwable.printStackTrace(writer);
+        }
+        return trace.toString();
+    }
+
+    private static List<Class<?>> loadClasses(List<String> classNames, ClassLoader loader) throws ClassNotFoundException {
+        final List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            classes.add(Class.forName(className, false, loader));
+        }
+        return classes;
+    }
+
+    /** Runs test classes with the test framework in the forked JVM. */
+    public interface TestClassesRunner {
+        /**
+         * @param testClasses
+         *         test classes to run, it is empty when the launcher runs tests which are defined some other way,
+         *         e.g. with a test suite file
+         */
+        void run(List<Class<?>> testClasses) throws Exception;
+    }
+
+    /** Event of the forked JVM. */
+    public static class Event {
+        private final String type;
+        private final String testKey;
+        private final String className;
+        private final String methodName;
+
+        private boolean error;
+        private String  message;
+        private String  trace;
+        private int     failingLine = -1;
+
+        Event(String type, String testKey, String className, String methodName) {
+            this.type = type;
+            this.testKey = testKey;
+            this.className = className;
+            this.methodName = methodName;
+        }
+
+        /** Returns one of {@link #STARTED}, {@link #FAILED}, {@link #FINISHED} or {@link #RUN_FINISHED}. */
+        public String getType() {
+            return type;
+        }
+
+        public String getTestKey() {
+            return testKey;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        /** Returns {@code true} if failed test is failed because of unexpected error or if tests of the run can't be run. */
+        public boolean isError() {
+            return error;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getTrace() {
+            return trace;
+        }
+
+        /** Returns number of line of the test method where failure happened or -1 if it is unknown. */
+        public int getFailingLine() {
+            return failingLine;
+        }
+    }
+}
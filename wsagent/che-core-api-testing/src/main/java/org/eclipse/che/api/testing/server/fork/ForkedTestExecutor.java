@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.testing.server.listener.AbstractTestListener;
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Runs tests in forked JVMs, so neither classes of the project nor classes of the test framework
+ * are loaded into the workspace agent JVM.
+ *
+ * <p>Test classes are distributed between up to {@code che.testing.fork_count} JVMs which run
+ * at the same time. The forked JVM runs the launcher class of the test framework which reports
+ * progress of the tests with {@link ForkedTestEvents}, the events are passed to the test listener
+ * as they come, so results are streamed to the client while the tests are still running.
+ *
+ * <p>When {@code che.testing.warm_jvm.enabled} is set a single JVM per project is kept running
+ * between test runs, see {@link WarmTestJvm}. It is restarted when the classpath of the project
+ * libraries changes.
+ */
+@Singleton
+public class ForkedTestExecutor {
+    private static final Logger LOG = getLogger(ForkedTestExecutor.class);
+
+    private final int                    forkCount;
+    private final boolean                warmJvmEnabled;
+    private final ThreadFactory          threadFactory;
+    private final Map<Path, WarmTestJvm> warmJvms;
+
+    /**
+     * @param forkCount
+     *         max number of JVMs which run test classes of a single test run at the same time
+     * @param warmJvmEnabled
+     *         whether tests of a project are run by the JVM which is kept running between test runs,
+     *         the fork count is ignored in this case
+     */
+    @Inject
+    public ForkedTestExecutor(@Named("che.testing.fork_count") int forkCount,
+                              @Named("che.testing.warm_jvm.enabled") boolean warmJvmEnabled) {
+        this.forkCount = Math.max(1, forkCount);
+        this.warmJvmEnabled = warmJvmEnabled;
+        this.threadFactory = new ThreadFactoryBuilder().setNameFormat("TestFork-%d")
+                                                       .setDaemon(true)
+                                                       .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                                       .build();
+        this.warmJvms = new HashMap<>();
+    }
+
+    /**
+     * Runs the test classes and returns result of all the tests.
+     *
+     * @param testFramework
+     *         name of the test framework which is reported in the result
+     * @param launcher
+     *         class with the main method which runs test classes read from the standard input and reports
+     *         progress with {@link ForkedTestEvents}, it must depend only on JDK, the test framework
+     *         and {@link ForkedTestEvents}
+     * @param launcherArguments
+     *         arguments of the main method of the launcher
+     * @param testClasses
+     *         names of test classes which are distributed between forked JVMs, if it is empty
+     *         the launcher is run once without any classes, e.g. to run a test suite file
+     * @param classpath
+     *         classpath of the tests
+     * @param workingDirectory
+     *         working directory of the forked JVMs, usually the project directory
+     * @param listener
+     *         receives progress of the tests
+     * @throws Exception
+     *         if forked JVM can't be started or it exits abnormally
+     */
+    public TestResult execute(String testFramework,
+                              Class<?> launcher,
+                              List<String> launcherArguments,
+                              List<String> testClasses,
+                              List<URL> classpath,
+                              Path workingDirectory,
+                              AbstractTestListener listener) throws Exception {
+        if (warmJvmEnabled) {
+            return executeWarm(testFramework, launcher, launcherArguments, testClasses, classpath, workingDirectory, listener);
+        }
+        final List<List<String>> forks = new ArrayList<>();
+        final int forksNumber = Math.max(1, Math.min(forkCount, testClasses.size()));
+        for (int i = 0; i < forksNumber; i++) {
+            forks.add(new ArrayList<>());
+        }
+        for (int i = 0; i < testClasses.size(); i++) {
+            forks.get(i % forksNumber).add(testClasses.get(i));
+        }
+
+        final List<String> forkClasspath = toPaths(classpath);
+
+        final TestRun run = new TestRun(listener);
+        final List<Process> processes = new CopyOnWriteArrayList<>();
+        final ExecutorService executor = Executors.newCachedThreadPool(threadFactory);
+        try {
+            final List<Future<?>> results = new ArrayList<>(forks.size());
+            for (int i = 0; i < forks.size(); i++) {
+                final List<String> forkClasses = forks.get(i);
+                final List<String> command = javaCommand(launcher,
+                                                         launcherArguments,
+                                                         forkClasspath,
+                                                         ForkedTestEvents.FORK_INDEX_PROPERTY + '=' + i);
+                results.add(executor.submit(() -> {
+                    final Process process = new ProcessBuilder(command).directory(workingDirectory.toFile()).start();
+                    processes.add(process);
+                    runFork(process, forkClasses, run, executor);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception)cause : e;
+        } finally {
+            processes.stream().filter(Process::isAlive).forEach(Process::destroyForcibly);
+            executor.shutdownNow();
+        }
+        return run.getResult(testFramework);
+    }
+
+    /** Stops the warm JVMs. */
+    @PreDestroy
+    public void stop() {
+        synchronized (warmJvms) {
+            warmJvms.values().forEach(WarmTestJvm::destroy);
+            warmJvms.clear();
+        }
+    }
+
+    private TestResult executeWarm(String testFramework,
+                                   Class<?> launcher,
+                                   List<String> launcherArguments,
+                                   List<String> testClasses,
+                                   List<URL> classpath,
+                                   Path workingDirectory,
+                                   AbstractTestListener listener) throws Exception {
+        // output directories of the project are reloaded for each run, everything else stays loaded
+        final List<String> libraries = new ArrayList<>();
+        final List<String> projectClasses = new ArrayList<>();
+        for (String entry : toPaths(classpath)) {
+            final Path path = Paths.get(entry);
+            if (path.startsWith(workingDirectory) && Files.isDirectory(path)) {
+                projectClasses.add(entry);
+            } else {
+                libraries.add(entry);
+            }
+        }
+        final List<String> command = javaCommand(launcher,
+                                                 launcherArguments,
+                                                 libraries,
+                                                 ForkedTestEvents.WARM_CLASSPATH_PROPERTY + '='
+                                                 + String.join(File.pathSeparator, projectClasses));
+        final WarmTestJvm jvm;
+        synchronized (warmJvms) {
+            final WarmTestJvm existing = warmJvms.get(workingDirectory);
+            if (existing != null && existing.isAlive() && existing.getCommand().equals(command)) {
+                jvm = existing;
+            } else {
+                if (existing != null) {
+                    existing.destroy();
+                }
+                jvm = new WarmTestJvm(command, workingDirectory, threadFactory);
+                warmJvms.put(workingDirectory, jvm);
+            }
+        }
+
+        final TestRun run = new TestRun(listener);
+        try {
+            jvm.run(testClasses, run::handle);
+        } catch (Exception e) {
+            synchronized (warmJvms) {
+                warmJvms.remove(workingDirectory, jvm);
+            }
+            jvm.destroy();
+            throw e;
+        }
+        return run.getResult(testFramework);
+    }
+
+    private void runFork(Process process, List<String> testClasses, TestRun run, ExecutorService executor) throws Exception {
+        final ErrorStreamTail errorTail = new ErrorStreamTail(process.getErrorStream());
+        executor.execute(errorTail);
+        try (Writer in = new OutputStreamWriter(process.getOutputStream(), UTF_8)) {
+            for (String testClass : testClasses) {
+                in.write(testClass);
+                in.write('\n');
+            }
+        }
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                final ForkedTestEvents.Event event = ForkedTestEvents.parse(line);
+                if (event != null) {
+                    run.handle(event);
+                }
+            }
+        }
+        final int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("Test JVM exited with code " + exitCode + ": " + errorTail);
+        }
+    }
+
+    /**
+     * Returns command which runs the launcher with the given classpath and system properties,
+     * locations of the launcher and of the events protocol are added to the classpath.
+     */
+    private static List<String> javaCommand(Class<?> launcher,
+                                            List<String> launcherArguments,
+                                            List<String> classpath,
+                                            String... systemProperties) throws URISyntaxException {
+        final List<String> entries = new ArrayList<>(classpath);
+        entries.add(Paths.get(launcher.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        entries.add(Paths.get(ForkedTestEvents.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String property : systemProperties) {
+            command.add("-D" + property);
+        }
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, entries));
+        command.add(launcher.getName());
+        command.addAll(launcherArguments);
+        return command;
+    }
+
+    private static List<String> toPaths(List<URL> classpath) throws URISyntaxException {
+        final List<String> paths = new ArrayList<>(classpath.size());
+        for (URL url : classpath) {
+            paths.add(Paths.get(url.toURI()).toString());
+        }
+        return paths;
+    }
+
+    /** Collects results of the tests of all the forks and passes their progress to the listener. */
+    private static class TestRun {
+        private final AbstractTestListener  listener;
+        private final Map<String, TestCase> testCases;
+
+        TestRun(AbstractTestListener listener) {
+            this.listener = listener;
+            this.testCases = new LinkedHashMap<>();
+        }
+
+        synchronized void handle(ForkedTestEvents.Event event) {
+            final String testKey = event.getTestKey();
+            switch (event.getType()) {
+                case ForkedTestEvents.STARTED:
+                    listener.startTest(testKey, testKey);
+                    testCases.putIfAbsent(testKey, newTestCase(event, false));
+                    break;
+                case ForkedTestEvents.FAILED:
+                    final RemoteTestFailure failure = new RemoteTestFailure(event.getMessage(), event.getTrace());
+                    if (event.isError()) {
+                        listener.addError(testKey, failure);
+                    } else {
+                        listener.addFailure(testKey, failure);
+                    }
+                    testCases.put(testKey, newTestCase(event, true));
+                    break;
+                case ForkedTestEvents.FINISHED:
+                    listener.endTest(testKey, testKey);
+                    break;
+                default:
+                    LOG.debug("Unknown test event {}", event.getType());
+            }
+        }
+
+        synchronized TestResult getResult(String testFramework) {
+            final List<TestCase> cases = new ArrayList<>(testCases.values());
+            final int failureCount = (int)cases.stream().filter(testCase -> Boolean.TRUE.equals(testCase.isFailed())).count();
+            final TestResult result = newDto(TestResult.class);
+            result.setTestFramework(testFramework);
+            result.setSuccess(failureCount == 0);
+            result.setFailureCount(failureCount);
+            result.setTestCaseCount(cases.size());
+            result.setTestCases(cases);
+            return result;
+        }
+
+        private static TestCase newTestCase(ForkedTestEvents.Event event, boolean failed) {
+            final TestCase testCase = newDto(TestCase.class);
+            testCase.setClassName(event.getClassName());
+            testCase.setMethod(event.getMethodName());
+            testCase.setFailed(failed);
+            testCase.setFailingLine(failed ? event.getFailingLine() : -1);
+            testCase.setMessage(failed ? event.getMessage() : "");
+            testCase.setTrace(failed ? event.getTrace() : "");
+            return testCase;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * Failure of a test which was run in the forked JVM, prints the stack trace
+ * received from the forked JVM as its own.
+ */
+class RemoteTestFailure extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    private final String trace;
+
+    RemoteTestFailure(String message, String trace) {
+        super(message, null, false, false);
+        this.trace = trace;
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+        s.print(trace);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+        s.print(trace);
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * JVM which is kept running between test runs of a project, so classes of the libraries and
+ * of the test framework are loaded and compiled by JIT only once. Classes of the project are
+ * loaded anew for each run, see {@link ForkedTestEvents#WARM_CLASSPATH_PROPERTY}.
+ *
+ * <p>Test runs are executed one by one.
+ */
+class WarmTestJvm {
+    private final List<String>    command;
+    private final Process         process;
+    private final Writer          in;
+    private final BufferedReader  out;
+    private final ErrorStreamTail errorTail;
+
+    WarmTestJvm(List<String> command, Path workingDirectory, ThreadFactory threadFactory) throws IOException {
+        this.command = command;
+        this.process = new ProcessBuilder(command).directory(workingDirectory.toFile()).start();
+        this.in = new OutputStreamWriter(process.getOutputStream(), UTF_8);
+        this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8));
+        this.errorTail = new ErrorStreamTail(process.getErrorStream());
+        threadFactory.newThread(errorTail).start();
+    }
+
+    /** Returns command which started the JVM. */
+    List<String> getCommand() {
+        return command;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Runs the test classes and passes events of the tests to the handler, returns when all the tests are finished.
+     *
+     * @throws IOException
+     *         if the tests can't be run or the JVM exits, the JVM should be destroyed in this case
+     */
+    synchronized void run(List<String> testClasses, Consumer<ForkedTestEvents.Event> handler) throws IOException {
+        for (String testClass : testClasses) {
+            in.write(testClass);
+            in.write('\n');
+        }
+        in.write('\n');
+        in.flush();
+
+        String line;
+        while ((line = out.readLine()) != null) {
+            final ForkedTestEvents.Event event = ForkedTestEvents.parse(line);
+            if (event == null) {
+                continue;
+            }
+            if (ForkedTestEvents.RUN_FINISHED.equals(event.getType())) {
+                if (event.isError()) {
+                    throw new IOException("Tests can't be run: " + event.getTrace());
+                }
+                return;
+            }
+            handler.accept(event);
+        }
+        throw new IOException("Test JVM exited unexpectedly: " + errorTail);
+    }
+
+    void destroy() {
+        process.destroyForcibly();
+    }
+}
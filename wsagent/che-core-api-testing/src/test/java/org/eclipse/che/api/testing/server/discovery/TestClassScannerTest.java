@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.discovery;
+
+import org.eclipse.che.api.testing.server.TestingServiceTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link TestClassScanner} with the compiled test classes of this module.
+ */
+public class TestClassScannerTest {
+    private static final String TESTNG_TEST_ANNOTATION = "org.testng.annotations.Test";
+
+    private Path             testClasses;
+    private Path             fixtures;
+    private TestClassScanner scanner;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        testClasses = Paths.get(TestClassScannerTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        scanner = new TestClassScanner(testClasses, getClass().getClassLoader());
+        fixtures = Files.createTempDirectory("scanner-fixtures");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        deleteRecursive(fixtures.toFile());
+    }
+
+    @Test
+    public void shouldFindClassesWithAnnotatedMethods() throws Exception {
+        final List<String> found = scanner.findTestClasses(info -> scanner.hasMethodAnnotation(info, TESTNG_TEST_ANNOTATION));
+
+        assertTrue(found.contains(TestClassScannerTest.class.getName()));
+        assertTrue(found.contains(TestingServiceTest.class.getName()));
+    }
+
+    @Test
+    public void shouldFindClassesByClassAnnotation() throws Exception {
+        final List<String> found = scanner.findTestClasses(info -> info.hasAnnotation("org.testng.annotations.Listeners"));
+
+        assertTrue(found.contains(TestingServiceTest.class.getName()));
+        assertFalse(found.contains(TestClassScannerTest.class.getName()));
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenDirectoryDoesNotExist() throws Exception {
+        final TestClassScanner missing = new TestClassScanner(testClasses.resolve("missing"), getClass().getClassLoader());
+
+        assertTrue(missing.findTestClasses(info -> true).isEmpty());
+    }
+
+    @Test
+    public void shouldReadSuperclassesWithoutLoadingThem() throws Exception {
+        final Path dependencies = compile(fixtures.resolve("dependencies"),
+                                          null,
+                                          "fixture.Check",
+                                          "package fixture;\n"
+                                          + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                                          + "public @interface Check {}",
+                                          "fixture.BaseFixture",
+                                          "package fixture;\n"
+                                          + "public abstract class BaseFixture {\n"
+                                          + "    @Check public void inherited() {}\n"
+                                          + "}");
+        final Path tests = compile(fixtures.resolve("tests"),
+                                   dependencies,
+                                   "fixture.InheritingFixture",
+                                   "package fixture;\n"
+                                   + "public class InheritingFixture extends BaseFixture {}");
+        try (RecordingClassLoader resources = new RecordingClassLoader(dependencies)) {
+            final TestClassScanner fixtureScanner = new TestClassScanner(tests, resources);
+
+            final List<String> found = fixtureScanner.findTestClasses(info -> fixtureScanner.hasMethodAnnotation(info, "fixture.Check")
+                                                                              && fixtureScanner.isSubclassOf(info, "fixture.BaseFixture"));
+
+            assertEquals(found, singletonList("fixture.InheritingFixture"));
+            assertTrue(resources.loadedClasses.isEmpty(), "Loaded classes: " + resources.loadedClasses);
+        }
+    }
+
+    /**
+     * Compiles sources, given as pairs of class name and source code, into the directory
+     * and returns the directory.
+     */
+    private static Path compile(Path output, Path classpath, String... sources) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Tests must be run with JDK");
+        final Path sourcesDirectory = Files.createDirectories(output.resolveSibling(output.getFileName() + "-sources"));
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(Files.createDirectories(output).toString());
+        if (classpath != null) {
+            arguments.add("-cp");
+            arguments.add(classpath.toString());
+        }
+        for (int i = 0; i < sources.length; i += 2) {
+            final Path source = sourcesDirectory.resolve(sources[i].replace('.', '/') + ".java");
+            Files.createDirectories(source.getParent());
+            Files.write(source, sources[i + 1].getBytes(UTF_8));
+            arguments.add(source.toString());
+        }
+        assertEquals(compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])), 0);
+        return output;
+    }
+
+    /** Records names of the classes which are loaded with it. */
+    private static class RecordingClassLoader extends URLClassLoader {
+        final List<String> loadedClasses = new ArrayList<>();
+
+        RecordingClassLoader(Path classes) throws Exception {
+            super(new URL[] {classes.toUri().toURL()}, null);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (loadedClasses) {
+                loadedClasses.add(name);
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Launcher used by {@link ForkedTestExecutorTest} instead of a real test framework.
+ *
+ * <p>Each test class is reported as a single test whose method name holds the fork index and
+ * the name of the JVM which runs it, classes with names starting with {@code Failing} fail.
+ * The {@code exit=<code>} argument makes the JVM exit with the code without running anything.
+ */
+public class EchoTestLauncher {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("exit=")) {
+            System.exit(Integer.parseInt(args[0].substring("exit=".length())));
+        }
+        ForkedTestEvents events = ForkedTestEvents.toStandardOutput();
+        events.serve(testClasses -> {
+            for (Class<?> testClass : testClasses) {
+                String className = testClass.getName();
+                String methodName = "fork" + ForkedTestEvents.getForkIndex() + '@' + ManagementFactory.getRuntimeMXBean().getName();
+                String testKey = testClass.getSimpleName();
+                events.testStarted(testKey, className, methodName);
+                if (testClass.getSimpleName().startsWith("Failing")) {
+                    events.testFailed(testKey, className, methodName, false, new AssertionError("expected failure"));
+                }
+                events.testFinished(testKey, className, methodName);
+            }
+        });
+        System.exit(0);
+    }
+}
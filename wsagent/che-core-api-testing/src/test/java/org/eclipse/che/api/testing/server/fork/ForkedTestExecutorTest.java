@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.fork;
+
+import org.eclipse.che.api.testing.server.listener.AbstractTestListener;
+import org.eclipse.che.api.testing.shared.TestCase;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toSet;
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests {@link ForkedTestExecutor} with {@link EchoTestLauncher} run in real forked JVMs.
+ */
+public class ForkedTestExecutorTest {
+    private Path                 workingDirectory;
+    private AbstractTestListener listener;
+    private ForkedTestExecutor   executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        workingDirectory = Files.createTempDirectory("forked-tests");
+        listener = mock(AbstractTestListener.class);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (executor != null) {
+            executor.stop();
+        }
+        deleteRecursive(workingDirectory.toFile());
+    }
+
+    @Test
+    public void shouldDistributeTestClassesBetweenForks() throws Exception {
+        executor = new ForkedTestExecutor(2, false);
+
+        final TestResult result = execute(asList(PassingFixture.class.getName(),
+                                                 FailingFixture.class.getName(),
+                                                 AnotherPassingFixture.class.getName()));
+
+        assertEquals(result.getTestFramework(), "echo");
+        assertEquals(result.getTestCaseCount(), 3);
+        assertEquals(result.getFailureCount(), 1);
+        assertFalse(result.isSuccess());
+        final Set<String> forks = result.getTestCases()
+                                        .stream()
+                                        .map(testCase -> testCase.getMethod().substring(0, testCase.getMethod().indexOf('@')))
+                                        .collect(toSet());
+        assertEquals(forks, new HashSet<>(asList("fork0", "fork1")));
+        final TestCase failed = result.getTestCases().stream().filter(TestCase::isFailed).findFirst().get();
+        assertEquals(failed.getClassName(), FailingFixture.class.getName());
+        assertEquals(failed.getMessage(), "expected failure");
+        verify(listener, times(3)).startTest(anyString(), anyString());
+        verify(listener, times(3)).endTest(anyString(), anyString());
+        verify(listener).addFailure(eq(FailingFixture.class.getSimpleName()), any(Throwable.class));
+    }
+
+    @Test
+    public void shouldRunLauncherOnceWhenThereAreNoTestClasses() throws Exception {
+        executor = new ForkedTestExecutor(4, false);
+
+        final TestResult result = execute(emptyList());
+
+        assertTrue(result.isSuccess());
+        assertEquals(result.getTestCaseCount(), 0);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Test JVM exited with code 3.*")
+    public void shouldFailWhenForkExitsAbnormally() throws Exception {
+        executor = new ForkedTestExecutor(1, false);
+
+        executor.execute("echo",
+                         EchoTestLauncher.class,
+                         singletonList("exit=3"),
+                         singletonList(PassingFixture.class.getName()),
+                         emptyList(),
+                         workingDirectory,
+                         listener);
+    }
+
+    @Test
+    public void shouldRunTestsInTheSameWarmJvmTillItIsStopped() throws Exception {
+        executor = new ForkedTestExecutor(1, true);
+
+        final String first = execute(singletonList(PassingFixture.class.getName())).getTestCases().get(0).getMethod();
+        final String second = execute(singletonList(PassingFixture.class.getName())).getTestCases().get(0).getMethod();
+        executor.stop();
+        final String third = execute(singletonList(PassingFixture.class.getName())).getTestCases().get(0).getMethod();
+
+        assertEquals(second, first);
+        assertNotEquals(third, first);
+    }
+
+    @Test
+    public void shouldReportFailuresOfWarmJvm() throws Exception {
+        executor = new ForkedTestExecutor(1, true);
+
+        final TestResult result = execute(asList(PassingFixture.class.getName(), FailingFixture.class.getName()));
+
+        assertEquals(result.getTestCaseCount(), 2);
+        assertEquals(result.getFailureCount(), 1);
+        verify(listener).addFailure(eq(FailingFixture.class.getSimpleName()), any(Throwable.class));
+    }
+
+    private TestResult execute(List<String> testClasses) throws Exception {
+        return executor.execute("echo", EchoTestLauncher.class, emptyList(), testClasses, emptyList(), workingDirectory, listener);
+    }
+
+    public static class PassingFixture {}
+
+    public static class AnotherPassingFixture {}
+
+    public static class FailingFixture {}
+}